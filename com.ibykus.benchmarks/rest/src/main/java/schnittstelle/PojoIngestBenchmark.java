@@ -0,0 +1,90 @@
+package schnittstelle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import helper.ResteasyServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoStore;
+
+/**
+ * JMH throughput benchmark of one {@link PojoIngestClient} connection to the {@link PojoIngestEndpoint} hosted in process by {@link
+ * ResteasyServerFacade} (Undertow). Measured per update, so the numbers compare with {@link RestEndpointBenchmark#update()}.
+ * <pre>
+ *   mvn -pl com.ibykus.benchmarks/rest -am package
+ *   java -jar com.ibykus.benchmarks/rest/target/benchmarks-rest.jar PojoIngestBenchmark
+ * </pre>
+ * Each invocation sends {@value #UPDATES} updates of {@code pojos} ids and waits for all acks, so the result is stored - not only sent - updates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PojoIngestBenchmark {
+    private static final int RANDOM_PORT = 0;
+    private static final int UPDATES = 100_000;
+
+    @Param({"1000", "100000"})
+    public int pojos;
+
+    @Param({"1024", "4096", "16384"})
+    public int batchSize;
+
+    private final PojoStore store = new ConcurrentPojoStore();
+    private ResteasyServerFacade resteasyFacade;
+    private PojoIngestClient ingest;
+    private String[] ids;
+    private int value;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.ids = new String[pojos];
+        for (int i = 0; i < pojos; i++) {
+            ids[i] = new Pojo(i).generateAndSetId();
+        }
+
+        this.resteasyFacade = ResteasyServerFacade.builder()
+                .port(RANDOM_PORT)
+                .configureApplication(new RestApplication())
+                .configureProvider(new ObjectMapperJsonProvider())
+                .configureResources(new RestEndpoint(store))
+                .configureServlet("/pojo/ingest", new PojoIngestServlet(new PojoIngestEndpoint(store)))
+                .build();
+        this.resteasyFacade.startServer();
+        this.ingest = resteasyFacade.client().ingestClient("/rest/pojo/ingest", batchSize, PojoIngestClient.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        ingest.close();
+        resteasyFacade.teardownServer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UPDATES)
+    public long ingest() throws IOException, TimeoutException {
+        for (int i = 0; i < UPDATES; i++) {
+            ingest.send(ids[i % ids.length], value++);
+        }
+        ingest.awaitAcks(1, TimeUnit.MINUTES);
+        return ingest.getApplied();
+    }
+}
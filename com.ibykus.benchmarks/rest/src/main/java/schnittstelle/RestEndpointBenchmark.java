@@ -0,0 +1,151 @@
+package schnittstelle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MediaType;
+
+import helper.ResteasyServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoStore;
+
+/**
+ * JMH round trip benchmark of {@link RestEndpoint} hosted in process by {@link ResteasyServerFacade} (Undertow) and called by {@link RestClient}.
+ * <pre>
+ *   mvn -pl com.ibykus.benchmarks/rest -am package
+ *   java -jar com.ibykus.benchmarks/rest/target/benchmarks-rest.jar RestEndpointBenchmark
+ * </pre>
+ * The store is filled with {@code pojos} entries before each trial. So {@code readAll} transfers {@code pojos} entries per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestEndpointBenchmark {
+    private static final int RANDOM_PORT = 0;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public String mediaType;
+
+    @Param({"1", "1000", "100000"})
+    public int pojos;
+
+    private final PojoStore store = new ConcurrentPojoStore();
+    private ResteasyServerFacade resteasyFacade;
+    private MediaType contentType;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.contentType = MediaType.valueOf(mediaType);
+        this.ids = new String[pojos];
+        for (int i = 0; i < pojos; i++) {
+            final Pojo pojo = new Pojo(i);
+            ids[i] = pojo.generateAndSetId();
+            store.put(pojo.toEntry());
+        }
+
+        this.resteasyFacade = ResteasyServerFacade.builder()
+                .port(RANDOM_PORT)
+                .configureApplication(new RestApplication())
+                .configureProvider(new ObjectMapperJsonProvider())
+                .configureProvider(new ObjectMapperXmlProvider())
+                .configureResources(new RestEndpoint(store))
+                .build();
+        this.resteasyFacade.startServer();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        resteasyFacade.teardownServer();
+    }
+
+    @Benchmark
+    public Pojo create() {
+        final Pojo created = resteasyFacade.request("/rest/pojo")
+                .data(new Pojo(ThreadLocalRandom.current().nextInt()), contentType)
+                .headerAccept(contentType)
+                .httpPost(Pojo.class);
+        // keep the store size stable
+        store.remove(created.getId());
+        return created;
+    }
+
+    /**
+     * Create {@value #BATCH_SIZE} pojos with one {@code POST /pojo/batch}. Measured per pojo, so the numbers compare with {@link #create()}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public PojoBatchResult createBatch() {
+        final List<Pojo> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new Pojo(ThreadLocalRandom.current().nextInt()));
+        }
+        final PojoBatchResult created = resteasyFacade.request("/rest/pojo/batch")
+                .data(new PojoList(batch), contentType)
+                .headerAccept(contentType)
+                .httpPost(PojoBatchResult.class);
+        // keep the store size stable
+        created.getItems().forEach(item -> store.remove(item.getPojo().getId()));
+        return created;
+    }
+
+    @Benchmark
+    public Pojo read() {
+        return resteasyFacade.request("/rest/pojo/" + randomId())
+                .headerAccept(contentType)
+                .httpGet(Pojo.class);
+    }
+
+    @Benchmark
+    public Pojo update() {
+        final String id = randomId();
+        return resteasyFacade.request("/rest/pojo/" + id)
+                .data(new Pojo(id, ThreadLocalRandom.current().nextInt()), contentType)
+                .headerAccept(contentType)
+                .httpPost(Pojo.class);
+    }
+
+    @Benchmark
+    public Pojo delete() {
+        final Pojo deleted = resteasyFacade.request("/rest/pojo/" + randomId())
+                .headerAccept(contentType)
+                .httpDelete(Pojo.class);
+        // keep the store size stable
+        if (deleted != null) {
+            store.put(deleted.toEntry());
+        }
+        return deleted;
+    }
+
+    @Benchmark
+    public PojoList readAll() {
+        return resteasyFacade.request("/rest/pojo")
+                .headerAccept(contentType)
+                .httpGet(PojoList.class);
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
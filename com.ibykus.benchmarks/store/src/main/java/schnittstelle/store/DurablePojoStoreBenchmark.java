@@ -0,0 +1,83 @@
+package schnittstelle.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmark of the write latency of {@link DurablePojoStore} against the in memory {@link ConcurrentPojoStore}.
+ * <pre>
+ *   mvn -pl com.ibykus.benchmarks/store -am package
+ *   java -jar com.ibykus.benchmarks/store/target/benchmarks-store.jar DurablePojoStoreBenchmark
+ * </pre>
+ * {@code fsyncBatchSize=1} forces every write to disk, the default group commit forces every 1024 writes or 10ms. The log is written to a temp
+ * directory, set {@code -Djava.io.tmpdir} to measure another disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class DurablePojoStoreBenchmark {
+    private static final int IDS = 100_000;
+
+    @Param({"1", "1024"})
+    public int fsyncBatchSize;
+
+    private final ConcurrentPojoStore concurrentStore = new ConcurrentPojoStore();
+    private Path directory;
+    private DurablePojoStore durableStore;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("pojo-log");
+        durableStore = DurablePojoStore.builder(directory)
+                .fsyncBatchSize(fsyncBatchSize)
+                .fsyncInterval(DurablePojoStore.Builder.DEFAULT_FSYNC_INTERVAL)
+                .open();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        durableStore.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public PojoEntry putConcurrent() {
+        return concurrentStore.put(randomEntry());
+    }
+
+    @Benchmark
+    public PojoEntry putDurable() {
+        return durableStore.put(randomEntry());
+    }
+
+    private static PojoEntry randomEntry() {
+        final int i = ThreadLocalRandom.current().nextInt(IDS);
+        return new PojoEntry("id" + i, i);
+    }
+}
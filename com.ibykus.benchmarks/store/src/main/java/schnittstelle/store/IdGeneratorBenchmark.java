@@ -0,0 +1,49 @@
+package schnittstelle.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link RandomIdGenerator} against the former {@code Pojo.generateAndSetId()} (new {@link SecureRandom} + boxed stream per id).
+ * <pre>
+ *   mvn -pl com.ibykus.benchmarks/store -am package
+ *   java -jar com.ibykus.benchmarks/store/target/benchmarks-store.jar IdGeneratorBenchmark -prof gc
+ * </pre>
+ * Runs with 8 threads to show the contention of the shared entropy source, change it with {@code -t}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IdGeneratorBenchmark {
+    private final IdGenerator randomIdGenerator = new RandomIdGenerator();
+
+    @Benchmark
+    public String secureRandomPerCall() {
+        return new SecureRandom().ints(48, 122)
+                .filter(i -> (i < 57 || i > 65) && (i < 90 || i > 97))
+                .mapToObj(i -> (char) i)
+                .limit(10)
+                .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append)
+                .toString();
+    }
+
+    @Benchmark
+    public String randomIdGenerator() {
+        return randomIdGenerator.nextId();
+    }
+}
@@ -0,0 +1,89 @@
+package schnittstelle.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the lookup by generated id: {@link PojoIdCodec} + {@link LongIntHashMap} (the compact index of {@link OffHeapPojoStore}) against a
+ * {@link ConcurrentHashMap} with string keys.
+ * <pre>
+ *   mvn -pl com.ibykus.benchmarks/store -am package
+ *   java -jar com.ibykus.benchmarks/store/target/benchmarks-store.jar IdIndexBenchmark -prof gc
+ * </pre>
+ * Every lookup parses its id from bytes like a request does (see {@link #idFromRequest()}), a reused id would have a cached hash and compare by identity
+ * in the {@link ConcurrentHashMap}. {@code gc.alloc.rate.norm} minus the one of {@code idFromRequest} are the bytes allocated by the lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class IdIndexBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    private byte[][] requestIds;
+    private Map<String, PojoEntry> concurrentHashMap;
+    private LongIntHashMap compactIndex;
+    private OffHeapPojoStore offHeapStore;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final IdGenerator idGenerator = new RandomIdGenerator();
+        requestIds = new byte[size][];
+        concurrentHashMap = new ConcurrentHashMap<>(size);
+        compactIndex = new LongIntHashMap(size);
+        offHeapStore = new OffHeapPojoStore(size);
+        for (int i = 0; i < size; i++) {
+            final String id = idGenerator.nextId();
+            requestIds[i] = id.getBytes(StandardCharsets.US_ASCII);
+            final PojoEntry entry = new PojoEntry(id, i);
+            concurrentHashMap.put(id, entry);
+            compactIndex.put(PojoIdCodec.encode(id), i);
+            offHeapStore.put(entry);
+        }
+    }
+
+    @Benchmark
+    public String idFromRequest() {
+        return randomId();
+    }
+
+    @Benchmark
+    public PojoEntry concurrentHashMapGet() {
+        return concurrentHashMap.get(randomId());
+    }
+
+    @Benchmark
+    public int compactIndexGet() {
+        return compactIndex.get(PojoIdCodec.encode(randomId()));
+    }
+
+    @Benchmark
+    public PojoEntry offHeapStoreGet() {
+        return offHeapStore.get(randomId());
+    }
+
+    private String randomId() {
+        return new String(requestIds[ThreadLocalRandom.current().nextInt(requestIds.length)], StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,140 @@
+package schnittstelle;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import helper.CxfServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoStore;
+
+/**
+ * JMH round trip benchmark of {@link WebserviceEndpointImpl} hosted in process by {@link CxfServerFacade} and called by a {@link WebserviceClient} proxy
+ * (SOAP).
+ * <pre>
+ *   mvn -pl com.ibykus.benchmarks/webservice -am package
+ *   java -jar com.ibykus.benchmarks/webservice/target/benchmarks-webservice.jar WebserviceEndpointBenchmark
+ * </pre>
+ * The store is filled with {@code pojos} entries before each trial. So {@code readAll} transfers {@code pojos} entries per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebserviceEndpointBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1", "1000", "100000"})
+    public int pojos;
+
+    private final PojoStore store = new ConcurrentPojoStore();
+    private CxfServerFacade cxfFacade;
+    private WebserviceEndpoint proxy;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.ids = new String[pojos];
+        for (int i = 0; i < pojos; i++) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(i);
+            ids[i] = pojo.generateAndSetId();
+            store.put(pojo.toEntry());
+        }
+
+        this.cxfFacade = CxfServerFacade.builder()
+                .wsInstance(new WebserviceEndpointImpl(store))
+                .wsInterface(WebserviceEndpoint.class)
+                .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+                .localhostWithRandomPort()
+                .build();
+        this.cxfFacade.startServer();
+
+        this.proxy = WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        cxfFacade.teardownServer();
+    }
+
+    @Benchmark
+    public Pojo create() {
+        final Pojo created = proxy.create();
+        // keep the store size stable
+        store.remove(created.getId());
+        return created;
+    }
+
+    /**
+     * Create {@value #BATCH_SIZE} pojos with one {@code updateBatch()}. Measured per pojo, so the numbers compare with {@link #create()}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public PojoBatchResult createBatch() {
+        final List<Pojo> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(ThreadLocalRandom.current().nextInt());
+            batch.add(pojo);
+        }
+        final PojoBatchResult created = proxy.updateBatch(new PojoList(batch));
+        // keep the store size stable
+        created.getItems().forEach(item -> store.remove(item.getPojo().getId()));
+        return created;
+    }
+
+    @Benchmark
+    public Pojo read() {
+        return proxy.read(randomId());
+    }
+
+    @Benchmark
+    public Pojo update() {
+        final Pojo pojo = new Pojo();
+        pojo.setId(randomId());
+        pojo.setValue(ThreadLocalRandom.current().nextInt());
+        return proxy.update(pojo);
+    }
+
+    @Benchmark
+    public Pojo delete() {
+        final Pojo deleted = proxy.delete(randomId());
+        // keep the store size stable
+        if (deleted != null) {
+            store.put(deleted.toEntry());
+        }
+        return deleted;
+    }
+
+    @Benchmark
+    public PojoList readAll() {
+        return proxy.readAll();
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
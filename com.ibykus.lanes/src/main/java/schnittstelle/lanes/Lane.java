@@ -0,0 +1,57 @@
+package schnittstelle.lanes;
+
+/**
+ * Scheduling lane of a request to an endpoint, each lane has its own bounded concurrency and queue (see {@link Lanes}). So a bulk export or import
+ * never takes the threads of the point reads.
+ * <pre>
+ *   POINT_READ - read of one pojo, stats
+ *   WRITE      - create, update, delete, add or compare and set of one pojo
+ *   BULK       - list, page, value range, batch reads and writes
+ * </pre>
+ * Each endpoint maps its requests to the lanes. Configured per lane by system properties
+ * {@code schnittstelle.lanes.<key>.concurrency|queueCapacity|timeoutMillis}, e.g. {@code -Dschnittstelle.lanes.bulk.concurrency=4}.
+ */
+public enum Lane {
+    POINT_READ("pointRead", 64, 256, 1000),
+    WRITE("write", 16, 64, 5000),
+    BULK("bulk", 2, 2, 30000);
+
+    public static final String PROPERTY_PREFIX = "schnittstelle.lanes.";
+
+    private final String key;
+    private final int defaultConcurrency;
+    private final int defaultQueueCapacity;
+    private final long defaultTimeoutMillis;
+
+    Lane(String key, int defaultConcurrency, int defaultQueueCapacity, long defaultTimeoutMillis) {
+        this.key = key;
+        this.defaultConcurrency = defaultConcurrency;
+        this.defaultQueueCapacity = defaultQueueCapacity;
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return requests of this lane processed at once
+     */
+    public int concurrency() {
+        return Integer.getInteger(PROPERTY_PREFIX + key + ".concurrency", defaultConcurrency);
+    }
+
+    /**
+     * @return requests of this lane waiting for a free slot, more are rejected at once
+     */
+    public int queueCapacity() {
+        return Integer.getInteger(PROPERTY_PREFIX + key + ".queueCapacity", defaultQueueCapacity);
+    }
+
+    /**
+     * @return max millis waiting for a slot, then rejected
+     */
+    public long timeoutMillis() {
+        return Long.getLong(PROPERTY_PREFIX + key + ".timeoutMillis", defaultTimeoutMillis);
+    }
+}
@@ -0,0 +1,147 @@
+package schnittstelle.lanes;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded slots of the scheduling {@link Lane}s. An endpoint takes a slot of the lane before the call ({@link #tryEnter(Lane)}) and frees it after the
+ * response is sent ({@link #exit(Lane)}). At most {@link Lane#queueCapacity()} requests wait for a slot, at most {@link Lane#timeoutMillis()}. A
+ * request finding its lane full is rejected, requests of the other lanes are not affected.
+ */
+public final class Lanes {
+    private final Map<Lane, Slots> slots = new EnumMap<>(Lane.class);
+
+    /**
+     * Lanes configured by system properties, see {@link Lane}.
+     */
+    public Lanes() {
+        this(lane -> new Slots(lane.concurrency(), lane.queueCapacity(), lane.timeoutMillis()));
+    }
+
+    /**
+     * Lanes of the same limits, for tests.
+     */
+    public Lanes(int concurrency, int queueCapacity, long timeoutMillis) {
+        this(lane -> new Slots(concurrency, queueCapacity, timeoutMillis));
+    }
+
+    private Lanes(Function<Lane, Slots> slotsOfLane) {
+        for (Lane lane : Lane.values()) {
+            slots.put(lane, slotsOfLane.apply(lane));
+        }
+    }
+
+    /**
+     * Once per classloader, so separately deployed wars have separate lanes.
+     *
+     * @return not null lanes shared by all endpoints of this application
+     */
+    public static Lanes applicationScoped() {
+        return ApplicationLanesHolder.INSTANCE;
+    }
+
+    /**
+     * Take a slot of the lane, wait for one if the queue of the lane is not full. Call {@link #exit(Lane)} after the request if true.
+     *
+     * @return false if the queue is full or no slot became free in time
+     */
+    public boolean tryEnter(Lane lane) {
+        return slotsOf(lane).tryEnter();
+    }
+
+    /**
+     * Free the slot taken by {@link #tryEnter(Lane)}.
+     */
+    public void exit(Lane lane) {
+        slotsOf(lane).permits.release();
+    }
+
+    /**
+     * @return requests of the lane holding a slot
+     */
+    public int getActive(Lane lane) {
+        final Slots laneSlots = slotsOf(lane);
+        return laneSlots.concurrency - laneSlots.permits.availablePermits();
+    }
+
+    /**
+     * @return requests of the lane waiting for a slot
+     */
+    public int getWaiting(Lane lane) {
+        return slotsOf(lane).waiting.get();
+    }
+
+    /**
+     * @return requests of the lane rejected because the queue was full or no slot became free in time
+     */
+    public long getRejected(Lane lane) {
+        return slotsOf(lane).rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder string = new StringBuilder("{");
+        for (Lane lane : Lane.values()) {
+            string.append(string.length() > 1 ? ", " : "")
+                    .append(lane.key())
+                    .append(String.format("={active=%d, waiting=%d, rejected=%d}", getActive(lane), getWaiting(lane), getRejected(lane)));
+        }
+        return string.append('}').toString();
+    }
+
+    private Slots slotsOf(Lane lane) {
+        return slots.get(Objects.requireNonNull(lane, "lane"));
+    }
+
+    private static final class Slots {
+        private final int concurrency;
+        private final int queueCapacity;
+        private final long timeoutMillis;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final LongAdder rejected = new LongAdder();
+
+        private Slots(int concurrency, int queueCapacity, long timeoutMillis) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be > 0, but was " + concurrency);
+            }
+            if (queueCapacity < 0) {
+                throw new IllegalArgumentException("queueCapacity must be >= 0, but was " + queueCapacity);
+            }
+            if (timeoutMillis < 0) {
+                throw new IllegalArgumentException("timeoutMillis must be >= 0, but was " + timeoutMillis);
+            }
+            this.concurrency = concurrency;
+            this.queueCapacity = queueCapacity;
+            this.timeoutMillis = timeoutMillis;
+            this.permits = new Semaphore(concurrency, true);
+        }
+
+        private boolean tryEnter() {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            try {
+                if (waiting.incrementAndGet() <= queueCapacity && permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiting.decrementAndGet();
+            }
+            rejected.increment();
+            return false;
+        }
+    }
+
+    private static final class ApplicationLanesHolder {
+        private static final Lanes INSTANCE = new Lanes();
+    }
+}
@@ -0,0 +1,92 @@
+package schnittstelle.lanes;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit test for {@link Lanes}: bounded slots and queue per lane, lanes independent of each other.
+ */
+public class LanesTest {
+    @Test
+    public void assertThat_freeSlot_entered() {
+        final Lanes lanes = new Lanes(2, 1, 10);
+        Assert.assertTrue(lanes.tryEnter(Lane.BULK));
+        Assert.assertTrue(lanes.tryEnter(Lane.BULK));
+        Assert.assertEquals(2, lanes.getActive(Lane.BULK));
+
+        lanes.exit(Lane.BULK);
+        lanes.exit(Lane.BULK);
+        Assert.assertEquals(0, lanes.getActive(Lane.BULK));
+        Assert.assertEquals(0, lanes.getRejected(Lane.BULK));
+    }
+
+    @Test
+    public void assertThat_fullLane_rejectedAfterTimeout_otherLanesFree() {
+        final Lanes lanes = new Lanes(1, 1, 10);
+        Assert.assertTrue(lanes.tryEnter(Lane.BULK));
+
+        final long start = System.nanoTime();
+        Assert.assertFalse(lanes.tryEnter(Lane.BULK));
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 10);
+        Assert.assertEquals(1, lanes.getRejected(Lane.BULK));
+        Assert.assertEquals(0, lanes.getWaiting(Lane.BULK));
+
+        Assert.assertTrue(lanes.tryEnter(Lane.POINT_READ));
+        Assert.assertTrue(lanes.tryEnter(Lane.WRITE));
+    }
+
+    @Test
+    public void assertThat_waiting_enteredOnExit() throws Exception {
+        final Lanes lanes = new Lanes(1, 1, 10_000);
+        Assert.assertTrue(lanes.tryEnter(Lane.WRITE));
+
+        final ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Boolean> entered = waiter.submit(() -> lanes.tryEnter(Lane.WRITE));
+            awaitWaiting(lanes, Lane.WRITE, 1);
+            lanes.exit(Lane.WRITE);
+            Assert.assertTrue(entered.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, lanes.getActive(Lane.WRITE));
+        } finally {
+            waiter.shutdownNow();
+        }
+    }
+
+    @Test
+    public void assertThat_fullQueue_rejectedAtOnce() throws Exception {
+        final Lanes lanes = new Lanes(1, 1, 10_000);
+        Assert.assertTrue(lanes.tryEnter(Lane.POINT_READ));
+
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            waiter.submit(() -> {
+                waiting.countDown();
+                return lanes.tryEnter(Lane.POINT_READ);
+            });
+            waiting.await();
+            awaitWaiting(lanes, Lane.POINT_READ, 1);
+
+            final long start = System.nanoTime();
+            Assert.assertFalse(lanes.tryEnter(Lane.POINT_READ));
+            Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+            Assert.assertEquals(1, lanes.getRejected(Lane.POINT_READ));
+        } finally {
+            waiter.shutdownNow();
+        }
+    }
+
+    private static void awaitWaiting(Lanes lanes, Lane lane, int expected) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (lanes.getWaiting(lane) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(lanes.toString(), expected, lanes.getWaiting(lane));
+    }
+}
@@ -0,0 +1,153 @@
+package schnittstelle;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import schnittstelle.lanes.Lane;
+
+/**
+ * Asynchronous variant of the {@link RestEndpoint} under {@code /async/pojo}, same requests and responses.
+ * <pre>
+ *   GET /async/pojo[?limit=..&cursor=..|?minValue=..&maxValue=..] -> like GET /pojo
+ *   GET /async/pojo/stats                                         -> like GET /pojo/stats
+ *   GET /async/pojo/{id}                                          -> like GET /pojo/{id}
+ *   PUT|POST /async/pojo, POST /async/pojo/{id}                   -> like PUT|POST /pojo, POST /pojo/{id}
+ *   POST /async/pojo/batch, /async/pojo/{id}/add, /async/pojo/{id}/cas -> like POST /pojo/batch, /pojo/{id}/add, /pojo/{id}/cas
+ *   DELETE /async/pojo/{id}                                       -> like DELETE /pojo/{id}
+ *
+ *   503 + Retry-After if the request is not answered in time or too many requests are waiting
+ * </pre>
+ * The request is suspended and the http worker thread returns at once, the call of the {@link RestEndpoint} runs on the {@link EndpointExecutor} of
+ * its {@link Lane}. So a slow store or backend blocks executor threads only, the worker threads keep accepting requests and the executors bound the
+ * requests in flight - per lane, an export does not delay the point reads.
+ */
+@Path("/async/pojo")
+public class AsyncRestEndpoint {
+    private final RestEndpoint delegate;
+    private final Function<Lane, EndpointExecutor> executors;
+
+    @Context
+    private HttpHeaders httpHeaders;
+
+    public AsyncRestEndpoint() {
+        this(new RestEndpoint());
+    }
+
+    public AsyncRestEndpoint(RestEndpoint delegate) {
+        this(delegate, LaneExecutors.applicationScoped());
+    }
+
+    AsyncRestEndpoint(RestEndpoint delegate, LaneExecutors laneExecutors) {
+        this(delegate, Objects.requireNonNull(laneExecutors, "laneExecutors")::executor);
+    }
+
+    /**
+     * @param executor not null executor of all lanes
+     */
+    AsyncRestEndpoint(RestEndpoint delegate, EndpointExecutor executor) {
+        this(delegate, lane -> executor);
+        Objects.requireNonNull(executor, "executor");
+    }
+
+    private AsyncRestEndpoint(RestEndpoint delegate, Function<Lane, EndpointExecutor> executors) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.executors = executors;
+    }
+
+    /**
+     * @see RestEndpoint#httpGet(Integer, String, Integer, Integer)
+     */
+    @GET
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpGet(@Suspended AsyncResponse asyncResponse, @QueryParam("limit") Integer limitOrNull, @QueryParam("cursor") String cursorOrNull,
+                        @QueryParam("minValue") Integer minValueOrNull, @QueryParam("maxValue") Integer maxValueOrNull) {
+        executors.apply(Lane.BULK).resume(asyncResponse, () -> delegate.httpGet(limitOrNull, cursorOrNull, minValueOrNull, maxValueOrNull));
+    }
+
+    @GET
+    @Path("stats")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpGetStats(@Suspended AsyncResponse asyncResponse) {
+        executors.apply(Lane.POINT_READ).resume(asyncResponse, delegate::httpGetStats);
+    }
+
+    @GET
+    @Path("{id}")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpGet(@Suspended AsyncResponse asyncResponse, @PathParam("id") String id) {
+        executors.apply(Lane.POINT_READ).resume(asyncResponse, () -> delegate.httpGet(id));
+    }
+
+    @POST
+    @Path("{id}")
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpPost(@Suspended AsyncResponse asyncResponse, @PathParam("id") String idOrNull, Pojo requestBody) {
+        // headers are only readable on the request thread
+        final String ifMatchOrNull = ifMatchHeaderOrNull();
+        executors.apply(Lane.WRITE).resume(asyncResponse, () -> delegate.httpPost(idOrNull, requestBody, ifMatchOrNull));
+    }
+
+    @POST
+    @Path("batch")
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpPostBatch(@Suspended AsyncResponse asyncResponse, PojoList requestBody) {
+        executors.apply(Lane.BULK).resume(asyncResponse, () -> delegate.httpPostBatch(requestBody));
+    }
+
+    @PUT
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpPut(@Suspended AsyncResponse asyncResponse, Pojo requestBody) {
+        httpPost(asyncResponse, requestBody);
+    }
+
+    @POST
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpPost(@Suspended AsyncResponse asyncResponse, Pojo requestBody) {
+        httpPost(asyncResponse, null, requestBody);
+    }
+
+    @POST
+    @Path("{id}/add")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpPostAdd(@Suspended AsyncResponse asyncResponse, @PathParam("id") String id, @QueryParam("delta") Integer deltaOrNull) {
+        executors.apply(Lane.WRITE).resume(asyncResponse, () -> delegate.httpPostAdd(id, deltaOrNull));
+    }
+
+    @POST
+    @Path("{id}/cas")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpPostCas(@Suspended AsyncResponse asyncResponse, @PathParam("id") String id, @QueryParam("expect") Integer expectOrNull,
+                            @QueryParam("update") Integer updateOrNull) {
+        executors.apply(Lane.WRITE).resume(asyncResponse, () -> delegate.httpPostCas(id, expectOrNull, updateOrNull));
+    }
+
+    @DELETE
+    @Path("{id}")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public void httpDelete(@Suspended AsyncResponse asyncResponse, @PathParam("id") String id) {
+        executors.apply(Lane.WRITE).resume(asyncResponse, () -> delegate.httpDelete(id));
+    }
+
+    private String ifMatchHeaderOrNull() {
+        return this.httpHeaders == null ? null : this.httpHeaders.getHeaderString(HttpHeaders.IF_MATCH);
+    }
+}
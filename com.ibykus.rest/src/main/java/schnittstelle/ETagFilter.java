@@ -0,0 +1,47 @@
+package schnittstelle;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+
+import schnittstelle.store.PojoEntry;
+
+/**
+ * EE Provider to set the ETag of {@link Versioned} responses, weak if the body may be newer than the version. A GET/HEAD with matching If-None-Match is answered with 304 before the entity is
+ * serialized.
+ * <p/>
+ * The ETag is derived from the store version and the format of the response ({@code "42-json"}, {@code "42-xml"}), the response varies by Accept.
+ */
+@Provider
+public class ETagFilter implements ContainerResponseFilter {
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        if (!(response.getEntity() instanceof Versioned)) {
+            return;
+        }
+        final Versioned versioned = (Versioned) response.getEntity();
+        final long version = versioned.version();
+        if (version == PojoEntry.UNVERSIONED) {
+            return;
+        }
+
+        response.getHeaders().putSingle(HttpHeaders.ETAG, ETags.of(version, response.getMediaType(), versioned.weakVersion()));
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        final boolean isRead = HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod());
+        if (isRead && ETags.ifNoneMatch(request.getHeaderString(HttpHeaders.IF_NONE_MATCH), version, response.getMediaType())) {
+            response.setStatus(Response.Status.NOT_MODIFIED.getStatusCode());
+            if (response.getEntity() instanceof Closeable) {
+                // e.g. the store snapshot of a PojoListStream
+                ((Closeable) response.getEntity()).close();
+            }
+            response.setEntity(null);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package schnittstelle;
+
+import java.util.function.LongPredicate;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+
+import schnittstelle.store.PojoEntry;
+
+/**
+ * Strong ETags of store versions per representation ({@code "42-json"}, {@code "42-xml"}) and the If-Match/If-None-Match comparison of RFC 7232.
+ * <p/>
+ * json and xml of the same version are different bytes, so they get different strong tags. If-Match conditions a write on the store version, it
+ * accepts the tag of any representation. A body not read from a snapshot of the version gets a weak tag ({@code W/"42-json"}), If-None-Match
+ * compares weakly and matches it too.
+ */
+final class ETags {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String FORMAT_SEPARATOR = "-";
+
+    private ETags() {/* static access only */}
+
+    /**
+     * @param typeOrNull media type of the response, null for the version only
+     * @return tag {@code "<version>-<format>"}, e.g. {@code "42-json"}
+     */
+    static EntityTag of(long version, MediaType typeOrNull) {
+        return of(version, typeOrNull, false);
+    }
+
+    /**
+     * @param weak true if the body may include writes after the version (see {@link Versioned#weakVersion()})
+     * @return tag {@code "<version>-<format>"} or {@code W/"<version>-<format>"}
+     */
+    static EntityTag of(long version, MediaType typeOrNull, boolean weak) {
+        return new EntityTag(value(version, format(typeOrNull)), weak);
+    }
+
+    /**
+     * @return {@code json} for application/json, {@code xml} for application/xml and text/xml, the subtype otherwise, null without type
+     */
+    static String format(MediaType typeOrNull) {
+        if (typeOrNull == null) {
+            return null;
+        }
+        final String subtype = typeOrNull.getSubtype().toLowerCase();
+        if (subtype.equals("json") || subtype.endsWith("+json")) {
+            return "json";
+        }
+        if (subtype.equals("xml") || subtype.endsWith("+xml")) {
+            return "xml";
+        }
+        return subtype;
+    }
+
+    /**
+     * Strong comparison of the version, weak tags never match. {@code "42-json"} and {@code "42-xml"} both match version 42.
+     *
+     * @param ifMatchOrNull If-Match header value
+     * @return null without header, otherwise the predicate on the version of the existing entry
+     */
+    static LongPredicate ifMatch(String ifMatchOrNull) {
+        if (ifMatchOrNull == null) {
+            return null;
+        }
+        return version -> matches(ifMatchOrNull, version, null, false);
+    }
+
+    /**
+     * Weak comparison of version and format, {@code W/"42-json"} matches version 42 as json but not as xml.
+     *
+     * @param ifNoneMatchOrNull If-None-Match header value
+     * @param typeOrNull        media type of the response
+     * @return true if the header matches the version (response 304)
+     */
+    static boolean ifNoneMatch(String ifNoneMatchOrNull, long version, MediaType typeOrNull) {
+        return ifNoneMatchOrNull != null && version != PojoEntry.UNVERSIONED && matches(ifNoneMatchOrNull, version, format(typeOrNull), true);
+    }
+
+    private static String value(long version, String formatOrNull) {
+        return formatOrNull == null ? Long.toString(version) : version + FORMAT_SEPARATOR + formatOrNull;
+    }
+
+    /**
+     * @param formatOrNull format the tag must have, null for any format
+     */
+    private static boolean matches(String header, long version, String formatOrNull, boolean weakComparison) {
+        for (String tag : header.split(",")) {
+            String localTag = tag.trim();
+            if (ANY.equals(localTag)) {
+                return true;
+            }
+            if (localTag.startsWith(WEAK_PREFIX)) {
+                if (!weakComparison) {
+                    continue;
+                }
+                localTag = localTag.substring(WEAK_PREFIX.length());
+            }
+            if (localTag.length() > 2 && localTag.startsWith("\"") && localTag.endsWith("\"")
+                    && matchesValue(localTag.substring(1, localTag.length() - 1), version, formatOrNull)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesValue(String value, long version, String formatOrNull) {
+        if (formatOrNull != null) {
+            return value.equals(value(version, formatOrNull));
+        }
+        final int separator = value.indexOf(FORMAT_SEPARATOR);
+        return (separator < 0 ? value : value.substring(0, separator)).equals(Long.toString(version));
+    }
+}
@@ -0,0 +1,150 @@
+package schnittstelle;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.container.AsyncResponse;
+
+import schnittstelle.lanes.Lane;
+
+/**
+ * Bounded executor of the {@link AsyncRestEndpoint}, one per {@link Lane} (see {@link LaneExecutors#executor(Lane)}). Requests wait in a queue for
+ * one of the threads, the http worker thread is free meanwhile. A request not answered within the timeout is answered with 503, as is a request that
+ * finds the queue full. Counters of submitted, rejected, timed out and completed requests are kept for monitoring.
+ */
+final class EndpointExecutor {
+    /**
+     * Retry-After seconds of a 503.
+     */
+    static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    EndpointExecutor(int threads, int queueCapacity, long timeoutMillis) {
+        this("endpoint-executor", threads, queueCapacity, timeoutMillis);
+    }
+
+    /**
+     * @param name not null prefix of the thread names
+     */
+    EndpointExecutor(String name, int threads, int queueCapacity, long timeoutMillis) {
+        Objects.requireNonNull(name, "name");
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be > 0, but was " + threads);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be > 0, but was " + queueCapacity);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("timeoutMillis must be > 0, but was " + timeoutMillis);
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Answer the suspended request with the result of the call on a thread of this executor: the returned entity, null (204) or the thrown exception.
+     * 503 if the queue is full or the answer takes longer than the timeout. A call still queued at its timeout is skipped.
+     *
+     * @param call not null call of the synchronous endpoint
+     */
+    void resume(AsyncResponse asyncResponse, Supplier<?> call) {
+        Objects.requireNonNull(asyncResponse, "asyncResponse");
+        Objects.requireNonNull(call, "call");
+        asyncResponse.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        asyncResponse.setTimeoutHandler(timedOutResponse -> {
+            // the timer may fire after a resume of the call or the rejection
+            if (timedOutResponse.resume(new ServiceUnavailableException("No response within " + timeoutMillis + " ms", RETRY_AFTER_SECONDS))) {
+                timedOut.increment();
+            }
+        });
+        submitted.increment();
+        try {
+            executor.execute(() -> {
+                if (!asyncResponse.isSuspended()) {
+                    // timed out while queued
+                    return;
+                }
+                try {
+                    asyncResponse.resume(call.get());
+                    completed.increment();
+                } catch (RuntimeException | Error e) {
+                    asyncResponse.resume(e);
+                    failed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            asyncResponse.resume(new ServiceUnavailableException("Too many requests in flight", RETRY_AFTER_SECONDS, e));
+        }
+    }
+
+    long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return requests answered with 503 because the queue was full
+     */
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return requests answered with 503 because of the timeout
+     */
+    long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * @return calls that returned normally
+     */
+    long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return calls that threw an exception (e.g. 400, 404)
+     */
+    long getFailed() {
+        return failed.sum();
+    }
+
+    int getActive() {
+        return executor.getActiveCount();
+    }
+
+    int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{submitted=%d, completed=%d, failed=%d, rejected=%d, timedOut=%d, active=%d, queued=%d}", getSubmitted(), getCompleted(),
+                getFailed(), getRejected(), getTimedOut(), getActive(), getQueued());
+    }
+}
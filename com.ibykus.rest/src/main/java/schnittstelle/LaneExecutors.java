@@ -0,0 +1,49 @@
+package schnittstelle;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+import schnittstelle.lanes.Lane;
+
+/**
+ * Executors of the {@link AsyncRestEndpoint}, one {@link EndpointExecutor} per scheduling {@link Lane} with the limits of the lane. The call runs on
+ * the executor of its lane, the worker thread is free. A request finding its lane full is answered with 503, requests of the other lanes are not
+ * affected.
+ */
+final class LaneExecutors {
+    private final Map<Lane, EndpointExecutor> executors = new EnumMap<>(Lane.class);
+
+    /**
+     * Executors configured by system properties, see {@link Lane}.
+     */
+    LaneExecutors() {
+        for (Lane lane : Lane.values()) {
+            executors.put(lane, new EndpointExecutor("endpoint-executor-" + lane.key(), lane.concurrency(), lane.queueCapacity(),
+                    lane.timeoutMillis()));
+        }
+    }
+
+    /**
+     * @return not null executors shared by all endpoints of this application
+     */
+    static LaneExecutors applicationScoped() {
+        return ApplicationExecutorsHolder.INSTANCE;
+    }
+
+    /**
+     * @return not null executor of the async requests of the lane
+     */
+    EndpointExecutor executor(Lane lane) {
+        return executors.get(Objects.requireNonNull(lane, "lane"));
+    }
+
+    @Override
+    public String toString() {
+        return executors.toString();
+    }
+
+    private static final class ApplicationExecutorsHolder {
+        private static final LaneExecutors INSTANCE = new LaneExecutors();
+    }
+}
@@ -0,0 +1,98 @@
+package schnittstelle;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import schnittstelle.lanes.Lane;
+import schnittstelle.lanes.Lanes;
+
+/**
+ * EE Provider to classify the requests of the {@link RestEndpoint} by the {@link LaneOf} of the resource method and to bound them per lane (see
+ * {@link Lanes}). A request finding its lane full is answered with 503 + Retry-After before the endpoint is called, the slot of an admitted request is
+ * freed after its response is written - an export streamed from the store ({@link PojoListStream}) keeps its slot until the last pojo is sent.
+ * <p/>
+ * Register it together with the {@link UnhandledExceptionMapper}: the container answers an exception not mapped otherwise without response filter, the
+ * slot were lost.
+ */
+@Provider
+@Priority(Priorities.USER - 100)
+public class LaneFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+    /**
+     * Request property of the lane holding a slot.
+     */
+    static final String LANE_PROPERTY = LaneFilter.class.getName() + ".lane";
+
+    private final Lanes lanes;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    public LaneFilter() {
+        this(Lanes.applicationScoped());
+    }
+
+    LaneFilter(Lanes lanes) {
+        this.lanes = Objects.requireNonNull(lanes, "lanes");
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request) throws IOException {
+        final Method methodOrNull = resourceMethodOrNull();
+        final LaneOf laneOrNull = methodOrNull == null ? null : methodOrNull.getAnnotation(LaneOf.class);
+        if (laneOrNull == null) {
+            return;
+        }
+        if (!lanes.tryEnter(laneOrNull.value())) {
+            request.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, EndpointExecutor.RETRY_AFTER_SECONDS)
+                    .build());
+            return;
+        }
+        request.setProperty(LANE_PROPERTY, laneOrNull.value());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) throws IOException {
+        // HEAD writes no entity
+        if (!response.hasEntity() || HttpMethod.HEAD.equals(request.getMethod())) {
+            exit(request.getProperty(LANE_PROPERTY));
+            request.removeProperty(LANE_PROPERTY);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        try {
+            context.proceed();
+        } finally {
+            exit(context.getProperty(LANE_PROPERTY));
+            context.removeProperty(LANE_PROPERTY);
+        }
+    }
+
+    private Method resourceMethodOrNull() {
+        return resourceInfo == null ? null : resourceInfo.getResourceMethod();
+    }
+
+    private void exit(Object laneOrNull) {
+        if (laneOrNull instanceof Lane) {
+            lanes.exit((Lane) laneOrNull);
+        }
+    }
+}
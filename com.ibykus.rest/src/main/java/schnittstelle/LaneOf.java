@@ -0,0 +1,23 @@
+package schnittstelle;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import schnittstelle.lanes.Lane;
+
+/**
+ * Scheduling {@link Lane} of a resource method, enforced by the {@link LaneFilter}. Methods without are not limited (e.g. the long living event
+ * stream).
+ * <pre>
+ *   POINT_READ - GET /pojo/{id}, GET /pojo/stats
+ *   WRITE      - PUT|POST /pojo, POST /pojo/{id}, /pojo/{id}/add, /pojo/{id}/cas, DELETE /pojo/{id}
+ *   BULK       - GET /pojo (list, page, value range), POST /pojo/batch
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@interface LaneOf {
+    Lane value();
+}
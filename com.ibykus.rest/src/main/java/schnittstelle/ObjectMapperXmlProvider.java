@@ -31,7 +31,7 @@ import javax.ws.rs.ext.Provider;
 @Consumes(MediaType.APPLICATION_XML)
 @Produces(MediaType.APPLICATION_XML)
 public class ObjectMapperXmlProvider implements ContextResolver<XmlMapper>, MessageBodyReader<Object>, MessageBodyWriter<Object> {
-    private final List<Class> xmlPojos = Arrays.asList(Pojo.class);
+    private final List<Class> xmlPojos = Arrays.asList(Pojo.class, PojoList.class, PojoBatchResult.class, PojoStats.class);
     private final XmlMapper xmlMapper = new XmlMapper();
 
     @Override
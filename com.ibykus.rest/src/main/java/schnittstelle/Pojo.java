@@ -5,19 +5,23 @@ import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.security.SecureRandom;
 import java.util.Objects;
 
 import javax.xml.bind.annotation.XmlElement;
 
+import schnittstelle.store.IdGenerator;
+import schnittstelle.store.IdGenerators;
+import schnittstelle.store.PojoEntry;
+
 @JsonIgnoreProperties(ignoreUnknown = true)
 //@XmlRootElement - don't incomment that otherwise would [JSON] := [{ pojo: {id:..,value:..}}]
-public final class Pojo {
+public final class Pojo implements Versioned {
     static final String JSON_ID = "id";
     static final String JSON_VALUE = "value";
 
     private String id;
     private Integer value;
+    private long version = PojoEntry.UNVERSIONED;
 
     //  @JsonCreator - only 1 per class is possible
     public Pojo(@JsonProperty("value") int value) {
@@ -43,21 +47,43 @@ public final class Pojo {
         return this.value;
     }
 
+    /**
+     * @return store version of this pojo, not part of the json/xml body and not part of {@link #equals(Object)}
+     */
+    @Override
+    public long version() {
+        return this.version;
+    }
+
+    Pojo versioned(long version) {
+        this.version = version;
+        return this;
+    }
+
+    /**
+     * Map a store entry to a new pojo. The entry value is taken as it is (maybe null if created via JAX-WS).
+     */
+    static Pojo of(PojoEntry entry) {
+        final Pojo pojo = new Pojo(entry.getId(), 0);
+        pojo.value = entry.getValue();
+        pojo.version = entry.getVersion();
+        return pojo;
+    }
+
+    PojoEntry toEntry() {
+        return new PojoEntry(this.id, this.value);
+    }
+
     @Override
     public String toString() {
         return String.format("{id='%s', value=%s}", this.id, this.value);
     }
 
     /**
-     * Generate+set a random ID. Overwrite existing one.
+     * Generate+set a new ID of the application scoped {@link IdGenerator}. Overwrite existing one.
      */
     String generateAndSetId() {
-        this.id = new SecureRandom().ints(48, 122)
-                .filter(i -> (i < 57 || i > 65) && (i < 90 || i > 97))
-                .mapToObj(i -> (char) i)
-                .limit(10)
-                .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append)
-                .toString();
+        this.id = IdGenerators.applicationScoped().nextId();
         return this.id;
     }
 
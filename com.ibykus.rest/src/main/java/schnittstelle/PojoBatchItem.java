@@ -0,0 +1,83 @@
+package schnittstelle;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * Result of one pojo of a batch operation (see {@link PojoBatchResult}).
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class PojoBatchItem {
+    static final String JSON_STATUS = "status";
+    static final String JSON_POJO = "pojo";
+
+    public enum Status {
+        /**
+         * New pojo stored, id maybe generated.
+         */
+        CREATED,
+        /**
+         * Existing pojo with the same id replaced.
+         */
+        UPDATED,
+        /**
+         * Pojo not processed (e.g. null entry), no pojo in the result.
+         */
+        INVALID
+    }
+
+    private final Status status;
+    private final Pojo pojo;
+
+    @JsonCreator
+    public PojoBatchItem(@JsonProperty(JSON_STATUS) Status status, @JsonProperty(JSON_POJO) Pojo pojoOrNull) {
+        this.status = Objects.requireNonNull(status, "status");
+        this.pojo = pojoOrNull;
+    }
+
+    @JsonGetter(JSON_STATUS)
+    @XmlElement(name = JSON_STATUS)
+    public Status getStatus() {
+        return this.status;
+    }
+
+    /**
+     * @return stored pojo, null if {@link Status#INVALID}
+     */
+    @JsonGetter(JSON_POJO)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @XmlElement(name = JSON_POJO)
+    public Pojo getPojo() {
+        return this.pojo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{status=%s, pojo=%s}", this.status, this.pojo);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PojoBatchItem that = (PojoBatchItem) o;
+        return status == that.status &&
+                Objects.equals(pojo, that.pojo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, pojo);
+    }
+}
@@ -0,0 +1,37 @@
+package schnittstelle;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Response of {@code POST /pojo/batch}. One {@link PojoBatchItem} per requested pojo in request order.
+ */
+@XmlRootElement(name = PojoBatchResult.ITEMS)
+public class PojoBatchResult {
+    static final String ITEMS = "items";
+
+    private final List<PojoBatchItem> items = new ArrayList<>();
+
+    public PojoBatchResult() {/* MUST for @XmlRootElement */}
+
+    @JsonCreator
+    public PojoBatchResult(@JsonProperty(ITEMS) Collection<PojoBatchItem> items) {
+        if (items != null) {
+            this.items.addAll(items);
+        }
+    }
+
+    @XmlElement(name = ITEMS)
+    @JsonGetter(ITEMS)
+    public List<PojoBatchItem> getItems() {
+        return this.items;
+    }
+}
@@ -0,0 +1,172 @@
+package schnittstelle;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import schnittstelle.store.PojoEntry;
+
+/**
+ * Cache of serialized json/xml bytes per pojo id, bounded by a byte budget. Entries are only returned for the same store version, so a write by any
+ * endpoint (e.g. JAX-WS) makes them stale. {@link #invalidate(String)} frees them early.
+ * <p/>
+ * Over budget a clock (second chance) evicts: a hit marks its entry, the clock hand unmarks marked entries and evicts the first unmarked one. The hand
+ * keeps its position between evictions, so it sweeps the whole cache instead of always evicting the head of the {@link ConcurrentHashMap} iteration.
+ * The entry just put is never evicted. A read costs one volatile write at most.
+ */
+final class PojoBytesCache {
+    /**
+     * System property of the byte budget of {@link #applicationScoped()}, default {@value #DEFAULT_BUDGET_BYTES}.
+     */
+    static final String BUDGET_PROPERTY = "schnittstelle.pojoBytesCache.budgetBytes";
+    static final long DEFAULT_BUDGET_BYTES = 16 * 1024 * 1024;
+
+    enum Format {JSON, XML}
+
+    private final Map<Key, CachedBytes> cache = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final long budgetBytes;
+    // guards the clock hand, only taken over budget
+    private final Object clock = new Object();
+    private Iterator<Map.Entry<Key, CachedBytes>> clockHand = Collections.emptyIterator();
+
+    PojoBytesCache(long budgetBytes) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("budgetBytes must be >= 0, but was " + budgetBytes);
+        }
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * @return not null cache shared by all endpoints and providers of this application
+     */
+    static PojoBytesCache applicationScoped() {
+        return ApplicationCacheHolder.INSTANCE;
+    }
+
+    /**
+     * @return cached bytes of this pojo version or null
+     */
+    byte[] get(String id, long version, Format format) {
+        final CachedBytes cached = cache.get(new Key(id, format));
+        if (cached == null || cached.version != version) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (!cached.referenced) {
+            cached.referenced = true;
+        }
+        return cached.bytes;
+    }
+
+    void put(String id, long version, Format format, byte[] bytes) {
+        if (version == PojoEntry.UNVERSIONED || bytes.length > budgetBytes) {
+            return;
+        }
+        final Key key = new Key(id, format);
+        final CachedBytes replaced = cache.put(key, new CachedBytes(version, bytes));
+        usedBytes.addAndGet(bytes.length - (replaced == null ? 0 : replaced.bytes.length));
+        if (usedBytes.get() > budgetBytes) {
+            evict(key);
+        }
+    }
+
+    void invalidate(String id) {
+        for (Format format : Format.values()) {
+            remove(new Key(id, format));
+        }
+    }
+
+    long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    private void evict(Key put) {
+        synchronized (clock) {
+            // each entry is unmarked in the first round and evicted in the second, the bound only ends concurrent put storms
+            for (int steps = 2 * cache.size() + 2; usedBytes.get() > budgetBytes && steps > 0; steps--) {
+                if (!clockHand.hasNext()) {
+                    clockHand = cache.entrySet().iterator();
+                    if (!clockHand.hasNext()) {
+                        return;
+                    }
+                }
+                final Map.Entry<Key, CachedBytes> entry = clockHand.next();
+                final CachedBytes cached = entry.getValue();
+                if (entry.getKey().equals(put)) {
+                    continue;
+                }
+                if (cached.referenced) {
+                    cached.referenced = false;
+                } else if (cache.remove(entry.getKey(), cached)) {
+                    usedBytes.addAndGet(-cached.bytes.length);
+                }
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        final CachedBytes removed = cache.remove(key);
+        if (removed != null) {
+            usedBytes.addAndGet(-removed.bytes.length);
+        }
+    }
+
+    private static final class Key {
+        private final String id;
+        private final Format format;
+
+        private Key(String id, Format format) {
+            this.id = Objects.requireNonNull(id, "id");
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return id.equals(key.id) && format == key.format;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id.hashCode() + format.hashCode();
+        }
+    }
+
+    private static final class CachedBytes {
+        private final long version;
+        private final byte[] bytes;
+        // set by a hit, cleared by the clock hand
+        private volatile boolean referenced;
+
+        private CachedBytes(long version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class ApplicationCacheHolder {
+        private static final PojoBytesCache INSTANCE = new PojoBytesCache(Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_BYTES));
+    }
+}
@@ -0,0 +1,82 @@
+package schnittstelle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import org.apache.commons.io.output.XmlStreamWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+import javax.ws.rs.ConstrainedTo;
+import javax.ws.rs.Produces;
+import javax.ws.rs.RuntimeType;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * EE Provider to write a {@link Pojo} from the {@link PojoBytesCache}. On a hit the cached bytes are written as they are, on a miss the pojo is
+ * serialized once with the mappers of {@link ObjectMapperJsonProvider}/{@link ObjectMapperXmlProvider} - so the bytes are the same as without cache.
+ */
+@Provider
+@ConstrainedTo(RuntimeType.SERVER)
+@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+public class PojoBytesProvider implements MessageBodyWriter<Pojo> {
+    private final ObjectMapper jsonMapper = new ObjectMapperJsonProvider().getContext(Pojo.class);
+    private final XmlMapper xmlMapper = new ObjectMapperXmlProvider().getContext(Pojo.class);
+    private final PojoBytesCache cache;
+
+    public PojoBytesProvider() {
+        this(PojoBytesCache.applicationScoped());
+    }
+
+    PojoBytesProvider(PojoBytesCache cache) {
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> aClass, Type type, Annotation[] annotations, MediaType mediaType) {
+        final boolean isJsonOrXml = MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType) || MediaType.APPLICATION_XML_TYPE.isCompatible(mediaType);
+        return isJsonOrXml && Pojo.class.equals(aClass);
+    }
+
+    @Override
+    public void writeTo(Pojo pojo, Class<?> aClass, Type type, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> multivaluedMap, OutputStream outputStream) throws IOException, WebApplicationException {
+        final byte[] bytes = toBytes(pojo, MediaType.APPLICATION_XML_TYPE.isCompatible(mediaType) ? PojoBytesCache.Format.XML : PojoBytesCache.Format.JSON);
+        // no headers for the data of a server sent event (GET /pojo/events)
+        if (multivaluedMap != null) {
+            multivaluedMap.putSingle(HttpHeaders.CONTENT_LENGTH, bytes.length);
+        }
+        outputStream.write(bytes);
+    }
+
+    byte[] toBytes(Pojo pojo, PojoBytesCache.Format format) throws IOException {
+        if (pojo.getId() == null) {
+            return serialize(pojo, format);
+        }
+        final byte[] cached = cache.get(pojo.getId(), pojo.version(), format);
+        if (cached != null) {
+            return cached;
+        }
+        final byte[] bytes = serialize(pojo, format);
+        cache.put(pojo.getId(), pojo.version(), format, bytes);
+        return bytes;
+    }
+
+    private byte[] serialize(Pojo pojo, PojoBytesCache.Format format) throws IOException {
+        if (format == PojoBytesCache.Format.JSON) {
+            return jsonMapper.writeValueAsBytes(pojo);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        xmlMapper.writeValue(new XmlStreamWriter(bytes), pojo);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,340 @@
+package schnittstelle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+/**
+ * Change stream of the pojos for {@code GET /pojo/events}. Every published change gets the next event id and is kept in a ring buffer of the last
+ * {@link #CAPACITY_PROPERTY} events, so a client reconnecting with {@code Last-Event-ID} gets exactly the events it missed. An event id is
+ * {@code <epoch>-<sequence>}: the epoch is new per instance (per boot), so an id from before a restart is never taken for one of the new sequence.
+ * <p/>
+ * Each subscriber has a bounded queue, sent by a thread of the executor. Publishing never blocks on a client: if the queue of a slow client is full,
+ * the client is dropped (its stream is closed) and has to reconnect with its last event id. If the missed events are no longer in the ring buffer,
+ * the client gets a {@value #RESET} event instead and has to read {@code GET /pojo} again.
+ * <p/>
+ * A store write and the publish of its event are one step with {@link #ordered(String, Supplier)}: the writes of an id through it run one after the
+ * other, so the events of an id are in the order of its writes - a client never applies an older state after a newer one.
+ */
+final class PojoEvents {
+    /**
+     * System property of the events kept for {@code Last-Event-ID} of {@link #applicationScoped()}, default {@value #DEFAULT_CAPACITY}.
+     */
+    static final String CAPACITY_PROPERTY = "schnittstelle.pojoEvents.capacity";
+    static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * System property of the unsent events per subscriber of {@link #applicationScoped()}, default {@value #DEFAULT_SUBSCRIBER_CAPACITY}.
+     */
+    static final String SUBSCRIBER_CAPACITY_PROPERTY = "schnittstelle.pojoEvents.subscriberCapacity";
+    static final int DEFAULT_SUBSCRIBER_CAPACITY = 256;
+    /**
+     * Name of the event that replaces events which cannot be replayed. Its id is the last event id at this time.
+     */
+    static final String RESET = "reset";
+    static final String EPOCH_SEPARATOR = "-";
+    // Last-Event-ID of another epoch
+    private static final long OTHER_EPOCH = -1;
+
+    // locks of the ids from a store write to the publish of its event, see ordered()
+    private static final int WRITE_STRIPES = 64;
+
+    enum Type {
+        CREATED, UPDATED, DELETED;
+
+        /**
+         * @return name of the server sent event
+         */
+        String eventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final String epoch;
+    private final Object lock = new Object();
+    private final Event[] events;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private long lastEventId;
+
+    private final int subscriberCapacity;
+    private final Executor senders;
+    private final LongAdder dropped = new LongAdder();
+    private final ReentrantLock[] writeStripes = new ReentrantLock[WRITE_STRIPES];
+
+    PojoEvents(int capacity, int subscriberCapacity, Executor senders) {
+        this(Long.toString(System.currentTimeMillis(), Character.MAX_RADIX), capacity, subscriberCapacity, senders);
+    }
+
+    /**
+     * @param epoch not null prefix of the event ids of this instance, without {@value #EPOCH_SEPARATOR}
+     */
+    PojoEvents(String epoch, int capacity, int subscriberCapacity, Executor senders) {
+        if (epoch.isEmpty() || epoch.contains(EPOCH_SEPARATOR)) {
+            throw new IllegalArgumentException("epoch must be a not empty string without " + EPOCH_SEPARATOR + ", but was " + epoch);
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be > 0, but was " + capacity);
+        }
+        if (subscriberCapacity < 1) {
+            throw new IllegalArgumentException("subscriberCapacity must be > 0, but was " + subscriberCapacity);
+        }
+        this.epoch = epoch;
+        this.events = new Event[capacity];
+        this.subscriberCapacity = subscriberCapacity;
+        this.senders = Objects.requireNonNull(senders, "senders");
+        for (int stripe = 0; stripe < WRITE_STRIPES; stripe++) {
+            writeStripes[stripe] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @return not null change stream shared by all endpoints of this application
+     */
+    static PojoEvents applicationScoped() {
+        return ApplicationEventsHolder.INSTANCE;
+    }
+
+    /**
+     * Append the change with the next event id and offer it to all subscribers. Subscribers with a full queue are dropped.
+     *
+     * @param pojo not null pojo after the change, the removed pojo for {@link Type#DELETED}
+     */
+    void publish(Type type, Pojo pojo) {
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(pojo, "pojo");
+        synchronized (lock) {
+            final Event event = new Event(++lastEventId, type, pojo);
+            events[(int) (event.id % events.length)] = event;
+            subscribers.removeIf(subscriber -> !subscriber.offer(event));
+        }
+    }
+
+    /**
+     * Run the store write of one id and publish its event while holding the id, so the events of an id are published in the order of its writes. A
+     * batch calls this per pojo inside its loop and holds one stripe at a time, so it never blocks the writes of the other ids for the whole batch.
+     *
+     * @param id    not null id of the write, an id to generate is generated by the caller before
+     * @param write store write that publishes its event
+     * @return result of write
+     */
+    <T> T ordered(String id, Supplier<T> write) {
+        final ReentrantLock stripe = writeStripes[stripe(Objects.requireNonNull(id, "id"))];
+        stripe.lock();
+        try {
+            return write.get();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Send all events after lastEventIdOrNull and every following event to the sink, until the client disconnects or is dropped.
+     *
+     * @param lastEventIdOrNull {@code Last-Event-ID} of a reconnecting client or null for only the following events, a {@value #RESET} event if it is of
+     *                          another epoch
+     * @throws BadRequestException if lastEventIdOrNull is not an event id
+     */
+    void subscribe(SseEventSink sink, Sse sse, String lastEventIdOrNull) {
+        final Subscriber subscriber = new Subscriber(Objects.requireNonNull(sink, "sink"), Objects.requireNonNull(sse, "sse"));
+        final long lastSeen = sequenceOf(lastEventIdOrNull);
+        synchronized (lock) {
+            if (lastEventIdOrNull != null) {
+                replay(subscriber, lastSeen);
+            }
+            subscribers.add(subscriber);
+        }
+    }
+
+    /**
+     * @return prefix of the event ids of this instance
+     */
+    String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @return sequence number of the last event, without epoch
+     */
+    long getLastEventId() {
+        synchronized (lock) {
+            return lastEventId;
+        }
+    }
+
+    int getSubscribers() {
+        synchronized (lock) {
+            return subscribers.size();
+        }
+    }
+
+    /**
+     * @return subscribers dropped because their queue was full
+     */
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    private void replay(Subscriber subscriber, long lastSeen) {
+        final long oldestKept = Math.max(1, lastEventId - events.length + 1);
+        final boolean replayable = lastSeen != OTHER_EPOCH && lastSeen <= lastEventId && lastSeen >= oldestKept - 1
+                && lastEventId - lastSeen <= subscriberCapacity;
+        if (!replayable) {
+            // restarted server, overwritten or too many events - only a full read is consistent again
+            subscriber.offer(new Event(lastEventId, null, null));
+            return;
+        }
+        for (long id = lastSeen + 1; id <= lastEventId; id++) {
+            subscriber.offer(events[(int) (id % events.length)]);
+        }
+    }
+
+    private static int stripe(String id) {
+        final int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (WRITE_STRIPES - 1);
+    }
+
+    /**
+     * @return sequence number of the event id, {@link #OTHER_EPOCH} if it is of another epoch (also an id without epoch of an older server)
+     */
+    private long sequenceOf(String eventIdOrNull) {
+        if (eventIdOrNull == null) {
+            return 0;
+        }
+        final String eventId = eventIdOrNull.trim();
+        final int separator = eventId.lastIndexOf(EPOCH_SEPARATOR);
+        try {
+            final long sequence = Long.parseLong(eventId.substring(separator + 1));
+            if (sequence < 0 || separator == 0) {
+                throw new BadRequestException("Last-Event-ID is no event id: " + eventIdOrNull);
+            }
+            return separator > 0 && epoch.equals(eventId.substring(0, separator)) ? sequence : OTHER_EPOCH;
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Last-Event-ID is no event id: " + eventIdOrNull, e);
+        }
+    }
+
+    private static final class Event {
+        private final long id;
+        private final Type type;
+        private final Pojo pojo;
+
+        /**
+         * @param typeOrNull null for a {@value #RESET} event without pojo
+         */
+        private Event(long id, Type typeOrNull, Pojo pojoOrNull) {
+            this.id = id;
+            this.type = typeOrNull;
+            this.pojo = pojoOrNull;
+        }
+
+        private OutboundSseEvent toOutbound(Sse sse, String epoch) {
+            final String eventId = epoch + EPOCH_SEPARATOR + id;
+            final OutboundSseEvent.Builder builder = sse.newEventBuilder().id(eventId);
+            if (type == null) {
+                return builder.name(RESET).data(String.class, eventId).build();
+            }
+            return builder.name(type.eventName())
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(Pojo.class, pojo)
+                    .build();
+        }
+    }
+
+    /**
+     * Bounded queue of one client, sent by at most one task of the executor at a time.
+     */
+    private final class Subscriber implements Runnable {
+        private final SseEventSink sink;
+        private final Sse sse;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(subscriberCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEventSink sink, Sse sse) {
+            this.sink = sink;
+            this.sse = sse;
+        }
+
+        /**
+         * @return false if the subscriber is gone or dropped right now, never blocks
+         */
+        private boolean offer(Event event) {
+            if (closed || sink.isClosed()) {
+                closed = true;
+                return false;
+            }
+            if (!queue.offer(event)) {
+                dropped.increment();
+                closed = true;
+                queue.clear();
+                senders.execute(this::closeSink);
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Event event;
+                while (!closed && (event = queue.poll()) != null) {
+                    sink.send(event.toOutbound(sse, epoch)).toCompletableFuture().join();
+                }
+            } catch (RuntimeException e) {
+                // client disconnected, removed on the next publish
+                closed = true;
+                closeSink();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed) {
+                schedule();
+            }
+        }
+
+        private void closeSink() {
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                // already gone
+            }
+        }
+    }
+
+    private static final class ApplicationEventsHolder {
+        private static final PojoEvents INSTANCE = new PojoEvents(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY),
+                Integer.getInteger(SUBSCRIBER_CAPACITY_PROPERTY, DEFAULT_SUBSCRIBER_CAPACITY), newSenders());
+
+        private static ExecutorService newSenders() {
+            final AtomicInteger threads = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "pojo-events-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
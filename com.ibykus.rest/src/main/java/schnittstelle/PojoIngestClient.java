@@ -0,0 +1,245 @@
+package schnittstelle;
+
+import org.xnio.IoUtils;
+import org.xnio.OptionMap;
+import org.xnio.Options;
+import org.xnio.Pooled;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.undertow.server.DefaultByteBufferPool;
+import io.undertow.websockets.client.WebSocketClient;
+import io.undertow.websockets.core.AbstractReceiveListener;
+import io.undertow.websockets.core.BufferedBinaryMessage;
+import io.undertow.websockets.core.CloseMessage;
+import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.core.WebSockets;
+
+/**
+ * Client of the ingest web socket ({@link PojoIngestEndpoint}) for high rate writers. Updates are collected into batches of {@code batchSize} and sent
+ * as one binary frame each. At most {@code maxInFlight} batches are sent but not yet acknowledged, {@link #send(String, int)} blocks until the server
+ * catches up.
+ * <p/>
+ * Use it like this
+ * <pre>
+ *  try (PojoIngestClient ingest = restClient.ingestClient("/rest/pojo/ingest")) {
+ *      for (...) {
+ *          ingest.send(id, value);
+ *      }
+ *      ingest.awaitAcks(10, TimeUnit.SECONDS); // all updates are stored
+ *  }
+ * </pre>
+ * Not thread safe, use one client per writer thread.
+ */
+public class PojoIngestClient implements Closeable {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final XnioWorker worker;
+    private final WebSocketChannel channel;
+    private final PojoIngestFrames.Encoder encoder = new PojoIngestFrames.Encoder();
+    private final int batchSize;
+    private final int maxInFlight;
+    private long sentSequence;
+
+    private final Object acks = new Object();
+    private long ackedSequence;
+    private long applied;
+    private String closedReason;
+
+    /**
+     * @param uri not null web socket uri, e.g. ws://localhost:8080/rest/pojo/ingest
+     */
+    public static PojoIngestClient connect(URI uri) throws IOException {
+        return connect(uri, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param uri         not null web socket uri, e.g. ws://localhost:8080/rest/pojo/ingest
+     * @param batchSize   updates per frame, max {@value PojoIngestFrames#MAX_BATCH}
+     * @param maxInFlight max sent but not acknowledged batches
+     */
+    public static PojoIngestClient connect(URI uri, int batchSize, int maxInFlight) throws IOException {
+        Objects.requireNonNull(uri, "uri");
+        if (batchSize < 1 || batchSize > PojoIngestFrames.MAX_BATCH) {
+            throw new IllegalArgumentException("batchSize must be 1.." + PojoIngestFrames.MAX_BATCH + ", but was " + batchSize);
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be > 0, but was " + maxInFlight);
+        }
+        final XnioWorker worker = Xnio.getInstance().createWorker(OptionMap.create(Options.WORKER_IO_THREADS, 1));
+        try {
+            final WebSocketChannel channel = WebSocketClient.connectionBuilder(worker, new DefaultByteBufferPool(false, BUFFER_BYTES), uri)
+                    .connect()
+                    .get();
+            return new PojoIngestClient(worker, channel, batchSize, maxInFlight);
+        } catch (IOException | RuntimeException e) {
+            worker.shutdownNow();
+            throw e;
+        }
+    }
+
+    private PojoIngestClient(XnioWorker worker, WebSocketChannel channel, int batchSize, int maxInFlight) {
+        this.worker = worker;
+        this.channel = channel;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+
+        channel.getReceiveSetter().set(new AbstractReceiveListener() {
+            @Override
+            protected void onFullBinaryMessage(WebSocketChannel channel, BufferedBinaryMessage message) {
+                final Pooled<ByteBuffer[]> data = message.getData();
+                try {
+                    final ByteBuffer ack = WebSockets.mergeBuffers(data.getResource());
+                    acknowledged(PojoIngestFrames.decodeAckSequence(ack), ack.getInt(ack.position() + Long.BYTES));
+                } catch (IllegalArgumentException e) {
+                    closed(e.getMessage());
+                    IoUtils.safeClose(channel);
+                } finally {
+                    data.free();
+                }
+            }
+
+            @Override
+            protected void onCloseMessage(CloseMessage message, WebSocketChannel channel) {
+                closed(message.getCode() + " " + message.getReason());
+            }
+
+            @Override
+            protected void onError(WebSocketChannel channel, Throwable error) {
+                closed(String.valueOf(error));
+                super.onError(channel, error);
+            }
+        });
+        channel.addCloseTask(closedChannel -> closed("connection closed"));
+        channel.resumeReceives();
+    }
+
+    /**
+     * Add the update to the current batch, sent when it is full.
+     *
+     * @param id not null id of 1..{@value PojoIngestFrames#MAX_ID_BYTES} UTF-8 bytes, the pojo is created if there is none
+     * @throws IOException if the connection is closed (e.g. by an invalid frame)
+     */
+    public void send(String id, int value) throws IOException {
+        encoder.add(id, value);
+        if (encoder.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Send the current batch, even if it is not full.
+     *
+     * @return sequence of the last sent batch
+     * @throws IOException if the connection is closed
+     */
+    public long flush() throws IOException {
+        if (encoder.size() == 0) {
+            return sentSequence;
+        }
+        awaitAckedSequence(sentSequence - maxInFlight + 1, Long.MAX_VALUE);
+        final long sequence = sentSequence + 1;
+        WebSockets.sendBinaryBlocking(encoder.finish(sequence), channel);
+        sentSequence = sequence;
+        encoder.clear();
+        return sequence;
+    }
+
+    /**
+     * Flush and wait until the server acknowledged all batches, their updates are stored then.
+     *
+     * @throws TimeoutException if not all batches are acknowledged in time
+     */
+    public void awaitAcks(long timeout, TimeUnit unit) throws IOException, TimeoutException {
+        final long sequence = flush();
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!awaitAckedSequence(sequence, deadline)) {
+            throw new TimeoutException("Batch " + sequence + " not acknowledged after " + timeout + " " + unit + ", last was " + getAckedSequence());
+        }
+    }
+
+    /**
+     * @return sequence of the last acknowledged batch
+     */
+    public long getAckedSequence() {
+        synchronized (acks) {
+            return ackedSequence;
+        }
+    }
+
+    /**
+     * @return updates stored by the server so far
+     */
+    public long getApplied() {
+        synchronized (acks) {
+            return applied;
+        }
+    }
+
+    /**
+     * Close the connection. Updates not acknowledged yet (see {@link #awaitAcks(long, TimeUnit)}) may be lost.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                WebSockets.sendCloseBlocking(CloseMessage.NORMAL_CLOSURE, null, channel);
+            }
+        } finally {
+            IoUtils.safeClose(channel);
+            worker.shutdown();
+        }
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} to give up, {@link Long#MAX_VALUE} to wait without limit
+     * @return false if the deadline passed
+     */
+    private boolean awaitAckedSequence(long sequence, long deadline) throws IOException {
+        synchronized (acks) {
+            while (ackedSequence < sequence) {
+                if (closedReason != null) {
+                    throw new IOException("Ingest connection closed: " + closedReason);
+                }
+                final long remainingMillis = deadline == Long.MAX_VALUE ? 0 : TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (deadline != Long.MAX_VALUE && remainingMillis <= 0) {
+                    return false;
+                }
+                try {
+                    acks.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for batch " + sequence, e);
+                }
+            }
+            return true;
+        }
+    }
+
+    private void acknowledged(long sequence, int appliedUpdates) {
+        synchronized (acks) {
+            ackedSequence = Math.max(ackedSequence, sequence);
+            applied += appliedUpdates;
+            acks.notifyAll();
+        }
+    }
+
+    private void closed(String reason) {
+        synchronized (acks) {
+            if (closedReason == null) {
+                closedReason = reason;
+            }
+            acks.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package schnittstelle;
+
+import org.xnio.IoUtils;
+import org.xnio.Pooled;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+import io.undertow.websockets.WebSocketConnectionCallback;
+import io.undertow.websockets.core.AbstractReceiveListener;
+import io.undertow.websockets.core.BufferedBinaryMessage;
+import io.undertow.websockets.core.BufferedTextMessage;
+import io.undertow.websockets.core.CloseMessage;
+import io.undertow.websockets.core.WebSocketCallback;
+import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.core.WebSockets;
+import io.undertow.websockets.spi.WebSocketHttpExchange;
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoStore;
+import schnittstelle.store.PojoStores;
+
+/**
+ * Web socket ingest of pojo updates for high rate writers (see {@link PojoIngestServlet}, {@link PojoIngestClient}). Every binary frame is a batch of
+ * id/value updates ({@link PojoIngestFrames}), stored with one {@link PojoStore#writeBatch(int, java.util.function.Supplier)} and acknowledged with its
+ * sequence number. Each update stores the pojo like {@code POST /pojo/{id}} and is published to {@link PojoEvents}.
+ * <p/>
+ * A batch is written on a worker thread of the XNIO worker, never on the IO thread of the connection - the IO thread serves other connections too. The
+ * receives of the connection are suspended from the decoded frame until its ack is sent, so the frames of one connection are applied in order and a
+ * busy store slows the writer down by TCP flow control instead of buffering frames. An invalid frame closes the connection without changing the store.
+ */
+public class PojoIngestEndpoint implements WebSocketConnectionCallback {
+    private final PojoStore dataCache;
+    private final PojoEvents events;
+
+    public PojoIngestEndpoint() {
+        this(PojoStores.applicationScoped());
+    }
+
+    public PojoIngestEndpoint(PojoStore dataCache) {
+        this(dataCache, PojoEvents.applicationScoped());
+    }
+
+    PojoIngestEndpoint(PojoStore dataCache, PojoEvents events) {
+        this.dataCache = Objects.requireNonNull(dataCache, "dataCache");
+        this.events = Objects.requireNonNull(events, "events");
+    }
+
+    @Override
+    public void onConnect(WebSocketHttpExchange exchange, WebSocketChannel channel) {
+        channel.getReceiveSetter().set(new AbstractReceiveListener() {
+            @Override
+            protected void onFullBinaryMessage(WebSocketChannel channel, BufferedBinaryMessage message) {
+                final Pooled<ByteBuffer[]> data = message.getData();
+                final PojoIngestFrames.Batch batch;
+                try {
+                    batch = PojoIngestFrames.decodeBatch(WebSockets.mergeBuffers(data.getResource()));
+                } catch (IllegalArgumentException e) {
+                    WebSockets.sendClose(CloseMessage.MSG_CONTAINS_INVALID_DATA, e.getMessage(), channel, null);
+                    return;
+                } finally {
+                    data.free();
+                }
+                // no further frame until the ack is sent
+                channel.suspendReceives();
+                channel.getWorker().execute(() -> applyAndAck(channel, batch));
+            }
+
+            @Override
+            protected void onFullTextMessage(WebSocketChannel channel, BufferedTextMessage message) {
+                WebSockets.sendClose(CloseMessage.PROTOCOL_ERROR, "Binary batch frames only", channel, null);
+            }
+
+            @Override
+            protected long getMaxBinaryBufferSize() {
+                return PojoIngestFrames.MAX_BATCH_BYTES;
+            }
+        });
+        channel.resumeReceives();
+    }
+
+    /**
+     * Called on a worker thread with suspended receives, resumed once the ack is sent.
+     */
+    private void applyAndAck(WebSocketChannel channel, PojoIngestFrames.Batch batch) {
+        final int applied;
+        try {
+            applied = apply(batch.getEntries());
+        } catch (RuntimeException e) {
+            WebSockets.sendClose(CloseMessage.UNEXPECTED_ERROR, "Batch " + batch.getSequence() + " failed", channel, null);
+            return;
+        }
+        WebSockets.sendBinary(PojoIngestFrames.encodeAck(batch.getSequence(), applied), channel, new WebSocketCallback<Void>() {
+            @Override
+            public void complete(WebSocketChannel channel, Void context) {
+                channel.resumeReceives();
+            }
+
+            @Override
+            public void onError(WebSocketChannel channel, Void context, Throwable throwable) {
+                IoUtils.safeClose(channel);
+            }
+        });
+    }
+
+    /**
+     * Store all updates of one batch, a snapshot (e.g. {@code GET /pojo}) sees all or none of them.
+     *
+     * @return number of stored updates
+     */
+    int apply(List<PojoEntry> entries) {
+        return dataCache.writeBatch(entries.size(), () -> {
+            for (PojoEntry entry : entries) {
+                // the id is held for its write and event only, not for the whole batch
+                events.ordered(entry.getId(), () -> {
+                    final boolean created = dataCache.put(entry) == null;
+                    events.publish(created ? PojoEvents.Type.CREATED : PojoEvents.Type.UPDATED, Pojo.of(entry));
+                    return null;
+                });
+            }
+            return entries.size();
+        });
+    }
+}
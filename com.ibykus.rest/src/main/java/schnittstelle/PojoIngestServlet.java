@@ -0,0 +1,17 @@
+package schnittstelle;
+
+import io.undertow.servlet.websockets.WebSocketServlet;
+
+/**
+ * Deploys the {@link PojoIngestEndpoint} of the application scoped store as web socket upgrade servlet of Undertow (see web.xml, {@code /pojo/ingest}
+ * next to the rest endpoint).
+ */
+public class PojoIngestServlet extends WebSocketServlet {
+    public PojoIngestServlet() {
+        this(new PojoIngestEndpoint());
+    }
+
+    public PojoIngestServlet(PojoIngestEndpoint endpoint) {
+        super(endpoint);
+    }
+}
@@ -2,21 +2,30 @@ package schnittstelle;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoPage;
+
 @XmlRootElement(name = PojoList.POJOS)
-public class PojoList {
+public class PojoList implements Versioned {
     static final String POJOS = "pojos";
     static final String POJO = "pojo";
+    static final String CURSOR = "cursor";
 
     private final List<Pojo> pojos = new ArrayList<>();
+    private String cursor;
+    private long version = PojoEntry.UNVERSIONED;
+    private boolean weakVersion;
 
     public PojoList() {/* MUST for @XmlRootElement */}
 
@@ -37,4 +46,55 @@ public class PojoList {
         pojos.clear();
         pojos.addAll(newList);
     }
+
+    /**
+     * @return cursor of the next page, null if there is no next page or the list is not paged
+     */
+    @XmlElement(name = CURSOR)
+    @JsonGetter(CURSOR)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public long version() {
+        return this.version;
+    }
+
+    @Override
+    public boolean weakVersion() {
+        return this.weakVersion;
+    }
+
+    /**
+     * @param version version of the snapshot the page was read from (see {@link schnittstelle.store.PojoSnapshot#getVersion()})
+     */
+    static PojoList of(PojoPage page, long version) {
+        final PojoList pojoList = of(page.getEntries());
+        pojoList.version = version;
+        pojoList.setCursor(page.getNextCursor());
+        return pojoList;
+    }
+
+    /**
+     * @param version store version before the entries were read weakly consistent (see {@link schnittstelle.store.PojoStore#version()}), they may
+     *                include later writes
+     */
+    static PojoList ofWeak(List<PojoEntry> entries, long version) {
+        final PojoList pojoList = of(entries);
+        pojoList.version = version;
+        pojoList.weakVersion = true;
+        return pojoList;
+    }
+
+    private static PojoList of(List<PojoEntry> entries) {
+        return new PojoList(entries.stream()
+                .map(Pojo::of)
+                .collect(Collectors.toList()));
+    }
 }
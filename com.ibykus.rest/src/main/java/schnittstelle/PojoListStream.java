@@ -0,0 +1,49 @@
+package schnittstelle;
+
+import java.io.Closeable;
+import java.util.Objects;
+
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoSnapshot;
+
+/**
+ * Response entity of an unpaged {@code GET /pojo}. It wraps the store entries without copying them. {@link PojoListStreamProvider} writes them one by one
+ * in the {@link PojoList} format to the response stream.
+ * <p/>
+ * A wrapped {@link PojoSnapshot} is closed after the response is written (or dropped, see {@link ETagFilter}).
+ */
+public final class PojoListStream implements Versioned, Closeable {
+    private final Iterable<PojoEntry> entries;
+    private final long version;
+    private final PojoSnapshot snapshotOrNull;
+
+    PojoListStream(Iterable<PojoEntry> entries, long version) {
+        this(entries, version, null);
+    }
+
+    PojoListStream(PojoSnapshot snapshot) {
+        this(snapshot, snapshot.getVersion(), snapshot);
+    }
+
+    private PojoListStream(Iterable<PojoEntry> entries, long version, PojoSnapshot snapshotOrNull) {
+        this.entries = Objects.requireNonNull(entries, "entries");
+        this.version = version;
+        this.snapshotOrNull = snapshotOrNull;
+    }
+
+    Iterable<PojoEntry> getEntries() {
+        return this.entries;
+    }
+
+    @Override
+    public long version() {
+        return this.version;
+    }
+
+    @Override
+    public void close() {
+        if (this.snapshotOrNull != null) {
+            this.snapshotOrNull.close();
+        }
+    }
+}
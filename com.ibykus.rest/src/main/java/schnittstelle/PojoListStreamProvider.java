@@ -0,0 +1,108 @@
+package schnittstelle;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import schnittstelle.store.PojoEntry;
+
+/**
+ * EE Provider to stream a {@link PojoListStream} with a jackson {@link JsonGenerator} (json) or a StAX {@link XMLStreamWriter} (xml). No {@link PojoList}
+ * is materialized, the output is byte compatible with the jackson serialization of a {@link PojoList}:
+ * <pre>
+ *   {"pojos":[{"value":1,"id":"a"},...]}
+ *   &lt;PojoList&gt;&lt;pojos&gt;&lt;pojos&gt;&lt;value&gt;1&lt;/value&gt;&lt;id&gt;a&lt;/id&gt;&lt;/pojos&gt;...&lt;/pojos&gt;&lt;/PojoList&gt;
+ * </pre>
+ */
+@Provider
+@Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+public class PojoListStreamProvider implements MessageBodyWriter<PojoListStream> {
+    private static final String XML_ROOT = PojoList.class.getSimpleName();
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final XMLOutputFactory xmlFactory = new XmlMapper().getFactory().getXMLOutputFactory();
+
+    @Override
+    public boolean isWriteable(Class<?> aClass, Type type, Annotation[] annotations, MediaType mediaType) {
+        final boolean isJsonOrXml = MediaType.APPLICATION_JSON_TYPE.isCompatible(mediaType) || MediaType.APPLICATION_XML_TYPE.isCompatible(mediaType);
+        return isJsonOrXml && PojoListStream.class.isAssignableFrom(aClass);
+    }
+
+    @Override
+    public void writeTo(PojoListStream pojos, Class<?> aClass, Type type, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> multivaluedMap, OutputStream outputStream) throws IOException, WebApplicationException {
+        try {
+            if (MediaType.APPLICATION_XML_TYPE.isCompatible(mediaType)) {
+                writeXml(pojos, outputStream);
+            } else {
+                writeJson(pojos, outputStream);
+            }
+        } finally {
+            pojos.close();
+        }
+    }
+
+    void writeJson(PojoListStream pojos, OutputStream outputStream) throws IOException {
+        try (final JsonGenerator json = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeArrayFieldStart(PojoList.POJOS);
+            for (PojoEntry entry : pojos.getEntries()) {
+                json.writeStartObject();
+                if (entry.getValue() == null) {
+                    json.writeNullField(Pojo.JSON_VALUE);
+                } else {
+                    json.writeNumberField(Pojo.JSON_VALUE, entry.getValue());
+                }
+                json.writeStringField(Pojo.JSON_ID, entry.getId());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    void writeXml(PojoListStream pojos, OutputStream outputStream) throws IOException {
+        try {
+            final XMLStreamWriter xml = xmlFactory.createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+            xml.writeStartElement(XML_ROOT);
+            xml.writeStartElement(PojoList.POJOS);
+            for (PojoEntry entry : pojos.getEntries()) {
+                xml.writeStartElement(PojoList.POJOS);
+                if (entry.getValue() == null) {
+                    xml.writeEmptyElement(Pojo.JSON_VALUE);
+                } else {
+                    xml.writeStartElement(Pojo.JSON_VALUE);
+                    xml.writeCharacters(entry.getValue().toString());
+                    xml.writeEndElement();
+                }
+                xml.writeStartElement(Pojo.JSON_ID);
+                xml.writeCharacters(entry.getId());
+                xml.writeEndElement();
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot stream PojoList as xml.", e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package schnittstelle;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoValueStats;
+
+/**
+ * Response of {@code GET /pojo/stats}: count, sum, min and max of the pojo values (see {@link schnittstelle.store.PojoStore#valueStats()}).
+ */
+@XmlRootElement(name = PojoStats.STATS)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class PojoStats implements Versioned {
+    static final String STATS = "stats";
+    static final String JSON_COUNT = "count";
+    static final String JSON_SUM = "sum";
+    static final String JSON_MIN = "min";
+    static final String JSON_MAX = "max";
+
+    private final long count;
+    private final long sum;
+    private final Integer min;
+    private final Integer max;
+    private long version = PojoEntry.UNVERSIONED;
+
+    @JsonCreator
+    public PojoStats(@JsonProperty(JSON_COUNT) long count, @JsonProperty(JSON_SUM) long sum,
+                     @JsonProperty(JSON_MIN) Integer minOrNull, @JsonProperty(JSON_MAX) Integer maxOrNull) {
+        this.count = count;
+        this.sum = sum;
+        this.min = minOrNull;
+        this.max = maxOrNull;
+    }
+
+    /**
+     * @return count of pojos with value
+     */
+    @JsonGetter(JSON_COUNT)
+    @XmlElement(name = JSON_COUNT)
+    public long getCount() {
+        return this.count;
+    }
+
+    @JsonGetter(JSON_SUM)
+    @XmlElement(name = JSON_SUM)
+    public long getSum() {
+        return this.sum;
+    }
+
+    /**
+     * @return min value, null if count is 0
+     */
+    @JsonGetter(JSON_MIN)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @XmlElement(name = JSON_MIN)
+    public Integer getMin() {
+        return this.min;
+    }
+
+    /**
+     * @return max value, null if count is 0
+     */
+    @JsonGetter(JSON_MAX)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @XmlElement(name = JSON_MAX)
+    public Integer getMax() {
+        return this.max;
+    }
+
+    @Override
+    public long version() {
+        return this.version;
+    }
+
+    /**
+     * @return true, the stats are read weakly consistent and may include writes after {@link #version()}
+     */
+    @Override
+    public boolean weakVersion() {
+        return true;
+    }
+
+    /**
+     * @param version store version before the stats were read (see {@link schnittstelle.store.PojoStore#version()}), weak ETag
+     */
+    static PojoStats of(PojoValueStats stats, long version) {
+        final PojoStats pojoStats = new PojoStats(stats.getCount(), stats.getSum(), stats.getMin(), stats.getMax());
+        pojoStats.version = version;
+        return pojoStats;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{count=%s, sum=%s, min=%s, max=%s}", this.count, this.sum, this.min, this.max);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PojoStats that = (PojoStats) o;
+        return count == that.count &&
+                sum == that.sum &&
+                Objects.equals(min, that.min) &&
+                Objects.equals(max, that.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, sum, min, max);
+    }
+}
@@ -1,6 +1,6 @@
 package schnittstelle;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -14,7 +14,7 @@ import javax.ws.rs.core.Application;
 public class RestApplication extends Application {
     @Override
     public Set<Class<?>> getClasses() {
-        return Collections.singleton(RestEndpoint.class);
+        return new LinkedHashSet<>(Arrays.asList(RestEndpoint.class, AsyncRestEndpoint.class));
     }
 
     @Override
@@ -22,6 +22,11 @@ public class RestApplication extends Application {
         final LinkedHashSet<Object> singletons = new LinkedHashSet<>();
         singletons.add(new ObjectMapperJsonProvider());
         singletons.add(new ObjectMapperXmlProvider());
+        singletons.add(new PojoListStreamProvider());
+        singletons.add(new ETagFilter());
+        singletons.add(new LaneFilter());
+        singletons.add(new UnhandledExceptionMapper());
+        singletons.add(new PojoBytesProvider());
         return singletons;
     }
 }
@@ -13,19 +13,29 @@ import java.io.Reader;
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.sse.SseEventSource;
+
+import schnittstelle.store.PojoPage;
 
 /**
  * Http rest client utility to GET,POST,PUT or DELETE a json,xml,text or raw resource with {@link ResteasyClient} under the hood.
@@ -58,6 +68,7 @@ public class RestClient implements Closeable {
     private static final MediaType DEFAULT_CONTENT_TYPE = MediaType.TEXT_PLAIN_TYPE;
     private static final String HTTP = "http";
     private static final int HTTP_PORT = 80;
+    private static final String WS = "ws";
     private static final String HTTPS = "https";
     private static final Integer HTTPS_PORT = 443;
 
@@ -120,6 +131,60 @@ public class RestClient implements Closeable {
         return httpRequest().addPath(path);
     }
 
+    /**
+     * POST the pojos in chunks of batchSize to 'path/batch' (see {@link RestEndpoint#httpPostBatch(PojoList)}). One round trip per chunk instead of one
+     * per pojo.
+     *
+     * @param path      not null path of the pojo resource (e.g. /rest/pojo)
+     * @param pojos     not null pojos to create (without id) or update (with id)
+     * @param batchSize pojos per request, 1..{@value schnittstelle.store.PojoPage#MAX_LIMIT}
+     * @param mediaType not null ContentType and Accept of the requests
+     * @return one item per pojo in the given order
+     */
+    public List<PojoBatchItem> httpPostBatch(String path, List<Pojo> pojos, int batchSize, MediaType mediaType) {
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(pojos, "pojos");
+        Objects.requireNonNull(mediaType, "mediaType");
+        if (batchSize < 1 || batchSize > PojoPage.MAX_LIMIT) {
+            throw new IllegalArgumentException("batchSize must be 1.." + PojoPage.MAX_LIMIT + ", but was " + batchSize);
+        }
+
+        final List<PojoBatchItem> items = new ArrayList<>(pojos.size());
+        for (int from = 0; from < pojos.size(); from += batchSize) {
+            final List<Pojo> chunk = pojos.subList(from, Math.min(from + batchSize, pojos.size()));
+            items.addAll(httpRequest(path).addPath("batch")
+                    .data(new PojoList(chunk), mediaType)
+                    .headerAccept(mediaType)
+                    .httpPost(PojoBatchResult.class)
+                    .getItems());
+        }
+        return items;
+    }
+
+    /**
+     * Connect a web socket ingest client to 'ws://host:port/path' (see {@link PojoIngestEndpoint}). One frame per batch of updates instead of one
+     * request per pojo. Close it after use, it is independent of this client.
+     *
+     * @param path not null path of the ingest endpoint (e.g. /rest/pojo/ingest)
+     * @return not null connected client with {@link PojoIngestClient#DEFAULT_BATCH_SIZE}
+     */
+    public PojoIngestClient ingestClient(String path) throws IOException {
+        return ingestClient(path, PojoIngestClient.DEFAULT_BATCH_SIZE, PojoIngestClient.DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @see #ingestClient(String)
+     * @see PojoIngestClient#connect(URI, int, int)
+     */
+    public PojoIngestClient ingestClient(String path, int batchSize, int maxInFlight) throws IOException {
+        Objects.requireNonNull(path, "path");
+        return PojoIngestClient.connect(UriBuilder.fromPath(path)
+                .scheme(WS)
+                .host(this.host)
+                .port(this.port.orElse(HTTP_PORT))
+                .build(), batchSize, maxInFlight);
+    }
+
     @Override
     public void close() throws IOException {
         if (this.resteasyClient != null) {
@@ -135,10 +200,12 @@ public class RestClient implements Closeable {
         private final String host;
         private final Integer port;
         private final List<MediaType> acceptTypes = new LinkedList<>();
+        private final Map<String, Object> queryParams = new LinkedHashMap<>();
+        private final Map<String, Object> headers = new LinkedHashMap<>();
         private final AtomicReference<MediaType> contentType = new AtomicReference(MediaType.TEXT_PLAIN);
         private final AtomicReference<String> schema = new AtomicReference(HTTP);
         private Path path = Path.of("");
-        private java.util.Optional<Object> data = java.util.Optional.empty();
+        private Optional<Object> data = Optional.empty();
 
         private Request(Client httpClient, String host, Integer port) {
             this.httpClient = Objects.requireNonNull(httpClient, "httpClient");
@@ -152,7 +219,7 @@ public class RestClient implements Closeable {
         }
 
         public Request headerAccept(MediaType mediaType) {
-            java.util.Optional.ofNullable(mediaType).ifPresent(acceptTypes::add);
+            Optional.ofNullable(mediaType).ifPresent(acceptTypes::add);
             return this;
         }
 
@@ -169,10 +236,43 @@ public class RestClient implements Closeable {
         }
 
         public Request headerContentType(MediaType mediaType) {
-            java.util.Optional.ofNullable(mediaType).ifPresent(contentType::set);
+            Optional.ofNullable(mediaType).ifPresent(contentType::set);
             return this;
         }
 
+        /**
+         * Set/overwrite a request header if the value is not null.
+         *
+         * @param name        not null header name
+         * @param valueOrNull ignore null values
+         * @return this
+         */
+        public Request header(String name, Object valueOrNull) {
+            Objects.requireNonNull(name, "name");
+            Optional.ofNullable(valueOrNull).ifPresent(value -> this.headers.put(name, value));
+            return this;
+        }
+
+        /**
+         * Conditional GET - the server responses 304 if the resource still has this ETag (see {@link #httpGetConditional(Class)}).
+         *
+         * @param eTagOrNull ETag of a previous response (e.g. "42"), ignore null
+         * @return this
+         */
+        public Request headerIfNoneMatch(String eTagOrNull) {
+            return header(HttpHeaders.IF_NONE_MATCH, eTagOrNull);
+        }
+
+        /**
+         * Conditional POST/PUT - the server responses 412 if the resource has no longer this ETag (optimistic concurrency).
+         *
+         * @param eTagOrNull ETag of a previous response (e.g. "42") or *, ignore null
+         * @return this
+         */
+        public Request headerIfMatch(String eTagOrNull) {
+            return header(HttpHeaders.IF_MATCH, eTagOrNull);
+        }
+
         /**
          * Set/overwrite the hole path if it not null.
          *
@@ -225,6 +325,19 @@ public class RestClient implements Closeable {
             return this;
         }
 
+        /**
+         * Set/overwrite the query parameter if the value is not null.
+         *
+         * @param name        not null parameter name
+         * @param valueOrNull ignore null values
+         * @return this
+         */
+        public Request queryParam(String name, Object valueOrNull) {
+            Objects.requireNonNull(name, "name");
+            Optional.ofNullable(valueOrNull).ifPresent(value -> this.queryParams.put(name, value));
+            return this;
+        }
+
         /**
          * Set/overwrite the data body of the request with an instance. Use the default ContentType as header.
          *
@@ -244,7 +357,7 @@ public class RestClient implements Closeable {
          */
         public Request data(Object data, MediaType contentType) {
             this.headerContentType(contentType);
-            this.data = java.util.Optional.ofNullable(data);
+            this.data = Optional.ofNullable(data);
             return this;
         }
 
@@ -256,7 +369,7 @@ public class RestClient implements Closeable {
          */
         public Request dataJson(Object data) {
             this.headerContentType(MediaType.APPLICATION_JSON_TYPE);
-            this.data = java.util.Optional.ofNullable(data);
+            this.data = Optional.ofNullable(data);
             return this;
         }
 
@@ -269,7 +382,7 @@ public class RestClient implements Closeable {
 
         public Request dataXml(String data) {
             this.headerContentType(MediaType.APPLICATION_XML_TYPE);
-            this.data = java.util.Optional.ofNullable(data);
+            this.data = Optional.ofNullable(data);
             return this;
         }
 
@@ -298,6 +411,7 @@ public class RestClient implements Closeable {
             final URI uri = makeUri();
             final Invocation.Builder webTarget = this.httpClient.target(uri).request();
             this.acceptTypes.forEach(webTarget::accept);
+            this.headers.forEach(webTarget::header);
 
             final Entity<Object> requestBody = data.map(localData -> Entity.entity(localData, this.contentType.get()))
                     .orElse(EMPTY_TEXT_BODY);
@@ -319,6 +433,7 @@ public class RestClient implements Closeable {
             final Invocation.Builder client = this.httpClient
                     .target(uri).request();
             this.acceptTypes.forEach(client::accept);
+            this.headers.forEach(client::header);
 
             final T responseBody = client.get(expectedResponseClass);
             return responseBody;
@@ -336,6 +451,7 @@ public class RestClient implements Closeable {
             final URI uri = makeUri();
             final Invocation.Builder webTarget = this.httpClient.target(uri).request();
             this.acceptTypes.forEach(webTarget::accept);
+            this.headers.forEach(webTarget::header);
 
             final Entity<Object> requestBody = data.map(localData -> Entity.entity(localData, this.contentType.get()))
                     .orElse(EMPTY_TEXT_BODY);
@@ -357,11 +473,45 @@ public class RestClient implements Closeable {
             final Invocation.Builder client = this.httpClient
                     .target(uri).request();
             this.acceptTypes.forEach(client::accept);
+            this.headers.forEach(client::header);
 
             final T responseBody = client.delete(expectedResponseClass);
             return responseBody;
         }
 
+        /**
+         * Do http(s) GET request, maybe with {@link #headerIfNoneMatch(String)}.
+         *
+         * @param expectedResponseClass not null expected mappable Json|Xml class
+         * @param <T>                   generic response body type (e.g. mappable Json|Xml class)
+         * @return status, ETag and body (null if 304 Not Modified) or throw client or server exception.
+         */
+        public <T> ConditionalResponse<T> httpGetConditional(Class<T> expectedResponseClass) {
+            return ConditionalResponse.of(httpGet(Response.class), expectedResponseClass);
+        }
+
+        /**
+         * Do http(s) POST request, maybe with {@link #headerIfMatch(String)}.
+         *
+         * @param expectedResponseClass not null expected mappable Json|Xml class
+         * @param <T>                   generic response body type (e.g. mappable Json|Xml class)
+         * @return status, ETag and body or throw client or server exception (e.g. 412 if If-Match failed).
+         */
+        public <T> ConditionalResponse<T> httpPostConditional(Class<T> expectedResponseClass) {
+            return ConditionalResponse.of(httpPost(Response.class), expectedResponseClass);
+        }
+
+        /**
+         * Do http(s) PUT request, maybe with {@link #headerIfMatch(String)}.
+         *
+         * @param expectedResponseClass not null expected mappable Json|Xml class
+         * @param <T>                   generic response body type (e.g. mappable Json|Xml class)
+         * @return status, ETag and body or throw client or server exception (e.g. 412 if If-Match failed).
+         */
+        public <T> ConditionalResponse<T> httpPutConditional(Class<T> expectedResponseClass) {
+            return ConditionalResponse.of(httpPut(Response.class), expectedResponseClass);
+        }
+
         /**
          * Do http(s) GET request.
          *
@@ -377,6 +527,15 @@ public class RestClient implements Closeable {
             return body;
         }
 
+        /**
+         * Open a server sent event stream (e.g. {@code GET /pojo/events}). The source reconnects with the id of the last received event by itself.
+         *
+         * @return not null source, register the consumers before {@link SseEventSource#open()} and close it after use
+         */
+        public SseEventSource httpGetEvents() {
+            return SseEventSource.target(this.httpClient.target(makeUri())).build();
+        }
+
         private URI makeUri() {
             final UriBuilder builder = UriBuilder.fromPath("")
                     .scheme(this.schema.get())
@@ -384,6 +543,7 @@ public class RestClient implements Closeable {
                     .path(this.path.toString());
 
             Optional.ofNullable(this.port).ifPresent(builder::port);
+            this.queryParams.forEach(builder::queryParam);
 
             return builder
                     .build();
@@ -401,11 +561,82 @@ public class RestClient implements Closeable {
         }
 
         public String toString() {
-            return String.format("%s://%s:%s/%s -H 'ContentType: %s' -H 'Accept: %s' --data %s", this.schema, this.host, this.port, this.path, this.contentType, this.acceptTypes, this.data);
+            final String query = this.queryParams.isEmpty() ? "" : this.queryParams.entrySet().stream()
+                    .map(param -> param.getKey() + "=" + param.getValue())
+                    .collect(Collectors.joining("&", "?", ""));
+            final String headers = this.headers.entrySet().stream()
+                    .map(header -> String.format(" -H '%s: %s'", header.getKey(), header.getValue()))
+                    .collect(Collectors.joining());
+            return String.format("%s://%s:%s/%s%s -H 'ContentType: %s' -H 'Accept: %s'%s --data %s", this.schema, this.host, this.port, this.path, query, this.contentType, this.acceptTypes, headers, this.data);
         }
 
     }
 
+    /**
+     * Response of a conditional request: status, ETag and body.
+     *
+     * @param <T> body type
+     */
+    public static final class ConditionalResponse<T> {
+        private final int status;
+        private final String eTag;
+        private final T body;
+
+        private ConditionalResponse(int status, String eTag, T body) {
+            this.status = status;
+            this.eTag = eTag;
+            this.body = body;
+        }
+
+        private static <T> ConditionalResponse<T> of(Response response, Class<T> expectedResponseClass) {
+            Objects.requireNonNull(expectedResponseClass, "expectedResponseClass");
+            try {
+                final Response.StatusType status = response.getStatusInfo();
+                if (status.getFamily() == Response.Status.Family.CLIENT_ERROR) {
+                    throw new ClientErrorException(response);
+                }
+                if (status.getFamily() == Response.Status.Family.SERVER_ERROR) {
+                    throw new ServerErrorException(response);
+                }
+                final String eTag = response.getEntityTag() == null ? null : response.getHeaderString(HttpHeaders.ETAG);
+                final T body = response.hasEntity() ? response.readEntity(expectedResponseClass) : null;
+                return new ConditionalResponse<>(status.getStatusCode(), eTag, body);
+            } finally {
+                response.close();
+            }
+        }
+
+        public int getStatus() {
+            return this.status;
+        }
+
+        /**
+         * @return true if 304 - the ETag of {@link Request#headerIfNoneMatch(String)} is still valid, no body
+         */
+        public boolean isNotModified() {
+            return this.status == Response.Status.NOT_MODIFIED.getStatusCode();
+        }
+
+        /**
+         * @return ETag header as it is (e.g. "42") for the next {@link Request#headerIfNoneMatch(String)}/{@link Request#headerIfMatch(String)} or null
+         */
+        public String getETag() {
+            return this.eTag;
+        }
+
+        /**
+         * @return response body or null (e.g. if not modified)
+         */
+        public T getBody() {
+            return this.body;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s ETag: %s %s", this.status, this.eTag, this.body);
+        }
+    }
+
     /**
      * Wraps and enhance the {@link ResteasyClientBuilder} a little bit.
      */
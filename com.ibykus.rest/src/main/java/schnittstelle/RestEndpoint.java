@@ -1,26 +1,52 @@
 package schnittstelle;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import javax.ejb.EJB;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import schnittstelle.lanes.Lane;
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoPage;
+import schnittstelle.store.PojoSnapshot;
+import schnittstelle.store.PojoStore;
+import schnittstelle.store.PojoStores;
 
 /**
  * JAX-RS rest endpoint
  * <pre>
  *   GET /pojo 'Accept: application/json' -> [JSON]
  *   GET /pojo 'Accept: application/xml'  -> [XML]
+ *   GET /pojo?limit=100&cursor=... 'Accept: application/json' -> [JSON] + next cursor
+ *   GET /pojo?limit=100&cursor=... 'Accept: application/xml'  -> [XML] + next cursor
+ *   GET /pojo?minValue=1&maxValue=9&limit=100 'Accept: application/json' -> [JSON] ordered by value
+ *   GET /pojo?minValue=1&maxValue=9&limit=100 'Accept: application/xml'  -> [XML] ordered by value
+ *   GET /pojo/stats 'Accept: application/json' -> JSON count/sum/min/max of the values
+ *   GET /pojo/stats 'Accept: application/xml'  -> XML count/sum/min/max of the values
+ *   GET /pojo/events 'Accept: text/event-stream' -> created/updated/deleted events with JSON, resumed after 'Last-Event-ID'
  *   GET /pojo/{id} 'Accept: application/json' -> JSON
  *   GET /pojo/{id} 'Accept: application/xml'  -> XML
  *
@@ -39,54 +65,246 @@ import javax.ws.rs.core.MediaType;
  *   POST /pojo/{id} 'ContentType: application/xml' 'Accept: application/json' XML   -> JSON
  *   POST /pojo/{id} 'ContentType: application/xml' 'Accept: application/xml' XML    -> XML
  *
+ *   POST /pojo/batch 'ContentType: application/json' 'Accept: application/json' [JSON] -> [JSON status+pojo]
+ *   POST /pojo/batch 'ContentType: application/xml' 'Accept: application/xml' [XML]     -> [XML status+pojo]
+ *
+ *   POST /pojo/{id}/add?delta=1 'Accept: application/json' -> JSON with the new value
+ *   POST /pojo/{id}/add?delta=1 'Accept: application/xml'  -> XML with the new value
+ *   POST /pojo/{id}/cas?expect=1&update=2 'Accept: application/json' -> JSON with the new value, 409 + current JSON if the value differs
+ *   POST /pojo/{id}/cas?expect=1&update=2 'Accept: application/xml'  -> XML with the new value, 409 + current XML if the value differs
+ *
  *   DELETE /pojo/{id} 'Accept: application/json' -> JSON
  *   DELETE /pojo/{id} 'Accept: application/xml'  -> XML
  * </pre>
+ * The endpoint is instantiated per request, the data lives in the application scoped {@link PojoStore} (see {@link PojoStores}).
+ * <p/>
+ * Responses of single pojos and lists carry a strong ETag of the store version ({@link ETagFilter}). GET with a matching If-None-Match responses 304,
+ * POST/PUT with If-Match only replace the pojo if its version matches, otherwise 412. Serialized pojos are cached by {@link PojoBytesProvider}.
+ * <p/>
+ * Lists are read from a {@link PojoSnapshot} of the store, so they never show a half written batch and their ETag is the exact version of the list.
+ * <p/>
+ * {@link AsyncRestEndpoint} offers the same requests under {@code /async/pojo} without blocking the http worker threads.
+ * <p/>
+ * Each request method belongs to a scheduling {@link Lane} of bounded concurrency ({@link LaneFilter}), so exports and batch imports cannot take all
+ * worker threads from the point reads.
+ * <p/>
+ * Every write of this endpoint is published to the application scoped {@link PojoEvents}, clients keep their copy up to date with
+ * {@code GET /pojo/events} instead of polling {@code GET /pojo}.
  */
 @Path("/pojo")
 public class RestEndpoint {
     private static final String NULL_ID_TO_CREATE_NEW_POJO = null;
+    private static final LongPredicate NO_PRECONDITION = null;
 
-    private final Map<String, Pojo> dataCache = new ConcurrentHashMap<>();
+    private final PojoStore dataCache;
+    private final PojoBytesCache bytesCache;
+    private final PojoEvents events;
 
     @EJB
     private Ejb ejb;
 
+    @Context
+    private HttpHeaders httpHeaders;
+
+    public RestEndpoint() {
+        this(PojoStores.applicationScoped());
+    }
+
+    public RestEndpoint(PojoStore dataCache) {
+        this(dataCache, PojoBytesCache.applicationScoped(), PojoEvents.applicationScoped());
+    }
+
+    RestEndpoint(PojoStore dataCache, PojoBytesCache bytesCache, PojoEvents events) {
+        this.dataCache = Objects.requireNonNull(dataCache, "dataCache");
+        this.bytesCache = Objects.requireNonNull(bytesCache, "bytesCache");
+        this.events = Objects.requireNonNull(events, "events");
+    }
+
+    /**
+     * Without limit, cursor and value range all pojos are streamed from the store to the response (see {@link PojoListStream}). With minValue or maxValue
+     * the pojos of this value range are returned (see {@link #httpGetRange(Integer, Integer, Integer)}). Otherwise one page ordered by id is returned.
+     * Pass its cursor to get the next page.
+     *
+     * @param limitOrNull    max pojos of the page or range (default {@value PojoPage#DEFAULT_LIMIT}, max {@value PojoPage#MAX_LIMIT})
+     * @param cursorOrNull   cursor of the previous page or null for the first page
+     * @param minValueOrNull min value of the range, inclusive
+     * @param maxValueOrNull max value of the range, inclusive
+     * @return {@link PojoListStream} or paged {@link PojoList}, cursor is null on the last page
+     */
     @GET
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.BULK)
+    public Response httpGet(@QueryParam("limit") Integer limitOrNull, @QueryParam("cursor") String cursorOrNull,
+                            @QueryParam("minValue") Integer minValueOrNull, @QueryParam("maxValue") Integer maxValueOrNull) {
+        if (minValueOrNull != null || maxValueOrNull != null) {
+            if (cursorOrNull != null) {
+                throw new BadRequestException("cursor is not supported with minValue/maxValue");
+            }
+            return Response.ok(httpGetRange(minValueOrNull, maxValueOrNull, limitOrNull)).build();
+        }
+        if (limitOrNull == null && cursorOrNull == null) {
+            return Response.ok(new PojoListStream(dataCache.openSnapshot())).build();
+        }
+        return Response.ok(httpGetPage(limitOrNull, cursorOrNull)).build();
+    }
+
+    public PojoList httpGetPage(Integer limitOrNull, String cursorOrNull) {
+        try (PojoSnapshot snapshot = dataCache.openSnapshot()) {
+            return PojoList.of(snapshot.page(cursorOrNull, PojoPage.limit(limitOrNull)), snapshot.getVersion());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Pojos with a value in the range ordered by value, then id, read from the sorted value index of the store. Pojos without value are never in range.
+     *
+     * @param minValueOrNull min value, inclusive, null means no lower bound
+     * @param maxValueOrNull max value, inclusive, null means no upper bound
+     * @param limitOrNull    max pojos (default {@value PojoPage#DEFAULT_LIMIT}, max {@value PojoPage#MAX_LIMIT})
+     * @return not null list without cursor
+     */
+    public PojoList httpGetRange(Integer minValueOrNull, Integer maxValueOrNull, Integer limitOrNull) {
+        try {
+            final long version = dataCache.version();
+            final int minValue = minValueOrNull == null ? Integer.MIN_VALUE : minValueOrNull;
+            final int maxValue = maxValueOrNull == null ? Integer.MAX_VALUE : maxValueOrNull;
+            // read from the value index, not from a snapshot: may include later writes, so the ETag of the version is weak
+            return PojoList.ofWeak(dataCache.rangeByValue(minValue, maxValue, PojoPage.limit(limitOrNull)), version);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Materialized variant of {@code GET /pojo}.
+     */
     public PojoList httpGet() {
-        return new PojoList(dataCache.values());
+        try (PojoSnapshot snapshot = dataCache.openSnapshot()) {
+            return new PojoList(StreamSupport.stream(snapshot.spliterator(), false)
+                    .map(Pojo::of)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Aggregates of the pojo values, maintained by the store on every write - neither a scan of the store nor a list in the response. The literal path
+     * takes precedence over {@code /pojo/{id}}, a pojo with the id "stats" is only readable via a list.
+     */
+    @GET
+    @Path("stats")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.POINT_READ)
+    public PojoStats httpGetStats() {
+        // aggregates of the current writes, not of a snapshot: weak ETag of the version before
+        final long version = dataCache.version();
+        return PojoStats.of(dataCache.valueStats(), version);
+    }
+
+    /**
+     * Stream the changes of the pojos as server sent events: name created, updated or deleted, the pojo as JSON data and an increasing id with the
+     * epoch of the server start. A client reconnecting with {@code Last-Event-ID} first gets the events it missed, or a {@value PojoEvents#RESET} event if
+     * they are no longer kept or of another epoch (then read {@code GET /pojo} again). A client too slow for the writes is disconnected, see
+     * {@link PojoEvents}. Like {@code /pojo/stats} the literal path takes precedence over {@code /pojo/{id}}.
+     *
+     * @param lastEventIdOrNull id of the last received event or null for only new events
+     * @throws BadRequestException 400 if the Last-Event-ID is no event id
+     */
+    @GET
+    @Path("events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void httpGetEvents(@Context SseEventSink sink, @Context Sse sse, @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventIdOrNull) {
+        events.subscribe(sink, sse, lastEventIdOrNull);
     }
 
     @GET
     @Path("{id}")
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.POINT_READ)
     public Pojo httpGet(@PathParam("id") String id) {
-        return dataCache.get(id);
+        return Optional.ofNullable(dataCache.get(id))
+                .map(Pojo::of)
+                .orElse(null);
     }
 
     @POST
     @Path("{id}")
     @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.WRITE)
     public Pojo httpPost(@PathParam("id") String idOrNull, Pojo requestBody) {
+        return httpPost(idOrNull, requestBody, ifMatchHeaderOrNull());
+    }
+
+    /**
+     * {@code POST /pojo/{id}} with the If-Match header read before, e.g. on the request thread of {@link AsyncRestEndpoint}.
+     */
+    Pojo httpPost(String idOrNull, Pojo requestBody, String ifMatchOrNull) {
         Objects.requireNonNull(requestBody, "requestBody");
 
         final Pojo localPojo = requestBody;
         final Optional<String> dataId = Optional.ofNullable(requestBody.getId());
 
-        if (idOrNull == NULL_ID_TO_CREATE_NEW_POJO || !dataId.isPresent()) {
+        final boolean generateId = idOrNull == NULL_ID_TO_CREATE_NEW_POJO || !dataId.isPresent();
+        final LongPredicate preconditionOrNull = ETags.ifMatch(ifMatchOrNull);
+        if (generateId) {
+            // generated before the write, so its event is ordered like the one of any other id
             localPojo.generateAndSetId();
         }
+        return events.ordered(localPojo.getId(), () -> {
+            final boolean created = store(localPojo, generateId, preconditionOrNull);
 
-        dataCache.put(localPojo.getId(), localPojo);
+            final Pojo stored = withStoredVersion(localPojo);
+            events.publish(created ? PojoEvents.Type.CREATED : PojoEvents.Type.UPDATED, stored);
+            return stored;
+        });
+    }
 
-        return localPojo;
+    /**
+     * Create (pojo without id) or update (pojo with id) all pojos of the list in one pass.
+     *
+     * @param requestBody max {@value PojoPage#MAX_LIMIT} pojos
+     * @return one item per requested pojo in request order
+     */
+    @POST
+    @Path("batch")
+    @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.BULK)
+    public PojoBatchResult httpPostBatch(PojoList requestBody) {
+        Objects.requireNonNull(requestBody, "requestBody");
+        if (requestBody.getPojos().size() > PojoPage.MAX_LIMIT) {
+            throw new BadRequestException("Max " + PojoPage.MAX_LIMIT + " pojos per batch, but was " + requestBody.getPojos().size());
+        }
+
+        final List<Pojo> pojos = requestBody.getPojos();
+        // one store write per pojo, a snapshot (e.g. GET /pojo) sees all or none of them
+        return dataCache.writeBatch(pojos.size(), () -> {
+            final List<PojoBatchItem> items = new ArrayList<>(pojos.size());
+            for (Pojo pojo : pojos) {
+                if (pojo == null) {
+                    items.add(new PojoBatchItem(PojoBatchItem.Status.INVALID, null));
+                    continue;
+                }
+                final boolean generateId = pojo.getId() == null;
+                if (generateId) {
+                    pojo.generateAndSetId();
+                }
+                // the id is held for its write and event only, not for the whole batch
+                items.add(events.ordered(pojo.getId(), () -> {
+                    final boolean created = store(pojo, generateId, NO_PRECONDITION);
+                    events.publish(created ? PojoEvents.Type.CREATED : PojoEvents.Type.UPDATED, pojo);
+                    return new PojoBatchItem(created ? PojoBatchItem.Status.CREATED : PojoBatchItem.Status.UPDATED, pojo);
+                }));
+            }
+            return new PojoBatchResult(items);
+        });
     }
 
     @PUT
     @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.WRITE)
     public Pojo httpPut(Pojo requestBody) {
         return httpPost(requestBody);
     }
@@ -94,14 +312,129 @@ public class RestEndpoint {
     @POST
     @Consumes({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.WRITE)
     public Pojo httpPost(Pojo requestBody) {
         return httpPost(NULL_ID_TO_CREATE_NEW_POJO, requestBody);
     }
 
+    /**
+     * Add to the value of the pojo in one atomic store update, concurrent increments are never lost (no GET/POST round trip with If-Match).
+     *
+     * @param deltaOrNull not null value to add, a pojo without value counts as 0
+     * @return pojo with the new value or null if there is no pojo with this id
+     * @throws BadRequestException 400 without delta or if the new value overflows
+     */
+    @POST
+    @Path("{id}/add")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.WRITE)
+    public Pojo httpPostAdd(@PathParam("id") String id, @QueryParam("delta") Integer deltaOrNull) {
+        if (deltaOrNull == null) {
+            throw new BadRequestException("delta is required");
+        }
+        bytesCache.invalidate(id);
+        try {
+            return events.ordered(id, () -> Optional.ofNullable(dataCache.addToValue(id, deltaOrNull))
+                    .map(Pojo::of)
+                    .map(this::publishUpdated)
+                    .orElse(null));
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("value overflow", e);
+        }
+    }
+
+    /**
+     * Set the value of the pojo only if it is the expected one, atomically in the store.
+     *
+     * @param expectOrNull  not null expected current value
+     * @param updateOrNull  not null new value
+     * @return pojo with the new value or null if there is no pojo with this id
+     * @throws BadRequestException  400 without expect or update
+     * @throws ClientErrorException 409 with the current pojo if its value is not the expected one
+     */
+    @POST
+    @Path("{id}/cas")
+    @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.WRITE)
+    public Pojo httpPostCas(@PathParam("id") String id, @QueryParam("expect") Integer expectOrNull, @QueryParam("update") Integer updateOrNull) {
+        if (expectOrNull == null || updateOrNull == null) {
+            throw new BadRequestException("expect and update are required");
+        }
+        bytesCache.invalidate(id);
+        final Pojo updated = events.ordered(id,
+                () -> Optional.ofNullable(dataCache.compareAndSetValue(id, expectOrNull, updateOrNull))
+                        .map(Pojo::of)
+                        .map(this::publishUpdated)
+                        .orElse(null));
+        if (updated != null) {
+            return updated;
+        }
+        final PojoEntry current = dataCache.get(id);
+        if (current == null) {
+            return null;
+        }
+        throw new ClientErrorException(Response.status(Response.Status.CONFLICT).entity(Pojo.of(current)).build());
+    }
+
     @DELETE
     @Path("{id}")
     @Produces({MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @LaneOf(Lane.WRITE)
     public Pojo httpDelete(@PathParam("id") String id) {
-        return dataCache.remove(id);
+        bytesCache.invalidate(id);
+        return events.ordered(id, () -> {
+            final Pojo removed = Optional.ofNullable(dataCache.remove(id))
+                    .map(Pojo::of)
+                    .orElse(null);
+            if (removed != null) {
+                events.publish(PojoEvents.Type.DELETED, removed);
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * Called inside {@link PojoEvents#ordered(String, java.util.function.Supplier)} of the id.
+     *
+     * @param generateId    true if the id of localPojo was generated, it is replaced if it collides
+     * @param ifMatchOrNull predicate of If-Match or null to store unconditionally
+     * @return true if the pojo was created, false if an existing one was replaced
+     * @throws ClientErrorException 412 if the If-Match precondition failed
+     */
+    private boolean store(Pojo localPojo, boolean generateId, LongPredicate ifMatchOrNull) {
+        if (!generateId) {
+            bytesCache.invalidate(localPojo.getId());
+        }
+        if (ifMatchOrNull != null) {
+            if (generateId || dataCache.replaceIf(localPojo.toEntry(), ifMatchOrNull) == null) {
+                throw new ClientErrorException(Response.Status.PRECONDITION_FAILED);
+            }
+            return false;
+        }
+        if (generateId) {
+            // never overwrite an existing pojo with a colliding generated id
+            while (dataCache.putIfAbsent(localPojo.toEntry()) != null) {
+                localPojo.generateAndSetId();
+            }
+            return true;
+        }
+        return dataCache.put(localPojo.toEntry()) == null;
+    }
+
+    private Pojo publishUpdated(Pojo pojo) {
+        events.publish(PojoEvents.Type.UPDATED, pojo);
+        return pojo;
+    }
+
+    /**
+     * The version for the ETag of a write response. Only taken if no concurrent write changed the pojo in between.
+     */
+    private Pojo withStoredVersion(Pojo localPojo) {
+        final PojoEntry stored = dataCache.get(localPojo.getId());
+        return stored != null && stored.equals(localPojo.toEntry()) ? localPojo.versioned(stored.getVersion()) : localPojo;
+    }
+
+    private String ifMatchHeaderOrNull() {
+        return this.httpHeaders == null ? null : this.httpHeaders.getHeaderString(HttpHeaders.IF_MATCH);
     }
 }
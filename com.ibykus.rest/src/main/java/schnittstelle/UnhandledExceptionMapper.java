@@ -0,0 +1,32 @@
+package schnittstelle;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * EE Provider to answer exceptions not mapped otherwise with 500 (logged), a {@link WebApplicationException} with its own response. Without it the
+ * container answers them and no response filter runs - e.g. the {@link LaneFilter} would never free the slot of the request.
+ */
+@Provider
+public class UnhandledExceptionMapper implements ExceptionMapper<RuntimeException> {
+    private static final Logger LOG = Logger.getLogger(UnhandledExceptionMapper.class.getName());
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public Response toResponse(RuntimeException exception) {
+        if (exception instanceof WebApplicationException) {
+            return ((WebApplicationException) exception).getResponse();
+        }
+        LOG.log(Level.SEVERE, "Unhandled exception of " + (resourceInfo == null ? null : resourceInfo.getResourceMethod()), exception);
+        return Response.serverError().build();
+    }
+}
@@ -0,0 +1,22 @@
+package schnittstelle;
+
+/**
+ * Response entity with a store version. {@link ETagFilter} derives the ETag of the response from it.
+ */
+interface Versioned {
+    /**
+     * Not a bean getter by intention - the version is no part of the json/xml body.
+     *
+     * @return store version or {@link schnittstelle.store.PojoEntry#UNVERSIONED} for responses without ETag
+     */
+    long version();
+
+    /**
+     * Not a bean getter by intention, like {@link #version()}.
+     *
+     * @return true if the body was read weakly consistent after the version - it may include writes after it, so the ETag is weak
+     */
+    default boolean weakVersion() {
+        return false;
+    }
+}
@@ -5,18 +5,23 @@ import org.jboss.resteasy.spi.ResteasyDeployment;
 
 import java.io.IOException;
 import java.net.ServerSocket;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.servlet.Servlet;
 import javax.ws.rs.ApplicationPath;
 import javax.ws.rs.core.Application;
 
 import io.undertow.Undertow;
+import io.undertow.servlet.Servlets;
 import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.servlet.util.ImmediateInstanceFactory;
 import schnittstelle.ObjectMapperJsonProvider;
 import schnittstelle.RestApplication;
 import schnittstelle.RestClient;
@@ -37,17 +42,20 @@ public class ResteasyServerFacade {
     private final Optional<Application> application;
     private final List<Object> resources = new CopyOnWriteArrayList<>();
     private final List<Object> provider = new CopyOnWriteArrayList<>();
+    private final Map<String, Servlet> servlets = new LinkedHashMap<>();
 
     private final AtomicReference<UndertowJaxrsServer> httpServer = new AtomicReference<>();
     private final AtomicReference<RestClient> httpClient = new AtomicReference<>();
 
 
-    private ResteasyServerFacade(String host, Integer port, Optional<Application> application, List<Object> resources, List<Object> provider) {
+    private ResteasyServerFacade(String host, Integer port, Optional<Application> application, List<Object> resources, List<Object> provider,
+                                 Map<String, Servlet> servlets) {
         this.host = Objects.requireNonNull(host, "host");
         this.port = Objects.requireNonNull(port, "port");
         this.application = Objects.requireNonNull(application, "application");
         this.resources.addAll(Objects.requireNonNull(resources, "resources"));
         this.provider.addAll(Objects.requireNonNull(provider, "provider"));
+        this.servlets.putAll(Objects.requireNonNull(servlets, "servlets"));
     }
 
     /**
@@ -70,6 +78,8 @@ public class ResteasyServerFacade {
         inMemoryWar.setClassLoader(ResteasyServerFacade.class.getClassLoader());
         inMemoryWar.setDeploymentName(this.getClass().getName());
         inMemoryWar.setContextPath(determineContextPath(this.application));
+        this.servlets.forEach((mapping, servlet) -> inMemoryWar.addServlet(Servlets.servlet(servlet.getClass().getName() + mapping, servlet.getClass(),
+                new ImmediateInstanceFactory<>(servlet)).addMapping(mapping)));
 
         // Deploy InMemory-WAR
         server.deploy(inMemoryWar);
@@ -106,6 +116,13 @@ public class ResteasyServerFacade {
         }
     }
 
+    /**
+     * @return not null client for 'http://host:port' of the started server
+     */
+    public RestClient client() {
+        return this.httpClient.get();
+    }
+
     /**
      * Create a httpRequest(Builder for 'http://host:port/') ready for GET,POST,PUT,DELETE.
      *
@@ -135,6 +152,7 @@ public class ResteasyServerFacade {
         private final AtomicReference<Application> application = new AtomicReference<>();
         private final List<Object> resources = new LinkedList<>();
         private final List<Object> provider = new LinkedList<>();
+        private final Map<String, Servlet> servlets = new LinkedHashMap<>();
 
         public ResteasyBuilder configureApplication(RestApplication restApplication) {
             application.set(restApplication);
@@ -153,6 +171,18 @@ public class ResteasyServerFacade {
             return this;
         }
 
+        /**
+         * Deploy the servlet next to the application (e.g. a web socket endpoint).
+         *
+         * @param mapping not null url pattern relative to the context path, e.g. /pojo/ingest
+         */
+        public ResteasyBuilder configureServlet(String mapping, Servlet servlet) {
+            Objects.requireNonNull(mapping, "mapping");
+            Objects.requireNonNull(servlet, "servlet");
+            this.servlets.put(mapping, servlet);
+            return this;
+        }
+
         public ResteasyBuilder port(Integer port) {
             this.port.set(port);
             return this;
@@ -167,7 +197,8 @@ public class ResteasyServerFacade {
             if (port.get() == 0) {
                 port.set(findFreePort());
             }
-            final ResteasyServerFacade resteasy = new ResteasyServerFacade(host.get(), port.get(), Optional.ofNullable(this.application.get()), resources, provider);
+            final ResteasyServerFacade resteasy = new ResteasyServerFacade(host.get(), port.get(), Optional.ofNullable(this.application.get()), resources, provider,
+                    servlets);
             return resteasy;
         }
     }
@@ -0,0 +1,159 @@
+package schnittstelle;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.core.MediaType;
+
+import helper.ResteasyServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoEntry;
+
+/**
+ * Integration test for {@link AsyncRestEndpoint}: same answers as the {@link RestEndpoint}, 503 on timeout and full queue.
+ */
+public class AsyncRestEndpointITest {
+    private static final int RANDOM_PORT = 0;
+    private static final String SLOW_ID = "slow";
+
+    private final CountDownLatch slowStore = new CountDownLatch(1);
+    private final ConcurrentPojoStore store = new ConcurrentPojoStore() {
+        @Override
+        public PojoEntry get(String id) {
+            if (SLOW_ID.equals(id)) {
+                try {
+                    slowStore.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.get(id);
+        }
+    };
+    private final EndpointExecutor executor = new EndpointExecutor(2, 2, 500);
+    private ResteasyServerFacade resteasyFacade;
+
+    @Before
+    public void beforeTest() {
+        final ResteasyServerFacade newResteasy = ResteasyServerFacade.builder()
+                .port(RANDOM_PORT)
+                .configureApplication(new RestApplication())
+                .configureProvider(new ObjectMapperJsonProvider())
+                .configureProvider(new ObjectMapperXmlProvider())
+                .configureProvider(new ETagFilter())
+                .configureResources(new AsyncRestEndpoint(new RestEndpoint(store), executor))
+                .build();
+        this.resteasyFacade = Objects.requireNonNull(newResteasy, "newResteasy");
+        this.resteasyFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        slowStore.countDown();
+        resteasyFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_CRUD_success() {
+        final Pojo created = resteasyFacade.request("/rest/async/pojo")
+                .dataJson(new Pojo(5))
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+        Assert.assertNotNull(created.getId());
+        Assert.assertEquals(created, resteasyFacade.request("/rest/async/pojo/" + created.getId()).headerAcceptXml().httpGet(Pojo.class));
+
+        final RestClient.ConditionalResponse<Pojo> read = resteasyFacade.request("/rest/async/pojo/" + created.getId())
+                .headerAcceptJson()
+                .httpGetConditional(Pojo.class);
+        final RestClient.ConditionalResponse<Pojo> updated = resteasyFacade.request("/rest/async/pojo/" + created.getId())
+                .dataJson(new Pojo(created.getId(), 6))
+                .headerAcceptJson()
+                .headerIfMatch(read.getETag())
+                .httpPostConditional(Pojo.class);
+        Assert.assertEquals(new Pojo(created.getId(), 6), updated.getBody());
+
+        Assert.assertEquals(new Pojo(created.getId(), 7), resteasyFacade.request("/rest/async/pojo/" + created.getId() + "/add")
+                .queryParam("delta", 1)
+                .headerAcceptJson()
+                .httpPost(Pojo.class));
+        Assert.assertEquals(1, resteasyFacade.request("/rest/async/pojo").headerAcceptJson().httpGet(PojoList.class).getPojos().size());
+        Assert.assertEquals(1, resteasyFacade.request("/rest/async/pojo/stats").headerAcceptJson().httpGet(PojoStats.class).getCount());
+
+        Assert.assertEquals(new Pojo(created.getId(), 7), resteasyFacade.request("/rest/async/pojo/" + created.getId())
+                .headerAcceptJson()
+                .httpDelete(Pojo.class));
+        Assert.assertNull(resteasyFacade.request("/rest/async/pojo/" + created.getId()).headerAcceptJson().httpGet(Pojo.class));
+        Assert.assertEquals(0, executor.getTimedOut() + executor.getRejected());
+    }
+
+    @Test
+    public void assertThat_badRequest_response400() throws Exception {
+        Assertions.assertThatThrownBy(() -> resteasyFacade.request("/rest/async/pojo/any/add")
+                .headerAcceptJson()
+                .httpPost(Pojo.class))
+                .hasMessageContaining("400");
+        awaitCounted(1, executor::getFailed);
+    }
+
+    @Test
+    public void assertThat_slowStore_response503() throws Exception {
+        Assertions.assertThatThrownBy(() -> resteasyFacade.request("/rest/async/pojo/" + SLOW_ID)
+                .headerAccept(MediaType.APPLICATION_JSON_TYPE)
+                .httpGet(Pojo.class))
+                .isInstanceOf(ServiceUnavailableException.class);
+        awaitCounted(1, executor::getTimedOut);
+    }
+
+    @Test
+    public void assertThat_fullQueue_response503() throws Exception {
+        final int requests = 8;
+        final ExecutorService clients = Executors.newFixedThreadPool(requests);
+        try {
+            final List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                statuses.add(clients.submit((Callable<Integer>) () -> {
+                    try {
+                        resteasyFacade.request("/rest/async/pojo/" + SLOW_ID).headerAcceptJson().httpGet(Pojo.class);
+                        return 204;
+                    } catch (ServiceUnavailableException e) {
+                        return e.getResponse().getStatus();
+                    }
+                }));
+            }
+            for (Future<Integer> status : statuses) {
+                Assert.assertEquals(503, (int) status.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        // 2 running + 2 queued time out, the others find the queue full
+        awaitCounted(requests, () -> executor.getTimedOut() + executor.getRejected());
+        Assert.assertTrue(executor.toString(), executor.getRejected() >= requests - 4);
+    }
+
+    /**
+     * The counters are incremented after the response is sent.
+     */
+    private static void awaitCounted(long expected, LongSupplier counter) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (counter.getAsLong() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expected, counter.getAsLong());
+    }
+}
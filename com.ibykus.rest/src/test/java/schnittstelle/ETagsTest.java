@@ -0,0 +1,47 @@
+package schnittstelle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Unit test of {@link ETags}.
+ */
+public class ETagsTest {
+    @Test
+    public void ifMatchTest() {
+        Assert.assertNull(ETags.ifMatch(null));
+        Assert.assertTrue(ETags.ifMatch("\"42\"").test(42));
+        Assert.assertTrue(ETags.ifMatch("\"1\", \"42\"").test(42));
+        Assert.assertTrue(ETags.ifMatch("*").test(42));
+        Assert.assertFalse(ETags.ifMatch("\"41\"").test(42));
+        Assert.assertFalse(ETags.ifMatch("W/\"42\"").test(42));
+        Assert.assertFalse(ETags.ifMatch("42").test(42));
+        Assert.assertTrue(ETags.ifMatch("\"42-json\"").test(42));
+        Assert.assertTrue(ETags.ifMatch("\"42-xml\"").test(42));
+        Assert.assertFalse(ETags.ifMatch("\"41-json\"").test(42));
+    }
+
+    @Test
+    public void ifNoneMatchTest() {
+        Assert.assertFalse(ETags.ifNoneMatch(null, 42, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertTrue(ETags.ifNoneMatch("\"42-json\"", 42, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertTrue(ETags.ifNoneMatch("W/\"42-json\"", 42, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertTrue(ETags.ifNoneMatch("*", 42, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertFalse(ETags.ifNoneMatch("\"41-json\"", 42, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertFalse(ETags.ifNoneMatch("\"42-json\"", 42, MediaType.APPLICATION_XML_TYPE));
+        Assert.assertFalse(ETags.ifNoneMatch("\"42\"", 42, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertTrue(ETags.ifNoneMatch("\"42\"", 42, null));
+    }
+
+    @Test
+    public void ofTest() {
+        Assert.assertEquals("\"42-json\"", ETags.of(42, MediaType.APPLICATION_JSON_TYPE).toString());
+        Assert.assertEquals("\"42-xml\"", ETags.of(42, MediaType.APPLICATION_XML_TYPE).toString());
+        Assert.assertEquals("\"42-xml\"", ETags.of(42, MediaType.TEXT_XML_TYPE).toString());
+        Assert.assertEquals("\"42\"", ETags.of(42, null).toString());
+        Assert.assertEquals("W/\"42-json\"", ETags.of(42, MediaType.APPLICATION_JSON_TYPE, true).toString());
+        Assert.assertTrue(ETags.ifNoneMatch("W/\"42-json\"", 42, MediaType.APPLICATION_JSON_TYPE));
+    }
+}
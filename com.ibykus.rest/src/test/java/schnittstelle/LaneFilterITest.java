@@ -0,0 +1,176 @@
+package schnittstelle;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.ws.rs.ServiceUnavailableException;
+
+import helper.ResteasyServerFacade;
+import schnittstelle.lanes.Lane;
+import schnittstelle.lanes.Lanes;
+import schnittstelle.store.ConcurrentPojoStore;
+
+/**
+ * Integration test for {@link LaneFilter}: point reads and writes are answered while the bulk lane is full, bulk requests beyond its queue get 503.
+ */
+public class LaneFilterITest {
+    private static final int RANDOM_PORT = 0;
+
+    private final CountDownLatch slowBatches = new CountDownLatch(1);
+    private final ConcurrentPojoStore store = new ConcurrentPojoStore() {
+        @Override
+        public <T> T writeBatch(int maxWrites, Supplier<T> writes) {
+            try {
+                slowBatches.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.writeBatch(maxWrites, writes);
+        }
+    };
+    private final Lanes lanes = new Lanes(1, 1, 100);
+    private ResteasyServerFacade resteasyFacade;
+
+    @Before
+    public void beforeTest() {
+        final ResteasyServerFacade newResteasy = ResteasyServerFacade.builder()
+                .port(RANDOM_PORT)
+                .configureProvider(new ObjectMapperJsonProvider())
+                .configureProvider(new ObjectMapperXmlProvider())
+                .configureProvider(new PojoListStreamProvider())
+                .configureProvider(new LaneFilter(lanes))
+                .configureProvider(new UnhandledExceptionMapper())
+                .configureResources(new RestEndpoint(store))
+                .build();
+        this.resteasyFacade = Objects.requireNonNull(newResteasy, "newResteasy");
+        this.resteasyFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        slowBatches.countDown();
+        resteasyFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_sequentialRequests_freeTheirSlots() throws Exception {
+        final Pojo created = resteasyFacade.request("/pojo").dataJson(new Pojo(1)).headerAcceptJson().httpPost(Pojo.class);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(created, resteasyFacade.request("/pojo/" + created.getId()).headerAcceptJson().httpGet(Pojo.class));
+            Assert.assertEquals(1, resteasyFacade.request("/pojo").headerAcceptJson().httpGet(PojoList.class).getPojos().size());
+            Assert.assertNull(resteasyFacade.request("/pojo/unknown").headerAcceptJson().httpGet(Pojo.class));
+        }
+        slowBatches.countDown();
+        Assert.assertEquals(1, resteasyFacade.request("/pojo/batch")
+                .dataJson(new PojoList(Collections.singletonList(new Pojo(2))))
+                .headerAcceptJson()
+                .httpPost(PojoBatchResult.class)
+                .getItems()
+                .size());
+
+        for (Lane lane : Lane.values()) {
+            awaitIdle(lane);
+            Assert.assertEquals(lanes.toString(), 0, lanes.getRejected(lane));
+        }
+    }
+
+    @Test
+    public void assertThat_failedRequests_freeTheirSlots() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            // 400 of the endpoint
+            Assertions.assertThatThrownBy(() -> resteasyFacade.request("/pojo/unknown/add").headerAcceptJson().httpPost(Pojo.class))
+                    .hasMessageContaining("400");
+            // 500 of a null body, not mapped to a response
+            Assertions.assertThatThrownBy(() -> resteasyFacade.request("/pojo").dataJson("null").headerAcceptJson().httpPost(Pojo.class))
+                    .hasMessageContaining("500");
+        }
+        awaitIdle(Lane.WRITE);
+    }
+
+    @Test
+    public void assertThat_fullBulkLane_pointReadsAnswered() throws Exception {
+        final Pojo created = resteasyFacade.request("/pojo").dataJson(new Pojo(1)).headerAcceptJson().httpPost(Pojo.class);
+
+        final int batches = 4;
+        final ExecutorService clients = Executors.newFixedThreadPool(batches);
+        try {
+            final List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < batches; i++) {
+                statuses.add(clients.submit((Callable<Integer>) () -> {
+                    try {
+                        resteasyFacade.request("/pojo/batch")
+                                .dataJson(new PojoList(Collections.singletonList(new Pojo(2))))
+                                .headerAcceptJson()
+                                .httpPost(PojoBatchResult.class);
+                        return 200;
+                    } catch (ServiceUnavailableException e) {
+                        return e.getResponse().getStatus();
+                    }
+                }));
+            }
+            awaitActive(Lane.BULK);
+
+            // the bulk lane is full, the other lanes are not
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(created, resteasyFacade.request("/pojo/" + created.getId()).headerAcceptJson().httpGet(Pojo.class));
+                Assert.assertEquals(created.getValue(), resteasyFacade.request("/pojo/" + created.getId() + "/add")
+                        .queryParam("delta", 0)
+                        .headerAcceptJson()
+                        .httpPost(Pojo.class)
+                        .getValue());
+            }
+            try {
+                resteasyFacade.request("/pojo").headerAcceptJson().httpGet(PojoList.class);
+                Assert.fail("bulk lane is full");
+            } catch (ServiceUnavailableException e) {
+                Assert.assertEquals("1", e.getResponse().getHeaderString("Retry-After"));
+            }
+
+            slowBatches.countDown();
+            int answered = 0;
+            for (Future<Integer> status : statuses) {
+                answered += status.get(10, TimeUnit.SECONDS) == 200 ? 1 : 0;
+            }
+            // 1 running, at most 1 waiting - the waiting one may time out before the running one is released
+            Assert.assertTrue(lanes.toString(), answered >= 1 && answered <= 2);
+        } finally {
+            clients.shutdownNow();
+        }
+        Assert.assertEquals(lanes.toString(), 0, lanes.getRejected(Lane.POINT_READ) + lanes.getRejected(Lane.WRITE));
+        awaitIdle(Lane.BULK);
+    }
+
+    /**
+     * The slot may be freed after the client got the response.
+     */
+    private void awaitIdle(Lane lane) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (lanes.getActive(lane) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(lanes.toString(), 0, lanes.getActive(lane));
+    }
+
+    private void awaitActive(Lane lane) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (lanes.getActive(lane) < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(lanes.toString(), 1, lanes.getActive(lane));
+    }
+}
@@ -0,0 +1,121 @@
+package schnittstelle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+
+import schnittstelle.store.PojoEntry;
+
+/**
+ * Unit test of {@link PojoBytesProvider} and {@link PojoBytesCache}. The (cached) output has to be equal to the jackson serialization of {@link Pojo}.
+ */
+public class PojoBytesProviderTest {
+    private static final Pojo POJO = Pojo.of(new PojoEntry("id", 1)).versioned(7);
+
+    private final PojoBytesCache cache = new PojoBytesCache(PojoBytesCache.DEFAULT_BUDGET_BYTES);
+    private final PojoBytesProvider testSubject = new PojoBytesProvider(cache);
+
+    @Test
+    public void writeJsonTest() throws Exception {
+        final String expected = new ObjectMapper().writeValueAsString(POJO);
+        Assert.assertEquals(expected, write(POJO, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertEquals(expected, write(POJO, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void writeXmlTest() throws Exception {
+        final String expected = new XmlMapper().writeValueAsString(POJO);
+        Assert.assertEquals(expected, write(POJO, MediaType.APPLICATION_XML_TYPE));
+        Assert.assertEquals(expected, write(POJO, MediaType.APPLICATION_XML_TYPE));
+        Assert.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void contentLengthTest() throws Exception {
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        testSubject.writeTo(POJO, Pojo.class, Pojo.class, null, MediaType.APPLICATION_JSON_TYPE, headers, new ByteArrayOutputStream());
+        Assert.assertEquals(new ObjectMapper().writeValueAsBytes(POJO).length, headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    public void withoutHeadersTest() throws Exception {
+        // data of a server sent event
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        testSubject.writeTo(POJO, Pojo.class, Pojo.class, null, MediaType.APPLICATION_JSON_TYPE, null, out);
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(POJO), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void otherVersionIsMissTest() throws Exception {
+        write(POJO, MediaType.APPLICATION_JSON_TYPE);
+        final Pojo changed = Pojo.of(new PojoEntry("id", 2)).versioned(8);
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(changed), write(changed, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void unversionedIsNotCachedTest() throws Exception {
+        write(Pojo.of(new PojoEntry("id", 1)), MediaType.APPLICATION_JSON_TYPE);
+        Assert.assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    public void invalidateTest() throws Exception {
+        write(POJO, MediaType.APPLICATION_JSON_TYPE);
+        write(POJO, MediaType.APPLICATION_XML_TYPE);
+        Assert.assertTrue(cache.getUsedBytes() > 0);
+
+        cache.invalidate("id");
+        Assert.assertEquals(0, cache.getUsedBytes());
+        Assert.assertNull(cache.get("id", 7, PojoBytesCache.Format.JSON));
+    }
+
+    @Test
+    public void budgetTest() {
+        final PojoBytesCache smallCache = new PojoBytesCache(100);
+        for (int i = 0; i < 100; i++) {
+            smallCache.put("id" + i, 1, PojoBytesCache.Format.JSON, new byte[30]);
+            Assert.assertTrue(smallCache.getUsedBytes() <= 100);
+        }
+        smallCache.put("big", 1, PojoBytesCache.Format.JSON, new byte[101]);
+        Assert.assertNull(smallCache.get("big", 1, PojoBytesCache.Format.JSON));
+    }
+
+    @Test
+    public void clockEvictionTest() {
+        final PojoBytesCache smallCache = new PojoBytesCache(100);
+        smallCache.put("hot", 1, PojoBytesCache.Format.JSON, new byte[30]);
+        for (int i = 0; i < 100; i++) {
+            // read between the writes: a hit saves an entry from the next sweep
+            Assert.assertNotNull("hot entry evicted before put " + i, smallCache.get("hot", 1, PojoBytesCache.Format.JSON));
+            smallCache.put("id" + i, 1, PojoBytesCache.Format.JSON, new byte[30]);
+            Assert.assertTrue(smallCache.getUsedBytes() <= 100);
+        }
+        Assert.assertNotNull("just put", smallCache.get("id99", 1, PojoBytesCache.Format.JSON));
+    }
+
+    @Test
+    public void isWriteableTest() {
+        Assert.assertTrue(testSubject.isWriteable(Pojo.class, null, null, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertTrue(testSubject.isWriteable(Pojo.class, null, null, MediaType.APPLICATION_XML_TYPE));
+        Assert.assertFalse(testSubject.isWriteable(Pojo.class, null, null, MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertFalse(testSubject.isWriteable(PojoList.class, null, null, MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    private String write(Pojo pojo, MediaType mediaType) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        testSubject.writeTo(pojo, Pojo.class, Pojo.class, null, mediaType, new MultivaluedHashMap<>(), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,230 @@
+package schnittstelle;
+
+import org.jboss.resteasy.plugins.providers.sse.SseImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+/**
+ * Unit test of {@link PojoEvents}: event ids, resume after Last-Event-ID and dropping of slow subscribers.
+ */
+public class PojoEventsTest {
+    private static final Executor SAME_THREAD = Runnable::run;
+    private static final String EPOCH = "e";
+
+    private final Sse sse = new SseImpl();
+
+    @Test
+    public void publishTest() {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 8, 8, SAME_THREAD);
+        final RecordingSink sink = new RecordingSink();
+        testSubject.subscribe(sink, sse, null);
+
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("1", 1));
+        testSubject.publish(PojoEvents.Type.UPDATED, new Pojo("1", 2));
+        testSubject.publish(PojoEvents.Type.DELETED, new Pojo("1", 2));
+
+        Assert.assertEquals("[e-1 created 1=1, e-2 updated 1=2, e-3 deleted 1=2]", sink.toString());
+        Assert.assertEquals(3, testSubject.getLastEventId());
+    }
+
+    @Test
+    public void resumeAfterLastEventIdTest() {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 8, 8, SAME_THREAD);
+        for (int i = 1; i <= 5; i++) {
+            testSubject.publish(PojoEvents.Type.CREATED, new Pojo(Integer.toString(i), i));
+        }
+
+        final RecordingSink sink = new RecordingSink();
+        testSubject.subscribe(sink, sse, "e-3");
+        testSubject.publish(PojoEvents.Type.DELETED, new Pojo("1", 1));
+
+        Assert.assertEquals("[e-4 created 4=4, e-5 created 5=5, e-6 deleted 1=1]", sink.toString());
+    }
+
+    @Test
+    public void resumeUpToDateTest() {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 8, 8, SAME_THREAD);
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("1", 1));
+
+        final RecordingSink sink = new RecordingSink();
+        testSubject.subscribe(sink, sse, "e-1");
+
+        Assert.assertEquals("[]", sink.toString());
+    }
+
+    @Test
+    public void resumeOverwrittenIsResetTest() {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 4, 8, SAME_THREAD);
+        for (int i = 1; i <= 10; i++) {
+            testSubject.publish(PojoEvents.Type.CREATED, new Pojo(Integer.toString(i), i));
+        }
+
+        final RecordingSink sink = new RecordingSink();
+        testSubject.subscribe(sink, sse, "e-5");
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("11", 11));
+
+        Assert.assertEquals("[e-10 reset, e-11 created 11=11]", sink.toString());
+    }
+
+    @Test
+    public void resumeUnknownIsResetTest() {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 4, 8, SAME_THREAD);
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("1", 1));
+
+        final RecordingSink sink = new RecordingSink();
+        testSubject.subscribe(sink, sse, "e-42");
+
+        Assert.assertEquals("[e-1 reset]", sink.toString());
+    }
+
+    @Test
+    public void resumeOtherEpochIsResetTest() {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 4, 8, SAME_THREAD);
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("1", 1));
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("2", 2));
+
+        // same sequence number before a restart, and an id without epoch of an older server
+        for (String lastEventId : Arrays.asList("f-1", "1")) {
+            final RecordingSink sink = new RecordingSink();
+            testSubject.subscribe(sink, sse, lastEventId);
+            Assert.assertEquals("[e-2 reset]", sink.toString());
+        }
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void invalidLastEventIdTest() {
+        new PojoEvents(EPOCH, 4, 4, SAME_THREAD).subscribe(new RecordingSink(), sse, "abc");
+    }
+
+    @Test
+    public void slowSubscriberIsDroppedTest() {
+        final List<Runnable> pendingSends = new ArrayList<>();
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 64, 4, pendingSends::add);
+        final RecordingSink slowSink = new RecordingSink();
+        testSubject.subscribe(slowSink, sse, null);
+
+        for (int i = 1; i <= 10; i++) {
+            testSubject.publish(PojoEvents.Type.CREATED, new Pojo(Integer.toString(i), i));
+        }
+
+        Assert.assertEquals(0, testSubject.getSubscribers());
+        Assert.assertEquals(1, testSubject.getDropped());
+        pendingSends.forEach(Runnable::run);
+        Assert.assertTrue(slowSink.isClosed());
+        Assert.assertEquals("[]", slowSink.toString());
+
+        // the dropped client reconnects and continues without gap
+        pendingSends.clear();
+        final RecordingSink reconnected = new RecordingSink();
+        testSubject.subscribe(reconnected, sse, "e-8");
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("11", 11));
+        pendingSends.forEach(Runnable::run);
+        Assert.assertEquals("[e-9 created 9=9, e-10 created 10=10, e-11 created 11=11]", reconnected.toString());
+    }
+
+    @Test
+    public void closedSubscriberIsRemovedTest() {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 8, 8, SAME_THREAD);
+        final RecordingSink sink = new RecordingSink();
+        testSubject.subscribe(sink, sse, null);
+
+        sink.close();
+        testSubject.publish(PojoEvents.Type.CREATED, new Pojo("1", 1));
+
+        Assert.assertEquals(0, testSubject.getSubscribers());
+        Assert.assertEquals(0, testSubject.getDropped());
+    }
+
+    @Test
+    public void orderedTest() throws Exception {
+        final PojoEvents testSubject = new PojoEvents(EPOCH, 8, 100_000, SAME_THREAD);
+        final RecordingSink sink = new RecordingSink();
+        testSubject.subscribe(sink, sse, null);
+        final List<String> ids = Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h");
+        // the "store": a write counter per id, only changed while the id is held
+        final Map<String, int[]> writes = new HashMap<>();
+        ids.forEach(id -> writes.put(id, new int[1]));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                final Random random = new Random(thread);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        // single writes and batches of several ids, one id held at a time
+                        for (String id : ids.subList(random.nextInt(4), 4 + random.nextInt(5))) {
+                            testSubject.ordered(id, () -> {
+                                final int written = ++writes.get(id)[0];
+                                Thread.yield();
+                                testSubject.publish(PojoEvents.Type.UPDATED, new Pojo(id, written));
+                                return null;
+                            });
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Map<String, Integer> lastValues = new HashMap<>();
+        for (OutboundSseEvent event : sink.sent) {
+            final Pojo pojo = (Pojo) event.getData();
+            final int last = lastValues.getOrDefault(pojo.getId(), 0);
+            Assert.assertEquals("events of " + pojo.getId() + " in the order of its writes", last + 1, (int) pojo.getValue());
+            lastValues.put(pojo.getId(), pojo.getValue());
+        }
+    }
+
+    private static final class RecordingSink implements SseEventSink {
+        private final List<OutboundSseEvent> sent = new ArrayList<>();
+        private volatile boolean closed;
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public CompletionStage<?> send(OutboundSseEvent event) {
+            sent.add(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public String toString() {
+            return sent.stream()
+                    .map(event -> event.getId() + " " + event.getName()
+                            + (event.getData() instanceof Pojo ? " " + ((Pojo) event.getData()).getId() + "=" + ((Pojo) event.getData()).getValue() : ""))
+                    .collect(Collectors.joining(", ", "[", "]"));
+        }
+    }
+}
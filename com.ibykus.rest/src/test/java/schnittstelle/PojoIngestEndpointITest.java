@@ -0,0 +1,84 @@
+package schnittstelle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import helper.ResteasyServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoStore;
+
+/**
+ * Integration test of {@link PojoIngestEndpoint} deployed by {@link PojoIngestServlet} next to the {@link RestEndpoint}, written by {@link
+ * PojoIngestClient}.
+ */
+public class PojoIngestEndpointITest {
+    private static final int RANDOM_PORT = 0;
+    private static final int UPDATES = 100_000;
+
+    private final Set<String> batchThreads = ConcurrentHashMap.newKeySet();
+    private final PojoStore store = new ConcurrentPojoStore() {
+        @Override
+        public <T> T writeBatch(int maxWrites, Supplier<T> writes) {
+            batchThreads.add(Thread.currentThread().getName());
+            return super.writeBatch(maxWrites, writes);
+        }
+    };
+    private final PojoEvents events = new PojoEvents(PojoEvents.DEFAULT_CAPACITY, PojoEvents.DEFAULT_SUBSCRIBER_CAPACITY, Runnable::run);
+    private ResteasyServerFacade resteasyFacade;
+
+    @Before
+    public void beforeTest() {
+        final ResteasyServerFacade newResteasy = ResteasyServerFacade.builder()
+                .port(RANDOM_PORT)
+                .configureApplication(new RestApplication())
+                .configureProvider(new ObjectMapperJsonProvider())
+                .configureResources(new RestEndpoint(store))
+                .configureServlet("/pojo/ingest", new PojoIngestServlet(new PojoIngestEndpoint(store, events)))
+                .build();
+        this.resteasyFacade = Objects.requireNonNull(newResteasy, "newResteasy");
+        this.resteasyFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        resteasyFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_ingest_storesAllUpdates() throws Exception {
+        try (PojoIngestClient ingest = resteasyFacade.client().ingestClient("/rest/pojo/ingest")) {
+            for (int i = 0; i < UPDATES; i++) {
+                ingest.send("id" + (i % 1000), i);
+            }
+            ingest.awaitAcks(30, TimeUnit.SECONDS);
+
+            Assert.assertEquals(UPDATES, ingest.getApplied());
+            Assert.assertEquals((UPDATES + PojoIngestClient.DEFAULT_BATCH_SIZE - 1) / PojoIngestClient.DEFAULT_BATCH_SIZE, ingest.getAckedSequence());
+        }
+
+        Assert.assertEquals(1000, store.size());
+        Assert.assertEquals(new PojoEntry("id999", UPDATES - 1), store.get("id999"));
+        Assert.assertEquals(new Pojo("id999", UPDATES - 1), resteasyFacade.request("/rest/pojo/id999").headerAcceptJson().httpGet(Pojo.class));
+        Assert.assertEquals(UPDATES, events.getLastEventId());
+        // XNIO names its IO threads "<worker> I/O-<n>"
+        Assert.assertTrue(batchThreads.toString(), !batchThreads.isEmpty() && batchThreads.stream().noneMatch(thread -> thread.contains("I/O")));
+    }
+
+    @Test
+    public void assertThat_restEndpoint_stillServed() throws Exception {
+        try (PojoIngestClient ingest = resteasyFacade.client().ingestClient("/rest/pojo/ingest")) {
+            ingest.send("a", 1);
+            ingest.awaitAcks(10, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(1, resteasyFacade.request("/rest/pojo").headerAcceptJson().httpGet(PojoList.class).getPojos().size());
+    }
+}
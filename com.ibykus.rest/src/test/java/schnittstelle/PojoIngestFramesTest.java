@@ -0,0 +1,85 @@
+package schnittstelle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import schnittstelle.store.PojoEntry;
+
+/**
+ * Unit test of {@link PojoIngestFrames}.
+ */
+public class PojoIngestFramesTest {
+    @Test
+    public void batchRoundTripTest() {
+        final PojoIngestFrames.Encoder encoder = new PojoIngestFrames.Encoder();
+        encoder.add("a", 1);
+        encoder.add("\u00e4\u00f6\u00fc", -1);
+        encoder.add("c", Integer.MAX_VALUE);
+
+        final PojoIngestFrames.Batch batch = PojoIngestFrames.decodeBatch(encoder.finish(42));
+
+        Assert.assertEquals(42, batch.getSequence());
+        Assert.assertEquals(Arrays.asList(new PojoEntry("a", 1), new PojoEntry("\u00e4\u00f6\u00fc", -1), new PojoEntry("c", Integer.MAX_VALUE)),
+                batch.getEntries());
+    }
+
+    @Test
+    public void encoderGrowsAndClearsTest() {
+        final PojoIngestFrames.Encoder encoder = new PojoIngestFrames.Encoder();
+        for (int i = 0; i < 20_000; i++) {
+            encoder.add("id" + i, i);
+        }
+        Assert.assertEquals(20_000, PojoIngestFrames.decodeBatch(encoder.finish(1)).getEntries().size());
+
+        encoder.clear();
+        encoder.add("x", 7);
+        Assert.assertEquals(Arrays.asList(new PojoEntry("x", 7)), PojoIngestFrames.decodeBatch(encoder.finish(2)).getEntries());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedBatchTest() {
+        final PojoIngestFrames.Encoder encoder = new PojoIngestFrames.Encoder();
+        encoder.add("a", 1);
+        final ByteBuffer frame = encoder.finish(1);
+        frame.limit(frame.limit() - 1);
+        PojoIngestFrames.decodeBatch(frame);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void trailingBytesTest() {
+        final ByteBuffer frame = ByteBuffer.allocate(PojoIngestFrames.BATCH_HEADER_BYTES + 1);
+        frame.putLong(1).putInt(0).put((byte) 0).flip();
+        PojoIngestFrames.decodeBatch(frame);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyIdTest() {
+        final ByteBuffer frame = ByteBuffer.allocate(PojoIngestFrames.BATCH_HEADER_BYTES + 5);
+        frame.putLong(1).putInt(1).put((byte) 0).putInt(1).flip();
+        PojoIngestFrames.decodeBatch(frame);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCountTest() {
+        final ByteBuffer frame = ByteBuffer.allocate(PojoIngestFrames.BATCH_HEADER_BYTES);
+        frame.putLong(1).putInt(-1).flip();
+        PojoIngestFrames.decodeBatch(frame);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooLongIdTest() {
+        final char[] id = new char[PojoIngestFrames.MAX_ID_BYTES + 1];
+        Arrays.fill(id, 'x');
+        new PojoIngestFrames.Encoder().add(new String(id), 1);
+    }
+
+    @Test
+    public void ackRoundTripTest() {
+        final ByteBuffer ack = PojoIngestFrames.encodeAck(7, 100);
+        Assert.assertEquals(7, PojoIngestFrames.decodeAckSequence(ack));
+        Assert.assertEquals(100, ack.getInt(Long.BYTES));
+    }
+}
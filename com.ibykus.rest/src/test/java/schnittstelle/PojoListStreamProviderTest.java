@@ -0,0 +1,65 @@
+package schnittstelle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.core.MediaType;
+
+import schnittstelle.store.PojoEntry;
+
+/**
+ * Unit test of {@link PojoListStreamProvider}. The streamed output has to be equal to the jackson serialization of {@link PojoList}.
+ */
+public class PojoListStreamProviderTest {
+    private static final List<PojoEntry> ENTRIES = Arrays.asList(new PojoEntry("id", 1), new PojoEntry("ab<&\"c", null));
+
+    private final PojoListStreamProvider testSubject = new PojoListStreamProvider();
+
+    @Test
+    public void writeJsonTest() throws Exception {
+        final ObjectMapper jsonMapper = new ObjectMapper();
+        Assert.assertEquals(jsonMapper.writeValueAsString(pojoList(Collections.emptyList())), writeJson(Collections.emptyList()));
+        Assert.assertEquals(jsonMapper.writeValueAsString(pojoList(ENTRIES)), writeJson(ENTRIES));
+    }
+
+    @Test
+    public void writeXmlTest() throws Exception {
+        final XmlMapper xmlMapper = new XmlMapper();
+        Assert.assertEquals(xmlMapper.writeValueAsString(pojoList(Collections.emptyList())), writeXml(Collections.emptyList()));
+        Assert.assertEquals(xmlMapper.writeValueAsString(pojoList(ENTRIES)), writeXml(ENTRIES));
+    }
+
+    @Test
+    public void isWriteableTest() {
+        Assert.assertTrue(testSubject.isWriteable(PojoListStream.class, null, null, MediaType.APPLICATION_JSON_TYPE));
+        Assert.assertTrue(testSubject.isWriteable(PojoListStream.class, null, null, MediaType.APPLICATION_XML_TYPE));
+        Assert.assertFalse(testSubject.isWriteable(PojoListStream.class, null, null, MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertFalse(testSubject.isWriteable(PojoList.class, null, null, MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    private String writeJson(List<PojoEntry> entries) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        testSubject.writeJson(new PojoListStream(entries, PojoEntry.UNVERSIONED), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String writeXml(List<PojoEntry> entries) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        testSubject.writeXml(new PojoListStream(entries, PojoEntry.UNVERSIONED), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static PojoList pojoList(List<PojoEntry> entries) {
+        return new PojoList(entries.stream().map(Pojo::of).collect(Collectors.toList()));
+    }
+}
@@ -129,4 +129,25 @@ public class RestClientTest {
                 .dataJson(JSON);
         Assert.assertEquals("http://localhost:80/ -H 'ContentType: application/json' -H 'Accept: []' --data Optional[" + JSON + "]", actual.toString());
     }
+
+    @Test
+    public void testQueryParamSetting() {
+        final RestClient.Request actual = testSubject
+                .buildRestClient()
+                .httpRequest("path")
+                .queryParam("limit", 10)
+                .queryParam("cursor", null)
+                .queryParam("other", "x");
+        Assert.assertEquals("http://localhost:80/path?limit=10&other=x -H 'ContentType: text/plain' -H 'Accept: []' --data Optional.empty", actual.toString());
+    }
+
+    @Test
+    public void testConditionalHeaderSetting() {
+        final RestClient.Request actual = testSubject
+                .buildRestClient()
+                .httpRequest("path")
+                .headerIfNoneMatch("\"1\"")
+                .headerIfMatch(null);
+        Assert.assertEquals("http://localhost:80/path -H 'ContentType: text/plain' -H 'Accept: []' -H 'If-None-Match: \"1\"' --data Optional.empty", actual.toString());
+    }
 }
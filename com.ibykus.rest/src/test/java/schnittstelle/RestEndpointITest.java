@@ -10,11 +10,25 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
 import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.SseEventSource;
 
 import helper.ResteasyServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
 
 /**
  * Integration test for {@link RestEndpoint}.
@@ -26,11 +40,13 @@ public class RestEndpointITest {
 
     private ResteasyServerFacade resteasyFacade;
 
+    private final PojoEvents events = new PojoEvents(PojoEvents.DEFAULT_CAPACITY, PojoEvents.DEFAULT_SUBSCRIBER_CAPACITY, Executors.newCachedThreadPool());
+
     @Mock
     private Ejb ejbMock;
 
     @InjectMocks
-    private final RestEndpoint restEndpoint = new RestEndpoint();
+    private final RestEndpoint restEndpoint = new RestEndpoint(new ConcurrentPojoStore(), PojoBytesCache.applicationScoped(), events);
 
     @Before
     public void beforeTest() {
@@ -39,6 +55,8 @@ public class RestEndpointITest {
                 .configureApplication(new RestApplication())
                 .configureProvider(new ObjectMapperJsonProvider())
                 .configureProvider(new ObjectMapperXmlProvider())
+                .configureProvider(new ETagFilter())
+                .configureProvider(new PojoBytesProvider())
                 .configureResources(restEndpoint)
                 .build();
         this.resteasyFacade = Objects.requireNonNull(newResteasy, "newResteasy");
@@ -161,4 +179,295 @@ public class RestEndpointITest {
                 .describedAs("Expect that GET http/rest/pojo response [].isEmpty")
                 .matches(pojos -> pojos.getPojos().isEmpty());
     }
+
+    @Test
+    public void assertThat_pagedGet_responseAllPojosOnce() {
+        final Set<Pojo> created = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(resteasyFacade.request("/rest/pojo")
+                    .dataJson(new Pojo(i))
+                    .headerAcceptJson()
+                    .httpPost(Pojo.class));
+        }
+
+        final List<Pojo> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            final PojoList page = resteasyFacade.request("/rest/pojo")
+                    .queryParam("limit", 3)
+                    .queryParam("cursor", cursor)
+                    .headerAcceptJson()
+                    .httpGet(PojoList.class);
+            Assertions.assertThat(page.getPojos().size())
+                    .describedAs("Expect that GET http/rest/pojo?limit=3 response max 3 pojos")
+                    .isLessThanOrEqualTo(3);
+            paged.addAll(page.getPojos());
+            cursor = page.getCursor();
+        } while (cursor != null);
+
+        Assertions.assertThat(paged)
+                .describedAs("Expect that all pages together response every pojo once")
+                .hasSize(created.size())
+                .containsExactlyInAnyOrderElementsOf(created);
+    }
+
+    @Test
+    public void assertThat_rangeGet_responsePojosOfRangeOrderedByValue() {
+        for (int i = 0; i < 7; i++) {
+            resteasyFacade.request("/rest/pojo")
+                    .dataJson(new Pojo(1_000 - i))
+                    .headerAcceptJson()
+                    .httpPost(Pojo.class);
+        }
+
+        for (MediaType mediaType : new MediaType[]{MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_XML_TYPE}) {
+            final PojoList range = resteasyFacade.request("/rest/pojo")
+                    .queryParam("minValue", 995)
+                    .queryParam("maxValue", 998)
+                    .queryParam("limit", 3)
+                    .headerAccept(mediaType)
+                    .httpGet(PojoList.class);
+            Assertions.assertThat(range.getPojos())
+                    .describedAs("Expect that GET http/rest/pojo?minValue=995&maxValue=998&limit=3 response 995, 996, 997 as " + mediaType)
+                    .extracting(Pojo::getValue)
+                    .containsExactly(995, 996, 997);
+        }
+
+        Assertions.assertThatThrownBy(() -> resteasyFacade.request("/rest/pojo")
+                .queryParam("minValue", 2)
+                .queryParam("maxValue", 1)
+                .headerAcceptJson()
+                .httpGet(PojoList.class))
+                .describedAs("Expect that GET http/rest/pojo?minValue=2&maxValue=1 fail with 400")
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    public void assertThat_statsGet_responseAggregatesOfValues() {
+        for (int i = 1; i <= 4; i++) {
+            resteasyFacade.request("/rest/pojo")
+                    .dataJson(new Pojo(i * 10))
+                    .headerAcceptJson()
+                    .httpPost(Pojo.class);
+        }
+
+        for (MediaType mediaType : new MediaType[]{MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_XML_TYPE}) {
+            Assertions.assertThat(resteasyFacade.request("/rest/pojo/stats")
+                    .headerAccept(mediaType)
+                    .httpGet(PojoStats.class))
+                    .describedAs("Expect that GET http/rest/pojo/stats response count=4, sum=100, min=10, max=40 as " + mediaType)
+                    .isEqualTo(new PojoStats(4, 100, 10, 40));
+        }
+    }
+
+    @Test
+    public void assertThat_addAndCasPost_updateValueAtomically() {
+        final Pojo pojo = resteasyFacade.request("/rest/pojo")
+                .dataJson(new Pojo(10))
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+
+        Assertions.assertThat(resteasyFacade.request("/rest/pojo/" + pojo.getId() + "/add")
+                .queryParam("delta", 5)
+                .headerAcceptJson()
+                .httpPost(Pojo.class))
+                .describedAs("Expect that POST http/rest/pojo/{id}/add?delta=5 response the pojo with value 15")
+                .isEqualTo(new Pojo(pojo.getId(), 15));
+        Assertions.assertThat(resteasyFacade.request("/rest/pojo/" + pojo.getId() + "/cas")
+                .queryParam("expect", 15)
+                .queryParam("update", 20)
+                .headerAcceptXml()
+                .httpPost(Pojo.class))
+                .describedAs("Expect that POST http/rest/pojo/{id}/cas?expect=15&update=20 response the pojo with value 20")
+                .isEqualTo(new Pojo(pojo.getId(), 20));
+
+        Assertions.assertThatThrownBy(() -> resteasyFacade.request("/rest/pojo/" + pojo.getId() + "/cas")
+                .queryParam("expect", 15)
+                .queryParam("update", 30)
+                .headerAcceptJson()
+                .httpPost(Pojo.class))
+                .describedAs("Expect that POST http/rest/pojo/{id}/cas with an outdated expect fail with 409")
+                .isInstanceOf(ClientErrorException.class)
+                .hasMessageContaining("409");
+        Assertions.assertThatThrownBy(() -> resteasyFacade.request("/rest/pojo/" + pojo.getId() + "/add")
+                .headerAcceptJson()
+                .httpPost(Pojo.class))
+                .describedAs("Expect that POST http/rest/pojo/{id}/add without delta fail with 400")
+                .isInstanceOf(BadRequestException.class);
+        Assert.assertEquals(new Pojo(pojo.getId(), 20), resteasyFacade.request("/rest/pojo/" + pojo.getId()).headerAcceptJson().httpGet(Pojo.class));
+    }
+
+    @Test
+    public void assertThat_invalidCursor_response400() {
+        Assertions.assertThatThrownBy(() -> resteasyFacade.request("/rest/pojo")
+                .queryParam("cursor", "no base64 cursor!")
+                .headerAcceptJson()
+                .httpGet(PojoList.class))
+                .describedAs("Expect that GET http/rest/pojo?cursor=invalid fail with 400")
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    public void assertThat_batchPost_createAndUpdatePojos() {
+        final Pojo existing = resteasyFacade.request("/rest/pojo")
+                .dataJson(new Pojo(1))
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+
+        for (MediaType mediaType : Arrays.asList(MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_XML_TYPE)) {
+            final List<PojoBatchItem> items = resteasyFacade.client().httpPostBatch("/rest/pojo",
+                    Arrays.asList(new Pojo(2), new Pojo(existing.getId(), 3), new Pojo(4)), 2, mediaType);
+
+            Assertions.assertThat(items)
+                    .describedAs("Expect that POST http/rest/pojo/batch response one item per pojo in request order")
+                    .extracting(PojoBatchItem::getStatus)
+                    .containsExactly(PojoBatchItem.Status.CREATED, PojoBatchItem.Status.UPDATED, PojoBatchItem.Status.CREATED);
+            items.forEach(item -> Assert.assertEquals(item.getPojo(), resteasyFacade.request("/rest/pojo/" + item.getPojo().getId())
+                    .headerAcceptJson()
+                    .httpGet(Pojo.class)));
+        }
+    }
+
+    @Test
+    public void assertThat_weaklyConsistentReads_weakETag() {
+        resteasyFacade.request("/rest/pojo")
+                .dataJson(new Pojo(5))
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+
+        // stats and value range, both read without snapshot
+        for (Integer maxValueOrNull : Arrays.asList(null, 9)) {
+            final String path = maxValueOrNull == null ? "/rest/pojo/stats" : "/rest/pojo";
+            final RestClient.ConditionalResponse<String> first = resteasyFacade.request(path)
+                    .queryParam("maxValue", maxValueOrNull)
+                    .headerAcceptJson()
+                    .httpGetConditional(String.class);
+            Assert.assertTrue(path + " " + first.getETag(), first.getETag().startsWith("W/\""));
+
+            final RestClient.ConditionalResponse<String> notModified = resteasyFacade.request(path)
+                    .queryParam("maxValue", maxValueOrNull)
+                    .headerAcceptJson()
+                    .headerIfNoneMatch(first.getETag())
+                    .httpGetConditional(String.class);
+            Assert.assertTrue(path, notModified.isNotModified());
+        }
+    }
+
+    @Test
+    public void assertThat_conditionalGet_response304() {
+        final Pojo pojo = resteasyFacade.request("/rest/pojo")
+                .dataJson(TEST_POJO_WITHOUT_ID)
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+
+        for (String path : Arrays.asList("/rest/pojo/" + pojo.getId(), "/rest/pojo")) {
+            final RestClient.ConditionalResponse<PojoList> first = resteasyFacade.request(path)
+                    .headerAcceptJson()
+                    .httpGetConditional(PojoList.class);
+            Assert.assertNotNull(path, first.getETag());
+
+            final RestClient.ConditionalResponse<PojoList> notModified = resteasyFacade.request(path)
+                    .headerAcceptJson()
+                    .headerIfNoneMatch(first.getETag())
+                    .httpGetConditional(PojoList.class);
+            Assert.assertTrue(path, notModified.isNotModified());
+            Assert.assertNull(path, notModified.getBody());
+            Assert.assertEquals(path, first.getETag(), notModified.getETag());
+
+            final RestClient.ConditionalResponse<String> otherFormat = resteasyFacade.request(path)
+                    .headerAcceptXml()
+                    .headerIfNoneMatch(first.getETag())
+                    .httpGetConditional(String.class);
+            Assert.assertFalse(path, otherFormat.isNotModified());
+            Assert.assertNotEquals(path, first.getETag(), otherFormat.getETag());
+        }
+
+        resteasyFacade.request("/rest/pojo/" + pojo.getId())
+                .dataJson(new Pojo(pojo.getId(), 6))
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+        final RestClient.ConditionalResponse<Pojo> modified = resteasyFacade.request("/rest/pojo/" + pojo.getId())
+                .headerAcceptJson()
+                .headerIfNoneMatch("\"" + pojo.version() + "\"")
+                .httpGetConditional(Pojo.class);
+        Assert.assertFalse(modified.isNotModified());
+        Assert.assertEquals(new Pojo(pojo.getId(), 6), modified.getBody());
+    }
+
+    @Test
+    public void assertThat_cachedGet_responseUpdatedPojo() {
+        final Pojo pojo = resteasyFacade.request("/rest/pojo")
+                .dataJson(TEST_POJO_WITHOUT_ID)
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(pojo, resteasyFacade.request("/rest/pojo/" + pojo.getId()).headerAcceptJson().httpGet(Pojo.class));
+            Assert.assertEquals(pojo, resteasyFacade.request("/rest/pojo/" + pojo.getId()).headerAcceptXml().httpGet(Pojo.class));
+        }
+
+        final Pojo updated = new Pojo(pojo.getId(), 6);
+        resteasyFacade.request("/rest/pojo/" + pojo.getId())
+                .dataJson(updated)
+                .headerAcceptJson()
+                .httpPost(Pojo.class);
+        Assert.assertEquals(updated, resteasyFacade.request("/rest/pojo/" + pojo.getId()).headerAcceptJson().httpGet(Pojo.class));
+        Assert.assertEquals(updated, resteasyFacade.request("/rest/pojo/" + pojo.getId()).headerAcceptXml().httpGet(Pojo.class));
+    }
+
+    @Test
+    public void assertThat_ifMatchPost_updateOrResponse412() {
+        final RestClient.ConditionalResponse<Pojo> created = resteasyFacade.request("/rest/pojo")
+                .dataJson(TEST_POJO_WITHOUT_ID)
+                .headerAcceptJson()
+                .httpPostConditional(Pojo.class);
+        final String id = created.getBody().getId();
+
+        final RestClient.ConditionalResponse<Pojo> updated = resteasyFacade.request("/rest/pojo/" + id)
+                .dataJson(new Pojo(id, 6))
+                .headerAcceptJson()
+                .headerIfMatch(created.getETag())
+                .httpPostConditional(Pojo.class);
+        Assert.assertEquals(new Pojo(id, 6), updated.getBody());
+        Assert.assertNotEquals(created.getETag(), updated.getETag());
+
+        Assertions.assertThatThrownBy(() -> resteasyFacade.request("/rest/pojo")
+                .dataJson(new Pojo(id, 7))
+                .headerAcceptJson()
+                .headerIfMatch(created.getETag())
+                .httpPutConditional(Pojo.class))
+                .describedAs("Expect that PUT http/rest/pojo with outdated If-Match fail with 412")
+                .isInstanceOf(ClientErrorException.class)
+                .hasMessageContaining("412");
+        Assert.assertEquals(new Pojo(id, 6), restEndpoint.httpGet(id));
+    }
+
+    @Test
+    public void assertThat_events_streamCreateUpdateDelete() throws Exception {
+        final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        try (SseEventSource source = resteasyFacade.request("/rest/pojo/events").httpGetEvents()) {
+            source.register(event -> received.add(event.getId() + " " + event.getName() + " " + event.readData(Pojo.class, MediaType.APPLICATION_JSON_TYPE)));
+            source.open();
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (events.getSubscribers() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            final Pojo created = resteasyFacade.request("/rest/pojo")
+                    .dataJson(TEST_POJO_WITHOUT_ID)
+                    .headerAcceptJson()
+                    .httpPost(Pojo.class);
+            final Pojo added = resteasyFacade.request("/rest/pojo/" + created.getId() + "/add")
+                    .queryParam("delta", 1)
+                    .headerAcceptJson()
+                    .httpPost(Pojo.class);
+            resteasyFacade.request("/rest/pojo/" + created.getId())
+                    .headerAcceptJson()
+                    .httpDelete(Pojo.class);
+
+            Assert.assertEquals(events.getEpoch() + "-1 created " + created, received.poll(5, TimeUnit.SECONDS));
+            Assert.assertEquals(events.getEpoch() + "-2 updated " + added, received.poll(5, TimeUnit.SECONDS));
+            Assert.assertEquals(events.getEpoch() + "-3 deleted " + added, received.poll(5, TimeUnit.SECONDS));
+        }
+    }
 }
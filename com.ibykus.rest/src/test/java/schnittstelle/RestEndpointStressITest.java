@@ -0,0 +1,95 @@
+package schnittstelle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import helper.ResteasyServerFacade;
+import schnittstelle.store.PojoStores;
+
+/**
+ * Concurrency stress test of the application scoped store behind {@link RestEndpoint}. Writes go to a per request endpoint (deployed by {@link
+ * RestApplication}), reads go to a second server with a singleton endpoint. Both have to see the same data.
+ */
+public class RestEndpointStressITest {
+    private static final int RANDOM_PORT = 0;
+    private static final int THREADS = 8;
+    private static final int POJOS_PER_THREAD = 50;
+
+    private ResteasyServerFacade perRequestFacade;
+    private ResteasyServerFacade singletonFacade;
+
+    @Before
+    public void beforeTest() {
+        this.perRequestFacade = ResteasyServerFacade.builder()
+                .port(RANDOM_PORT)
+                .configureApplication(new RestApplication())
+                .configureProvider(new ObjectMapperJsonProvider())
+                .configureProvider(new ObjectMapperXmlProvider())
+                .build();
+        this.singletonFacade = ResteasyServerFacade.builder()
+                .port(RANDOM_PORT)
+                .configureProvider(new ObjectMapperJsonProvider())
+                .configureProvider(new ObjectMapperXmlProvider())
+                .configureProvider(new PojoListStreamProvider())
+                .configureProvider(new ETagFilter())
+                .configureProvider(new PojoBytesProvider())
+                .configureResources(new RestEndpoint())
+                .build();
+        this.perRequestFacade.startServer();
+        this.singletonFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        perRequestFacade.teardownServer();
+        singletonFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_concurrentWrites_visibleForAllEndpoints() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Pojo>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit((Callable<List<Pojo>>) () -> {
+                    final List<Pojo> created = new ArrayList<>();
+                    for (int i = 0; i < POJOS_PER_THREAD; i++) {
+                        final Pojo pojo = perRequestFacade.request("/rest/pojo")
+                                .dataJson(new Pojo(i))
+                                .headerAcceptJson()
+                                .httpPost(Pojo.class);
+                        created.add(pojo);
+                        Assert.assertEquals(pojo, singletonFacade.request("/pojo/" + pojo.getId())
+                                .headerAcceptJson()
+                                .httpGet(Pojo.class));
+                    }
+                    return created;
+                }));
+            }
+
+            final List<Pojo> created = new ArrayList<>();
+            for (Future<List<Pojo>> future : futures) {
+                created.addAll(future.get());
+            }
+
+            final List<Pojo> actualPojos = singletonFacade.request("/pojo")
+                    .headerAcceptJson()
+                    .httpGet(PojoList.class)
+                    .getPojos();
+            Assert.assertEquals(THREADS * POJOS_PER_THREAD, created.size());
+            Assert.assertTrue(actualPojos.containsAll(created));
+            created.forEach(pojo -> Assert.assertEquals(pojo.toEntry(), PojoStores.applicationScoped().get(pojo.getId())));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
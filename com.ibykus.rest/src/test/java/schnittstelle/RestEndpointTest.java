@@ -4,6 +4,19 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
+
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoEntry;
+
 /**
  * Unit test for {@link RestEndpoint}
  */
@@ -12,7 +25,7 @@ public class RestEndpointTest {
 
     @Before
     public void beforeTest() {
-        testSubject = new RestEndpoint();
+        testSubject = new RestEndpoint(new ConcurrentPojoStore());
     }
 
     @Test
@@ -38,6 +51,79 @@ public class RestEndpointTest {
         Assert.assertEquals(Integer.valueOf(5), pojo.getValue());
     }
 
+    @Test
+    public void httpPostIdCollisionTest() {
+        final AtomicInteger collisions = new AtomicInteger(2);
+        final RestEndpoint collidingEndpoint = new RestEndpoint(new ConcurrentPojoStore() {
+            @Override
+            public PojoEntry putIfAbsent(PojoEntry entry) {
+                return collisions.getAndDecrement() > 0 ? entry : super.putIfAbsent(entry);
+            }
+        });
+        final Pojo pojo = collidingEndpoint.httpPost(new Pojo(5));
+        Assert.assertEquals(-1, collisions.get());
+        Assert.assertEquals(pojo, collidingEndpoint.httpGet(pojo.getId()));
+    }
+
+    @Test
+    public void httpPostBatchTest() {
+        final Pojo existing = testSubject.httpPost(new Pojo(1));
+        final PojoBatchResult result = testSubject.httpPostBatch(new PojoList(Arrays.asList(new Pojo(2), null, new Pojo(existing.getId(), 3))));
+
+        Assert.assertEquals(3, result.getItems().size());
+        Assert.assertEquals(PojoBatchItem.Status.CREATED, result.getItems().get(0).getStatus());
+        Assert.assertNotNull(result.getItems().get(0).getPojo().getId());
+        Assert.assertEquals(new PojoBatchItem(PojoBatchItem.Status.INVALID, null), result.getItems().get(1));
+        Assert.assertEquals(new PojoBatchItem(PojoBatchItem.Status.UPDATED, new Pojo(existing.getId(), 3)), result.getItems().get(2));
+        Assert.assertEquals(2, testSubject.httpGet().getPojos().size());
+    }
+
+    @Test
+    public void httpPostDuringBatchTest() throws Exception {
+        final CountDownLatch slowWrite = new CountDownLatch(1);
+        final RestEndpoint slowEndpoint = new RestEndpoint(new ConcurrentPojoStore() {
+            @Override
+            public PojoEntry put(PojoEntry entry) {
+                if ("slow".equals(entry.getId())) {
+                    try {
+                        slowWrite.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.put(entry);
+            }
+        });
+        final CompletableFuture<PojoBatchResult> batch = CompletableFuture.supplyAsync(
+                () -> slowEndpoint.httpPostBatch(new PojoList(Arrays.asList(new Pojo("slow", 1), new Pojo("other", 1)))));
+        try {
+            // the batch holds the id of its current write only
+            final Pojo other = CompletableFuture.supplyAsync(() -> slowEndpoint.httpPost("other", new Pojo("other", 2))).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(new Pojo("other", 2), other);
+            Assert.assertFalse(batch.isDone());
+        } finally {
+            slowWrite.countDown();
+        }
+        Assert.assertEquals(2, batch.get(5, TimeUnit.SECONDS).getItems().size());
+        Assert.assertEquals(new Pojo("other", 1), slowEndpoint.httpGet("other"));
+    }
+
+    @Test
+    public void httpGetDuringBatchesTest() throws Exception {
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                testSubject.httpPostBatch(new PojoList(Arrays.asList(new Pojo("x", i), new Pojo("y", i))));
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            final PojoList pojos = testSubject.httpGet();
+            Assert.assertTrue("a list never shows only one pojo of a batch", pojos.getPojos().stream().map(Pojo::getValue).distinct().count() <= 1);
+        }
+        writer.join();
+        Assert.assertEquals(Arrays.asList(new Pojo("x", 9_999), new Pojo("y", 9_999)), testSubject.httpGet().getPojos());
+    }
+
     @Test
     public void httpCRUDTest() {
         final Pojo pojo = testSubject.httpPost(new Pojo(5));
@@ -66,4 +152,89 @@ public class RestEndpointTest {
         Assert.assertNotNull(expectedPojos3);
         Assert.assertEquals(0, expectedPojos3.getPojos().size());
     }
+
+    @Test
+    public void httpGetPageTest() {
+        for (int i = 0; i < 5; i++) {
+            testSubject.httpPost(new Pojo(i));
+        }
+
+        final PojoList firstPage = testSubject.httpGetPage(3, null);
+        Assert.assertEquals(3, firstPage.getPojos().size());
+        Assert.assertNotNull(firstPage.getCursor());
+
+        final PojoList lastPage = testSubject.httpGetPage(3, firstPage.getCursor());
+        Assert.assertEquals(2, lastPage.getPojos().size());
+        Assert.assertNull(lastPage.getCursor());
+
+        Assert.assertTrue(testSubject.httpGet(null, null, null, null).getEntity() instanceof PojoListStream);
+        Assert.assertTrue(testSubject.httpGet(3, null, null, null).getEntity() instanceof PojoList);
+    }
+
+    @Test
+    public void httpGetRangeTest() {
+        for (int i = 0; i < 10; i++) {
+            testSubject.httpPost(new Pojo(9 - i));
+        }
+
+        final PojoList range = testSubject.httpGetRange(3, 6, null);
+        Assert.assertEquals(Arrays.asList(3, 4, 5, 6), range.getPojos().stream().map(Pojo::getValue).collect(Collectors.toList()));
+        Assert.assertNull(range.getCursor());
+        Assert.assertEquals(2, testSubject.httpGetRange(null, 6, 2).getPojos().size());
+        Assert.assertEquals(Integer.valueOf(9), testSubject.httpGetRange(9, null, null).getPojos().get(0).getValue());
+        Assert.assertEquals(10, testSubject.httpGetRange(null, null, null).getPojos().size());
+
+        Assert.assertTrue(testSubject.httpGet(null, null, 3, null).getEntity() instanceof PojoList);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void httpGetRangeWithInvalidRangeTest() {
+        testSubject.httpGetRange(6, 3, null);
+    }
+
+    @Test
+    public void httpGetStatsTest() {
+        Assert.assertEquals(new PojoStats(0, 0, null, null), testSubject.httpGetStats());
+        testSubject.httpPost(new Pojo(5));
+        testSubject.httpPost(new Pojo(-2));
+        final Pojo pojo = testSubject.httpPost(new Pojo(9));
+        Assert.assertEquals(new PojoStats(3, 12, -2, 9), testSubject.httpGetStats());
+
+        testSubject.httpDelete(pojo.getId());
+        Assert.assertEquals(new PojoStats(2, 3, -2, 5), testSubject.httpGetStats());
+    }
+
+    @Test
+    public void httpPostAddTest() {
+        final Pojo pojo = testSubject.httpPost(new Pojo(5));
+        Assert.assertEquals(new Pojo(pojo.getId(), 8), testSubject.httpPostAdd(pojo.getId(), 3));
+        Assert.assertEquals(new Pojo(pojo.getId(), 6), testSubject.httpPostAdd(pojo.getId(), -2));
+        Assert.assertEquals(new Pojo(pojo.getId(), 6), testSubject.httpGet(pojo.getId()));
+        Assert.assertNull(testSubject.httpPostAdd("unknown", 1));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void httpPostAddWithOverflowTest() {
+        final Pojo pojo = testSubject.httpPost(new Pojo(Integer.MAX_VALUE));
+        testSubject.httpPostAdd(pojo.getId(), 1);
+    }
+
+    @Test
+    public void httpPostCasTest() {
+        final Pojo pojo = testSubject.httpPost(new Pojo(5));
+        Assert.assertEquals(new Pojo(pojo.getId(), 6), testSubject.httpPostCas(pojo.getId(), 5, 6));
+        try {
+            testSubject.httpPostCas(pojo.getId(), 5, 7);
+            Assert.fail("409 expected");
+        } catch (ClientErrorException e) {
+            Assert.assertEquals(409, e.getResponse().getStatus());
+            Assert.assertEquals(new Pojo(pojo.getId(), 6), e.getResponse().getEntity());
+        }
+        Assert.assertNull(testSubject.httpPostCas("unknown", 5, 6));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void httpPostCasWithoutUpdateTest() {
+        testSubject.httpPostCas("id", 5, null);
+    }
 }
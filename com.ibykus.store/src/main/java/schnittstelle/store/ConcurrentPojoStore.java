@@ -0,0 +1,491 @@
+package schnittstelle.store;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Default in memory {@link PojoStore} based on a {@link ConcurrentHashMap}. A sorted id index serves the {@link #page(String, int)} requests, a sorted
+ * value index the {@link #rangeByValue(int, int, int)} requests in O(log n + limit). Both indexes are updated inside the map update of the id.
+ * <p/>
+ * Count and sum of the values are striped counters ({@link LongAdder}), min and max are the ends of the value index - {@link #valueStats()} is O(1).
+ * <p/>
+ * Versions are taken from one counter inside the map update. Writes in flight are counted ({@link StoreVersions}), so {@link #version()} is only
+ * reported if all writes up to it are visible.
+ * <p/>
+ * {@link #openSnapshot()} is multi version concurrency control without locks: a snapshot pins the current version and parks until the writes up to it
+ * are visible. While a snapshot is open, writers keep the superseded states of the ids they write (and removed ids in the id index), so the snapshot
+ * reads every id at its version. The old states are dropped by the writers as soon as no open snapshot can read them, the rest whenever a snapshot is
+ * closed - up to the oldest one still open. {@link #writeBatch(int, Supplier)} takes one block of versions for all its writes - a snapshot version is
+ * before or after the batch.
+ * <p/>
+ * Subclasses observe the writes with {@link #onPut(PojoEntry)} and {@link #onRemove(String, long)}, e.g. to log them (see {@link DurablePojoStore}).
+ */
+public class ConcurrentPojoStore implements PojoStore {
+    private static final Comparator<PojoEntry> BY_VALUE_AND_ID = Comparator.comparing(PojoEntry::getValue).thenComparing(PojoEntry::getId);
+
+    private final Map<String, PojoEntry> dataCache = new ConcurrentHashMap<>();
+    private final NavigableSet<String> sortedIds = new ConcurrentSkipListSet<>();
+    // stored entries with value, ordered by value and id
+    private final NavigableSet<PojoEntry> sortedValues = new ConcurrentSkipListSet<>(BY_VALUE_AND_ID);
+    private final LongAdder valueCount = new LongAdder();
+    private final LongAdder valueSum = new LongAdder();
+    private final StoreVersions versions = new StoreVersions();
+    // versions of the open snapshots, old states are only kept while one is open
+    private final SnapshotPins pins = new SnapshotPins();
+    // superseded states of the ids written while a snapshot is open, newest first
+    private final Map<String, SnapshotPins.State> history = new ConcurrentHashMap<>();
+    // removed ids still in sortedIds for open snapshots
+    private final Set<String> removedIds = ConcurrentHashMap.newKeySet();
+    // [next, last] version of the batch of the current thread
+    private final ThreadLocal<long[]> batchVersions = new ThreadLocal<>();
+
+    @Override
+    public PojoEntry get(String id) {
+        Objects.requireNonNull(id, "id");
+        return dataCache.get(id);
+    }
+
+    @Override
+    public PojoEntry put(PojoEntry entry) {
+        Objects.requireNonNull(entry, "entry");
+        final PojoEntry[] replaced = new PojoEntry[1];
+        final int epoch = versions.beginWrite();
+        try {
+            // index+version update inside compute() - serialized with other writes of the same id
+            dataCache.compute(entry.getId(), (id, old) -> {
+                replaced[0] = old;
+                if (old == null) {
+                    // an existing id is already indexed, skip the skip list search of an update
+                    sortedIds.add(id);
+                }
+                return stored(entry, old);
+            });
+        } finally {
+            versions.endWrite(epoch);
+        }
+        return replaced[0];
+    }
+
+    @Override
+    public PojoEntry putIfAbsent(PojoEntry entry) {
+        Objects.requireNonNull(entry, "entry");
+        final PojoEntry[] existing = new PojoEntry[1];
+        final int epoch = versions.beginWrite();
+        try {
+            dataCache.compute(entry.getId(), (id, old) -> {
+                if (old != null) {
+                    existing[0] = old;
+                    return old;
+                }
+                sortedIds.add(id);
+                return stored(entry, null);
+            });
+        } finally {
+            versions.endWrite(epoch);
+        }
+        return existing[0];
+    }
+
+    @Override
+    public PojoEntry replaceIf(PojoEntry entry, LongPredicate acceptVersion) {
+        Objects.requireNonNull(entry, "entry");
+        Objects.requireNonNull(acceptVersion, "acceptVersion");
+        final PojoEntry[] replaced = new PojoEntry[1];
+        final int epoch = versions.beginWrite();
+        try {
+            dataCache.computeIfPresent(entry.getId(), (id, old) -> {
+                if (!acceptVersion.test(old.getVersion())) {
+                    return old;
+                }
+                replaced[0] = old;
+                return stored(entry, old);
+            });
+        } finally {
+            versions.endWrite(epoch);
+        }
+        return replaced[0];
+    }
+
+    @Override
+    public PojoEntry remove(String id) {
+        Objects.requireNonNull(id, "id");
+        final PojoEntry[] removed = new PojoEntry[1];
+        final int epoch = versions.beginWrite();
+        try {
+            dataCache.computeIfPresent(id, (key, old) -> {
+                removed[0] = old;
+                final long version = nextVersion();
+                if (pins.isEmpty()) {
+                    sortedIds.remove(key);
+                } else {
+                    removedIds.add(key);
+                    keepForSnapshots(old, version, true);
+                }
+                unindexValue(old);
+                onRemove(key, version);
+                return null;
+            });
+        } finally {
+            versions.endWrite(epoch);
+        }
+        return removed[0];
+    }
+
+    @Override
+    public PojoEntry addToValue(String id, int delta) {
+        return updateValue(id, old -> new PojoEntry(old.getId(), Math.addExact(old.getValue() == null ? 0 : old.getValue(), delta)));
+    }
+
+    @Override
+    public PojoEntry compareAndSetValue(String id, int expectedValue, int newValue) {
+        return updateValue(id, old -> old.getValue() != null && old.getValue() == expectedValue ? new PojoEntry(old.getId(), newValue) : null);
+    }
+
+    /**
+     * @param update new entry of the existing one or null to keep it, called inside the map update of the id
+     * @return stored new entry or null
+     */
+    private PojoEntry updateValue(String id, UnaryOperator<PojoEntry> update) {
+        Objects.requireNonNull(id, "id");
+        final PojoEntry[] updated = new PojoEntry[1];
+        final int epoch = versions.beginWrite();
+        try {
+            dataCache.computeIfPresent(id, (key, old) -> {
+                final PojoEntry entry = update.apply(old);
+                if (entry == null) {
+                    return old;
+                }
+                updated[0] = stored(entry, old);
+                return updated[0];
+            });
+        } finally {
+            versions.endWrite(epoch);
+        }
+        return updated[0];
+    }
+
+    @Override
+    public Collection<PojoEntry> values() {
+        return Collections.unmodifiableCollection(dataCache.values());
+    }
+
+    @Override
+    public PojoPage page(String cursorOrNull, int limit) {
+        return page(cursorOrNull, limit, dataCache::get);
+    }
+
+    private PojoPage page(String cursorOrNull, int limit, Function<String, PojoEntry> read) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be > 0, but was " + limit);
+        }
+        final NavigableSet<String> idsOfPage = cursorOrNull == null
+                ? sortedIds
+                : sortedIds.tailSet(PojoPage.decodeCursor(cursorOrNull), false);
+
+        final List<PojoEntry> entries = new ArrayList<>(Math.min(limit, PojoPage.MAX_LIMIT));
+        final Iterator<String> ids = idsOfPage.iterator();
+        String lastId = null;
+        while (entries.size() < limit && ids.hasNext()) {
+            lastId = ids.next();
+            final PojoEntry entry = read.apply(lastId);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        final String nextCursor = ids.hasNext() ? PojoPage.encodeCursor(lastId) : null;
+        return new PojoPage(entries, nextCursor);
+    }
+
+    @Override
+    public List<PojoEntry> rangeByValue(int minValue, int maxValue, int limit) {
+        if (minValue > maxValue) {
+            throw new IllegalArgumentException("minValue must be <= maxValue, but was " + minValue + " > " + maxValue);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be > 0, but was " + limit);
+        }
+        final List<PojoEntry> entries = new ArrayList<>(Math.min(limit, PojoPage.MAX_LIMIT));
+        for (PojoEntry entry : sortedValues.tailSet(new PojoEntry("", minValue))) {
+            if (entries.size() == limit || entry.getValue() > maxValue) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    @Override
+    public PojoValueStats valueStats() {
+        // iterators instead of first()/last(), they do not fail if the index is emptied meanwhile
+        final Iterator<PojoEntry> smallest = sortedValues.iterator();
+        final Iterator<PojoEntry> biggest = sortedValues.descendingIterator();
+        if (!smallest.hasNext() || !biggest.hasNext()) {
+            return new PojoValueStats(0, 0, 0, 0);
+        }
+        return new PojoValueStats(valueCount.sum(), valueSum.sum(), smallest.next().getValue(), biggest.next().getValue());
+    }
+
+    @Override
+    public int size() {
+        return dataCache.size();
+    }
+
+    @Override
+    public PojoSnapshot openSnapshot() {
+        // pinned before the version is taken: writers keep every old state from now on
+        final SnapshotPins.Pin pin = pins.pin();
+        final long version = versions.last();
+        versions.awaitCommitted(version);
+        pin.version = version;
+
+        final Snapshot snapshot = new Snapshot(version);
+        // also released if a snapshot is never closed
+        snapshot.release = SnapshotPins.CLEANER.register(snapshot, () -> unpin(pin));
+        return snapshot;
+    }
+
+    @Override
+    public <T> T writeBatch(int maxWrites, Supplier<T> writes) {
+        Objects.requireNonNull(writes, "writes");
+        if (maxWrites < 0) {
+            throw new IllegalArgumentException("maxWrites must be >= 0, but was " + maxWrites);
+        }
+        if (batchVersions.get() != null) {
+            throw new IllegalStateException("Nested batch");
+        }
+        final int epoch = versions.beginWrite();
+        try {
+            final long last = versions.reserve(maxWrites);
+            batchVersions.set(new long[]{last - maxWrites + 1, last});
+            try {
+                return writes.get();
+            } finally {
+                batchVersions.remove();
+            }
+        } finally {
+            versions.endWrite(epoch);
+        }
+    }
+
+    /**
+     * Called inside the map update of the id after a put, so the calls per id are ordered like the writes.
+     *
+     * @param stored not null entry with its new version
+     */
+    protected void onPut(PojoEntry stored) {
+        // no-op
+    }
+
+    /**
+     * Called inside the map update of the id after a remove, so the calls per id are ordered like the writes.
+     *
+     * @param id      not null id of the removed entry
+     * @param version version of the remove
+     */
+    protected void onRemove(String id, long version) {
+        // no-op
+    }
+
+    /**
+     * Load entries with their versions, e.g. replayed from a log. Only valid before the store is used.
+     *
+     * @param entries not null versioned entries with distinct ids
+     * @param version version of the store, at least the max entry version
+     */
+    void restore(Collection<PojoEntry> entries, long version) {
+        for (PojoEntry entry : entries) {
+            dataCache.put(entry.getId(), entry);
+            sortedIds.add(entry.getId());
+            indexValue(entry);
+        }
+        versions.restore(version);
+    }
+
+    /**
+     * Park until all writes with a version up to {@link #lastVersion()} are visible, e.g. so a snapshot sees everything logged before. Writes started
+     * meanwhile are not waited for.
+     */
+    void awaitWritesInFlight() {
+        versions.awaitCommitted(versions.last());
+    }
+
+    /**
+     * @return count of superseded states and removed ids kept for snapshots
+     */
+    int retainedStates() {
+        int states = removedIds.size();
+        for (SnapshotPins.State state : history.values()) {
+            states += state.size();
+        }
+        return states;
+    }
+
+    /**
+     * @return version of the last started write, unlike {@link #version()} even while writes are in flight
+     */
+    long lastVersion() {
+        return versions.last();
+    }
+
+    private PojoEntry stored(PojoEntry entry, PojoEntry oldOrNull) {
+        final PojoEntry stored = entry.withVersion(nextVersion());
+        // read after the version is taken, see openSnapshot()
+        if (oldOrNull != null && !pins.isEmpty()) {
+            keepForSnapshots(oldOrNull, stored.getVersion(), false);
+        }
+        // remove before add: the old entry is equal to the new one by value and id
+        unindexValue(oldOrNull);
+        indexValue(stored);
+        onPut(stored);
+        return stored;
+    }
+
+    private long nextVersion() {
+        final long[] batch = batchVersions.get();
+        if (batch == null) {
+            return versions.next();
+        }
+        if (batch[0] > batch[1]) {
+            throw new IllegalStateException("Batch has more writes than its maxWrites");
+        }
+        return batch[0]++;
+    }
+
+    /**
+     * Keep the superseded state of an id for the open snapshots, called inside the map update of the id.
+     *
+     * @param newVersion version of the write that superseded old
+     * @param removed    true if the write removed the id
+     */
+    private void keepForSnapshots(PojoEntry old, long newVersion, boolean removed) {
+        history.compute(old.getId(), (id, states) -> SnapshotPins.State.superseded(states, old, newVersion, removed, pins.versions()));
+    }
+
+    /**
+     * Drop the states no open snapshot reads any more, up to the oldest open snapshot - not only when the last one is closed.
+     */
+    private void unpin(SnapshotPins.Pin pin) {
+        pins.unpin(pin);
+        for (String id : history.keySet()) {
+            reclaim(id);
+        }
+        for (String id : removedIds) {
+            reclaim(id);
+        }
+    }
+
+    private void reclaim(String id) {
+        // in the map update of the id, serialized with its writes: the pins are read per id, a snapshot opened meanwhile keeps the states
+        dataCache.compute(id, (key, current) -> {
+            final long[] pinned = pins.versions();
+            history.computeIfPresent(key, (k, states) -> SnapshotPins.State.prune(states, current == null ? Long.MAX_VALUE : current.getVersion(), pinned));
+            if (current != null) {
+                removedIds.remove(key);
+            } else if (!history.containsKey(key) && removedIds.remove(key)) {
+                sortedIds.remove(key);
+            }
+            return current;
+        });
+    }
+
+    private void indexValue(PojoEntry stored) {
+        if (stored.getValue() != null) {
+            sortedValues.add(stored);
+            valueCount.increment();
+            valueSum.add(stored.getValue());
+        }
+    }
+
+    private void unindexValue(PojoEntry oldOrNull) {
+        if (oldOrNull != null && oldOrNull.getValue() != null) {
+            sortedValues.remove(oldOrNull);
+            valueCount.decrement();
+            valueSum.add(-oldOrNull.getValue());
+        }
+    }
+
+    @Override
+    public long version() {
+        return versions.committed();
+    }
+
+    private final class Snapshot implements PojoSnapshot {
+        private final long version;
+        private Cleaner.Cleanable release;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public PojoEntry get(String id) {
+            Objects.requireNonNull(id, "id");
+            final PojoEntry current = dataCache.get(id);
+            if (current != null && current.getVersion() <= version) {
+                // all writes up to the version are visible, later ones have a bigger version
+                return current;
+            }
+            final SnapshotPins.State states = history.get(id);
+            final SnapshotPins.State state = states == null ? null : states.at(version);
+            return state == null ? null : state.entryOrNull();
+        }
+
+        @Override
+        public PojoPage page(String cursorOrNull, int limit) {
+            return ConcurrentPojoStore.this.page(cursorOrNull, limit, this::get);
+        }
+
+        @Override
+        public Iterator<PojoEntry> iterator() {
+            final Iterator<String> ids = sortedIds.iterator();
+            return new Iterator<PojoEntry>() {
+                private PojoEntry next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && ids.hasNext()) {
+                        next = get(ids.next());
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public PojoEntry next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final PojoEntry entry = next;
+                    next = null;
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            release.clean();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package schnittstelle.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link ConcurrentPojoStore} that survives restarts. Every write is appended to a memory mapped write ahead log ({@link MappedPojoLog}), {@link
+ * #builder(Path)}.open() replays the log of the directory.
+ * <p/>
+ * With the default group commit a write only copies some bytes into the mapped log, the fsync runs every {@link Builder#fsyncInterval(Duration)} or
+ * after {@link Builder#fsyncBatchSize(int)} records. A crash of the process loses nothing (the pages belong to the OS), a crash of the OS loses at most
+ * the writes of one interval. Use {@code fsyncBatchSize(1)} to force every write.
+ * <p/>
+ * Every {@link Builder#snapshotInterval(Duration)} a {@link #snapshot()} is written in the background and the log segments covered by it are deleted.
+ * Startup loads the latest snapshot and replays only the log written since, see {@link #getStartupTime()}. A failed background snapshot is logged and
+ * retried at the next interval, the log keeps all writes meanwhile.
+ */
+public class DurablePojoStore extends ConcurrentPojoStore implements Closeable {
+    private static final Logger LOG = Logger.getLogger(DurablePojoStore.class.getName());
+
+    private final Path directory;
+    private final MappedPojoLog log;
+    private final ScheduledExecutorService snapshotScheduler;
+    private final Duration startupTime;
+    private final int replayedRecords;
+    private final Duration snapshotInterval;
+    private long snapshotVersion;
+
+    private DurablePojoStore(Path directory, MappedPojoLog log, Duration snapshotInterval, Duration startupTime, int replayedRecords) {
+        this.directory = directory;
+        this.log = log;
+        this.startupTime = startupTime;
+        this.replayedRecords = replayedRecords;
+        this.snapshotScheduler = snapshotInterval.isZero() ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "pojo-store-snapshot " + directory);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * @param directory not null log directory, created if missing
+     */
+    public static Builder builder(Path directory) {
+        return new Builder(directory);
+    }
+
+    /**
+     * Write a snapshot of all entries while the store stays in use, then delete the log segments and snapshots covered by it. Does nothing if the store
+     * was not changed since the last snapshot.
+     *
+     * @return true if a snapshot was written
+     * @throws IOException if the snapshot could not be written, the log is unchanged then
+     */
+    public synchronized boolean snapshot() throws IOException {
+        if (lastVersion() == snapshotVersion) {
+            return false;
+        }
+        final long firstSegment = log.rollOver();
+        // records are appended inside the map update: wait until those in older segments are visible
+        awaitWritesInFlight();
+        final long version = lastVersion();
+        PojoSnapshotFile.write(directory, firstSegment, version, values());
+        snapshotVersion = version;
+
+        log.deleteSegmentsBefore(firstSegment);
+        for (Path snapshotFile : PojoSnapshotFile.snapshotFiles(directory)) {
+            if (PojoSnapshotFile.firstSegment(snapshotFile) < firstSegment) {
+                Files.delete(snapshotFile);
+            }
+        }
+        return true;
+    }
+
+    private void startSnapshots() {
+        if (snapshotScheduler == null) {
+            return;
+        }
+        final long intervalNanos = snapshotInterval.toNanos();
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            // an exception would cancel all further snapshots
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Snapshot failed, retried in " + snapshotInterval + ": " + directory, e);
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return time of {@link Builder#open()} to load the snapshot and replay the log
+     */
+    public Duration getStartupTime() {
+        return startupTime;
+    }
+
+    /**
+     * @return count of log records replayed by {@link Builder#open()}, without the snapshot entries
+     */
+    public int getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    /**
+     * Stop the snapshots, force all writes to disk and close the log. Writes afterwards fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        // wait for a running snapshot
+        synchronized (this) {
+            log.close();
+        }
+    }
+
+    /**
+     * Force all writes up to now to disk, regardless of the group commit settings.
+     */
+    public void sync() {
+        log.sync();
+    }
+
+    @Override
+    protected void onPut(PojoEntry stored) {
+        log.appendPut(stored);
+    }
+
+    @Override
+    protected void onRemove(String id, long version) {
+        log.appendRemove(id, version);
+    }
+
+    public static final class Builder {
+        public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+        public static final int DEFAULT_FSYNC_BATCH_SIZE = 1024;
+        public static final Duration DEFAULT_FSYNC_INTERVAL = Duration.ofMillis(10);
+        public static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofMinutes(5);
+
+        private final Path directory;
+        private int segmentBytes = DEFAULT_SEGMENT_BYTES;
+        private int fsyncBatchSize = DEFAULT_FSYNC_BATCH_SIZE;
+        private Duration fsyncInterval = DEFAULT_FSYNC_INTERVAL;
+        private Duration snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+
+        private Builder(Path directory) {
+            this.directory = Objects.requireNonNull(directory, "directory");
+        }
+
+        /**
+         * @param segmentBytes size of one preallocated log file
+         */
+        public Builder segmentBytes(int segmentBytes) {
+            this.segmentBytes = segmentBytes;
+            return this;
+        }
+
+        /**
+         * @param fsyncBatchSize force the log after this many writes, 1 forces every write
+         */
+        public Builder fsyncBatchSize(int fsyncBatchSize) {
+            this.fsyncBatchSize = fsyncBatchSize;
+            return this;
+        }
+
+        /**
+         * @param fsyncInterval force the log at least this often, {@link Duration#ZERO} only forces by batch size
+         */
+        public Builder fsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = Objects.requireNonNull(fsyncInterval, "fsyncInterval");
+            return this;
+        }
+
+        /**
+         * @param snapshotInterval delay between background snapshots, {@link Duration#ZERO} only on {@link DurablePojoStore#snapshot()}
+         */
+        public Builder snapshotInterval(Duration snapshotInterval) {
+            if (snapshotInterval.isNegative()) {
+                throw new IllegalArgumentException("snapshotInterval must be >= 0, but was " + snapshotInterval);
+            }
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        /**
+         * Load the latest snapshot, replay the log written since and open the log for appends.
+         *
+         * @return not null store with the replayed entries
+         * @throws IOException if the directory, the snapshot or the log is not accessible
+         */
+        public DurablePojoStore open() throws IOException {
+            final long start = System.nanoTime();
+            final Map<String, PojoEntry> entries = new HashMap<>();
+            final long[] version = {PojoEntry.UNVERSIONED};
+            final int[] replayedRecords = {0};
+            final MappedPojoLog.Replay replay = new MappedPojoLog.Replay() {
+                @Override
+                public void put(PojoEntry stored) {
+                    entries.put(stored.getId(), stored);
+                    version[0] = Math.max(version[0], stored.getVersion());
+                }
+
+                @Override
+                public void remove(String id, long removeVersion) {
+                    entries.remove(id);
+                    version[0] = Math.max(version[0], removeVersion);
+                }
+            };
+
+            Files.createDirectories(directory);
+            for (Path tempFile : MappedPojoLog.numberedFiles(directory, PojoSnapshotFile.TEMP_SUFFIX)) {
+                // crashed while writing a snapshot
+                Files.delete(tempFile);
+            }
+            long firstSegment = 1;
+            long snapshotVersion = PojoEntry.UNVERSIONED;
+            final List<Path> snapshotFiles = PojoSnapshotFile.snapshotFiles(directory);
+            if (!snapshotFiles.isEmpty()) {
+                final Path latest = snapshotFiles.get(snapshotFiles.size() - 1);
+                snapshotVersion = PojoSnapshotFile.read(latest, replay);
+                version[0] = Math.max(version[0], snapshotVersion);
+                firstSegment = PojoSnapshotFile.firstSegment(latest);
+            }
+            final MappedPojoLog log = MappedPojoLog.open(directory, firstSegment, segmentBytes, fsyncBatchSize, fsyncInterval, new MappedPojoLog.Replay() {
+                @Override
+                public void put(PojoEntry stored) {
+                    replayedRecords[0]++;
+                    replay.put(stored);
+                }
+
+                @Override
+                public void remove(String id, long removeVersion) {
+                    replayedRecords[0]++;
+                    replay.remove(id, removeVersion);
+                }
+            });
+
+            final Duration startupTime = Duration.ofNanos(System.nanoTime() - start);
+            final DurablePojoStore store = new DurablePojoStore(directory, log, snapshotInterval, startupTime, replayedRecords[0]);
+            store.restore(entries.values(), version[0]);
+            store.snapshotVersion = replayedRecords[0] == 0 ? snapshotVersion : PojoEntry.UNVERSIONED;
+            store.startSnapshots();
+            return store;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package schnittstelle.store;
+
+/**
+ * SPI of the id generator for new pojos. Implementations MUST be thread safe, because one instance is shared by all requests of both protocols (see
+ * {@link IdGenerators#applicationScoped()}).
+ * <p/>
+ * Register an own implementation with {@code META-INF/services/schnittstelle.store.IdGenerator}. Without registration {@link RandomIdGenerator} is used.
+ * Generated ids are not guaranteed to be unique, the endpoints detect collisions with {@link PojoStore#putIfAbsent(PojoEntry)}.
+ */
+public interface IdGenerator {
+    /**
+     * Characters of the generated ids: {@code [0-8B-Yb-y]}.
+     */
+    String ALPHABET = "012345678BCDEFGHIJKLMNOPQRSTUVWXYbcdefghijklmnopqrstuvwxy";
+
+    /**
+     * Length of the generated ids.
+     */
+    int LENGTH = 10;
+
+    /**
+     * @return not null id with {@link #LENGTH} characters of the {@link #ALPHABET}
+     */
+    String nextId();
+}
@@ -0,0 +1,24 @@
+package schnittstelle.store;
+
+import java.util.ServiceLoader;
+
+/**
+ * Access to the application scoped {@link IdGenerator}. The instance is loaded once per classloader via {@link ServiceLoader} and falls back to {@link
+ * RandomIdGenerator}.
+ */
+public final class IdGenerators {
+    private IdGenerators() {/* static access only */}
+
+    /**
+     * @return not null generator shared by all endpoints of this application
+     */
+    public static IdGenerator applicationScoped() {
+        return ApplicationIdGeneratorHolder.INSTANCE;
+    }
+
+    private static final class ApplicationIdGeneratorHolder {
+        private static final IdGenerator INSTANCE = ServiceLoader.load(IdGenerator.class, IdGenerators.class.getClassLoader())
+                .findFirst()
+                .orElseGet(RandomIdGenerator::new);
+    }
+}
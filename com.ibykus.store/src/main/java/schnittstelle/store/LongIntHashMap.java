@@ -0,0 +1,162 @@
+package schnittstelle.store;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Primitive open addressing map {@code long -> int} in off heap memory, e.g. from {@link PojoIdCodec} codes to record numbers. No boxing, no entry
+ * objects: {@link #get(long)} allocates nothing. Linear probing with backward shift deletion, resized at a load factor of 3/4.
+ * <p/>
+ * Keys must be &gt;= 0, values &gt;= 0. Not thread safe.
+ */
+final class LongIntHashMap {
+    static final int NO_VALUE = -1;
+
+    // [long key + 1][int value][int padding], key 0 = empty slot - aligned slots never span two cache lines
+    private static final int SLOT_BYTES = 2 * Long.BYTES;
+    private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / SLOT_BYTES);
+
+    private ByteBuffer slots;
+    private int mask;
+    private int shift;
+    private int size;
+
+    /**
+     * @param expectedSize expected count of keys, avoids resizing while growing up to it
+     */
+    LongIntHashMap(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit(Math.max(1, expectedSize * 4 / 3)) << 1));
+    }
+
+    /**
+     * @return value or {@link #NO_VALUE}
+     */
+    int get(long key) {
+        final long storedKey = key + 1;
+        int slot = slotOf(key);
+        while (true) {
+            final long slotKey = slots.getLong(slot * SLOT_BYTES);
+            if (slotKey == storedKey) {
+                return slots.getInt(slot * SLOT_BYTES + Long.BYTES);
+            }
+            if (slotKey == 0) {
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return previous value or {@link #NO_VALUE}
+     */
+    int put(long key, int value) {
+        if (key < 0 || value < 0) {
+            throw new IllegalArgumentException("key and value must be >= 0, but were " + key + " -> " + value);
+        }
+        final long storedKey = key + 1;
+        int slot = slotOf(key);
+        while (true) {
+            final long slotKey = slots.getLong(slot * SLOT_BYTES);
+            if (slotKey == storedKey) {
+                final int previous = slots.getInt(slot * SLOT_BYTES + Long.BYTES);
+                slots.putInt(slot * SLOT_BYTES + Long.BYTES, value);
+                return previous;
+            }
+            if (slotKey == 0) {
+                slots.putLong(slot * SLOT_BYTES, storedKey);
+                slots.putInt(slot * SLOT_BYTES + Long.BYTES, value);
+                if (++size > (mask + 1) / 4 * 3) {
+                    resize();
+                }
+                return NO_VALUE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * @return removed value or {@link #NO_VALUE}
+     */
+    int remove(long key) {
+        final long storedKey = key + 1;
+        int gap = slotOf(key);
+        while (true) {
+            final long slotKey = slots.getLong(gap * SLOT_BYTES);
+            if (slotKey == 0) {
+                return NO_VALUE;
+            }
+            if (slotKey == storedKey) {
+                break;
+            }
+            gap = (gap + 1) & mask;
+        }
+        final int removed = slots.getInt(gap * SLOT_BYTES + Long.BYTES);
+
+        // backward shift: move following keys of the probe sequence into the gap, no tombstones
+        int next = (gap + 1) & mask;
+        while (true) {
+            final long slotKey = slots.getLong(next * SLOT_BYTES);
+            if (slotKey == 0) {
+                break;
+            }
+            final int home = slotOf(slotKey - 1);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots.putLong(gap * SLOT_BYTES, slotKey);
+                slots.putInt(gap * SLOT_BYTES + Long.BYTES, slots.getInt(next * SLOT_BYTES + Long.BYTES));
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots.putLong(gap * SLOT_BYTES, 0);
+        slots.putInt(gap * SLOT_BYTES + Long.BYTES, 0);
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param action called with every key, in slot order
+     */
+    void forEachKey(LongConsumer action) {
+        for (int slot = 0; slot <= mask; slot++) {
+            final long slotKey = slots.getLong(slot * SLOT_BYTES);
+            if (slotKey != 0) {
+                action.accept(slotKey - 1);
+            }
+        }
+    }
+
+    private int slotOf(long key) {
+        // fibonacci hashing - the high bits of the product are well mixed
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        mask = capacity - 1;
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private void resize() {
+        final ByteBuffer oldSlots = slots;
+        final int oldCapacity = mask + 1;
+        if (oldCapacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Map full: " + size + " keys");
+        }
+        allocate(oldCapacity * 2);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            final long slotKey = oldSlots.getLong(slot * SLOT_BYTES);
+            if (slotKey != 0) {
+                int newSlot = slotOf(slotKey - 1);
+                while (slots.getLong(newSlot * SLOT_BYTES) != 0) {
+                    newSlot = (newSlot + 1) & mask;
+                }
+                slots.putLong(newSlot * SLOT_BYTES, slotKey);
+                slots.putInt(newSlot * SLOT_BYTES + Long.BYTES, oldSlots.getInt(slot * SLOT_BYTES + Long.BYTES));
+            }
+        }
+    }
+}
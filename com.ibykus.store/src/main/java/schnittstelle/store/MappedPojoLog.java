@@ -0,0 +1,316 @@
+package schnittstelle.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append only write ahead log of {@link PojoStore} writes in memory mapped segment files ({@link FileChannel#map}).
+ * <p/>
+ * A record is {@code [int length][int crc32][byte type][long version][short idLength][id utf-8][byte hasValue][int value]}, the value part only for
+ * puts. Segments are preallocated and zero filled, so a length of 0 marks the end of a segment. Replay stops a segment at the first record with an
+ * invalid length or crc (torn by a crash) and truncates the file there. Appending always starts a new segment.
+ * <p/>
+ * Segments before a {@link PojoSnapshotFile} are obsolete: {@link #rollOver()} starts the first segment not covered by a new snapshot, {@link
+ * #deleteSegmentsBefore(long)} compacts the log afterwards.
+ * <p/>
+ * Group commit: an append only copies the record into the mapped segment. The segment is forced to disk after {@code fsyncBatchSize} records (by the
+ * appending thread) or every {@code fsyncInterval} (by a background thread), whatever comes first.
+ */
+final class MappedPojoLog implements Closeable {
+    static final String SEGMENT_SUFFIX = ".wal";
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int MAX_ID_BYTES = 0xFFFF;
+
+    /**
+     * Receiver of replayed records in log order.
+     */
+    interface Replay {
+        void put(PojoEntry stored);
+
+        void remove(String id, long version);
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int fsyncBatchSize;
+    private final ScheduledExecutorService syncScheduler;
+    private final CRC32 crc = new CRC32();
+
+    private long segmentNumber;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int unsyncedRecords;
+    private boolean closed;
+
+    private MappedPojoLog(Path directory, int segmentBytes, int fsyncBatchSize, Duration fsyncInterval, long lastSegmentNumber) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.segmentNumber = lastSegmentNumber;
+        nextSegment();
+        if (fsyncInterval.isZero()) {
+            this.syncScheduler = null;
+        } else {
+            this.syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "pojo-log-sync " + directory);
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long intervalNanos = fsyncInterval.toNanos();
+            this.syncScheduler.scheduleWithFixedDelay(this::sync, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Replay the existing segments of the directory, truncate torn records and start a new segment for appends.
+     *
+     * @param directory      log directory, created if missing
+     * @param firstSegment   first segment to replay, older segments are deleted (covered by a snapshot)
+     * @param segmentBytes   size of one segment file
+     * @param fsyncBatchSize force after this many records, 1 forces every record
+     * @param fsyncInterval  force at least this often, {@link Duration#ZERO} disables the background thread
+     * @param replay         receiver of all valid records
+     * @return not null log ready for appends
+     */
+    static MappedPojoLog open(Path directory, long firstSegment, int segmentBytes, int fsyncBatchSize, Duration fsyncInterval, Replay replay)
+            throws IOException {
+        if (segmentBytes < HEADER_BYTES + MAX_ID_BYTES + 16) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        if (fsyncBatchSize < 1) {
+            throw new IllegalArgumentException("fsyncBatchSize must be > 0, but was " + fsyncBatchSize);
+        }
+        if (fsyncInterval.isNegative()) {
+            throw new IllegalArgumentException("fsyncInterval must be >= 0, but was " + fsyncInterval);
+        }
+        Files.createDirectories(directory);
+        long lastSegmentNumber = firstSegment - 1;
+        for (Path segmentFile : segmentFiles(directory)) {
+            final long segmentNumber = segmentNumber(segmentFile);
+            if (segmentNumber < firstSegment) {
+                // crashed between snapshot and compaction
+                Files.delete(segmentFile);
+                continue;
+            }
+            lastSegmentNumber = segmentNumber;
+            if (replaySegment(segmentFile, replay) == 0) {
+                Files.delete(segmentFile);
+            }
+        }
+        return new MappedPojoLog(directory, segmentBytes, fsyncBatchSize, fsyncInterval, lastSegmentNumber);
+    }
+
+    void appendPut(PojoEntry stored) {
+        final boolean hasValue = stored.getValue() != null;
+        if (append(PUT, stored.getId(), stored.getVersion(), hasValue, hasValue ? stored.getValue() : 0)) {
+            sync();
+        }
+    }
+
+    void appendRemove(String id, long version) {
+        if (append(REMOVE, id, version, false, 0)) {
+            sync();
+        }
+    }
+
+    /**
+     * Force all appended records to disk.
+     */
+    void sync() {
+        final MappedByteBuffer toForce;
+        synchronized (this) {
+            if (unsyncedRecords == 0 || closed) {
+                return;
+            }
+            unsyncedRecords = 0;
+            toForce = segment;
+        }
+        // outside the lock - appends go on while the pages are written
+        toForce.force();
+    }
+
+    /**
+     * Force the current segment and continue in a new one.
+     *
+     * @return number of the new segment - all records appended before are in older segments
+     */
+    synchronized long rollOver() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Log closed: " + directory);
+        }
+        segment.force();
+        channel.close();
+        nextSegment();
+        return segmentNumber;
+    }
+
+    /**
+     * Delete all segments before the given one, e.g. after a snapshot covers them.
+     *
+     * @return count of deleted segments
+     */
+    int deleteSegmentsBefore(long segmentNumber) throws IOException {
+        int deleted = 0;
+        for (Path segmentFile : segmentFiles(directory)) {
+            if (segmentNumber(segmentFile) < segmentNumber) {
+                Files.delete(segmentFile);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (syncScheduler != null) {
+            syncScheduler.shutdownNow();
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            segment.force();
+            channel.truncate(segment.position());
+            channel.close();
+        }
+    }
+
+    /**
+     * @return true if the caller has to {@link #sync()} (batch complete)
+     */
+    private synchronized boolean append(byte type, String id, long version, boolean hasValue, int value) {
+        if (closed) {
+            throw new IllegalStateException("Log closed: " + directory);
+        }
+        final byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length > MAX_ID_BYTES) {
+            throw new IllegalArgumentException("id too long to log: " + idBytes.length + " bytes");
+        }
+        final int length = 1 + Long.BYTES + Short.BYTES + idBytes.length + (type == PUT ? 1 + Integer.BYTES : 0);
+        try {
+            if (segment.remaining() < HEADER_BYTES + length) {
+                rollOver();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Roll over to next segment failed: " + directory, e);
+        }
+
+        final int start = segment.position();
+        segment.position(start + HEADER_BYTES);
+        segment.put(type).putLong(version).putShort((short) idBytes.length).put(idBytes);
+        if (type == PUT) {
+            segment.put((byte) (hasValue ? 1 : 0)).putInt(value);
+        }
+        crc.reset();
+        crc.update(segment.duplicate().position(start + HEADER_BYTES).limit(start + HEADER_BYTES + length));
+        segment.putInt(start + Integer.BYTES, (int) crc.getValue());
+        // length last - a record without length is the end of the segment
+        segment.putInt(start, length);
+
+        return ++unsyncedRecords >= fsyncBatchSize;
+    }
+
+    private void nextSegment() throws IOException {
+        segmentNumber++;
+        final Path segmentFile = directory.resolve(fileName(segmentNumber, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segmentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        unsyncedRecords = 0;
+    }
+
+    /**
+     * @return size of the valid records
+     */
+    private static long replaySegment(Path segmentFile, Replay replay) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long fileSize = readChannel.size();
+            final ByteBuffer records = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            final CRC32 recordCrc = new CRC32();
+            while (records.remaining() >= HEADER_BYTES) {
+                final int start = records.position();
+                final int length = records.getInt();
+                final int crc32 = records.getInt();
+                if (length <= 0 || length > records.remaining()) {
+                    records.position(start);
+                    break;
+                }
+                recordCrc.reset();
+                recordCrc.update(records.duplicate().limit(start + HEADER_BYTES + length));
+                if ((int) recordCrc.getValue() != crc32) {
+                    records.position(start);
+                    break;
+                }
+                replayRecord(records, replay);
+            }
+            if (records.position() < fileSize) {
+                // zero tail of a crashed or rolled over segment, or a torn record
+                readChannel.truncate(records.position());
+            }
+            return records.position();
+        }
+    }
+
+    private static void replayRecord(ByteBuffer record, Replay replay) {
+        final byte type = record.get();
+        final long version = record.getLong();
+        final byte[] idBytes = new byte[Short.toUnsignedInt(record.getShort())];
+        record.get(idBytes);
+        final String id = new String(idBytes, StandardCharsets.UTF_8);
+        if (type == PUT) {
+            final boolean hasValue = record.get() != 0;
+            final int value = record.getInt();
+            replay.put(new PojoEntry(id, hasValue ? value : null).withVersion(version));
+        } else {
+            replay.remove(id, version);
+        }
+    }
+
+    static List<Path> segmentFiles(Path directory) throws IOException {
+        return numberedFiles(directory, SEGMENT_SUFFIX);
+    }
+
+    static long segmentNumber(Path segmentFile) {
+        return fileNumber(segmentFile, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * @return files named {@code <number><suffix>} ordered by number
+     */
+    static List<Path> numberedFiles(Path directory, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    static String fileName(long number, String suffix) {
+        return String.format("%016d%s", number, suffix);
+    }
+
+    static long fileNumber(Path file, String suffix) {
+        final String fileName = file.getFileName().toString();
+        return Long.parseLong(fileName.substring(0, fileName.length() - suffix.length()));
+    }
+}
@@ -0,0 +1,1066 @@
+package schnittstelle.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.lang.ref.Cleaner;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link PojoStore} with the entries in off heap memory ({@link ByteBuffer#allocateDirect(int)}), for many millions of entries without a big heap or
+ * long GC pauses. {@link PojoEntry} objects are only created for the caller (e.g. at the serialization boundary of the endpoints).
+ * <p/>
+ * The store is split into {@value #SEGMENTS} segments by id hash, each with its own read/write lock and an array of fixed width records. A record is
+ * {@code [long version][int value][byte flags][byte idLength][id utf-8]} with {@value #RECORD_BYTES} bytes. Removed records are reused via a free
+ * list.
+ * <p/>
+ * Generated ids are indexed by their {@link PojoIdCodec} code in a {@link LongIntHashMap} - lookups without String keys, boxing or allocation. Other
+ * ids fall back to a secondary open addressing index of id hashes (linear probing, backward shift deletion), ids longer than {@value #MAX_ID_BYTES}
+ * bytes are kept on heap.
+ * <p/>
+ * {@link #page(String, int)} and {@link #rangeByValue(int, int, int)} have no sorted index (it would cost more heap than the entries). They scan all
+ * records and are O(size) per call.
+ * <p/>
+ * Count and sum of the values are striped counters ({@link LongAdder}). Min and max are kept per segment and only recomputed (by a scan of the
+ * segment) after its min or max was removed, so {@link #valueStats()} is O(segments) in general.
+ * <p/>
+ * {@link #openSnapshot()} is multi version concurrency control like in {@link ConcurrentPojoStore}: every record has its version, and while a snapshot
+ * is open the writers keep the superseded states in a heap map of the segment, pruned to the states an open snapshot reads. Snapshot reads lock one
+ * segment at a time and copy nothing - except the ordered iteration, which sorts the ids first (8 bytes per generated id). Writers never wait for
+ * snapshots, a batch takes one block of versions like in {@link ConcurrentPojoStore}.
+ */
+public class OffHeapPojoStore implements PojoStore {
+    static final int SEGMENTS = 64;
+    static final int RECORD_BYTES = 32;
+    static final int MAX_ID_BYTES = RECORD_BYTES - 14;
+
+    private static final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final int VERSION_OFFSET = 0;
+    private static final int VALUE_OFFSET = 8;
+    private static final int FLAGS_OFFSET = 12;
+    private static final int ID_LENGTH_OFFSET = 13;
+    private static final int ID_OFFSET = 14;
+    private static final byte USED = 1;
+    private static final byte HAS_VALUE = 2;
+    private static final int INDEX_ENTRY_BYTES = 8;
+    private static final int NO_RECORD = -1;
+    private static final Comparator<PojoEntry> BY_ID = Comparator.comparing(PojoEntry::getId);
+    private static final Comparator<PojoEntry> BY_VALUE_AND_ID = Comparator.comparing(PojoEntry::getValue).thenComparing(PojoEntry::getId);
+    // snapshot version of the current state, see Segment.collectSmallest()
+    private static final long CURRENT = Long.MAX_VALUE;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicInteger size = new AtomicInteger();
+    private final StoreVersions versions = new StoreVersions();
+    private final LongAdder valueCount = new LongAdder();
+    private final LongAdder valueSum = new LongAdder();
+    // versions of the open snapshots, old states are only kept while one is open
+    private final SnapshotPins pins = new SnapshotPins();
+    // [next, last] version of the batch of the current thread
+    private final ThreadLocal<long[]> batchVersions = new ThreadLocal<>();
+
+    public OffHeapPojoStore() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize expected count of entries, avoids resizing while growing up to it
+     */
+    public OffHeapPojoStore(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must be >= 0, but was " + expectedSize);
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(expectedSize / SEGMENTS);
+        }
+    }
+
+    @Override
+    public PojoEntry get(String id) {
+        final int hash = hash(Objects.requireNonNull(id, "id"));
+        final Segment segment = segmentOf(hash);
+        final Lock lock = segment.lock.readLock();
+        lock.lock();
+        try {
+            return segment.get(id, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public PojoEntry put(PojoEntry entry) {
+        return write(entry.getId(), segment -> store(segment, entry));
+    }
+
+    @Override
+    public PojoEntry putIfAbsent(PojoEntry entry) {
+        return write(entry.getId(), segment -> {
+            final PojoEntry existing = segment.get(entry.getId(), hash(entry.getId()));
+            if (existing == null) {
+                store(segment, entry);
+            }
+            return existing;
+        });
+    }
+
+    @Override
+    public PojoEntry replaceIf(PojoEntry entry, LongPredicate acceptVersion) {
+        Objects.requireNonNull(acceptVersion, "acceptVersion");
+        return write(entry.getId(), segment -> {
+            final PojoEntry existing = segment.get(entry.getId(), hash(entry.getId()));
+            if (existing == null || !acceptVersion.test(existing.getVersion())) {
+                return null;
+            }
+            return store(segment, entry);
+        });
+    }
+
+    @Override
+    public PojoEntry remove(String id) {
+        return write(id, segment -> {
+            final int hash = hash(id);
+            if (!segment.contains(id, hash)) {
+                return null;
+            }
+            final long version = nextVersion();
+            final PojoEntry removed = segment.remove(id, hash);
+            size.decrementAndGet();
+            // read after the version is taken, see openSnapshot()
+            if (!pins.isEmpty()) {
+                segment.keepForSnapshots(removed, version, true, pins);
+            }
+            return valueChanged(segment, removed, null);
+        });
+    }
+
+    @Override
+    public PojoEntry addToValue(String id, int delta) {
+        return updateValue(id, old -> new PojoEntry(old.getId(), Math.addExact(old.getValue() == null ? 0 : old.getValue(), delta)));
+    }
+
+    @Override
+    public PojoEntry compareAndSetValue(String id, int expectedValue, int newValue) {
+        return updateValue(id, old -> old.getValue() != null && old.getValue() == expectedValue ? new PojoEntry(old.getId(), newValue) : null);
+    }
+
+    /**
+     * @param update new entry of the existing one or null to keep it, called with the write lock of the segment
+     * @return stored new entry or null
+     */
+    private PojoEntry updateValue(String id, UnaryOperator<PojoEntry> update) {
+        return write(id, segment -> {
+            final int hash = hash(id);
+            final PojoEntry existing = segment.get(id, hash);
+            final PojoEntry entry = existing == null ? null : update.apply(existing);
+            if (entry == null) {
+                return null;
+            }
+            store(segment, entry);
+            return segment.get(id, hash);
+        });
+    }
+
+    /**
+     * @return weakly consistent view, the iterator copies the entries of one segment at a time
+     */
+    @Override
+    public Collection<PojoEntry> values() {
+        return new AbstractCollection<PojoEntry>() {
+            @Override
+            public Iterator<PojoEntry> iterator() {
+                return new SegmentIterator();
+            }
+
+            @Override
+            public int size() {
+                return OffHeapPojoStore.this.size();
+            }
+        };
+    }
+
+    @Override
+    public PojoPage page(String cursorOrNull, int limit) {
+        return page(cursorOrNull, limit, CURRENT);
+    }
+
+    private PojoPage page(String cursorOrNull, int limit, long snapshotVersion) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be > 0, but was " + limit);
+        }
+        final String afterId = cursorOrNull == null ? null : PojoPage.decodeCursor(cursorOrNull);
+        final int pageSize = Math.min(limit, PojoPage.MAX_LIMIT);
+        // max heap of the smallest ids after the cursor
+        final PriorityQueue<PojoEntry> smallest = new PriorityQueue<>(pageSize + 1, BY_ID.reversed());
+        boolean more = false;
+        for (Segment segment : segments) {
+            final Lock lock = segment.lock.readLock();
+            lock.lock();
+            try {
+                more |= segment.collectSmallest(afterId, pageSize, smallest, snapshotVersion);
+            } finally {
+                lock.unlock();
+            }
+        }
+        final List<PojoEntry> entries = new ArrayList<>(smallest);
+        entries.sort(BY_ID);
+        final String nextCursor = more ? PojoPage.encodeCursor(entries.get(entries.size() - 1).getId()) : null;
+        return new PojoPage(entries, nextCursor);
+    }
+
+    /**
+     * No value index either, scans all records like {@link #page(String, int)}.
+     */
+    @Override
+    public List<PojoEntry> rangeByValue(int minValue, int maxValue, int limit) {
+        if (minValue > maxValue) {
+            throw new IllegalArgumentException("minValue must be <= maxValue, but was " + minValue + " > " + maxValue);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be > 0, but was " + limit);
+        }
+        final int rangeSize = Math.min(limit, PojoPage.MAX_LIMIT);
+        // max heap of the smallest entries in range
+        final PriorityQueue<PojoEntry> smallest = new PriorityQueue<>(rangeSize + 1, BY_VALUE_AND_ID.reversed());
+        for (Segment segment : segments) {
+            final Lock lock = segment.lock.readLock();
+            lock.lock();
+            try {
+                segment.collectSmallestValues(minValue, maxValue, rangeSize, smallest);
+            } finally {
+                lock.unlock();
+            }
+        }
+        final List<PojoEntry> entries = new ArrayList<>(smallest);
+        entries.sort(BY_VALUE_AND_ID);
+        return entries;
+    }
+
+    @Override
+    public PojoValueStats valueStats() {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (Segment segment : segments) {
+            final Lock readLock = segment.lock.readLock();
+            readLock.lock();
+            try {
+                if (!segment.minMaxStale) {
+                    min = Math.min(min, segment.minValue);
+                    max = Math.max(max, segment.maxValue);
+                    continue;
+                }
+            } finally {
+                readLock.unlock();
+            }
+            final Lock writeLock = segment.lock.writeLock();
+            writeLock.lock();
+            try {
+                segment.recomputeMinMax();
+                min = Math.min(min, segment.minValue);
+                max = Math.max(max, segment.maxValue);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        // no segment with values
+        return min > max ? new PojoValueStats(0, 0, 0, 0) : new PojoValueStats(valueCount.sum(), valueSum.sum(), min, max);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public PojoSnapshot openSnapshot() {
+        // pinned before the version is taken: writers keep every old state from now on
+        final SnapshotPins.Pin pin = pins.pin();
+        final long version = versions.last();
+        versions.awaitCommitted(version);
+        pin.version = version;
+
+        final Snapshot snapshot = new Snapshot(version);
+        // also released if a snapshot is never closed
+        snapshot.release = SnapshotPins.CLEANER.register(snapshot, () -> unpin(pin));
+        return snapshot;
+    }
+
+    @Override
+    public <T> T writeBatch(int maxWrites, Supplier<T> writes) {
+        Objects.requireNonNull(writes, "writes");
+        if (maxWrites < 0) {
+            throw new IllegalArgumentException("maxWrites must be >= 0, but was " + maxWrites);
+        }
+        if (batchVersions.get() != null) {
+            throw new IllegalStateException("Nested batch");
+        }
+        final int epoch = versions.beginWrite();
+        try {
+            final long last = versions.reserve(maxWrites);
+            batchVersions.set(new long[]{last - maxWrites + 1, last});
+            try {
+                return writes.get();
+            } finally {
+                batchVersions.remove();
+            }
+        } finally {
+            versions.endWrite(epoch);
+        }
+    }
+
+    @Override
+    public long version() {
+        return versions.committed();
+    }
+
+    /**
+     * @return count of superseded states kept for snapshots
+     */
+    int retainedStates() {
+        int states = 0;
+        for (Segment segment : segments) {
+            final Lock lock = segment.lock.readLock();
+            lock.lock();
+            try {
+                for (SnapshotPins.State state : segment.history.values()) {
+                    states += state.size();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return states;
+    }
+
+    private PojoEntry write(String id, Function<Segment, PojoEntry> write) {
+        final Segment segment = segmentOf(hash(Objects.requireNonNull(id, "id")));
+        final Lock lock = segment.lock.writeLock();
+        final int epoch = versions.beginWrite();
+        lock.lock();
+        try {
+            return write.apply(segment);
+        } finally {
+            lock.unlock();
+            versions.endWrite(epoch);
+        }
+    }
+
+    /**
+     * Insert or replace the entry, called with the write lock of the segment.
+     *
+     * @return replaced entry or null
+     */
+    private PojoEntry store(Segment segment, PojoEntry entry) {
+        final long version = nextVersion();
+        final PojoEntry replaced = segment.put(entry, version, size);
+        // read after the version is taken, see openSnapshot()
+        if (replaced != null && !pins.isEmpty()) {
+            segment.keepForSnapshots(replaced, version, false, pins);
+        }
+        return valueChanged(segment, replaced, entry);
+    }
+
+    /**
+     * Drop the states no open snapshot reads any more, up to the oldest open snapshot.
+     */
+    private void unpin(SnapshotPins.Pin pin) {
+        pins.unpin(pin);
+        for (Segment segment : segments) {
+            if (segment.historySize == 0) {
+                continue;
+            }
+            final Lock lock = segment.lock.writeLock();
+            lock.lock();
+            try {
+                // the pins are read with the lock: a snapshot opened meanwhile keeps the states
+                segment.reclaim(pins.versions());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Version of a write, called with the write lock of the segment before the record is changed.
+     *
+     * @throws IllegalStateException if the batch of the current thread has no versions left, nothing changed then
+     */
+    private long nextVersion() {
+        final long[] batch = batchVersions.get();
+        if (batch == null) {
+            return versions.next();
+        }
+        if (batch[0] > batch[1]) {
+            throw new IllegalStateException("Batch has more writes than its maxWrites");
+        }
+        return batch[0]++;
+    }
+
+    /**
+     * Update the value aggregates, called with the write lock of the segment.
+     *
+     * @return oldOrNull
+     */
+    private PojoEntry valueChanged(Segment segment, PojoEntry oldOrNull, PojoEntry newOrNull) {
+        if (oldOrNull != null && oldOrNull.getValue() != null) {
+            valueCount.decrement();
+            valueSum.add(-oldOrNull.getValue());
+            segment.valueRemoved(oldOrNull.getValue());
+        }
+        if (newOrNull != null && newOrNull.getValue() != null) {
+            valueCount.increment();
+            valueSum.add(newOrNull.getValue());
+            segment.valueAdded(newOrNull.getValue());
+        }
+        return oldOrNull;
+    }
+
+    private Segment segmentOf(int hash) {
+        return segments[hash >>> SEGMENT_SHIFT];
+    }
+
+    private static int hash(String id) {
+        final int hash = id.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Segment {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // ids of the PojoIdCodec (generated ids)
+        private final LongIntHashMap compactIndex;
+        // ids longer than MAX_ID_BYTES
+        private final Map<String, PojoEntry> overflow = new HashMap<>();
+        // superseded states of the ids written while a snapshot is open, newest first
+        private final Map<String, SnapshotPins.State> history = new HashMap<>();
+        // size of history, read without the lock to skip segments without history
+        private volatile int historySize;
+
+        // min/max of the values, recomputed lazily after the min or max was removed
+        private int minValue = Integer.MAX_VALUE;
+        private int maxValue = Integer.MIN_VALUE;
+        private boolean minMaxStale;
+
+        private ByteBuffer records;
+        private int allocatedRecords;
+        private int freeRecord = NO_RECORD;
+
+        // other ids: [int hash][int record + 1], 0 = empty
+        private ByteBuffer index;
+        private int indexMask;
+        private int indexSize;
+
+        private Segment(int expectedSize) {
+            this.compactIndex = new LongIntHashMap(expectedSize);
+            final int indexCapacity = 16;
+            this.index = ByteBuffer.allocateDirect(indexCapacity * INDEX_ENTRY_BYTES);
+            this.indexMask = indexCapacity - 1;
+            this.records = ByteBuffer.allocateDirect(Math.max(16, expectedSize) * RECORD_BYTES);
+        }
+
+        PojoEntry get(String id, int hash) {
+            final long code = PojoIdCodec.encode(id);
+            if (code != PojoIdCodec.NOT_ENCODABLE) {
+                final int record = compactIndex.get(code);
+                return record == LongIntHashMap.NO_VALUE ? null : entry(record);
+            }
+            final byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+            if (idBytes.length > MAX_ID_BYTES) {
+                return overflow.get(id);
+            }
+            final int position = find(idBytes, hash);
+            return position < 0 ? null : entry(recordAt(position));
+        }
+
+        /**
+         * @param entryOrNull current entry of the id or null
+         * @return entry at the snapshot version or null
+         */
+        PojoEntry getAt(String id, PojoEntry entryOrNull, long snapshotVersion) {
+            if (entryOrNull != null && entryOrNull.getVersion() <= snapshotVersion) {
+                return entryOrNull;
+            }
+            final SnapshotPins.State states = history.get(id);
+            final SnapshotPins.State state = states == null ? null : states.at(snapshotVersion);
+            return state == null ? null : state.entryOrNull();
+        }
+
+        boolean contains(String id, int hash) {
+            final long code = PojoIdCodec.encode(id);
+            if (code != PojoIdCodec.NOT_ENCODABLE) {
+                return compactIndex.get(code) != LongIntHashMap.NO_VALUE;
+            }
+            final byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+            return idBytes.length > MAX_ID_BYTES ? overflow.containsKey(id) : find(idBytes, hash) >= 0;
+        }
+
+        /**
+         * @return replaced entry or null
+         */
+        PojoEntry put(PojoEntry entry, long version, AtomicInteger size) {
+            final long code = PojoIdCodec.encode(entry.getId());
+            if (code != PojoIdCodec.NOT_ENCODABLE) {
+                final int existing = compactIndex.get(code);
+                if (existing != LongIntHashMap.NO_VALUE) {
+                    final PojoEntry replaced = entry(existing);
+                    writeRecord(existing, entry.getValue(), version);
+                    return replaced;
+                }
+                final int record = allocateRecord();
+                writeRecord(record, entry.getValue(), version);
+                writeCompactId(record, entry.getId());
+                compactIndex.put(code, record);
+                size.incrementAndGet();
+                return null;
+            }
+            final byte[] idBytes = entry.getId().getBytes(StandardCharsets.UTF_8);
+            if (idBytes.length > MAX_ID_BYTES) {
+                final PojoEntry replaced = overflow.put(entry.getId(), entry.withVersion(version));
+                if (replaced == null) {
+                    size.incrementAndGet();
+                }
+                return replaced;
+            }
+            final int hash = hash(entry.getId());
+            final int position = find(idBytes, hash);
+            if (position >= 0) {
+                final int record = recordAt(position);
+                final PojoEntry replaced = entry(record);
+                writeRecord(record, entry.getValue(), version);
+                return replaced;
+            }
+            final int record = allocateRecord();
+            writeRecord(record, entry.getValue(), version);
+            writeId(record, idBytes);
+            insertIndex(-position - 1, hash, record);
+            size.incrementAndGet();
+            return null;
+        }
+
+        PojoEntry remove(String id, int hash) {
+            final long code = PojoIdCodec.encode(id);
+            if (code != PojoIdCodec.NOT_ENCODABLE) {
+                final int record = compactIndex.remove(code);
+                return record == LongIntHashMap.NO_VALUE ? null : freeRecord(record);
+            }
+            final byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+            if (idBytes.length > MAX_ID_BYTES) {
+                return overflow.remove(id);
+            }
+            final int position = find(idBytes, hash);
+            if (position < 0) {
+                return null;
+            }
+            final int record = recordAt(position);
+            deleteIndex(position);
+            return freeRecord(record);
+        }
+
+        /**
+         * @param newVersion version of the write that superseded old
+         * @param removed    true if the write removed the id
+         */
+        void keepForSnapshots(PojoEntry old, long newVersion, boolean removed, SnapshotPins pins) {
+            history.compute(old.getId(), (id, states) -> SnapshotPins.State.superseded(states, old, newVersion, removed, pins.versions()));
+            historySize = history.size();
+        }
+
+        /**
+         * @param pinnedOrNull {@link SnapshotPins#versions()}
+         */
+        void reclaim(long[] pinnedOrNull) {
+            final Iterator<Map.Entry<String, SnapshotPins.State>> states = history.entrySet().iterator();
+            while (states.hasNext()) {
+                final Map.Entry<String, SnapshotPins.State> idStates = states.next();
+                final PojoEntry current = get(idStates.getKey(), hash(idStates.getKey()));
+                final SnapshotPins.State pruned = SnapshotPins.State.prune(idStates.getValue(), current == null ? Long.MAX_VALUE : current.getVersion(),
+                        pinnedOrNull);
+                if (pruned == null) {
+                    states.remove();
+                } else {
+                    idStates.setValue(pruned);
+                }
+            }
+            historySize = history.size();
+        }
+
+        /**
+         * Collect the ids of the records and of the removed ids still read by snapshots, generated ids as {@link PojoIdCodec} codes.
+         */
+        void collectIds(IdList ids) {
+            compactIndex.forEachKey(ids::add);
+            for (int position = 0; position <= indexMask; position++) {
+                final int recordRef = index.getInt(position * INDEX_ENTRY_BYTES + 4);
+                if (recordRef != 0) {
+                    ids.add(readId(recordRef - 1));
+                }
+            }
+            overflow.keySet().forEach(ids::add);
+            history.keySet().forEach(ids::add);
+        }
+
+        void valueAdded(int value) {
+            minValue = Math.min(minValue, value);
+            maxValue = Math.max(maxValue, value);
+        }
+
+        void valueRemoved(int value) {
+            if (value == minValue || value == maxValue) {
+                minMaxStale = true;
+            }
+        }
+
+        void recomputeMinMax() {
+            if (!minMaxStale) {
+                return;
+            }
+            minValue = Integer.MAX_VALUE;
+            maxValue = Integer.MIN_VALUE;
+            for (int record = 0; record < allocatedRecords; record++) {
+                final int offset = record * RECORD_BYTES;
+                if ((records.get(offset + FLAGS_OFFSET) & (USED | HAS_VALUE)) == (USED | HAS_VALUE)) {
+                    valueAdded(records.getInt(offset + VALUE_OFFSET));
+                }
+            }
+            for (PojoEntry entry : overflow.values()) {
+                if (entry.getValue() != null) {
+                    valueAdded(entry.getValue());
+                }
+            }
+            minMaxStale = false;
+        }
+
+        void copyTo(List<PojoEntry> entries) {
+            for (int record = 0; record < allocatedRecords; record++) {
+                if (isUsed(record)) {
+                    entries.add(entry(record));
+                }
+            }
+            entries.addAll(overflow.values());
+        }
+
+        /**
+         * @param snapshotVersion version of the snapshot or {@link #CURRENT}
+         * @return true if there are more ids after the cursor than fit into the page
+         */
+        boolean collectSmallest(String afterId, int pageSize, PriorityQueue<PojoEntry> smallest, long snapshotVersion) {
+            boolean more = false;
+            for (int record = 0; record < allocatedRecords; record++) {
+                if (!isUsed(record)) {
+                    continue;
+                }
+                if (records.getLong(record * RECORD_BYTES + VERSION_OFFSET) <= snapshotVersion) {
+                    more |= offer(readId(record), afterId, pageSize, smallest, record, null);
+                } else {
+                    // written after the snapshot
+                    final String id = readId(record);
+                    more |= offerOrSkip(id, afterId, pageSize, smallest, getAt(id, null, snapshotVersion));
+                }
+            }
+            for (PojoEntry entry : overflow.values()) {
+                more |= offerOrSkip(entry.getId(), afterId, pageSize, smallest, getAt(entry.getId(), entry, snapshotVersion));
+            }
+            if (snapshotVersion != CURRENT) {
+                // removed after the snapshot
+                for (String id : history.keySet()) {
+                    if (!contains(id, hash(id))) {
+                        more |= offerOrSkip(id, afterId, pageSize, smallest, getAt(id, null, snapshotVersion));
+                    }
+                }
+            }
+            return more;
+        }
+
+        private boolean offerOrSkip(String id, String afterId, int pageSize, PriorityQueue<PojoEntry> smallest, PojoEntry entryOrNull) {
+            return entryOrNull != null && offer(id, afterId, pageSize, smallest, NO_RECORD, entryOrNull);
+        }
+
+        void collectSmallestValues(int minValue, int maxValue, int rangeSize, PriorityQueue<PojoEntry> smallest) {
+            for (int record = 0; record < allocatedRecords; record++) {
+                final int offset = record * RECORD_BYTES;
+                if ((records.get(offset + FLAGS_OFFSET) & (USED | HAS_VALUE)) == (USED | HAS_VALUE)) {
+                    offerValue(records.getInt(offset + VALUE_OFFSET), minValue, maxValue, rangeSize, smallest, record, null);
+                }
+            }
+            for (PojoEntry entry : overflow.values()) {
+                if (entry.getValue() != null) {
+                    offerValue(entry.getValue(), minValue, maxValue, rangeSize, smallest, NO_RECORD, entry);
+                }
+            }
+        }
+
+        private void offerValue(int value, int minValue, int maxValue, int rangeSize, PriorityQueue<PojoEntry> smallest, int record, PojoEntry entryOrNull) {
+            // entries are only created for values that may be in the result
+            if (value < minValue || value > maxValue || smallest.size() == rangeSize && value > smallest.peek().getValue()) {
+                return;
+            }
+            smallest.add(entryOrNull != null ? entryOrNull : entry(record));
+            if (smallest.size() > rangeSize) {
+                smallest.poll();
+            }
+        }
+
+        private boolean offer(String id, String afterId, int pageSize, PriorityQueue<PojoEntry> smallest, int record, PojoEntry entryOrNull) {
+            if (afterId != null && id.compareTo(afterId) <= 0) {
+                return false;
+            }
+            if (smallest.size() == pageSize && id.compareTo(smallest.peek().getId()) > 0) {
+                return true;
+            }
+            smallest.add(entryOrNull != null ? entryOrNull : entry(record));
+            if (smallest.size() > pageSize) {
+                smallest.poll();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return index position of the id or -(insert position) - 1
+         */
+        private int find(byte[] idBytes, int hash) {
+            int position = hash & indexMask;
+            while (true) {
+                final int recordRef = index.getInt(position * INDEX_ENTRY_BYTES + 4);
+                if (recordRef == 0) {
+                    return -position - 1;
+                }
+                if (index.getInt(position * INDEX_ENTRY_BYTES) == hash && idEquals(recordRef - 1, idBytes)) {
+                    return position;
+                }
+                position = (position + 1) & indexMask;
+            }
+        }
+
+        private int recordAt(int position) {
+            return index.getInt(position * INDEX_ENTRY_BYTES + 4) - 1;
+        }
+
+        private void insertIndex(int position, int hash, int record) {
+            index.putInt(position * INDEX_ENTRY_BYTES, hash);
+            index.putInt(position * INDEX_ENTRY_BYTES + 4, record + 1);
+            if (++indexSize > (indexMask + 1) * 3 / 4) {
+                resizeIndex();
+            }
+        }
+
+        private void deleteIndex(int position) {
+            // backward shift: move following entries of the probe sequence into the gap, no tombstones
+            int gap = position;
+            int next = (gap + 1) & indexMask;
+            while (true) {
+                final int recordRef = index.getInt(next * INDEX_ENTRY_BYTES + 4);
+                if (recordRef == 0) {
+                    break;
+                }
+                final int hash = index.getInt(next * INDEX_ENTRY_BYTES);
+                final int home = hash & indexMask;
+                // entry may move if its home is not in (gap, next]
+                if (((next - home) & indexMask) >= ((next - gap) & indexMask)) {
+                    index.putInt(gap * INDEX_ENTRY_BYTES, hash);
+                    index.putInt(gap * INDEX_ENTRY_BYTES + 4, recordRef);
+                    gap = next;
+                }
+                next = (next + 1) & indexMask;
+            }
+            index.putInt(gap * INDEX_ENTRY_BYTES, 0);
+            index.putInt(gap * INDEX_ENTRY_BYTES + 4, 0);
+            indexSize--;
+        }
+
+        private void resizeIndex() {
+            final ByteBuffer oldIndex = index;
+            final int oldCapacity = indexMask + 1;
+            if (oldCapacity * 2L * INDEX_ENTRY_BYTES > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Segment full: " + indexSize + " entries");
+            }
+            index = ByteBuffer.allocateDirect(oldCapacity * 2 * INDEX_ENTRY_BYTES);
+            indexMask = oldCapacity * 2 - 1;
+            for (int position = 0; position < oldCapacity; position++) {
+                final int recordRef = oldIndex.getInt(position * INDEX_ENTRY_BYTES + 4);
+                if (recordRef != 0) {
+                    final int hash = oldIndex.getInt(position * INDEX_ENTRY_BYTES);
+                    int newPosition = hash & indexMask;
+                    while (index.getInt(newPosition * INDEX_ENTRY_BYTES + 4) != 0) {
+                        newPosition = (newPosition + 1) & indexMask;
+                    }
+                    index.putInt(newPosition * INDEX_ENTRY_BYTES, hash);
+                    index.putInt(newPosition * INDEX_ENTRY_BYTES + 4, recordRef);
+                }
+            }
+        }
+
+        private int allocateRecord() {
+            if (freeRecord != NO_RECORD) {
+                final int record = freeRecord;
+                freeRecord = records.getInt(record * RECORD_BYTES + VALUE_OFFSET);
+                return record;
+            }
+            if ((allocatedRecords + 1L) * RECORD_BYTES > records.capacity()) {
+                final long newCapacity = Math.min((long) records.capacity() * 2, Integer.MAX_VALUE / RECORD_BYTES * RECORD_BYTES);
+                if (newCapacity <= records.capacity()) {
+                    throw new IllegalStateException("Segment full: " + allocatedRecords + " records");
+                }
+                final ByteBuffer newRecords = ByteBuffer.allocateDirect((int) newCapacity);
+                newRecords.put(records.duplicate().position(0).limit(allocatedRecords * RECORD_BYTES));
+                records = newRecords;
+            }
+            return allocatedRecords++;
+        }
+
+        /**
+         * @return entry of the freed record
+         */
+        private PojoEntry freeRecord(int record) {
+            final PojoEntry removed = entry(record);
+            records.put(record * RECORD_BYTES + FLAGS_OFFSET, (byte) 0);
+            records.putInt(record * RECORD_BYTES + VALUE_OFFSET, freeRecord);
+            freeRecord = record;
+            return removed;
+        }
+
+        private void writeRecord(int record, Integer valueOrNull, long version) {
+            final int offset = record * RECORD_BYTES;
+            records.putLong(offset + VERSION_OFFSET, version);
+            records.putInt(offset + VALUE_OFFSET, valueOrNull == null ? 0 : valueOrNull);
+            records.put(offset + FLAGS_OFFSET, (byte) (USED | (valueOrNull == null ? 0 : HAS_VALUE)));
+        }
+
+        private void writeId(int record, byte[] idBytes) {
+            final int offset = record * RECORD_BYTES;
+            records.put(offset + ID_LENGTH_OFFSET, (byte) idBytes.length);
+            for (int i = 0; i < idBytes.length; i++) {
+                records.put(offset + ID_OFFSET + i, idBytes[i]);
+            }
+        }
+
+        private void writeCompactId(int record, String asciiId) {
+            final int offset = record * RECORD_BYTES;
+            records.put(offset + ID_LENGTH_OFFSET, (byte) asciiId.length());
+            for (int i = 0; i < asciiId.length(); i++) {
+                records.put(offset + ID_OFFSET + i, (byte) asciiId.charAt(i));
+            }
+        }
+
+        private boolean isUsed(int record) {
+            return (records.get(record * RECORD_BYTES + FLAGS_OFFSET) & USED) != 0;
+        }
+
+        private boolean idEquals(int record, byte[] idBytes) {
+            final int offset = record * RECORD_BYTES;
+            if (records.get(offset + ID_LENGTH_OFFSET) != idBytes.length) {
+                return false;
+            }
+            for (int i = 0; i < idBytes.length; i++) {
+                if (records.get(offset + ID_OFFSET + i) != idBytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String readId(int record) {
+            final int offset = record * RECORD_BYTES;
+            final byte[] idBytes = new byte[records.get(offset + ID_LENGTH_OFFSET)];
+            for (int i = 0; i < idBytes.length; i++) {
+                idBytes[i] = records.get(offset + ID_OFFSET + i);
+            }
+            return new String(idBytes, StandardCharsets.UTF_8);
+        }
+
+        private PojoEntry entry(int record) {
+            final int offset = record * RECORD_BYTES;
+            final boolean hasValue = (records.get(offset + FLAGS_OFFSET) & HAS_VALUE) != 0;
+            final Integer value = hasValue ? records.getInt(offset + VALUE_OFFSET) : null;
+            return new PojoEntry(readId(record), value).withVersion(records.getLong(offset + VERSION_OFFSET));
+        }
+    }
+
+    private final class SegmentIterator implements Iterator<PojoEntry> {
+        private int nextSegment;
+        private Iterator<PojoEntry> entries = Collections.emptyIterator();
+
+        @Override
+        public boolean hasNext() {
+            while (!entries.hasNext() && nextSegment < SEGMENTS) {
+                final Segment segment = segments[nextSegment++];
+                final List<PojoEntry> copy = new ArrayList<>();
+                final Lock lock = segment.lock.readLock();
+                lock.lock();
+                try {
+                    segment.copyTo(copy);
+                } finally {
+                    lock.unlock();
+                }
+                entries = copy.iterator();
+            }
+            return entries.hasNext();
+        }
+
+        @Override
+        public PojoEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return entries.next();
+        }
+    }
+
+    private final class Snapshot implements PojoSnapshot {
+        private final long version;
+        private Cleaner.Cleanable release;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public PojoEntry get(String id) {
+            final int hash = hash(Objects.requireNonNull(id, "id"));
+            final Segment segment = segmentOf(hash);
+            final Lock lock = segment.lock.readLock();
+            lock.lock();
+            try {
+                return segment.getAt(id, segment.get(id, hash), version);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public PojoPage page(String cursorOrNull, int limit) {
+            return OffHeapPojoStore.this.page(cursorOrNull, limit, version);
+        }
+
+        /**
+         * Collects and sorts the ids of all segments, then reads one entry after the other at the version of the snapshot.
+         */
+        @Override
+        public Iterator<PojoEntry> iterator() {
+            final IdList ids = new IdList();
+            for (Segment segment : segments) {
+                final Lock lock = segment.lock.readLock();
+                lock.lock();
+                try {
+                    segment.collectIds(ids);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            final Iterator<String> sortedIds = ids.sorted();
+            return new Iterator<PojoEntry>() {
+                private PojoEntry next;
+
+                @Override
+                public boolean hasNext() {
+                    while (next == null && sortedIds.hasNext()) {
+                        next = get(sortedIds.next());
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public PojoEntry next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final PojoEntry entry = next;
+                    next = null;
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            release.clean();
+        }
+    }
+
+    /**
+     * Ids of a snapshot iteration: generated ids as {@link PojoIdCodec} codes (8 bytes each, no String), other ids as Strings.
+     */
+    private static final class IdList {
+        private long[] codes = new long[16];
+        private int codeCount;
+        private final List<String> others = new ArrayList<>();
+
+        void add(long code) {
+            if (codeCount == codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+            }
+            codes[codeCount++] = code;
+        }
+
+        void add(String id) {
+            final long code = PojoIdCodec.encode(id);
+            if (code == PojoIdCodec.NOT_ENCODABLE) {
+                others.add(id);
+            } else {
+                add(code);
+            }
+        }
+
+        /**
+         * @return distinct ids ordered like {@link #BY_ID}, the order of the codes is the order of the ids
+         */
+        Iterator<String> sorted() {
+            Arrays.sort(codes, 0, codeCount);
+            Collections.sort(others);
+            return new Iterator<String>() {
+                private int nextCode;
+                private int nextOther;
+
+                @Override
+                public boolean hasNext() {
+                    return nextCode < codeCount || nextOther < others.size();
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final String codeId = nextCode < codeCount ? PojoIdCodec.decode(codes[nextCode]) : null;
+                    final String otherId = nextOther < others.size() ? others.get(nextOther) : null;
+                    if (otherId == null || codeId != null && codeId.compareTo(otherId) < 0) {
+                        // removed ids still in the segment history are collected twice
+                        final long code = codes[nextCode];
+                        while (nextCode < codeCount && codes[nextCode] == code) {
+                            nextCode++;
+                        }
+                        return codeId;
+                    }
+                    while (nextOther < others.size() && others.get(nextOther).equals(otherId)) {
+                        nextOther++;
+                    }
+                    return otherId;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package schnittstelle.store;
+
+import java.util.Objects;
+
+/**
+ * Protocol neutral and immutable store entry. The JAX-RS and the JAX-WS {@code Pojo} classes are mapped from/to it at the endpoint boundary.
+ * <p/>
+ * The {@link #getVersion()} is assigned by the {@link PojoStore} on every write and is not part of {@link #equals(Object)}.
+ */
+public final class PojoEntry {
+    /**
+     * Version of entries not (yet) stored.
+     */
+    public static final long UNVERSIONED = 0;
+
+    private final String id;
+    private final Integer value;
+    private final long version;
+
+    public PojoEntry(String id, Integer value) {
+        this(id, value, UNVERSIONED);
+    }
+
+    private PojoEntry(String id, Integer value, long version) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.value = value;
+        this.version = version;
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * @return maybe null value (e.g. JAX-WS create() without value)
+     */
+    public Integer getValue() {
+        return this.value;
+    }
+
+    /**
+     * @return version of the stored entry, unique and increasing per store. {@link #UNVERSIONED} if not stored.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @param version new version, see {@link PojoStore}
+     * @return copy with the given version
+     */
+    public PojoEntry withVersion(long version) {
+        return new PojoEntry(this.id, this.value, version);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{id='%s', value=%s}", this.id, this.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PojoEntry entry = (PojoEntry) o;
+        return Objects.equals(id, entry.id) &&
+                Objects.equals(value, entry.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, value);
+    }
+}
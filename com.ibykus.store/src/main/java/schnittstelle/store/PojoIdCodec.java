@@ -0,0 +1,73 @@
+package schnittstelle.store;
+
+import java.util.Arrays;
+
+/**
+ * Codec of ids with {@link IdGenerator#LENGTH} characters of the {@link IdGenerator#ALPHABET} (e.g. generated by {@link RandomIdGenerator}) into one
+ * long in {@code [0, 57^10)}. The alphabet is sorted, so the order of the codes is the order of the ids.
+ * <p/>
+ * {@link #encode(String)} allocates nothing, other ids are {@link #NOT_ENCODABLE}.
+ */
+final class PojoIdCodec {
+    static final long NOT_ENCODABLE = -1;
+
+    private static final int RADIX = IdGenerator.ALPHABET.length();
+    static final long BOUND = pow(RADIX, IdGenerator.LENGTH);
+
+    // digit per ascii char, -1 if not in the alphabet
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int digit = 0; digit < RADIX; digit++) {
+            DIGITS[IdGenerator.ALPHABET.charAt(digit)] = (byte) digit;
+        }
+    }
+
+    private PojoIdCodec() {/* static access only */}
+
+    /**
+     * @param id not null id
+     * @return code in {@code [0, BOUND)} or {@link #NOT_ENCODABLE}
+     */
+    static long encode(String id) {
+        if (id.length() != IdGenerator.LENGTH) {
+            return NOT_ENCODABLE;
+        }
+        long code = 0;
+        for (int i = 0; i < IdGenerator.LENGTH; i++) {
+            final char c = id.charAt(i);
+            final int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0) {
+                return NOT_ENCODABLE;
+            }
+            code = code * RADIX + digit;
+        }
+        return code;
+    }
+
+    /**
+     * @param code code in {@code [0, BOUND)}
+     * @return not null id
+     */
+    static String decode(long code) {
+        if (code < 0 || code >= BOUND) {
+            throw new IllegalArgumentException("code must be in [0, " + BOUND + "), but was " + code);
+        }
+        final char[] id = new char[IdGenerator.LENGTH];
+        long rest = code;
+        for (int i = IdGenerator.LENGTH - 1; i >= 0; i--) {
+            id[i] = IdGenerator.ALPHABET.charAt((int) (rest % RADIX));
+            rest /= RADIX;
+        }
+        return new String(id);
+    }
+
+    private static long pow(int base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result = Math.multiplyExact(result, base);
+        }
+        return result;
+    }
+}
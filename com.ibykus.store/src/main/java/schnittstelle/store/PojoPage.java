@@ -0,0 +1,71 @@
+package schnittstelle.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One page of a {@link PojoStore#page(String, int)} iteration. The entries are ordered by id, the cursor is opaque for clients and stays valid while
+ * entries are added or removed.
+ */
+public final class PojoPage {
+    /**
+     * Max entries per page, bigger limits are reduced to this size.
+     */
+    public static final int MAX_LIMIT = 10_000;
+    public static final int DEFAULT_LIMIT = 100;
+
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+    private final List<PojoEntry> entries;
+    private final String nextCursor;
+
+    PojoPage(List<PojoEntry> entries, String nextCursor) {
+        this.entries = Collections.unmodifiableList(Objects.requireNonNull(entries, "entries"));
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PojoEntry> getEntries() {
+        return this.entries;
+    }
+
+    /**
+     * @return cursor of the next page or null if this is the last page
+     */
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+
+    /**
+     * Validate and cap a requested limit.
+     *
+     * @param limitOrNull maybe null limit, null means {@link #DEFAULT_LIMIT}
+     * @return limit between 1 and {@link #MAX_LIMIT}
+     * @throws IllegalArgumentException if limit &lt; 1
+     */
+    public static int limit(Integer limitOrNull) {
+        final int limit = limitOrNull == null ? DEFAULT_LIMIT : limitOrNull;
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be > 0, but was " + limit);
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    static String encodeCursor(String lastId) {
+        return CURSOR_ENCODER.encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not created by {@link #encodeCursor(String)}
+     */
+    static String decodeCursor(String cursor) {
+        try {
+            return new String(CURSOR_DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor=" + cursor, e);
+        }
+    }
+}
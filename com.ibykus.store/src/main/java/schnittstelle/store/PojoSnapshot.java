@@ -0,0 +1,31 @@
+package schnittstelle.store;
+
+/**
+ * Consistent read only view of a {@link PojoStore} at one version (see {@link PojoStore#openSnapshot()}). It contains every write up to {@link
+ * #getVersion()} and none after, batches of {@link PojoStore#writeBatch(int, java.util.function.Supplier)} completely or not at all.
+ * <p/>
+ * Iteration is ordered by id. Close the snapshot after use, it keeps old versions of entries written meanwhile alive.
+ */
+public interface PojoSnapshot extends Iterable<PojoEntry>, AutoCloseable {
+    /**
+     * @return version of the store this snapshot shows
+     */
+    long getVersion();
+
+    /**
+     * @param id not null id
+     * @return entry at the version of the snapshot or null
+     */
+    PojoEntry get(String id);
+
+    /**
+     * Read one page of the snapshot ordered by id, see {@link PojoStore#page(String, int)}.
+     */
+    PojoPage page(String cursorOrNull, int limit);
+
+    /**
+     * Release the old versions held for this snapshot. Reads afterwards are undefined.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,112 @@
+package schnittstelle.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point in time image of a {@link PojoStore} in a compact binary file {@code <segment>.snapshot}. The number is the first log segment not covered by the
+ * snapshot (see {@link MappedPojoLog#rollOver()}).
+ * <p/>
+ * Format {@code [int magic][long version]} followed by {@code [byte 1][long version][utf id][byte hasValue][int value]} per entry, {@code [byte 0]} and
+ * the crc32 of all bytes before. The snapshot is written to a temp file and renamed after fsync, so a visible snapshot is always complete.
+ * <p/>
+ * Written while the store is in use, the entries are from the roll over or later. Replaying all segments since the roll over fixes this.
+ */
+final class PojoSnapshotFile {
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    static final String TEMP_SUFFIX = SNAPSHOT_SUFFIX + ".tmp";
+    private static final int MAGIC = 0x504F4A4F;
+    private static final byte ENTRY = 1;
+    private static final byte END = 0;
+
+    private PojoSnapshotFile() {/* static access only */}
+
+    /**
+     * @param directory    log directory
+     * @param firstSegment first log segment not covered by the snapshot
+     * @param version      store version at the roll over to firstSegment
+     * @param entries      not null entries, may change while written
+     * @return count of written entries
+     */
+    static int write(Path directory, long firstSegment, long version, Iterable<PojoEntry> entries) throws IOException {
+        final Path snapshotFile = directory.resolve(MappedPojoLog.fileName(firstSegment, SNAPSHOT_SUFFIX));
+        final Path tempFile = directory.resolve(MappedPojoLog.fileName(firstSegment, TEMP_SUFFIX));
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024), new CRC32());
+            final DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeLong(version);
+            for (PojoEntry entry : entries) {
+                out.writeByte(ENTRY);
+                out.writeLong(entry.getVersion());
+                out.writeUTF(entry.getId());
+                out.writeBoolean(entry.getValue() != null);
+                out.writeInt(entry.getValue() == null ? 0 : entry.getValue());
+                count++;
+            }
+            out.writeByte(END);
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tempFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /**
+     * @param snapshotFile not null snapshot file
+     * @param replay       receiver of all entries, as puts
+     * @return store version of the snapshot
+     * @throws IOException if the file is not a complete snapshot
+     */
+    static long read(Path snapshotFile, MappedPojoLog.Replay replay) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 64 * 1024), new CRC32())) {
+            final DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("No snapshot file: " + snapshotFile);
+            }
+            final long version = in.readLong();
+            final List<PojoEntry> entries = new ArrayList<>();
+            while (in.readByte() == ENTRY) {
+                final long entryVersion = in.readLong();
+                final String id = in.readUTF();
+                final boolean hasValue = in.readBoolean();
+                final int value = in.readInt();
+                entries.add(new PojoEntry(id, hasValue ? value : null).withVersion(entryVersion));
+            }
+            final int expectedCrc = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expectedCrc) {
+                throw new IOException("Invalid checksum of snapshot file: " + snapshotFile);
+            }
+            entries.forEach(replay::put);
+            return version;
+        } catch (EOFException e) {
+            throw new IOException("Incomplete snapshot file: " + snapshotFile, e);
+        }
+    }
+
+    static List<Path> snapshotFiles(Path directory) throws IOException {
+        return MappedPojoLog.numberedFiles(directory, SNAPSHOT_SUFFIX);
+    }
+
+    static long firstSegment(Path snapshotFile) {
+        return MappedPojoLog.fileNumber(snapshotFile, SNAPSHOT_SUFFIX);
+    }
+}
@@ -0,0 +1,136 @@
+package schnittstelle.store;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * SPI of the pojo store behind the JAX-RS and JAX-WS endpoints. Implementations MUST be thread safe, because one instance is shared by all requests of
+ * both protocols (see {@link PojoStores#applicationScoped()}).
+ * <p/>
+ * Register an own implementation with {@code META-INF/services/schnittstelle.store.PojoStore}. Without registration {@link ConcurrentPojoStore} is used.
+ * <p/>
+ * Every write (put, remove) increments the {@link #version()} of the store. Stored entries get this version (see {@link PojoEntry#getVersion()}), so a
+ * version identifies one state of one entry - even after remove and create with the same id.
+ */
+public interface PojoStore {
+    /**
+     * @param id not null id
+     * @return stored entry or null
+     */
+    PojoEntry get(String id);
+
+    /**
+     * Insert or replace the entry with the same id.
+     *
+     * @param entry not null entry
+     * @return replaced entry or null
+     */
+    PojoEntry put(PojoEntry entry);
+
+    /**
+     * Insert the entry only if its id is unused, e.g. to detect collisions of generated ids.
+     *
+     * @param entry not null entry
+     * @return null if inserted, otherwise the existing entry (unchanged)
+     */
+    PojoEntry putIfAbsent(PojoEntry entry);
+
+    /**
+     * Replace the existing entry only if its version is accepted, e.g. for HTTP If-Match updates.
+     *
+     * @param entry         not null entry
+     * @param acceptVersion not null predicate on the version of the existing entry
+     * @return replaced entry or null if there is no entry with this id or its version is not accepted (nothing changed)
+     */
+    PojoEntry replaceIf(PojoEntry entry, LongPredicate acceptVersion);
+
+    /**
+     * @param id not null id
+     * @return removed entry or null
+     */
+    PojoEntry remove(String id);
+
+    /**
+     * Atomically add to the value of an existing entry, e.g. for counters without a read-modify-write round trip. A null value counts as 0.
+     *
+     * @param id    not null id
+     * @param delta added to the value
+     * @return stored entry with the new value or null if there is no entry with this id
+     * @throws ArithmeticException if the new value overflows an int (nothing changed)
+     */
+    PojoEntry addToValue(String id, int delta);
+
+    /**
+     * Atomically set the value of an existing entry if it has the expected value. A null value never matches.
+     *
+     * @param id            not null id
+     * @param expectedValue expected current value
+     * @param newValue      new value
+     * @return stored entry with the new value or null if there is no entry with this id or its value is not the expected one (nothing changed)
+     */
+    PojoEntry compareAndSetValue(String id, int expectedValue, int newValue);
+
+    /**
+     * @return not null, weakly consistent view of all entries (see {@link #openSnapshot()} for a consistent one)
+     */
+    Collection<PojoEntry> values();
+
+    /**
+     * Read one page of entries ordered by id. The memory of a call is bounded by the limit, not by the store size.
+     *
+     * @param cursorOrNull {@link PojoPage#getNextCursor()} of the previous page or null for the first page
+     * @param limit        max entries of the page (see {@link PojoPage#limit(Integer)})
+     * @return not null page
+     * @throws IllegalArgumentException for invalid cursors or limits
+     */
+    PojoPage page(String cursorOrNull, int limit);
+
+    /**
+     * Read the entries with a value in {@code [minValue, maxValue]} ordered by value, then id. Entries without value are never in range.
+     *
+     * @param minValue min value, inclusive
+     * @param maxValue max value, inclusive
+     * @param limit    max entries (see {@link PojoPage#limit(Integer)})
+     * @return not null entries, weakly consistent like {@link #values()}
+     * @throws IllegalArgumentException if minValue &gt; maxValue or limit &lt; 1
+     */
+    List<PojoEntry> rangeByValue(int minValue, int maxValue, int limit);
+
+    /**
+     * Aggregates of the values, maintained on every write - no scan of the entries. Under concurrent writes count, sum, min and max may be of slightly
+     * different states.
+     *
+     * @return not null aggregates
+     */
+    PojoValueStats valueStats();
+
+    /**
+     * Open a consistent view of all entries, e.g. for a complete list or an export while writes go on. Writers are not blocked by snapshots.
+     *
+     * @return not null snapshot, close it after use
+     */
+    PojoSnapshot openSnapshot();
+
+    /**
+     * Run the writes of a batch so that {@link #openSnapshot()} sees all or none of them. The writes are done by {@code writes} on this store and the
+     * calling thread, other readers and writers are not blocked.
+     *
+     * @param maxWrites max count of successful writes of the batch
+     * @param writes    not null writes of the batch
+     * @return result of writes
+     * @throws IllegalStateException if the batch writes more than maxWrites
+     */
+    <T> T writeBatch(int maxWrites, Supplier<T> writes);
+
+    int size();
+
+    /**
+     * Stable version of the store, e.g. for HTTP ETags of lists. All writes up to this version are visible to reads started afterwards, writes still
+     * in flight may be visible too.
+     *
+     * @return version of the last committed write, {@link PojoEntry#UNVERSIONED} before the first one
+     */
+    long version();
+}
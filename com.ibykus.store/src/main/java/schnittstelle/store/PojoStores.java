@@ -0,0 +1,64 @@
+package schnittstelle.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ServiceLoader;
+
+/**
+ * Access to the application scoped {@link PojoStore}. The instance is loaded once per classloader via {@link ServiceLoader} and falls back to {@link
+ * ConcurrentPojoStore} - or to a {@link DurablePojoStore} if the system property {@value #DIRECTORY_PROPERTY} is set.
+ * <p>
+ * Each war bundles this jar and gets its own classloader, so separately deployed rest and webservice wars have separate stores. Deploy them in one
+ * ear (store jar in {@code lib/}) or as a shared container module to serve the same data.
+ */
+public final class PojoStores {
+    /**
+     * Log directory of the durable application store, see {@link DurablePojoStore}.
+     */
+    public static final String DIRECTORY_PROPERTY = "schnittstelle.store.directory";
+    public static final String FSYNC_BATCH_SIZE_PROPERTY = "schnittstelle.store.fsyncBatchSize";
+    public static final String FSYNC_INTERVAL_MILLIS_PROPERTY = "schnittstelle.store.fsyncIntervalMillis";
+    public static final String SNAPSHOT_INTERVAL_SECONDS_PROPERTY = "schnittstelle.store.snapshotIntervalSeconds";
+
+    private PojoStores() {/* static access only */}
+
+    /**
+     * @return not null store shared by all endpoints of this application
+     */
+    public static PojoStore applicationScoped() {
+        return ApplicationStoreHolder.INSTANCE;
+    }
+
+    private static final class ApplicationStoreHolder {
+        private static final PojoStore INSTANCE = ServiceLoader.load(PojoStore.class, PojoStores.class.getClassLoader())
+                .findFirst()
+                .orElseGet(PojoStores::defaultStore);
+    }
+
+    private static PojoStore defaultStore() {
+        final String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null) {
+            return new ConcurrentPojoStore();
+        }
+        try {
+            final DurablePojoStore store = DurablePojoStore.builder(Paths.get(directory))
+                    .fsyncBatchSize(Integer.getInteger(FSYNC_BATCH_SIZE_PROPERTY, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE))
+                    .fsyncInterval(Duration.ofMillis(Long.getLong(FSYNC_INTERVAL_MILLIS_PROPERTY, DurablePojoStore.Builder.DEFAULT_FSYNC_INTERVAL.toMillis())))
+                    .snapshotInterval(Duration.ofSeconds(Long.getLong(SNAPSHOT_INTERVAL_SECONDS_PROPERTY,
+                            DurablePojoStore.Builder.DEFAULT_SNAPSHOT_INTERVAL.getSeconds())))
+                    .open();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, "pojo-store-close"));
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Open durable store failed: " + directory, e);
+        }
+    }
+}
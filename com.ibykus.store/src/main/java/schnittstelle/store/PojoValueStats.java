@@ -0,0 +1,57 @@
+package schnittstelle.store;
+
+/**
+ * Aggregates of the values of all entries of a {@link PojoStore} (see {@link PojoStore#valueStats()}). Entries without value are not counted.
+ */
+public final class PojoValueStats {
+    private final long count;
+    private final long sum;
+    private final Integer min;
+    private final Integer max;
+
+    /**
+     * @param count count of entries with value
+     * @param sum   sum of the values
+     * @param min   min value, ignored if count is 0
+     * @param max   max value, ignored if count is 0
+     */
+    PojoValueStats(long count, long sum, int min, int max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = count == 0 ? null : min;
+        this.max = count == 0 ? null : max;
+    }
+
+    /**
+     * @return count of entries with value
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return sum of the values, 0 if count is 0
+     */
+    public long getSum() {
+        return this.sum;
+    }
+
+    /**
+     * @return min value or null if count is 0
+     */
+    public Integer getMin() {
+        return this.min;
+    }
+
+    /**
+     * @return max value or null if count is 0
+     */
+    public Integer getMax() {
+        return this.max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{count=%s, sum=%s, min=%s, max=%s}", this.count, this.sum, this.min, this.max);
+    }
+}
@@ -0,0 +1,20 @@
+package schnittstelle.store;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Default lock free {@link IdGenerator}. One {@link ThreadLocalRandom#nextLong(long)} is encoded into the {@link #ALPHABET} ({@link PojoIdCodec}) -
+ * 57^10 ids fit into a positive long. Per id only the char array and the string are allocated.
+ */
+public final class RandomIdGenerator implements IdGenerator {
+    static final long BOUND = PojoIdCodec.BOUND;
+
+    @Override
+    public String nextId() {
+        return encode(ThreadLocalRandom.current().nextLong(BOUND));
+    }
+
+    static String encode(long number) {
+        return PojoIdCodec.decode(number);
+    }
+}
@@ -0,0 +1,146 @@
+package schnittstelle.store;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versions of the open snapshots of a store (multi version concurrency control). While a snapshot is open, writers keep the superseded states of the
+ * ids they write ({@link State}), pruned to the states an open snapshot still reads.
+ */
+final class SnapshotPins {
+    // releases the pin of a snapshot that is never closed
+    static final Cleaner CLEANER = Cleaner.create();
+
+    private final Set<Pin> pins = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Pin a new snapshot before its version is taken: writers keep every superseded state from now on, until {@link Pin#version} is set.
+     */
+    Pin pin() {
+        final Pin pin = new Pin();
+        pins.add(pin);
+        return pin;
+    }
+
+    void unpin(Pin pin) {
+        pins.remove(pin);
+    }
+
+    boolean isEmpty() {
+        return pins.isEmpty();
+    }
+
+    /**
+     * @return sorted versions of the open snapshots or null while a snapshot is opened
+     */
+    long[] versions() {
+        final long[] pinned = pins.stream().mapToLong(pin -> pin.version).sorted().toArray();
+        return pinned.length > 0 && pinned[0] == Long.MIN_VALUE ? null : pinned;
+    }
+
+    static final class Pin {
+        // MIN_VALUE keeps all states while the snapshot is opened
+        volatile long version = Long.MIN_VALUE;
+    }
+
+    /**
+     * Immutable list of the superseded states of one id, newest first.
+     */
+    static final class State {
+        // version of the write that led to this state
+        private final long version;
+        private final PojoEntry entryOrNull;
+        private final State older;
+
+        private State(long version, PojoEntry entryOrNull, State older) {
+            this.version = version;
+            this.entryOrNull = entryOrNull;
+            this.older = older;
+        }
+
+        /**
+         * Add the state superseded by a write, called with the lock of the id.
+         *
+         * @param statesOrNull kept states of the id
+         * @param newVersion   version of the write that superseded old
+         * @param removed      true if the write removed the id
+         * @param pinnedOrNull {@link SnapshotPins#versions()}
+         * @return states read by some snapshot or null
+         */
+        static State superseded(State statesOrNull, PojoEntry old, long newVersion, boolean removed, long[] pinnedOrNull) {
+            final State superseded = new State(old.getVersion(), old, statesOrNull);
+            return removed
+                    ? prune(new State(newVersion, null, superseded), Long.MAX_VALUE, pinnedOrNull)
+                    : prune(superseded, newVersion, pinnedOrNull);
+        }
+
+        /**
+         * A snapshot reads the newest state with a version up to its own, so at most one state per open snapshot is kept.
+         *
+         * @param currentVersion version of the current state of the id (not part of the list), {@link Long#MAX_VALUE} if removed
+         * @param pinnedOrNull   sorted versions of the open snapshots, null keeps all states
+         * @return states read by some snapshot or null
+         */
+        static State prune(State states, long currentVersion, long[] pinnedOrNull) {
+            if (pinnedOrNull == null) {
+                return states;
+            }
+            final List<State> read = new ArrayList<>(pinnedOrNull.length);
+            // versions are not ordered like the writes (see writeBatch()), the min of the newer states bounds what a snapshot reads
+            long newerVersion = currentVersion;
+            for (State state = states; state != null && pinnedOrNull.length > 0 && newerVersion > pinnedOrNull[0]; state = state.older) {
+                if (isPinned(pinnedOrNull, state.version, newerVersion)) {
+                    read.add(state);
+                }
+                newerVersion = Math.min(newerVersion, state.version);
+            }
+            State pruned = null;
+            for (int i = read.size() - 1; i >= 0; i--) {
+                pruned = new State(read.get(i).version, read.get(i).entryOrNull, pruned);
+            }
+            return pruned;
+        }
+
+        /**
+         * @return the newest state up to the version or null if there is none
+         */
+        State at(long version) {
+            for (State state = this; state != null; state = state.older) {
+                if (state.version <= version) {
+                    return state;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return entry of this state, null if the id was removed
+         */
+        PojoEntry entryOrNull() {
+            return entryOrNull;
+        }
+
+        /**
+         * @return count of states in this list
+         */
+        int size() {
+            int size = 0;
+            for (State state = this; state != null; state = state.older) {
+                size++;
+            }
+            return size;
+        }
+
+        private static boolean isPinned(long[] pinned, long fromVersion, long toVersionExclusive) {
+            for (long version : pinned) {
+                if (version >= fromVersion && version < toVersionExclusive) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package schnittstelle.store;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Version counter of a store and its last committed version - the biggest version up to which all writes are visible.
+ * <p/>
+ * Writes are counted per epoch (even/odd) from before their version is taken until they are visible. {@link #committed()} ends the current epoch and
+ * notes the version counter, the last write of the ended epoch commits that version. Writers never wait, {@link #awaitCommitted(long)} parks until a
+ * writer commits.
+ */
+final class StoreVersions {
+    private final AtomicLong versions = new AtomicLong(PojoEntry.UNVERSIONED);
+    private final AtomicLong committed = new AtomicLong(PojoEntry.UNVERSIONED);
+    // writes in flight per epoch (even/odd)
+    private final AtomicLong[] writesInFlight = {new AtomicLong(), new AtomicLong()};
+    // version counter at the end of the last two epochs, committed once the writes of the epoch are finished
+    private final AtomicReferenceArray<EpochEnd> epochEnds = new AtomicReferenceArray<>(2);
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private volatile int epoch;
+
+    /**
+     * Count a write before its version is taken.
+     *
+     * @return epoch of the write for {@link #endWrite(int)}
+     */
+    int beginWrite() {
+        while (true) {
+            final int writeEpoch = epoch;
+            writesInFlight[writeEpoch & 1].incrementAndGet();
+            if (writeEpoch == epoch) {
+                return writeEpoch;
+            }
+            // epoch ended before we were counted - count in the new one
+            endWrite(writeEpoch);
+        }
+    }
+
+    /**
+     * @param writeEpoch epoch of {@link #beginWrite()}, called once the write is visible
+     */
+    void endWrite(int writeEpoch) {
+        if (writesInFlight[writeEpoch & 1].decrementAndGet() == 0) {
+            commit(writeEpoch);
+        }
+    }
+
+    long next() {
+        return versions.incrementAndGet();
+    }
+
+    /**
+     * @return last of the count reserved versions
+     */
+    long reserve(int count) {
+        return versions.addAndGet(count);
+    }
+
+    /**
+     * @return version of the last started write, maybe not visible yet
+     */
+    long last() {
+        return versions.get();
+    }
+
+    /**
+     * @param version version of restored entries, visible already
+     */
+    void restore(long version) {
+        versions.accumulateAndGet(version, Math::max);
+        committed.accumulateAndGet(version, Math::max);
+    }
+
+    /**
+     * @return version up to which all writes are visible, without waiting
+     */
+    long committed() {
+        endEpoch();
+        return committed.get();
+    }
+
+    /**
+     * Park until all writes up to the version are visible. Writes started later are counted in the next epoch and not waited for.
+     */
+    void awaitCommitted(long version) {
+        if (committed() >= version) {
+            return;
+        }
+        final Thread waiter = Thread.currentThread();
+        waiters.add(waiter);
+        boolean interrupted = false;
+        try {
+            while (committed() < version) {
+                LockSupport.park(this);
+                interrupted |= Thread.interrupted();
+            }
+        } finally {
+            waiters.remove(waiter);
+            if (interrupted) {
+                waiter.interrupt();
+            }
+        }
+    }
+
+    private void endEpoch() {
+        final int ended;
+        synchronized (this) {
+            ended = epoch;
+            // the epoch before has the parity of the next one, its writes must be finished before the counter is reused
+            if (writesInFlight[(ended + 1) & 1].get() != 0) {
+                return;
+            }
+            // read before the epoch ends: every version up to it was taken by a write counted in this epoch or before
+            epochEnds.set(ended & 1, new EpochEnd(ended, versions.get()));
+            epoch = ended + 1;
+        }
+        if (writesInFlight[ended & 1].get() == 0) {
+            commit(ended);
+        }
+    }
+
+    private void commit(int writeEpoch) {
+        final EpochEnd end = epochEnds.get(writeEpoch & 1);
+        if (end == null || end.epoch != writeEpoch) {
+            // epoch still running, endEpoch() commits
+            return;
+        }
+        committed.accumulateAndGet(end.version, Math::max);
+        // also if nothing new is committed: the next epoch can end now
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private static final class EpochEnd {
+        private final int epoch;
+        private final long version;
+
+        private EpochEnd(int epoch, long version) {
+            this.epoch = epoch;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package schnittstelle.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Unit test of {@link ConcurrentPojoStore} and {@link PojoStores}.
+ */
+public class ConcurrentPojoStoreTest {
+    private static final int THREADS = 8;
+    private static final int ENTRIES_PER_THREAD = 10_000;
+
+    private final ConcurrentPojoStore testSubject = new ConcurrentPojoStore();
+
+    @Test
+    public void crudTest() {
+        Assert.assertNull(testSubject.get("id"));
+        Assert.assertNull(testSubject.put(new PojoEntry("id", 5)));
+        Assert.assertEquals(new PojoEntry("id", 5), testSubject.get("id"));
+
+        Assert.assertEquals(new PojoEntry("id", 5), testSubject.put(new PojoEntry("id", null)));
+        Assert.assertEquals(1, testSubject.size());
+        Assert.assertEquals(new PojoEntry("id", null), testSubject.values().iterator().next());
+
+        Assert.assertEquals(new PojoEntry("id", null), testSubject.remove("id"));
+        Assert.assertEquals(0, testSubject.size());
+    }
+
+    @Test
+    public void putIfAbsentTest() {
+        Assert.assertNull(testSubject.putIfAbsent(new PojoEntry("id", 5)));
+        Assert.assertEquals(new PojoEntry("id", 5), testSubject.putIfAbsent(new PojoEntry("id", 6)));
+        Assert.assertEquals(new PojoEntry("id", 5), testSubject.get("id"));
+        Assert.assertEquals("id", testSubject.page(null, 10).getEntries().get(0).getId());
+    }
+
+    @Test
+    public void versionTest() {
+        Assert.assertEquals(PojoEntry.UNVERSIONED, testSubject.version());
+        testSubject.put(new PojoEntry("id", 5));
+        final long created = testSubject.get("id").getVersion();
+        Assert.assertEquals(created, testSubject.version());
+
+        testSubject.put(new PojoEntry("id", 5));
+        Assert.assertTrue(testSubject.get("id").getVersion() > created);
+
+        testSubject.remove("id");
+        testSubject.put(new PojoEntry("id", 5));
+        Assert.assertEquals(created + 3, testSubject.get("id").getVersion());
+        Assert.assertEquals(created + 3, testSubject.version());
+
+        // the last committed version while a write is in flight
+        testSubject.writeBatch(1, () -> {
+            testSubject.put(new PojoEntry("id", 6));
+            Assert.assertEquals(created + 3, testSubject.version());
+            return null;
+        });
+        Assert.assertEquals(created + 4, testSubject.version());
+    }
+
+    @Test
+    public void replaceIfTest() {
+        Assert.assertNull(testSubject.replaceIf(new PojoEntry("id", 6), version -> true));
+        Assert.assertNull(testSubject.get("id"));
+
+        testSubject.put(new PojoEntry("id", 5));
+        final long version = testSubject.get("id").getVersion();
+        Assert.assertNull(testSubject.replaceIf(new PojoEntry("id", 6), expected -> expected == version + 1));
+        Assert.assertEquals(new PojoEntry("id", 5), testSubject.get("id"));
+
+        Assert.assertEquals(new PojoEntry("id", 5), testSubject.replaceIf(new PojoEntry("id", 6), expected -> expected == version));
+        Assert.assertEquals(new PojoEntry("id", 6), testSubject.get("id"));
+        Assert.assertNull(testSubject.replaceIf(new PojoEntry("id", 7), expected -> expected == version));
+    }
+
+    @Test
+    public void pageTest() {
+        for (int i = 0; i < 25; i++) {
+            testSubject.put(new PojoEntry(String.format("id%02d", i), i));
+        }
+
+        final PojoPage first = testSubject.page(null, 10);
+        Assert.assertEquals(10, first.getEntries().size());
+        Assert.assertEquals("id00", first.getEntries().get(0).getId());
+        Assert.assertNotNull(first.getNextCursor());
+
+        // concurrent changes don't break the cursor
+        testSubject.remove("id09");
+        testSubject.put(new PojoEntry("id05a", 55));
+
+        final PojoPage second = testSubject.page(first.getNextCursor(), 10);
+        Assert.assertEquals("id10", second.getEntries().get(0).getId());
+        Assert.assertEquals(10, second.getEntries().size());
+
+        final PojoPage last = testSubject.page(second.getNextCursor(), 10);
+        Assert.assertEquals(5, last.getEntries().size());
+        Assert.assertEquals("id24", last.getEntries().get(4).getId());
+        Assert.assertNull(last.getNextCursor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pageWithInvalidCursorTest() {
+        testSubject.page("no base64 cursor!", 10);
+    }
+
+    @Test
+    public void pageLimitTest() {
+        Assert.assertEquals(PojoPage.DEFAULT_LIMIT, PojoPage.limit(null));
+        Assert.assertEquals(PojoPage.MAX_LIMIT, PojoPage.limit(Integer.MAX_VALUE));
+        Assert.assertEquals(1, PojoPage.limit(1));
+    }
+
+    @Test
+    public void rangeByValueTest() {
+        testSubject.put(new PojoEntry("b", 2));
+        testSubject.put(new PojoEntry("a", 2));
+        testSubject.put(new PojoEntry("c", 1));
+        testSubject.put(new PojoEntry("d", null));
+        testSubject.put(new PojoEntry("e", Integer.MIN_VALUE));
+        testSubject.put(new PojoEntry("f", Integer.MAX_VALUE));
+
+        Assert.assertEquals(Arrays.asList(new PojoEntry("c", 1), new PojoEntry("a", 2), new PojoEntry("b", 2)), testSubject.rangeByValue(1, 2, 10));
+        Assert.assertEquals(Arrays.asList(new PojoEntry("c", 1), new PojoEntry("a", 2)), testSubject.rangeByValue(1, 2, 2));
+        Assert.assertEquals(5, testSubject.rangeByValue(Integer.MIN_VALUE, Integer.MAX_VALUE, 10).size());
+        Assert.assertEquals(Collections.emptyList(), testSubject.rangeByValue(3, 4, 10));
+
+        // the index follows updates and removes
+        testSubject.put(new PojoEntry("a", 3));
+        testSubject.remove("c");
+        testSubject.replaceIf(new PojoEntry("b", null), any -> true);
+        Assert.assertEquals(Collections.singletonList(new PojoEntry("a", 3)), testSubject.rangeByValue(1, 3, 10));
+        Assert.assertEquals(testSubject.get("a").getVersion(), testSubject.rangeByValue(1, 3, 10).get(0).getVersion());
+    }
+
+    @Test
+    public void randomRangeByValueTest() {
+        final Map<String, PojoEntry> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            final String id = "id" + random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                testSubject.remove(id);
+                expected.remove(id);
+            } else {
+                final PojoEntry entry = new PojoEntry(id, random.nextInt(10) == 0 ? null : random.nextInt(1_000));
+                testSubject.put(entry);
+                expected.put(id, entry);
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            final int minValue = random.nextInt(1_000);
+            final int maxValue = minValue + random.nextInt(100);
+            final int limit = 1 + random.nextInt(200);
+            final List<PojoEntry> expectedRange = expected.values().stream()
+                    .filter(entry -> entry.getValue() != null && entry.getValue() >= minValue && entry.getValue() <= maxValue)
+                    .sorted(Comparator.comparing(PojoEntry::getValue).thenComparing(PojoEntry::getId))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+            Assert.assertEquals(expectedRange, testSubject.rangeByValue(minValue, maxValue, limit));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeByValueWithInvalidRangeTest() {
+        testSubject.rangeByValue(2, 1, 10);
+    }
+
+    @Test
+    public void valueStatsTest() {
+        assertValueStats(0, 0, null, null, testSubject.valueStats());
+        testSubject.put(new PojoEntry("a", 5));
+        testSubject.put(new PojoEntry("b", -3));
+        testSubject.put(new PojoEntry("c", null));
+        testSubject.put(new PojoEntry("d", 10));
+        assertValueStats(3, 12, -3, 10, testSubject.valueStats());
+
+        testSubject.put(new PojoEntry("d", 7));
+        testSubject.remove("b");
+        testSubject.replaceIf(new PojoEntry("c", 1), any -> true);
+        assertValueStats(3, 13, 1, 7, testSubject.valueStats());
+
+        testSubject.remove("a");
+        testSubject.remove("c");
+        testSubject.remove("d");
+        assertValueStats(0, 0, null, null, testSubject.valueStats());
+    }
+
+    @Test
+    public void randomValueStatsTest() {
+        final Map<String, PojoEntry> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            final String id = "id" + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                testSubject.remove(id);
+                expected.remove(id);
+            } else {
+                final PojoEntry entry = new PojoEntry(id, random.nextInt(10) == 0 ? null : random.nextInt(1_000_000) - 500_000);
+                testSubject.put(entry);
+                expected.put(id, entry);
+            }
+            if (i % 1_000 == 0) {
+                final IntSummaryStatistics values = expected.values().stream()
+                        .filter(entry -> entry.getValue() != null)
+                        .mapToInt(PojoEntry::getValue)
+                        .summaryStatistics();
+                assertValueStats(values.getCount(), values.getSum(), values.getMin(), values.getMax(), testSubject.valueStats());
+            }
+        }
+    }
+
+    private static void assertValueStats(long count, long sum, Integer min, Integer max, PojoValueStats actual) {
+        Assert.assertEquals(count, actual.getCount());
+        Assert.assertEquals(sum, actual.getSum());
+        Assert.assertEquals(count == 0 ? null : min, actual.getMin());
+        Assert.assertEquals(count == 0 ? null : max, actual.getMax());
+    }
+
+    @Test
+    public void addToValueTest() {
+        Assert.assertNull(testSubject.addToValue("id", 1));
+        testSubject.put(new PojoEntry("id", null));
+        final long version = testSubject.version();
+
+        Assert.assertEquals(new PojoEntry("id", 3), testSubject.addToValue("id", 3));
+        Assert.assertEquals(new PojoEntry("id", 1), testSubject.addToValue("id", -2));
+        Assert.assertEquals(new PojoEntry("id", 1), testSubject.get("id"));
+        Assert.assertEquals(version + 2, testSubject.get("id").getVersion());
+        Assert.assertEquals(Collections.singletonList(new PojoEntry("id", 1)), testSubject.rangeByValue(1, 1, 10));
+        Assert.assertEquals(1, testSubject.valueStats().getSum());
+    }
+
+    @Test
+    public void addToValueOverflowTest() {
+        testSubject.put(new PojoEntry("id", Integer.MAX_VALUE));
+        final long version = testSubject.version();
+        try {
+            testSubject.addToValue("id", 1);
+            Assert.fail("overflow");
+        } catch (ArithmeticException expected) {
+            Assert.assertEquals(new PojoEntry("id", Integer.MAX_VALUE), testSubject.get("id"));
+            Assert.assertEquals(version, testSubject.get("id").getVersion());
+        }
+    }
+
+    @Test
+    public void compareAndSetValueTest() {
+        Assert.assertNull(testSubject.compareAndSetValue("id", 1, 2));
+        testSubject.put(new PojoEntry("id", null));
+        Assert.assertNull("null never matches", testSubject.compareAndSetValue("id", 0, 2));
+        testSubject.put(new PojoEntry("id", 1));
+        final long version = testSubject.version();
+
+        Assert.assertNull(testSubject.compareAndSetValue("id", 2, 3));
+        Assert.assertEquals(version, testSubject.get("id").getVersion());
+        Assert.assertEquals(new PojoEntry("id", 3), testSubject.compareAndSetValue("id", 1, 3));
+        Assert.assertEquals(version + 1, testSubject.get("id").getVersion());
+        Assert.assertEquals(Collections.singletonList(new PojoEntry("id", 3)), testSubject.rangeByValue(3, 3, 10));
+    }
+
+    @Test
+    public void concurrentAddToValueTest() throws Exception {
+        testSubject.put(new PojoEntry("counter", 0));
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ENTRIES_PER_THREAD; i++) {
+                        testSubject.addToValue("counter", 1);
+                        // increment by compare and set, retried until no other thread came in between
+                        PojoEntry current;
+                        do {
+                            current = testSubject.get("counter");
+                        } while (testSubject.compareAndSetValue("counter", current.getValue(), current.getValue() + 1) == null);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Assert.assertEquals(Integer.valueOf(2 * THREADS * ENTRIES_PER_THREAD), testSubject.get("counter").getValue());
+            Assert.assertEquals(2 * THREADS * ENTRIES_PER_THREAD, testSubject.valueStats().getSum());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void snapshotTest() {
+        testSubject.put(new PojoEntry("a", 1));
+        testSubject.put(new PojoEntry("b", 2));
+        testSubject.put(new PojoEntry("d", 4));
+        try (PojoSnapshot snapshot = testSubject.openSnapshot()) {
+            Assert.assertEquals(testSubject.version(), snapshot.getVersion());
+            testSubject.put(new PojoEntry("a", 10));
+            testSubject.put(new PojoEntry("a", 11));
+            testSubject.remove("b");
+            testSubject.put(new PojoEntry("c", 3));
+            testSubject.remove("d");
+            testSubject.put(new PojoEntry("d", 40));
+
+            final List<PojoEntry> expected = Arrays.asList(new PojoEntry("a", 1), new PojoEntry("b", 2), new PojoEntry("d", 4));
+            final List<PojoEntry> actual = new ArrayList<>();
+            snapshot.forEach(actual::add);
+            Assert.assertEquals(expected, actual);
+            Assert.assertEquals(new PojoEntry("b", 2), snapshot.get("b"));
+            Assert.assertNull(snapshot.get("c"));
+            Assert.assertEquals(expected.subList(0, 2), snapshot.page(null, 2).getEntries());
+            Assert.assertEquals(expected.subList(2, 3), snapshot.page(snapshot.page(null, 2).getNextCursor(), 2).getEntries());
+
+            Assert.assertEquals(new PojoEntry("a", 11), testSubject.get("a"));
+            Assert.assertNull(testSubject.get("b"));
+            Assert.assertEquals(Arrays.asList(new PojoEntry("a", 11), new PojoEntry("c", 3), new PojoEntry("d", 40)),
+                    testSubject.page(null, 10).getEntries());
+        }
+    }
+
+    @Test
+    public void snapshotWhileBatchesTest() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int threadNo = thread;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ENTRIES_PER_THREAD; i++) {
+                        final int value = i;
+                        // both ids of a thread always have the same value in a snapshot
+                        testSubject.writeBatch(2, () -> {
+                            testSubject.put(new PojoEntry(threadNo + "-x", value));
+                            return testSubject.put(new PojoEntry(threadNo + "-y", value));
+                        });
+                    }
+                }));
+            }
+            while (futures.stream().anyMatch(future -> !future.isDone())) {
+                try (PojoSnapshot snapshot = testSubject.openSnapshot()) {
+                    for (int thread = 0; thread < THREADS; thread++) {
+                        final PojoEntry x = snapshot.get(thread + "-x");
+                        final PojoEntry y = snapshot.get(thread + "-y");
+                        Assert.assertEquals(x == null ? null : x.getValue(), y == null ? null : y.getValue());
+                    }
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writeBatchWithTooManyWritesTest() {
+        testSubject.writeBatch(1, () -> {
+            testSubject.put(new PojoEntry("a", 1));
+            return testSubject.put(new PojoEntry("b", 2));
+        });
+    }
+
+    @Test
+    public void snapshotReclaimTest() {
+        testSubject.put(new PojoEntry("a", 1));
+        testSubject.put(new PojoEntry("b", 2));
+        final PojoSnapshot first = testSubject.openSnapshot();
+        for (int i = 0; i < 10_000; i++) {
+            testSubject.put(new PojoEntry("a", i));
+        }
+        Assert.assertEquals("only the state read by the snapshot", 1, testSubject.retainedStates());
+
+        final PojoSnapshot second = testSubject.openSnapshot();
+        testSubject.put(new PojoEntry("a", -1));
+        testSubject.remove("b");
+        Assert.assertEquals(new PojoEntry("a", 1), first.get("a"));
+        Assert.assertEquals(new PojoEntry("a", 9_999), second.get("a"));
+        Assert.assertEquals(new PojoEntry("b", 2), second.get("b"));
+
+        Assert.assertEquals("a for first and second, b and its id for second", 4, testSubject.retainedStates());
+
+        first.close();
+        Assert.assertEquals("reclaimed up to the oldest open snapshot", 3, testSubject.retainedStates());
+        Assert.assertEquals(new PojoEntry("a", 9_999), second.get("a"));
+        Assert.assertEquals(new PojoEntry("b", 2), second.get("b"));
+        second.close();
+        Assert.assertEquals(0, testSubject.retainedStates());
+        Assert.assertEquals(Collections.singletonList(new PojoEntry("a", -1)), testSubject.page(null, 10).getEntries());
+        testSubject.put(new PojoEntry("a", 0));
+        Assert.assertEquals(0, testSubject.retainedStates());
+    }
+
+    @Test
+    public void applicationScopedTest() {
+        Assert.assertSame(PojoStores.applicationScoped(), PojoStores.applicationScoped());
+        Assert.assertTrue(PojoStores.applicationScoped() instanceof ConcurrentPojoStore);
+    }
+
+    @Test
+    public void concurrentPutRemoveTest() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int threadNo = thread;
+                futures.add(executor.submit((Callable<Integer>) () -> {
+                    for (int i = 0; i < ENTRIES_PER_THREAD; i++) {
+                        final String id = threadNo + "-" + i;
+                        testSubject.put(new PojoEntry(id, i));
+                        Assert.assertEquals(Integer.valueOf(i), testSubject.get(id).getValue());
+                        if (i % 2 == 1) {
+                            testSubject.remove(id);
+                        }
+                    }
+                    return ENTRIES_PER_THREAD / 2;
+                }));
+            }
+
+            int expectedSize = 0;
+            for (Future<Integer> future : futures) {
+                expectedSize += future.get();
+            }
+            Assert.assertEquals(expectedSize, testSubject.size());
+            Assert.assertEquals(expectedSize, testSubject.values().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
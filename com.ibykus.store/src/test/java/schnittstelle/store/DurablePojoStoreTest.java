@@ -0,0 +1,274 @@
+package schnittstelle.store;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit test of {@link DurablePojoStore}, its {@link MappedPojoLog} and {@link PojoSnapshotFile}, including the recovery of torn records.
+ */
+public class DurablePojoStoreTest {
+    private static final int SMALL_SEGMENT_BYTES = 128 * 1024;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void replayTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        final long version;
+        try (DurablePojoStore store = DurablePojoStore.builder(directory).open()) {
+            store.put(new PojoEntry("id1", 1));
+            store.put(new PojoEntry("id2", null));
+            store.put(new PojoEntry("id1", 11));
+            store.putIfAbsent(new PojoEntry("id3", 3));
+            store.replaceIf(new PojoEntry("id3", 33), any -> true);
+            store.remove("id2");
+            store.put(new PojoEntry("id\u00e4", 4));
+            store.addToValue("id\u00e4", 1);
+            store.compareAndSetValue("id\u00e4", 5, 4);
+            version = store.version();
+        }
+
+        try (DurablePojoStore store = DurablePojoStore.builder(directory).open()) {
+            Assert.assertEquals(3, store.size());
+            Assert.assertEquals(new PojoEntry("id1", 11), store.get("id1"));
+            Assert.assertNull(store.get("id2"));
+            Assert.assertEquals(new PojoEntry("id3", 33), store.get("id3"));
+            Assert.assertEquals(new PojoEntry("id\u00e4", 4), store.get("id\u00e4"));
+            Assert.assertEquals(version, store.version());
+            Assert.assertEquals(version, store.get("id\u00e4").getVersion());
+            Assert.assertEquals("id1", store.page(null, 10).getEntries().get(0).getId());
+            Assert.assertEquals(Arrays.asList(new PojoEntry("id3", 33)), store.rangeByValue(12, 40, 10));
+            Assert.assertEquals(48, store.valueStats().getSum());
+
+            store.put(new PojoEntry("id5", 5));
+            Assert.assertEquals(version + 1, store.version());
+        }
+    }
+
+    @Test
+    public void segmentRollOverTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        try (DurablePojoStore store = open(directory, 256)) {
+            for (int i = 0; i < 20_000; i++) {
+                store.put(new PojoEntry("id" + (i % 1000), i));
+            }
+        }
+        Assert.assertTrue(MappedPojoLog.segmentFiles(directory).size() > 1);
+
+        try (DurablePojoStore store = open(directory, 256)) {
+            Assert.assertEquals(1000, store.size());
+            Assert.assertEquals(new PojoEntry("id999", 19_999), store.get("id999"));
+        }
+    }
+
+    @Test
+    public void crashRecoveryOfTruncatedRecordTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        try (DurablePojoStore store = open(directory, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE)) {
+            for (int i = 0; i < 10; i++) {
+                store.put(new PojoEntry("id" + i, i));
+            }
+        }
+        final Path segmentFile = lastSegmentFile(directory);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+            // cut the last record in the middle of its id
+            channel.truncate(channel.size() - 10);
+        }
+
+        try (DurablePojoStore store = open(directory, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE)) {
+            Assert.assertEquals(9, store.size());
+            Assert.assertNull(store.get("id9"));
+            Assert.assertEquals(new PojoEntry("id8", 8), store.get("id8"));
+            store.put(new PojoEntry("id9", 99));
+        }
+
+        try (DurablePojoStore store = open(directory, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE)) {
+            Assert.assertEquals(10, store.size());
+            Assert.assertEquals(new PojoEntry("id9", 99), store.get("id9"));
+        }
+    }
+
+    @Test
+    public void crashRecoveryOfCorruptRecordTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        try (DurablePojoStore store = open(directory, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE)) {
+            store.put(new PojoEntry("id1", 1));
+            store.put(new PojoEntry("id2", 2));
+        }
+        final Path segmentFile = lastSegmentFile(directory);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+            // flip the value of the last record, the crc does not match anymore
+            channel.write(ByteBuffer.wrap(new byte[]{42}), channel.size() - 1);
+        }
+
+        try (DurablePojoStore store = open(directory, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE)) {
+            Assert.assertEquals(1, store.size());
+            Assert.assertEquals(new PojoEntry("id1", 1), store.get("id1"));
+        }
+    }
+
+    @Test
+    public void crashWithoutCloseTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        final DurablePojoStore crashed = open(directory, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE);
+        crashed.put(new PojoEntry("id1", 1));
+        crashed.remove("id1");
+        crashed.put(new PojoEntry("id2", 2));
+        // no close: the segment keeps its zero filled tail
+
+        try (DurablePojoStore store = open(directory, DurablePojoStore.Builder.DEFAULT_FSYNC_BATCH_SIZE)) {
+            Assert.assertEquals(1, store.size());
+            Assert.assertEquals(new PojoEntry("id2", 2), store.get("id2"));
+        }
+    }
+
+    @Test
+    public void snapshotTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        final long version;
+        try (DurablePojoStore store = open(directory, 256)) {
+            for (int i = 0; i < 20_000; i++) {
+                store.put(new PojoEntry("id" + (i % 1000), i));
+            }
+            store.remove("id0");
+            Assert.assertTrue(store.snapshot());
+            Assert.assertFalse("unchanged store", store.snapshot());
+            Assert.assertEquals(1, PojoSnapshotFile.snapshotFiles(directory).size());
+            Assert.assertEquals("only the new segment", 1, MappedPojoLog.segmentFiles(directory).size());
+
+            store.put(new PojoEntry("id0", 0));
+            store.remove("id1");
+            version = store.version();
+        }
+
+        try (DurablePojoStore store = open(directory, 256)) {
+            Assert.assertEquals("only the log tail", 2, store.getReplayedRecords());
+            Assert.assertNotNull(store.getStartupTime());
+            Assert.assertEquals(999, store.size());
+            Assert.assertEquals(new PojoEntry("id0", 0), store.get("id0"));
+            Assert.assertNull(store.get("id1"));
+            Assert.assertEquals(new PojoEntry("id999", 19_999), store.get("id999"));
+            Assert.assertEquals(version, store.version());
+
+            Assert.assertTrue(store.snapshot());
+            Assert.assertEquals(1, PojoSnapshotFile.snapshotFiles(directory).size());
+        }
+
+        try (DurablePojoStore store = open(directory, 256)) {
+            Assert.assertEquals(0, store.getReplayedRecords());
+            Assert.assertEquals(999, store.size());
+            Assert.assertEquals(version, store.version());
+        }
+    }
+
+    @Test
+    public void snapshotWhileWritingTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        final int threads = 4;
+        final Map<String, PojoEntry> expected = new ConcurrentHashMap<>();
+        try (DurablePojoStore store = open(directory, 256)) {
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                final List<Future<?>> futures = new ArrayList<>();
+                for (int thread = 0; thread < threads; thread++) {
+                    final int threadNo = thread;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < 20_000; i++) {
+                            final PojoEntry entry = new PojoEntry(threadNo + "-" + (i % 500), i);
+                            store.put(entry);
+                            expected.put(entry.getId(), entry);
+                        }
+                    }));
+                }
+                while (futures.stream().anyMatch(future -> !future.isDone())) {
+                    store.snapshot();
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        try (DurablePojoStore store = open(directory, 256)) {
+            Assert.assertEquals(expected.size(), store.size());
+            expected.values().forEach(entry -> Assert.assertEquals(entry, store.get(entry.getId())));
+        }
+    }
+
+    @Test
+    public void backgroundSnapshotTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        try (DurablePojoStore store = DurablePojoStore.builder(directory).snapshotInterval(Duration.ofMillis(10)).open()) {
+            store.put(new PojoEntry("id", 1));
+            final long timeout = System.currentTimeMillis() + 10_000;
+            while (PojoSnapshotFile.snapshotFiles(directory).isEmpty() && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(1, PojoSnapshotFile.snapshotFiles(directory).size());
+        }
+    }
+
+    @Test
+    public void backgroundSnapshotFailureTest() throws Exception {
+        final Path directory = temporaryFolder.getRoot().toPath();
+        try (DurablePojoStore store = DurablePojoStore.builder(directory).snapshotInterval(Duration.ofMillis(10)).open()) {
+            // a directory in place of the temp file of the next snapshot fails it
+            final long failingSegment = MappedPojoLog.segmentNumber(lastSegmentFile(directory)) + 1;
+            Files.createDirectory(directory.resolve(MappedPojoLog.fileName(failingSegment, PojoSnapshotFile.TEMP_SUFFIX)));
+            store.put(new PojoEntry("id", 1));
+
+            final long timeout = System.currentTimeMillis() + 10_000;
+            while (PojoSnapshotFile.snapshotFiles(directory).isEmpty() && System.currentTimeMillis() < timeout) {
+                Thread.sleep(10);
+            }
+            final List<Path> snapshotFiles = PojoSnapshotFile.snapshotFiles(directory);
+            Assert.assertEquals(1, snapshotFiles.size());
+            Assert.assertTrue("written by a later run", PojoSnapshotFile.firstSegment(snapshotFiles.get(0)) > failingSegment);
+        }
+        try (DurablePojoStore store = open(directory, 1)) {
+            Assert.assertEquals(new PojoEntry("id", 1), store.get("id"));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writeAfterCloseTest() throws Exception {
+        final DurablePojoStore store = open(temporaryFolder.getRoot().toPath(), 1);
+        store.close();
+        store.put(new PojoEntry("id", 1));
+    }
+
+    private static DurablePojoStore open(Path directory, int fsyncBatchSize) throws IOException {
+        return DurablePojoStore.builder(directory)
+                .segmentBytes(SMALL_SEGMENT_BYTES)
+                .fsyncBatchSize(fsyncBatchSize)
+                .fsyncInterval(Duration.ZERO)
+                .snapshotInterval(Duration.ZERO)
+                .open();
+    }
+
+    private static Path lastSegmentFile(Path directory) throws IOException {
+        final List<Path> segmentFiles = MappedPojoLog.segmentFiles(directory);
+        return segmentFiles.get(segmentFiles.size() - 1);
+    }
+}
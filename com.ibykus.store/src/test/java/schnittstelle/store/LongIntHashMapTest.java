@@ -0,0 +1,57 @@
+package schnittstelle.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Unit test of {@link LongIntHashMap}. Random operations are compared with a {@link HashMap} to cover resize and backward shift deletion.
+ */
+public class LongIntHashMapTest {
+    private final LongIntHashMap testSubject = new LongIntHashMap(0);
+
+    @Test
+    public void putGetRemoveTest() {
+        Assert.assertEquals(LongIntHashMap.NO_VALUE, testSubject.get(0));
+        Assert.assertEquals(LongIntHashMap.NO_VALUE, testSubject.put(0, 1));
+        Assert.assertEquals(1, testSubject.put(0, 2));
+        Assert.assertEquals(2, testSubject.get(0));
+        Assert.assertEquals(1, testSubject.size());
+        Assert.assertEquals(2, testSubject.remove(0));
+        Assert.assertEquals(LongIntHashMap.NO_VALUE, testSubject.remove(0));
+        Assert.assertEquals(0, testSubject.size());
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < 500_000; i++) {
+            // dense and sparse keys
+            final long key = random.nextBoolean() ? random.nextInt(50_000) : (random.nextLong() & Long.MAX_VALUE) % 1_000_000_000_000L;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals((int) expected.getOrDefault(key, LongIntHashMap.NO_VALUE), testSubject.remove(key));
+                expected.remove(key);
+            } else {
+                Assert.assertEquals((int) expected.getOrDefault(key, LongIntHashMap.NO_VALUE), testSubject.put(key, i));
+                expected.put(key, i);
+            }
+        }
+        Assert.assertEquals(expected.size(), testSubject.size());
+        expected.forEach((key, value) -> Assert.assertEquals((int) value, testSubject.get(key)));
+
+        final Set<Long> keys = new HashSet<>();
+        testSubject.forEachKey(keys::add);
+        Assert.assertEquals(expected.keySet(), keys);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeKeyTest() {
+        testSubject.put(-1, 1);
+    }
+}
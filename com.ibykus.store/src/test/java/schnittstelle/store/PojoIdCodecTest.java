@@ -0,0 +1,71 @@
+package schnittstelle.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Unit test of {@link PojoIdCodec}.
+ */
+public class PojoIdCodecTest {
+    @Test
+    public void encodeDecodeTest() {
+        Assert.assertEquals(0, PojoIdCodec.encode("0000000000"));
+        Assert.assertEquals(PojoIdCodec.BOUND - 1, PojoIdCodec.encode("yyyyyyyyyy"));
+        final IdGenerator idGenerator = new RandomIdGenerator();
+        for (int i = 0; i < 10_000; i++) {
+            final String id = idGenerator.nextId();
+            Assert.assertEquals(id, PojoIdCodec.decode(PojoIdCodec.encode(id)));
+        }
+    }
+
+    @Test
+    public void orderTest() {
+        final IdGenerator idGenerator = new RandomIdGenerator();
+        for (int i = 0; i < 10_000; i++) {
+            final String id1 = idGenerator.nextId();
+            final String id2 = idGenerator.nextId();
+            Assert.assertEquals(Integer.signum(id1.compareTo(id2)), Long.signum(Long.compare(PojoIdCodec.encode(id1), PojoIdCodec.encode(id2))));
+        }
+    }
+
+    @Test
+    public void notEncodableTest() {
+        Assert.assertEquals(PojoIdCodec.NOT_ENCODABLE, PojoIdCodec.encode(""));
+        Assert.assertEquals(PojoIdCodec.NOT_ENCODABLE, PojoIdCodec.encode("000000000"));
+        Assert.assertEquals(PojoIdCodec.NOT_ENCODABLE, PojoIdCodec.encode("00000000000"));
+        Assert.assertEquals(PojoIdCodec.NOT_ENCODABLE, PojoIdCodec.encode("000000000A"));
+        Assert.assertEquals(PojoIdCodec.NOT_ENCODABLE, PojoIdCodec.encode("000000000z"));
+        Assert.assertEquals(PojoIdCodec.NOT_ENCODABLE, PojoIdCodec.encode("000000000\u00e4"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeOutOfRangeTest() {
+        PojoIdCodec.decode(PojoIdCodec.BOUND);
+    }
+
+    @Test
+    public void lookupAllocatesNothingTest() {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final LongIntHashMap map = new LongIntHashMap(0);
+        final String id = new RandomIdGenerator().nextId();
+        map.put(PojoIdCodec.encode(id), 1);
+
+        final long warmUp = lookups(map, id, 10_000);
+        final long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        final long found = lookups(map, id, 1_000_000);
+        final long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        Assert.assertEquals(10_000 + 1_000_000, warmUp + found);
+        // a constant overhead of the measurement, but not a single byte per lookup
+        Assert.assertTrue("allocated " + allocated + " bytes", allocated < 1_000_000);
+    }
+
+    private static long lookups(LongIntHashMap map, String id, int count) {
+        long found = 0;
+        for (int i = 0; i < count; i++) {
+            found += map.get(PojoIdCodec.encode(id));
+        }
+        return found;
+    }
+}
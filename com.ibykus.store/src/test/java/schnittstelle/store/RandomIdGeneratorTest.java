@@ -0,0 +1,39 @@
+package schnittstelle.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Unit test of {@link RandomIdGenerator} and {@link IdGenerators}.
+ */
+public class RandomIdGeneratorTest {
+    private final RandomIdGenerator testSubject = new RandomIdGenerator();
+
+    @Test
+    public void nextIdTest() {
+        final Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            final String id = testSubject.nextId();
+            Assert.assertTrue(id, id.matches("[0-8B-Yb-y]{10}"));
+            ids.add(id);
+        }
+        Assert.assertEquals(100_000, ids.size());
+    }
+
+    @Test
+    public void encodeTest() {
+        Assert.assertEquals("0000000000", RandomIdGenerator.encode(0));
+        Assert.assertEquals("0000000001", RandomIdGenerator.encode(1));
+        Assert.assertEquals("0000000010", RandomIdGenerator.encode(IdGenerator.ALPHABET.length()));
+        Assert.assertEquals("yyyyyyyyyy", RandomIdGenerator.encode(RandomIdGenerator.BOUND - 1));
+    }
+
+    @Test
+    public void applicationScopedTest() {
+        Assert.assertSame(IdGenerators.applicationScoped(), IdGenerators.applicationScoped());
+        Assert.assertTrue(IdGenerators.applicationScoped() instanceof RandomIdGenerator);
+    }
+}
@@ -0,0 +1,63 @@
+package schnittstelle.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Unit test of {@link StoreVersions}.
+ */
+public class StoreVersionsTest {
+    private final StoreVersions testSubject = new StoreVersions();
+
+    @Test
+    public void committedTest() {
+        Assert.assertEquals(PojoEntry.UNVERSIONED, testSubject.committed());
+
+        final int first = testSubject.beginWrite();
+        testSubject.next();
+        testSubject.endWrite(first);
+        Assert.assertEquals(1, testSubject.committed());
+
+        // a write in flight holds back its version and all after it
+        final int slow = testSubject.beginWrite();
+        testSubject.next();
+        final int fast = testSubject.beginWrite();
+        testSubject.next();
+        testSubject.endWrite(fast);
+        Assert.assertEquals(3, testSubject.last());
+        Assert.assertEquals(1, testSubject.committed());
+
+        testSubject.endWrite(slow);
+        Assert.assertEquals(3, testSubject.committed());
+    }
+
+    @Test
+    public void awaitCommittedTest() throws Exception {
+        final int batch = testSubject.beginWrite();
+        final long last = testSubject.reserve(10);
+
+        final CompletableFuture<Void> awaited = CompletableFuture.runAsync(() -> testSubject.awaitCommitted(last));
+        try {
+            awaited.get(200, TimeUnit.MILLISECONDS);
+            Assert.fail("Expect that awaitCommitted waits for the batch");
+        } catch (TimeoutException e) {
+            // parked
+        }
+        // writes started later are not waited for
+        testSubject.beginWrite();
+        testSubject.endWrite(batch);
+        awaited.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void restoreTest() {
+        testSubject.restore(42);
+        Assert.assertEquals(42, testSubject.last());
+        Assert.assertEquals(42, testSubject.committed());
+        Assert.assertEquals(43, testSubject.next());
+    }
+}
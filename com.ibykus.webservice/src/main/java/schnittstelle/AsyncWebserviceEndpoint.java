@@ -0,0 +1,199 @@
+package schnittstelle;
+
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import javax.xml.ws.AsyncHandler;
+import javax.xml.ws.Response;
+
+/**
+ * Asynchronous client of the {@link WebserviceEndpoint}: every call returns a {@link CompletableFuture} at once, the caller does not wait for the
+ * response. Share one instance between all callers (see {@link WebserviceClient#asyncEndpoint(int, int, long)}).
+ * <p/>
+ * At most {@code maxInFlight} calls are sent and not yet answered, up to {@code maxQueued} more wait in a queue and are sent as soon as a call
+ * completes. A call beyond both fails with a {@link RejectedExecutionException}. Each call completes with a {@link TimeoutException}
+ * after {@code timeoutMillis} (queue time included), its slot is free then.
+ * <p/>
+ * The request is sent on the calling thread with a port borrowed from the {@link WebservicePortPool} just for sending, the response is handled by the
+ * http conduit of CXF. This module does not ship the non blocking conduit of {@code cxf-rt-transports-http-hc}, so the default conduit waits for each
+ * response on a thread of the CXF work queue (default: max 25 threads, 256 queued). More than that many calls in flight do not run in parallel, and
+ * with the work queue full a response is read on the calling thread - so a call can block its caller. Add {@code cxf-rt-transports-http-hc} to the
+ * classpath for calls without a waiting thread.
+ */
+final class AsyncWebserviceEndpoint implements Closeable {
+    private final WebservicePortPool<WebserviceEndpointAsync> ports;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long timeoutMillis;
+    private final Semaphore inFlight;
+    private final Queue<Call<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param ports         not null pool of async ports
+     * @param maxInFlight   max calls sent and not yet answered
+     * @param maxQueued     max calls waiting for a free slot, 0 to reject at once
+     * @param timeoutMillis max time from call to response
+     */
+    AsyncWebserviceEndpoint(WebservicePortPool<WebserviceEndpointAsync> ports, int maxInFlight, int maxQueued, long timeoutMillis) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be > 0, but was " + maxInFlight);
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("maxQueued must be >= 0, but was " + maxQueued);
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("timeoutMillis must be > 0, but was " + timeoutMillis);
+        }
+        this.ports = Objects.requireNonNull(ports, "ports");
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.timeoutMillis = timeoutMillis;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public CompletableFuture<Pojo> create() {
+        return submit(WebserviceEndpointAsync::createAsync);
+    }
+
+    public CompletableFuture<PojoList> readAll() {
+        return submit(WebserviceEndpointAsync::readAllAsync);
+    }
+
+    public CompletableFuture<Pojo> read(String id) {
+        return submit((port, handler) -> port.readAsync(id, handler));
+    }
+
+    public CompletableFuture<Pojo> update(Pojo pojo) {
+        return submit((port, handler) -> port.updateAsync(pojo, handler));
+    }
+
+    public CompletableFuture<Pojo> delete(String id) {
+        return submit((port, handler) -> port.deleteAsync(id, handler));
+    }
+
+    /**
+     * Close the ports. Calls in flight complete.
+     */
+    @Override
+    public void close() {
+        ports.close();
+    }
+
+    WebservicePortPool<WebserviceEndpointAsync> getPorts() {
+        return ports;
+    }
+
+    int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    int getQueued() {
+        return queued.get();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{maxInFlight=%d, maxQueued=%d, timeoutMillis=%d, inFlight=%d, queued=%d, rejected=%d, timedOut=%d}", maxInFlight,
+                maxQueued, timeoutMillis, getInFlight(), getQueued(), getRejected(), getTimedOut());
+    }
+
+    private <T> CompletableFuture<T> submit(BiFunction<WebserviceEndpointAsync, AsyncHandler<T>, Future<?>> send) {
+        final Call<T> call = new Call<>(send);
+        call.result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((result, failure) -> {
+            if (failure instanceof TimeoutException) {
+                timedOut.increment();
+            }
+        });
+        if (inFlight.tryAcquire()) {
+            send(call);
+        } else if (queued.incrementAndGet() <= maxQueued) {
+            queue.offer(call);
+            // a slot freed meanwhile has seen an empty queue
+            sendQueued();
+        } else {
+            queued.decrementAndGet();
+            rejected.increment();
+            call.result.completeExceptionally(new RejectedExecutionException("Async endpoint is full " + this));
+        }
+        return call.result;
+    }
+
+    private void sendQueued() {
+        while (!queue.isEmpty() && inFlight.tryAcquire()) {
+            final Call<?> call = queue.poll();
+            if (call == null) {
+                inFlight.release();
+                continue;
+            }
+            queued.decrementAndGet();
+            if (call.result.isDone()) {
+                // timed out in the queue
+                inFlight.release();
+            } else {
+                send(call);
+            }
+        }
+    }
+
+    private <T> void send(Call<T> call) {
+        call.result.whenComplete((result, failure) -> {
+            inFlight.release();
+            sendQueued();
+        });
+        try {
+            final Future<?> response = ports.call(port -> call.send.apply(port, call::complete));
+            call.result.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    response.cancel(true);
+                }
+            });
+        } catch (RuntimeException e) {
+            call.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class Call<T> {
+        private final BiFunction<WebserviceEndpointAsync, AsyncHandler<T>, Future<?>> send;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private Call(BiFunction<WebserviceEndpointAsync, AsyncHandler<T>, Future<?>> send) {
+            this.send = send;
+        }
+
+        private void complete(Response<T> response) {
+            try {
+                result.complete(response.get());
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
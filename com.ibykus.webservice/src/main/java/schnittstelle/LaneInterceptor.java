@@ -0,0 +1,107 @@
+package schnittstelle;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.OutgoingChainInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import schnittstelle.lanes.Lane;
+import schnittstelle.lanes.Lanes;
+
+/**
+ * CXF in interceptor to classify the operations of the {@link WebserviceEndpointImpl} by name ({@link #laneOf(String)}) and to bound them per lane
+ * (see {@link Lanes}). An operation finding its lane full is answered with a fault (http 503) before the endpoint is called. The slot of an admitted
+ * operation is freed after its response is sent - the serialization of a large list counts to its lane - or when the chain unwinds on a fault.
+ * <pre>
+ *   POINT_READ - read, stats
+ *   WRITE      - create, update, delete, addToValue, compareAndSetValue
+ *   BULK       - readAll, readPage, readByValueRange, readMany, createBatch, updateBatch, deleteMany
+ * </pre>
+ */
+public class LaneInterceptor extends AbstractPhaseInterceptor<Message> {
+    private static final Map<String, Lane> OPERATION_LANES = new HashMap<>();
+
+    static {
+        for (String operation : new String[] {"read", "stats"}) {
+            OPERATION_LANES.put(operation, Lane.POINT_READ);
+        }
+        for (String operation : new String[] {"create", "update", "delete", "addToValue", "compareAndSetValue"}) {
+            OPERATION_LANES.put(operation, Lane.WRITE);
+        }
+        for (String operation : new String[] {"readAll", "readPage", "readByValueRange", "readMany", "createBatch", "updateBatch", "deleteMany"}) {
+            OPERATION_LANES.put(operation, Lane.BULK);
+        }
+    }
+
+    private final Lanes lanes;
+    private final Exit exit = new Exit();
+
+    public LaneInterceptor() {
+        this(Lanes.applicationScoped());
+    }
+
+    LaneInterceptor(Lanes lanes) {
+        super(Phase.PRE_INVOKE);
+        this.lanes = Objects.requireNonNull(lanes, "lanes");
+    }
+
+    @Override
+    public void handleMessage(Message message) {
+        final Exchange exchange = message.getExchange();
+        final BindingOperationInfo operationOrNull = exchange == null ? null : exchange.getBindingOperationInfo();
+        final Lane laneOrNull = operationOrNull == null ? null : laneOf(operationOrNull.getName().getLocalPart());
+        if (laneOrNull == null) {
+            return;
+        }
+        if (!lanes.tryEnter(laneOrNull)) {
+            final Fault fault = new Fault(new IllegalStateException("Too many " + laneOrNull.key() + " operations in flight, retry later"));
+            fault.setStatusCode(HttpURLConnection.HTTP_UNAVAILABLE);
+            throw fault;
+        }
+        exchange.put(Lane.class, laneOrNull);
+        message.getInterceptorChain().add(exit);
+    }
+
+    /**
+     * @param operationOrNull local name of the operation, e.g. readAll
+     * @return lane of the operation or null if unknown (not limited)
+     */
+    static Lane laneOf(String operationOrNull) {
+        return OPERATION_LANES.get(operationOrNull);
+    }
+
+    @Override
+    public void handleFault(Message message) {
+        exit(message.getExchange());
+    }
+
+    private void exit(Exchange exchangeOrNull) {
+        final Object laneOrNull = exchangeOrNull == null ? null : exchangeOrNull.remove(Lane.class.getName());
+        if (laneOrNull instanceof Lane) {
+            lanes.exit((Lane) laneOrNull);
+        }
+    }
+
+    /**
+     * Frees the slot after the response is sent by the {@link OutgoingChainInterceptor}.
+     */
+    private final class Exit extends AbstractPhaseInterceptor<Message> {
+        private Exit() {
+            super(Phase.POST_INVOKE);
+            addAfter(OutgoingChainInterceptor.class.getName());
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            exit(message.getExchange());
+        }
+    }
+}
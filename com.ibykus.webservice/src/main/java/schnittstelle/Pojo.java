@@ -1,11 +1,14 @@
 package schnittstelle;
 
-import java.security.SecureRandom;
 import java.util.Objects;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import schnittstelle.store.IdGenerator;
+import schnittstelle.store.IdGenerators;
+import schnittstelle.store.PojoEntry;
+
 @XmlRootElement // that's different to JAX-RS Pojo.class.
 public final class Pojo {
     static final String JSON_ID = "id";
@@ -35,21 +38,30 @@ public final class Pojo {
         this.value = value;
     }
 
+    /**
+     * Map a store entry to a new pojo.
+     */
+    static Pojo of(PojoEntry entry) {
+        final Pojo pojo = new Pojo();
+        pojo.setId(entry.getId());
+        pojo.setValue(entry.getValue());
+        return pojo;
+    }
+
+    PojoEntry toEntry() {
+        return new PojoEntry(this.id, this.value);
+    }
+
     @Override
     public String toString() {
         return String.format("{id='%s', value=%s}", this.id, this.value);
     }
 
     /**
-     * Generate+set a random ID. Overwrite existing one.
+     * Generate+set a new ID of the application scoped {@link IdGenerator}. Overwrite existing one.
      */
     String generateAndSetId() {
-        this.id = new SecureRandom().ints(48, 122)
-                .filter(i -> (i < 57 || i > 65) && (i < 90 || i > 97))
-                .mapToObj(i -> (char) i)
-                .limit(10)
-                .collect(StringBuilder::new, StringBuilder::append, StringBuilder::append)
-                .toString();
+        this.id = IdGenerators.applicationScoped().nextId();
         return this.id;
     }
 
@@ -0,0 +1,94 @@
+package schnittstelle;
+
+import java.util.Objects;
+
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * Result of one pojo or id of a batch operation (see {@link PojoBatchResult}).
+ */
+public final class PojoBatchItem {
+    static final String STATUS = "status";
+    static final String POJO = "pojo";
+
+    public enum Status {
+        /**
+         * New pojo stored with a generated id.
+         */
+        CREATED,
+        /**
+         * Existing pojo with the same id replaced.
+         */
+        UPDATED,
+        /**
+         * Pojo read.
+         */
+        FOUND,
+        /**
+         * Pojo removed.
+         */
+        DELETED,
+        /**
+         * No pojo with this id, no pojo in the result.
+         */
+        NOT_FOUND,
+        /**
+         * Pojo or id not processed (e.g. null entry), no pojo in the result.
+         */
+        INVALID
+    }
+
+    private Status status;
+    private Pojo pojo;
+
+    public PojoBatchItem() {/* MUST for jaxb */}
+
+    public PojoBatchItem(Status status, Pojo pojoOrNull) {
+        this.status = Objects.requireNonNull(status, "status");
+        this.pojo = pojoOrNull;
+    }
+
+    @XmlElement(name = STATUS)
+    public Status getStatus() {
+        return this.status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return created, updated, found or deleted pojo, null if {@link Status#NOT_FOUND} or {@link Status#INVALID}
+     */
+    @XmlElement(name = POJO)
+    public Pojo getPojo() {
+        return this.pojo;
+    }
+
+    public void setPojo(Pojo pojo) {
+        this.pojo = pojo;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{status=%s, pojo=%s}", this.status, this.pojo);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PojoBatchItem that = (PojoBatchItem) o;
+        return status == that.status &&
+                Objects.equals(pojo, that.pojo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, pojo);
+    }
+}
@@ -0,0 +1,32 @@
+package schnittstelle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Response of the batch operations of {@link WebserviceEndpoint}. One {@link PojoBatchItem} per requested pojo/id in request order.
+ */
+@XmlRootElement(name = PojoBatchResult.ITEMS)
+public class PojoBatchResult {
+    static final String ITEMS = "items";
+    static final String ITEM = "item";
+
+    private final List<PojoBatchItem> items = new ArrayList<>();
+
+    public PojoBatchResult() {/* MUST for @XmlRootElement */}
+
+    public PojoBatchResult(Collection<PojoBatchItem> items) {
+        if (items != null) {
+            this.items.addAll(items);
+        }
+    }
+
+    @XmlElement(name = ITEM)
+    public List<PojoBatchItem> getItems() {
+        return this.items;
+    }
+}
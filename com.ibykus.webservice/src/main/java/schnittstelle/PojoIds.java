@@ -0,0 +1,32 @@
+package schnittstelle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Id list of the batch operations {@link WebserviceEndpoint#readMany(PojoIds)} and {@link WebserviceEndpoint#deleteMany(PojoIds)}.
+ */
+@XmlRootElement(name = PojoIds.IDS)
+public class PojoIds {
+    static final String IDS = "ids";
+    static final String ID = "id";
+
+    private final List<String> ids = new ArrayList<>();
+
+    public PojoIds() {/* MUST for @XmlRootElement */}
+
+    public PojoIds(Collection<String> ids) {
+        if (ids != null) {
+            this.ids.addAll(ids);
+        }
+    }
+
+    @XmlElement(name = ID)
+    public List<String> getIds() {
+        return this.ids;
+    }
+}
@@ -3,16 +3,22 @@ package schnittstelle;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoPage;
+
 @XmlRootElement(name = PojoList.POJOS)
 public class PojoList {
     static final String POJOS = "pojos";
     static final String POJO = "pojo";
+    static final String CURSOR = "cursor";
 
     private final List<Pojo> pojos = new ArrayList<>();
+    private String cursor;
 
     public PojoList() {/* MUST for @XmlRootElement */}
 
@@ -26,4 +32,28 @@ public class PojoList {
     public List<Pojo> getPojos() {
         return this.pojos;
     }
+
+    /**
+     * @return cursor of the next page, null if there is no next page or the list is not paged
+     */
+    @XmlElement(name = CURSOR)
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    static PojoList of(PojoPage page) {
+        final PojoList pojoList = of(page.getEntries());
+        pojoList.setCursor(page.getNextCursor());
+        return pojoList;
+    }
+
+    static PojoList of(List<PojoEntry> entries) {
+        return new PojoList(entries.stream()
+                .map(Pojo::of)
+                .collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,104 @@
+package schnittstelle;
+
+import java.util.Objects;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import schnittstelle.store.PojoValueStats;
+
+/**
+ * Result of {@link WebserviceEndpoint#stats()}: count, sum, min and max of the pojo values (see {@link schnittstelle.store.PojoStore#valueStats()}).
+ */
+@XmlRootElement(name = PojoStats.STATS)
+public class PojoStats {
+    static final String STATS = "stats";
+
+    private long count;
+    private long sum;
+    private Integer min;
+    private Integer max;
+
+    public PojoStats() {/* MUST for @XmlRootElement */}
+
+    public PojoStats(long count, long sum, Integer minOrNull, Integer maxOrNull) {
+        this.count = count;
+        this.sum = sum;
+        this.min = minOrNull;
+        this.max = maxOrNull;
+    }
+
+    /**
+     * @return count of pojos with value
+     */
+    @XmlElement(name = "count")
+    public long getCount() {
+        return this.count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @XmlElement(name = "sum")
+    public long getSum() {
+        return this.sum;
+    }
+
+    public void setSum(long sum) {
+        this.sum = sum;
+    }
+
+    /**
+     * @return min value, null if count is 0
+     */
+    @XmlElement(name = "min")
+    public Integer getMin() {
+        return this.min;
+    }
+
+    public void setMin(Integer min) {
+        this.min = min;
+    }
+
+    /**
+     * @return max value, null if count is 0
+     */
+    @XmlElement(name = "max")
+    public Integer getMax() {
+        return this.max;
+    }
+
+    public void setMax(Integer max) {
+        this.max = max;
+    }
+
+    static PojoStats of(PojoValueStats stats) {
+        return new PojoStats(stats.getCount(), stats.getSum(), stats.getMin(), stats.getMax());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{count=%s, sum=%s, min=%s, max=%s}", this.count, this.sum, this.min, this.max);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PojoStats that = (PojoStats) o;
+        return count == that.count &&
+                sum == that.sum &&
+                Objects.equals(min, that.min) &&
+                Objects.equals(max, that.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, sum, min, max);
+    }
+}
@@ -0,0 +1,84 @@
+package schnittstelle;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.ws.WebServiceException;
+
+/**
+ * Pull parser of the {@code <pojo>} elements of a {@link PojoList} response: each {@link #next()} reads one pojo from the StAX stream, the list is
+ * never in memory. Not thread safe, close it to release the reader (see {@link WebserviceClient#readAllStreamed()}).
+ */
+public final class PojoStreamReader implements Iterator<Pojo>, Closeable {
+    private final XMLStreamReader reader;
+    private Pojo next;
+    private boolean closed;
+
+    PojoStreamReader(XMLStreamReader reader) {
+        this.reader = Objects.requireNonNull(reader, "reader");
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Pojo next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Pojo pojo = next;
+        next = null;
+        return pojo;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                // closed anyway
+            }
+        }
+    }
+
+    private Pojo readNext() {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && PojoList.POJO.equals(reader.getLocalName())) {
+                    return readPojo();
+                }
+            }
+            close();
+            return null;
+        } catch (XMLStreamException e) {
+            close();
+            throw new WebServiceException("Cannot read pojo stream", e);
+        }
+    }
+
+    private Pojo readPojo() throws XMLStreamException {
+        final Pojo pojo = new Pojo();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            final String name = reader.getLocalName();
+            final String text = reader.getElementText();
+            if (Pojo.JSON_ID.equals(name)) {
+                pojo.setId(text);
+            } else if (Pojo.JSON_VALUE.equals(name)) {
+                pojo.setValue(Integer.valueOf(text.trim()));
+            }
+        }
+        return pojo;
+    }
+}
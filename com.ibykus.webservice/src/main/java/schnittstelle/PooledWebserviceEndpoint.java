@@ -0,0 +1,89 @@
+package schnittstelle;
+
+import java.util.Objects;
+
+/**
+ * Thread safe client side {@link WebserviceEndpoint}: every call borrows a port of the {@link WebservicePortPool} for its round trip. Share one
+ * instance between all calling threads instead of a proxy per call or one proxy for all (see {@link WebserviceClient#pooledEndpoint(int)}).
+ */
+final class PooledWebserviceEndpoint implements WebserviceEndpoint {
+    private final WebservicePortPool<WebserviceEndpoint> pool;
+
+    PooledWebserviceEndpoint(WebservicePortPool<WebserviceEndpoint> pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    WebservicePortPool<WebserviceEndpoint> getPool() {
+        return pool;
+    }
+
+    @Override
+    public Pojo create() {
+        return pool.call(WebserviceEndpoint::create);
+    }
+
+    @Override
+    public PojoList readAll() {
+        return pool.call(WebserviceEndpoint::readAll);
+    }
+
+    @Override
+    public PojoList readPage(String cursor, int limit) {
+        return pool.call(port -> port.readPage(cursor, limit));
+    }
+
+    @Override
+    public PojoList readByValueRange(int minValue, int maxValue, int limit) {
+        return pool.call(port -> port.readByValueRange(minValue, maxValue, limit));
+    }
+
+    @Override
+    public PojoStats stats() {
+        return pool.call(WebserviceEndpoint::stats);
+    }
+
+    @Override
+    public Pojo read(String id) {
+        return pool.call(port -> port.read(id));
+    }
+
+    @Override
+    public Pojo update(Pojo pojo) {
+        return pool.call(port -> port.update(pojo));
+    }
+
+    @Override
+    public Pojo delete(String id) {
+        return pool.call(port -> port.delete(id));
+    }
+
+    @Override
+    public PojoBatchItem addToValue(String id, int delta) {
+        return pool.call(port -> port.addToValue(id, delta));
+    }
+
+    @Override
+    public PojoBatchItem compareAndSetValue(String id, int expect, int update) {
+        return pool.call(port -> port.compareAndSetValue(id, expect, update));
+    }
+
+    @Override
+    public PojoBatchResult createBatch(PojoList pojos) {
+        return pool.call(port -> port.createBatch(pojos));
+    }
+
+    @Override
+    public PojoBatchResult updateBatch(PojoList pojos) {
+        return pool.call(port -> port.updateBatch(pojos));
+    }
+
+    @Override
+    public PojoBatchResult readMany(PojoIds ids) {
+        return pool.call(port -> port.readMany(ids));
+    }
+
+    @Override
+    public PojoBatchResult deleteMany(PojoIds ids) {
+        return pool.call(port -> port.deleteMany(ids));
+    }
+}
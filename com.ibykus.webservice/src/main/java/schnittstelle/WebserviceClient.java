@@ -1,40 +1,172 @@
 package schnittstelle;
 
+import org.apache.cxf.staxutils.StaxUtils;
+
+import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.Dispatch;
 import javax.xml.ws.Service;
 
+import schnittstelle.store.PojoPage;
+
 /**
  * Helper class to get access to a remote {@link javax.jws.WebService} interface instance. Use the {@link WebserviceClientBuilder} to create an instance of it.
+ * <p/>
+ * A {@link Service} parses its wsdl and builds the JAXB/CXF model once - hundreds of milliseconds and, for the remote {@code ?wsdl}, one more round
+ * trip. So services are cached per (wsdl, service QName) for the lifetime of the class loader, a proxy of a cached service is cheap. With
+ * {@link WebserviceClientBuilder#classpathWsdl(String)} the wsdl generated at build time is read from the classpath instead of the endpoint. The
+ * endpoint address of a proxy is always the configured endpoint, never the address of the wsdl.
  */
 class WebserviceClient {
+    private static final Map<Map.Entry<String, QName>, Service> SERVICES = new ConcurrentHashMap<>();
+    private static final String RECEIVE_TIMEOUT = "javax.xml.ws.client.receiveTimeout";
+    private static final String USE_ASYNC_HTTP_CONDUIT = "use.async.http.conduit";
+    private static final String MAX_CHILD_ELEMENTS = "org.apache.cxf.stax.maxChildElements";
+    private static final String READ_ALL_REQUEST = "<ns:readAll xmlns:ns=\"http://schnittstelle/\"/>";
+
     public static WebserviceClientBuilder builder() {
         return new WebserviceClientBuilder();
     }
 
     private final URL endpointUrl;
+    private final URL wsdlUrl;
     private final QName serviceNamespace;
+    private final boolean wireCompression;
 
-    private WebserviceClient(URL serviceEndpoint, QName qName) {
+    private WebserviceClient(URL serviceEndpoint, URL wsdlUrl, QName qName, boolean wireCompression) {
         this.endpointUrl = Objects.requireNonNull(serviceEndpoint, "endpointUrl");
+        this.wsdlUrl = Objects.requireNonNull(wsdlUrl, "wsdlUrl");
         this.serviceNamespace = Objects.requireNonNull(qName, "qName");
+        this.wireCompression = wireCompression;
     }
 
+    /**
+     * @return new proxy of the cached service, not thread safe (see {@link BindingProvider}) - for concurrent callers use {@link #pool(Class, int)}
+     */
     public <T> T proxy(Class<T> webserviceInterface) {
-        URL wsdlUrl = endpointUrl;
-        QName serviceName = serviceNamespace;
+        final T port = service().getPort(webserviceInterface, new WireCompressionFeature(wireCompression));
+        ((BindingProvider) port).getRequestContext().put(BindingProvider.ENDPOINT_ADDRESS_PROPERTY, endpointUrl.toExternalForm());
+        return port;
+    }
+
+    /**
+     * @param maxPorts max ports, a caller finding all in use waits up to {@value WebservicePortPool#DEFAULT_BORROW_TIMEOUT_MILLIS} ms
+     * @return new pool of proxies for concurrent callers
+     */
+    public <T> WebservicePortPool<T> pool(Class<T> webserviceInterface, int maxPorts) {
+        Objects.requireNonNull(webserviceInterface, "webserviceInterface");
+        return new WebservicePortPool<>(() -> proxy(webserviceInterface), maxPorts, WebservicePortPool.DEFAULT_BORROW_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param maxPorts max ports of its {@link #pool(Class, int)}
+     * @return new thread safe endpoint, share it between the calling threads
+     */
+    public WebserviceEndpoint pooledEndpoint(int maxPorts) {
+        return new PooledWebserviceEndpoint(pool(WebserviceEndpoint.class, maxPorts));
+    }
 
-        final Service service = Service.create(ensureWsdlSuffix(wsdlUrl), serviceName);
-        return service.getPort(webserviceInterface);
+    /**
+     * @param maxInFlight   max calls sent and not yet answered, also max ports of its pool
+     * @param maxQueued     max calls waiting for a free slot
+     * @param timeoutMillis max time from call to response, also the receive timeout of the ports
+     * @return new non blocking endpoint, share it between the calling threads
+     */
+    public AsyncWebserviceEndpoint asyncEndpoint(int maxInFlight, int maxQueued, long timeoutMillis) {
+        final WebservicePortPool<WebserviceEndpointAsync> ports = new WebservicePortPool<>(() -> {
+            final WebserviceEndpointAsync port = proxy(WebserviceEndpointAsync.class);
+            final Map<String, Object> requestContext = ((BindingProvider) port).getRequestContext();
+            requestContext.put(RECEIVE_TIMEOUT, timeoutMillis);
+            // the non blocking conduit of cxf-rt-transports-http-hc, if in the classpath
+            requestContext.put(USE_ASYNC_HTTP_CONDUIT, Boolean.TRUE);
+            return port;
+        }, maxInFlight, WebservicePortPool.DEFAULT_BORROW_TIMEOUT_MILLIS);
+        return new AsyncWebserviceEndpoint(ports, maxInFlight, maxQueued, timeoutMillis);
+    }
+
+    /**
+     * Call {@link WebserviceEndpoint#readAll()} with a {@link Dispatch} of the raw payload and parse the response while it arrives. The first pojo is
+     * there as soon as its bytes are, no {@link PojoList} is built and the memory does not grow with the result. The limit of CXF for child elements
+     * (50000) is lifted, it protects a parser that keeps them all.
+     *
+     * @return open stream of all pojos ordered by id, close it after reading
+     */
+    public PojoStreamReader readAllStreamed() {
+        final Dispatch<Source> dispatch = service().createDispatch(WebserviceEndpoint.WEBSERVICE_PORT_QNAME, Source.class, Service.Mode.PAYLOAD,
+                new WireCompressionFeature(wireCompression));
+        final Map<String, Object> requestContext = dispatch.getRequestContext();
+        requestContext.put(BindingProvider.ENDPOINT_ADDRESS_PROPERTY, endpointUrl.toExternalForm());
+        requestContext.put(MAX_CHILD_ELEMENTS, Integer.MAX_VALUE);
+
+        final Source response = dispatch.invoke(new StreamSource(new StringReader(READ_ALL_REQUEST)));
+        return new PojoStreamReader(StaxUtils.createXMLStreamReader(response));
+    }
+
+    /**
+     * @param consumer not null consumer of each pojo, called while the response arrives
+     * @return count of the pojos read
+     * @see #readAllStreamed()
+     */
+    public long readAllStreamed(Consumer<? super Pojo> consumer) {
+        Objects.requireNonNull(consumer, "consumer");
+        long count = 0;
+        try (PojoStreamReader pojos = readAllStreamed()) {
+            while (pojos.hasNext()) {
+                consumer.accept(pojos.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return not null service of the wsdl, created by the first call only
+     */
+    Service service() {
+        // key by the external form, URL.equals() resolves host names
+        return SERVICES.computeIfAbsent(new AbstractMap.SimpleImmutableEntry<>(wsdlUrl.toExternalForm(), serviceNamespace),
+                key -> Service.create(wsdlUrl, serviceNamespace));
+    }
+
+    /**
+     * Call {@link WebserviceEndpoint#updateBatch(PojoList)} with chunks of batchSize pojos. One round trip per chunk instead of one per pojo.
+     *
+     * @param endpoint  not null proxy (see {@link #proxy(Class)})
+     * @param pojos     not null pojos to create (without id) or update (with id)
+     * @param batchSize pojos per request, 1..{@value schnittstelle.store.PojoPage#MAX_LIMIT}
+     * @return one item per pojo in the given order
+     */
+    public static List<PojoBatchItem> updateBatch(WebserviceEndpoint endpoint, List<Pojo> pojos, int batchSize) {
+        Objects.requireNonNull(endpoint, "endpoint");
+        Objects.requireNonNull(pojos, "pojos");
+        if (batchSize < 1 || batchSize > PojoPage.MAX_LIMIT) {
+            throw new IllegalArgumentException("batchSize must be 1.." + PojoPage.MAX_LIMIT + ", but was " + batchSize);
+        }
+
+        final List<PojoBatchItem> items = new ArrayList<>(pojos.size());
+        for (int from = 0; from < pojos.size(); from += batchSize) {
+            final List<Pojo> chunk = pojos.subList(from, Math.min(from + batchSize, pojos.size()));
+            items.addAll(endpoint.updateBatch(new PojoList(chunk)).getItems());
+        }
+        return items;
     }
 
     /**
@@ -42,7 +174,9 @@ class WebserviceClient {
      */
     public static class WebserviceClientBuilder {
         private URL serviceEndpoint;
+        private Optional<URL> wsdl = Optional.empty();
         private Optional<QName> serviceQName = Optional.empty();
+        private boolean wireCompression = WireCompressionFeature.isEnabledByDefault();
 
         private WebserviceClientBuilder() {
         }
@@ -61,6 +195,44 @@ class WebserviceClient {
             return this;
         }
 
+        /**
+         * Read the wsdl from this url instead of {@code endpoint?wsdl}.
+         *
+         * @param url not null wsdl url
+         * @return this builder
+         */
+        public WebserviceClientBuilder wsdl(URL url) {
+            this.wsdl = Optional.of(Objects.requireNonNull(url, "url"));
+            return this;
+        }
+
+        /**
+         * Read the wsdl from the classpath instead of {@code endpoint?wsdl}, e.g. {@link WebserviceEndpoint#WSDL_RESOURCE} generated at build time.
+         *
+         * @param resource not null absolute resource name
+         * @return this builder
+         * @throws IllegalArgumentException if there is no such resource
+         */
+        public WebserviceClientBuilder classpathWsdl(String resource) {
+            Objects.requireNonNull(resource, "resource");
+            final URL url = WebserviceClient.class.getResource(resource);
+            if (url == null) {
+                throw new IllegalArgumentException("No wsdl resource " + resource + " in the classpath");
+            }
+            return wsdl(url);
+        }
+
+        /**
+         * Ask the endpoint for FastInfoset and gzip encoded messages, see {@link WireCompressionFeature}.
+         *
+         * @param enabled false for plain XML, default is the system property {@code schnittstelle.wireCompression.enabled} (true)
+         * @return this builder
+         */
+        public WebserviceClientBuilder wireCompression(boolean enabled) {
+            this.wireCompression = enabled;
+            return this;
+        }
+
         public WebserviceClientBuilder webservice(QName service) {
             this.serviceQName = Optional.of(Objects.requireNonNull(service, "service"));
             return this;
@@ -99,7 +271,8 @@ class WebserviceClient {
             Objects.requireNonNull(this.serviceEndpoint, "Webservice endpoint url expected. Use builder.serviceEndpoint(url) to set one.");
             Objects.requireNonNull(this.serviceQName.orElse(null), "Webservice namespace expected. Use builder.webservice(qname) to set one.");
 
-            return new WebserviceClient(this.serviceEndpoint, this.serviceQName.get());
+            return new WebserviceClient(this.serviceEndpoint, this.wsdl.orElseGet(() -> ensureWsdlSuffix(this.serviceEndpoint)), this.serviceQName.get(),
+                    this.wireCompression);
         }
     }
 
@@ -14,13 +14,45 @@ public interface WebserviceEndpoint {
     String WEBSERVICE_INTERFACE = "schnittstelle.WebserviceEndpoint";
     String WEBSERVICE_NAME = "WebserviceEndpoint";
     QName WEBSERVICE_QNAME = new QName("http://schnittstelle/", WEBSERVICE_NAME + "Service");
+    QName WEBSERVICE_PORT_QNAME = new QName("http://schnittstelle/", WEBSERVICE_NAME + "Port");
+    /**
+     * Classpath resource of the wsdl generated at build time (cxf-java2ws-plugin).
+     */
+    String WSDL_RESOURCE = "/" + WEBSERVICE_INTERFACE + ".wsdl";
 
     @WebMethod
     Pojo create();
 
+    /**
+     * All pojos ordered by id, read from a consistent snapshot of the store - a batch is contained completely or not at all.
+     */
     @WebMethod
     PojoList readAll();
 
+    /**
+     * Read one page ordered by id. Pass the cursor of the response to get the next page, the last page has no cursor.
+     *
+     * @param cursor cursor of the previous page, empty for the first page (RPC/literal parts cannot be null)
+     * @param limit  max pojos of the page, capped to {@value schnittstelle.store.PojoPage#MAX_LIMIT}
+     */
+    @WebMethod
+    PojoList readPage(String cursor, int limit);
+
+    /**
+     * Read the pojos with a value in {@code [minValue, maxValue]} ordered by value, then id, from the sorted value index of the store. Pojos without
+     * value are never in range.
+     *
+     * @param limit max pojos, capped to {@value schnittstelle.store.PojoPage#MAX_LIMIT}
+     */
+    @WebMethod
+    PojoList readByValueRange(int minValue, int maxValue, int limit);
+
+    /**
+     * Count, sum, min and max of the pojo values. Maintained by the store on every write, so neither the store is scanned nor a list transferred.
+     */
+    @WebMethod
+    PojoStats stats();
+
     @WebMethod
     Pojo read(String id);
 
@@ -29,4 +61,54 @@ public interface WebserviceEndpoint {
 
     @WebMethod
     Pojo delete(String id);
+
+    /**
+     * Add to the value of the pojo in one atomic store update, concurrent increments are never lost. A pojo without value counts as 0.
+     *
+     * @return {@link PojoBatchItem.Status#UPDATED} with the new pojo or {@link PojoBatchItem.Status#NOT_FOUND} (RPC/literal parts cannot be null),
+     * SOAP fault if the new value overflows
+     */
+    @WebMethod
+    PojoBatchItem addToValue(String id, int delta);
+
+    /**
+     * Set the value of the pojo only if it is the expected one, atomically in the store.
+     *
+     * @return {@link PojoBatchItem.Status#UPDATED} with the new pojo, {@link PojoBatchItem.Status#FOUND} with the unchanged current pojo if its value
+     * is not the expected one or {@link PojoBatchItem.Status#NOT_FOUND}
+     */
+    @WebMethod
+    PojoBatchItem compareAndSetValue(String id, int expect, int update);
+
+    /**
+     * Create all pojos with generated ids in one pass, given ids are ignored.
+     *
+     * @param pojos max {@value schnittstelle.store.PojoPage#MAX_LIMIT} pojos
+     * @return one {@link PojoBatchItem.Status#CREATED} item per pojo in request order
+     */
+    @WebMethod
+    PojoBatchResult createBatch(PojoList pojos);
+
+    /**
+     * Create (pojo without id) or update (pojo with id) all pojos in one pass.
+     *
+     * @param pojos max {@value schnittstelle.store.PojoPage#MAX_LIMIT} pojos
+     * @return one CREATED/UPDATED item per pojo in request order
+     */
+    @WebMethod
+    PojoBatchResult updateBatch(PojoList pojos);
+
+    /**
+     * @param ids max {@value schnittstelle.store.PojoPage#MAX_LIMIT} ids
+     * @return one FOUND/NOT_FOUND item per id in request order
+     */
+    @WebMethod
+    PojoBatchResult readMany(PojoIds ids);
+
+    /**
+     * @param ids max {@value schnittstelle.store.PojoPage#MAX_LIMIT} ids
+     * @return one DELETED/NOT_FOUND item per id in request order
+     */
+    @WebMethod
+    PojoBatchResult deleteMany(PojoIds ids);
 }
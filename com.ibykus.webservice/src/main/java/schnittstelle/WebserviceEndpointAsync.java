@@ -0,0 +1,54 @@
+package schnittstelle;
+
+import java.util.concurrent.Future;
+
+import javax.jws.WebMethod;
+import javax.jws.WebService;
+import javax.jws.soap.SOAPBinding;
+import javax.xml.ws.AsyncHandler;
+import javax.xml.ws.Response;
+
+/**
+ * Client side async binding of the {@link WebserviceEndpoint} port type (same wsdl, same SOAP messages), as wsimport generates it with
+ * {@code enableAsyncMapping}: {@code xxxAsync} sends the request of operation {@code xxx} and returns at once, the {@link Response} or {@link AsyncHandler}
+ * gets the response. CXF binds the async methods only if the sync method and both async variants are declared in the same interface. Use it with {@link AsyncWebserviceEndpoint}, the
+ * server implements {@link WebserviceEndpoint} only.
+ */
+@WebService(name = WebserviceEndpoint.WEBSERVICE_NAME, targetNamespace = "http://schnittstelle/")
+@SOAPBinding(style = SOAPBinding.Style.RPC)
+public interface WebserviceEndpointAsync {
+    @WebMethod
+    Pojo create();
+
+    Response<Pojo> createAsync();
+
+    Future<?> createAsync(AsyncHandler<Pojo> handler);
+
+    @WebMethod
+    PojoList readAll();
+
+    Response<PojoList> readAllAsync();
+
+    Future<?> readAllAsync(AsyncHandler<PojoList> handler);
+
+    @WebMethod
+    Pojo read(String id);
+
+    Response<Pojo> readAsync(String id);
+
+    Future<?> readAsync(String id, AsyncHandler<Pojo> handler);
+
+    @WebMethod
+    Pojo update(Pojo pojo);
+
+    Response<Pojo> updateAsync(Pojo pojo);
+
+    Future<?> updateAsync(Pojo pojo, AsyncHandler<Pojo> handler);
+
+    @WebMethod
+    Pojo delete(String id);
+
+    Response<Pojo> deleteAsync(String id);
+
+    Future<?> deleteAsync(String id, AsyncHandler<Pojo> handler);
+}
@@ -1,19 +1,47 @@
 package schnittstelle;
 
-import java.util.Map;
+import org.apache.cxf.feature.Features;
+import org.apache.cxf.interceptor.InInterceptors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import javax.jws.WebService;
 
+import schnittstelle.lanes.Lane;
+import schnittstelle.store.PojoEntry;
+import schnittstelle.store.PojoPage;
+import schnittstelle.store.PojoSnapshot;
+import schnittstelle.store.PojoStore;
+import schnittstelle.store.PojoStores;
+
 /**
- * JAX-WS impl of {@link WebserviceEndpoint} interface.
+ * JAX-WS impl of {@link WebserviceEndpoint} interface. The data lives in the application scoped {@link PojoStore} (see {@link PojoStores}).
+ * <p/>
+ * Lists are read from a {@link PojoSnapshot}, batches are written with {@link PojoStore#writeBatch(int, java.util.function.Supplier)} - a list shows a
+ * batch completely or not at all.
+ * <p/>
+ * Each operation belongs to a scheduling {@link Lane} of bounded concurrency ({@link LaneInterceptor}), so exports and batch imports cannot take all
+ * threads from the point reads.
+ * <p/>
+ * Responses are FastInfoset and gzip encoded if the client asks for it ({@link WireCompressionFeature}).
  */
+@Features(classes = WireCompressionFeature.class)
+@InInterceptors(classes = LaneInterceptor.class)
 @WebService(endpointInterface = WebserviceEndpoint.WEBSERVICE_INTERFACE, serviceName = WebserviceEndpoint.WEBSERVICE_NAME)
 public class WebserviceEndpointImpl implements WebserviceEndpoint {
-    private final Map<String, Pojo> dataCache = new ConcurrentHashMap<>();
+    private final PojoStore dataCache;
 
     public WebserviceEndpointImpl() {
+        this(PojoStores.applicationScoped());
+    }
+
+    public WebserviceEndpointImpl(PojoStore dataCache) {
+        this.dataCache = Objects.requireNonNull(dataCache, "dataCache");
     }
 
     @Override
@@ -23,12 +51,36 @@ public class WebserviceEndpointImpl implements WebserviceEndpoint {
 
     @Override
     public PojoList readAll() {
-        return new PojoList(dataCache.values());
+        try (PojoSnapshot snapshot = dataCache.openSnapshot()) {
+            return new PojoList(StreamSupport.stream(snapshot.spliterator(), false)
+                    .map(Pojo::of)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Override
+    public PojoList readPage(String cursor, int limit) {
+        final String cursorOrNull = cursor == null || cursor.isEmpty() ? null : cursor;
+        try (PojoSnapshot snapshot = dataCache.openSnapshot()) {
+            return PojoList.of(snapshot.page(cursorOrNull, PojoPage.limit(limit)));
+        }
+    }
+
+    @Override
+    public PojoList readByValueRange(int minValue, int maxValue, int limit) {
+        return PojoList.of(dataCache.rangeByValue(minValue, maxValue, PojoPage.limit(limit)));
+    }
+
+    @Override
+    public PojoStats stats() {
+        return PojoStats.of(dataCache.valueStats());
     }
 
     @Override
     public Pojo read(String id) {
-        return dataCache.get(id);
+        return Optional.ofNullable(dataCache.get(id))
+                .map(Pojo::of)
+                .orElse(null);
     }
 
     @Override
@@ -36,17 +88,114 @@ public class WebserviceEndpointImpl implements WebserviceEndpoint {
         final Pojo localPojo = Optional.ofNullable(pojoOrNull).orElse(new Pojo());
         final Optional<String> dataId = Optional.ofNullable(localPojo.getId());
 
-        if (!dataId.isPresent()) {
-            localPojo.generateAndSetId();
-        }
-
-        dataCache.put(localPojo.getId(), localPojo);
+        store(localPojo, !dataId.isPresent());
 
         return localPojo;
     }
 
     @Override
     public Pojo delete(String id) {
-        return dataCache.remove(id);
+        return Optional.ofNullable(dataCache.remove(id))
+                .map(Pojo::of)
+                .orElse(null);
+    }
+
+    @Override
+    public PojoBatchItem addToValue(String id, int delta) {
+        return batchItem(PojoBatchItem.Status.UPDATED, dataCache.addToValue(id, delta));
+    }
+
+    @Override
+    public PojoBatchItem compareAndSetValue(String id, int expect, int update) {
+        final PojoEntry updated = dataCache.compareAndSetValue(id, expect, update);
+        return updated != null
+                ? new PojoBatchItem(PojoBatchItem.Status.UPDATED, Pojo.of(updated))
+                : batchItem(PojoBatchItem.Status.FOUND, dataCache.get(id));
+    }
+
+    @Override
+    public PojoBatchResult createBatch(PojoList pojos) {
+        final List<PojoBatchItem> items = new ArrayList<>(checkBatchSize(pojos.getPojos()).size());
+        return dataCache.writeBatch(pojos.getPojos().size(), () -> {
+            for (Pojo pojo : pojos.getPojos()) {
+                if (pojo == null) {
+                    items.add(invalidItem());
+                    continue;
+                }
+                store(pojo, true);
+                items.add(new PojoBatchItem(PojoBatchItem.Status.CREATED, pojo));
+            }
+            return new PojoBatchResult(items);
+        });
+    }
+
+    @Override
+    public PojoBatchResult updateBatch(PojoList pojos) {
+        final List<PojoBatchItem> items = new ArrayList<>(checkBatchSize(pojos.getPojos()).size());
+        return dataCache.writeBatch(pojos.getPojos().size(), () -> {
+            for (Pojo pojo : pojos.getPojos()) {
+                if (pojo == null) {
+                    items.add(invalidItem());
+                    continue;
+                }
+                final boolean created = store(pojo, pojo.getId() == null);
+                items.add(new PojoBatchItem(created ? PojoBatchItem.Status.CREATED : PojoBatchItem.Status.UPDATED, pojo));
+            }
+            return new PojoBatchResult(items);
+        });
+    }
+
+    @Override
+    public PojoBatchResult readMany(PojoIds ids) {
+        final List<PojoBatchItem> items = new ArrayList<>(checkBatchSize(ids.getIds()).size());
+        for (String id : ids.getIds()) {
+            items.add(id == null ? invalidItem() : batchItem(PojoBatchItem.Status.FOUND, dataCache.get(id)));
+        }
+        return new PojoBatchResult(items);
+    }
+
+    @Override
+    public PojoBatchResult deleteMany(PojoIds ids) {
+        final List<PojoBatchItem> items = new ArrayList<>(checkBatchSize(ids.getIds()).size());
+        return dataCache.writeBatch(ids.getIds().size(), () -> {
+            for (String id : ids.getIds()) {
+                items.add(id == null ? invalidItem() : batchItem(PojoBatchItem.Status.DELETED, dataCache.remove(id)));
+            }
+            return new PojoBatchResult(items);
+        });
+    }
+
+    /**
+     * @return true if the pojo was created, false if an existing one was replaced
+     */
+    private boolean store(Pojo localPojo, boolean generateId) {
+        if (generateId) {
+            // never overwrite an existing pojo with a colliding generated id
+            do {
+                localPojo.generateAndSetId();
+            } while (dataCache.putIfAbsent(localPojo.toEntry()) != null);
+            return true;
+        }
+        return dataCache.put(localPojo.toEntry()) == null;
+    }
+
+    /**
+     * @return item of a null pojo or id of a batch, like in the batch of the REST endpoint
+     */
+    private static PojoBatchItem invalidItem() {
+        return new PojoBatchItem(PojoBatchItem.Status.INVALID, null);
+    }
+
+    private static PojoBatchItem batchItem(PojoBatchItem.Status status, PojoEntry entryOrNull) {
+        return entryOrNull == null
+                ? new PojoBatchItem(PojoBatchItem.Status.NOT_FOUND, null)
+                : new PojoBatchItem(status, Pojo.of(entryOrNull));
+    }
+
+    private static <T> List<T> checkBatchSize(List<T> batch) {
+        if (batch.size() > PojoPage.MAX_LIMIT) {
+            throw new IllegalArgumentException("Max " + PojoPage.MAX_LIMIT + " entries per batch, but was " + batch.size());
+        }
+        return batch;
     }
 }
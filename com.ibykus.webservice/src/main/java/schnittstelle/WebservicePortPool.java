@@ -0,0 +1,201 @@
+package schnittstelle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.xml.ws.WebServiceException;
+
+/**
+ * Bounded pool of port proxies for concurrent callers. A port is not thread safe (its request context), but creating one per call costs the endpoint
+ * model of CXF (see {@link WebserviceClient}). So every caller borrows a port for its calls and returns it - no two threads use a port at once, no
+ * lock is held during a call and the throughput grows with the calling threads up to {@code maxPorts}.
+ * <p/>
+ * Use it like this
+ * <pre>
+ *  Pojo pojo = pool.call(port -> port.read(id));
+ * </pre>
+ * or borrow a port for several calls
+ * <pre>
+ *  final WebserviceEndpoint port = pool.borrow();
+ *  try {
+ *      ...
+ *  } finally {
+ *      pool.release(port);
+ *  }
+ * </pre>
+ * Ports are created on demand, at most {@code maxPorts}. A caller finding all of them in use waits up to {@code borrowTimeoutMillis}. Idle ports are
+ * reused last in first out, so few ports stay warm under low load. Don't change the request context of a borrowed port, the next caller would get it.
+ *
+ * @param <T> webservice interface
+ */
+final class WebservicePortPool<T> implements Closeable {
+    static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30_000;
+
+    private final Supplier<T> portFactory;
+    private final int maxPorts;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final Deque<T> idle = new ConcurrentLinkedDeque<>();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * @param portFactory not null factory of new ports, e.g. {@link WebserviceClient#proxy(Class)}
+     * @param maxPorts    max ports, in use and idle
+     */
+    WebservicePortPool(Supplier<T> portFactory, int maxPorts, long borrowTimeoutMillis) {
+        if (maxPorts < 1) {
+            throw new IllegalArgumentException("maxPorts must be > 0, but was " + maxPorts);
+        }
+        if (borrowTimeoutMillis < 0) {
+            throw new IllegalArgumentException("borrowTimeoutMillis must be >= 0, but was " + borrowTimeoutMillis);
+        }
+        this.portFactory = Objects.requireNonNull(portFactory, "portFactory");
+        this.maxPorts = maxPorts;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxPorts, true);
+    }
+
+    /**
+     * Borrow a port, call it and return it.
+     *
+     * @param call not null call of the port, e.g. {@code port -> port.read(id)}
+     * @return result of the call
+     * @throws WebServiceException if no port became free in time or the call failed
+     */
+    <R> R call(Function<? super T, R> call) {
+        Objects.requireNonNull(call, "call");
+        final T port = borrow();
+        try {
+            return call.apply(port);
+        } finally {
+            release(port);
+        }
+    }
+
+    /**
+     * Take an idle port or create one, wait if all {@code maxPorts} are in use. Call {@link #release(Object)} after the calls.
+     *
+     * @return not null port used by the caller only
+     * @throws WebServiceException if no port became free in time
+     */
+    T borrow() {
+        if (closed) {
+            throw new IllegalStateException("Pool is closed");
+        }
+        if (!permits.tryAcquire()) {
+            waited.increment();
+            try {
+                if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    timedOut.increment();
+                    throw new WebServiceException("No port free within " + borrowTimeoutMillis + " ms, all " + maxPorts + " in use");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebServiceException("Interrupted while waiting for a port", e);
+            }
+        }
+        borrowed.increment();
+        final T idlePort = idle.pollFirst();
+        if (idlePort != null) {
+            return idlePort;
+        }
+        try {
+            final T newPort = Objects.requireNonNull(portFactory.get(), "port");
+            created.increment();
+            return newPort;
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return the borrowed port for the next caller.
+     */
+    void release(T port) {
+        Objects.requireNonNull(port, "port");
+        if (closed) {
+            closePort(port);
+        } else {
+            idle.offerFirst(port);
+        }
+        permits.release();
+    }
+
+    /**
+     * Close the idle ports, ports in use are closed on release. Borrowing is no longer possible.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (T port = idle.pollFirst(); port != null; port = idle.pollFirst()) {
+            closePort(port);
+        }
+    }
+
+    int getMaxPorts() {
+        return maxPorts;
+    }
+
+    /**
+     * @return ports created so far, at most {@link #getMaxPorts()}
+     */
+    long getCreated() {
+        return created.sum();
+    }
+
+    long getBorrowed() {
+        return borrowed.sum();
+    }
+
+    /**
+     * @return borrows that found all ports in use and waited for one
+     */
+    long getWaited() {
+        return waited.sum();
+    }
+
+    /**
+     * @return borrows that got no port in time
+     */
+    long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    int getInUse() {
+        return maxPorts - permits.availablePermits();
+    }
+
+    int getIdle() {
+        return idle.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{maxPorts=%d, created=%d, inUse=%d, idle=%d, borrowed=%d, waited=%d, timedOut=%d}", maxPorts, getCreated(), getInUse(),
+                getIdle(), getBorrowed(), getWaited(), getTimedOut());
+    }
+
+    private static void closePort(Object port) {
+        // CXF proxies are Closeable, they release their conduit
+        if (port instanceof Closeable) {
+            try {
+                ((Closeable) port).close();
+            } catch (IOException e) {
+                // closed anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package schnittstelle;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.feature.FastInfosetFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.transport.common.gzip.GZIPFeature;
+
+/**
+ * Negotiated FastInfoset encoding and gzip content encoding of the SOAP messages, for the endpoint ({@link WebserviceEndpointImpl}) and the client
+ * ({@link WebserviceClient}). The SOAP contract is the same, only the bytes on the wire change:
+ * <pre>
+ *   FastInfoset - binary XML infoset, tag names are sent once and indexed after. A client sends Accept: application/fastinfoset, the endpoint
+ *                 answers binary then and the client sends binary from the next request on.
+ *   gzip        - a client sends Accept-Encoding: gzip, the endpoint compresses responses beyond the threshold.
+ * </pre>
+ * A peer without the feature gets plain XML. Configured by system properties {@code schnittstelle.wireCompression.enabled} (default true) and
+ * {@code schnittstelle.wireCompression.gzipThreshold} (bytes, default 1024).
+ */
+public class WireCompressionFeature extends AbstractFeature {
+    static final String PROPERTY_PREFIX = "schnittstelle.wireCompression.";
+    static final int DEFAULT_GZIP_THRESHOLD = 1024;
+
+    private final int gzipThreshold;
+
+    /**
+     * Feature configured by system properties, used by {@link org.apache.cxf.feature.Features}.
+     */
+    public WireCompressionFeature() {
+        this(isEnabledByDefault());
+    }
+
+    /**
+     * @param enabled false for plain XML, see {@link #isEnabled()}
+     */
+    public WireCompressionFeature(boolean enabled) {
+        this.enabled = enabled;
+        this.gzipThreshold = Integer.getInteger(PROPERTY_PREFIX + "gzipThreshold", DEFAULT_GZIP_THRESHOLD);
+    }
+
+    /**
+     * @return value of the system property {@code schnittstelle.wireCompression.enabled}, default true
+     */
+    static boolean isEnabledByDefault() {
+        return Boolean.parseBoolean(System.getProperty(PROPERTY_PREFIX + "enabled", "true"));
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (!enabled) {
+            return;
+        }
+        final GZIPFeature gzip = new GZIPFeature();
+        gzip.setThreshold(gzipThreshold);
+        gzip.initialize(provider, bus);
+        new FastInfosetFeature().initialize(provider, bus);
+    }
+}
@@ -0,0 +1,142 @@
+package schnittstelle;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import helper.CxfServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoEntry;
+
+/**
+ * Integration test of {@link AsyncWebserviceEndpoint}: many calls in flight from one thread, bounded by maxInFlight and maxQueued, each with its
+ * timeout.
+ */
+public class AsyncWebserviceEndpointITest {
+    private final CountDownLatch slowReads = new CountDownLatch(1);
+    private volatile boolean slow;
+
+    private final CxfServerFacade cxfFacade = CxfServerFacade.builder()
+            .wsInstance(new WebserviceEndpointImpl(new ConcurrentPojoStore() {
+                @Override
+                public PojoEntry get(String id) {
+                    if (slow) {
+                        try {
+                            slowReads.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return super.get(id);
+                }
+            }))
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhost()
+            .randomPort()
+            .build();
+
+    @Before
+    public void beforeTest() {
+        cxfFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        slowReads.countDown();
+        cxfFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_createReadUpdateDelete_completed() throws Exception {
+        try (AsyncWebserviceEndpoint endpoint = asyncEndpoint(4, 0, 10_000)) {
+            final Pojo created = endpoint.create().get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(created, endpoint.read(created.getId()).get(10, TimeUnit.SECONDS));
+
+            created.setValue(42);
+            Assert.assertEquals(Integer.valueOf(42), endpoint.update(created).get(10, TimeUnit.SECONDS).getValue());
+            Assertions.assertThat(endpoint.readAll().get(10, TimeUnit.SECONDS).getPojos()).contains(created);
+            Assert.assertEquals(created, endpoint.delete(created.getId()).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void assertThat_manyCallsFromOneThread_allCompleted() throws Exception {
+        final int calls = 500;
+        try (AsyncWebserviceEndpoint endpoint = asyncEndpoint(8, calls, 60_000)) {
+            final List<CompletableFuture<Pojo>> results = new ArrayList<>(calls);
+            for (int i = 0; i < calls; i++) {
+                final Pojo pojo = new Pojo();
+                pojo.setValue(i);
+                results.add(endpoint.update(pojo));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+
+            for (int i = 0; i < calls; i++) {
+                Assert.assertEquals(Integer.valueOf(i), results.get(i).get().getValue());
+            }
+            Assert.assertTrue(endpoint.toString(), endpoint.getPorts().getCreated() <= 8);
+            Assert.assertEquals(endpoint.toString(), 0, endpoint.getRejected());
+        }
+    }
+
+    @Test
+    public void assertThat_fullEndpoint_rejected() throws Exception {
+        try (AsyncWebserviceEndpoint endpoint = asyncEndpoint(1, 1, 10_000)) {
+            final String id = endpoint.create().get(10, TimeUnit.SECONDS).getId();
+            slow = true;
+            final CompletableFuture<Pojo> inFlight = endpoint.read(id);
+            final CompletableFuture<Pojo> queued = endpoint.read(id);
+
+            assertFailedWith(endpoint.read(id), RejectedExecutionException.class);
+            Assert.assertEquals(1, endpoint.getInFlight());
+            Assert.assertEquals(1, endpoint.getQueued());
+
+            slowReads.countDown();
+            Assert.assertEquals(id, inFlight.get(10, TimeUnit.SECONDS).getId());
+            Assert.assertEquals(id, queued.get(10, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    @Test
+    public void assertThat_slowCall_timedOutAndSlotFree() throws Exception {
+        try (AsyncWebserviceEndpoint endpoint = asyncEndpoint(1, 0, 500)) {
+            final String id = endpoint.create().get(10, TimeUnit.SECONDS).getId();
+            slow = true;
+
+            assertFailedWith(endpoint.read(id), TimeoutException.class);
+            Assert.assertEquals(1, endpoint.getTimedOut());
+            Assert.assertEquals(0, endpoint.getInFlight());
+
+            slow = false;
+            slowReads.countDown();
+            Assert.assertEquals(id, endpoint.read(id).get(10, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    private AsyncWebserviceEndpoint asyncEndpoint(int maxInFlight, int maxQueued, long timeoutMillis) {
+        return WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .classpathWsdl(WebserviceEndpoint.WSDL_RESOURCE)
+                .webservice(WebserviceEndpoint.WEBSERVICE_QNAME)
+                .build()
+                .asyncEndpoint(maxInFlight, maxQueued, timeoutMillis);
+    }
+
+    private static void assertFailedWith(CompletableFuture<?> result, Class<? extends Throwable> failure) {
+        Assertions.assertThatThrownBy(() -> result.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(failure);
+    }
+}
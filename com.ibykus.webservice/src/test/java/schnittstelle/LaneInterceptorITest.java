@@ -0,0 +1,142 @@
+package schnittstelle;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.ws.WebServiceException;
+
+import helper.CxfServerFacade;
+import schnittstelle.lanes.Lane;
+import schnittstelle.lanes.Lanes;
+import schnittstelle.store.ConcurrentPojoStore;
+import schnittstelle.store.PojoSnapshot;
+
+/**
+ * Integration test of the {@link LaneInterceptor} of {@link WebserviceEndpointImpl} with the default lanes: read, update and stats are answered while
+ * the bulk lane is full of slow exports, one more export is answered with a fault.
+ */
+public class LaneInterceptorITest {
+    private final CountDownLatch slowSnapshots = new CountDownLatch(1);
+    private final WebserviceEndpointImpl testSubject = new WebserviceEndpointImpl(new ConcurrentPojoStore() {
+        @Override
+        public PojoSnapshot openSnapshot() {
+            try {
+                slowSnapshots.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.openSnapshot();
+        }
+    });
+    private final Lanes lanes = Lanes.applicationScoped();
+
+    private final CxfServerFacade cxfFacade = CxfServerFacade.builder()
+            .wsInstance(testSubject)
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhost()
+            .randomPort()
+            .build();
+
+    @Before
+    public void beforeTest() {
+        cxfFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        slowSnapshots.countDown();
+        cxfFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_fullBulkLane_pointReadsAnswered() throws Exception {
+        final WebserviceEndpoint proxy = proxy();
+        final Pojo one = new Pojo();
+        one.setValue(1);
+        final Pojo created = proxy.update(one);
+        final int exports = Lane.BULK.concurrency() + Lane.BULK.queueCapacity();
+
+        final ExecutorService clients = Executors.newFixedThreadPool(exports);
+        try {
+            final List<Future<PojoList>> lists = new ArrayList<>();
+            for (int i = 0; i < exports; i++) {
+                lists.add(clients.submit(() -> proxy().readAll()));
+            }
+            awaitFull(Lane.BULK);
+
+            // the bulk lane is full, the other lanes are not
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(created, proxy.read(created.getId()));
+                Assert.assertEquals(created, proxy.update(created));
+                Assert.assertEquals(1, proxy.stats().getCount());
+            }
+            Assertions.assertThatThrownBy(() -> proxy.readPage("", 10))
+                    .isInstanceOf(WebServiceException.class);
+            Assert.assertEquals(lanes.toString(), 1, lanes.getRejected(Lane.BULK));
+
+            slowSnapshots.countDown();
+            for (Future<PojoList> list : lists) {
+                Assert.assertEquals(1, list.get(10, TimeUnit.SECONDS).getPojos().size());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        for (Lane lane : Lane.values()) {
+            awaitIdle(lane);
+        }
+    }
+
+    @Test
+    public void assertThat_faults_freeTheirSlots() throws Exception {
+        final WebserviceEndpoint proxy = proxy();
+        final Pojo max = new Pojo();
+        max.setValue(Integer.MAX_VALUE);
+        for (int i = 0; i < Lane.WRITE.concurrency() + 1; i++) {
+            // overflow of the new value
+            final Pojo created = proxy.update(max);
+            Assertions.assertThatThrownBy(() -> proxy.addToValue(created.getId(), 1))
+                    .isInstanceOf(WebServiceException.class);
+        }
+        awaitIdle(Lane.WRITE);
+    }
+
+    private WebserviceEndpoint proxy() {
+        return WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+    }
+
+    /**
+     * The slot is freed after the response is sent.
+     */
+    private void awaitIdle(Lane lane) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (lanes.getActive(lane) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(lanes.toString(), 0, lanes.getActive(lane));
+    }
+
+    private void awaitFull(Lane lane) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while ((lanes.getActive(lane) < lane.concurrency() || lanes.getWaiting(lane) < lane.queueCapacity()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(lanes.toString(), lane.concurrency(), lanes.getActive(lane));
+        Assert.assertEquals(lanes.toString(), lane.queueCapacity(), lanes.getWaiting(lane));
+    }
+}
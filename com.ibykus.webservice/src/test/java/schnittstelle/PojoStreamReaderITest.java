@@ -0,0 +1,86 @@
+package schnittstelle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import helper.CxfServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+
+/**
+ * Integration test of {@link WebserviceClient#readAllStreamed()}: the pojos of {@link WebserviceEndpoint#readAll()} parsed from the raw payload one
+ * by one, also beyond the child element limit of the JAXB proxy.
+ */
+public class PojoStreamReaderITest {
+    private final WebserviceEndpointImpl testSubject = new WebserviceEndpointImpl(new ConcurrentPojoStore());
+
+    private final CxfServerFacade cxfFacade = CxfServerFacade.builder()
+            .wsInstance(testSubject)
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhost()
+            .randomPort()
+            .build();
+
+    @Before
+    public void beforeTest() {
+        cxfFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        cxfFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_streamedPojos_sameAsReadAll() {
+        testSubject.create();
+        createPojos(10);
+
+        final List<Pojo> streamed = new ArrayList<>();
+        try (PojoStreamReader pojos = client().readAllStreamed()) {
+            pojos.forEachRemaining(streamed::add);
+        }
+        Assert.assertEquals(client().proxy(WebserviceEndpoint.class).readAll().getPojos(), streamed);
+    }
+
+    @Test
+    public void assertThat_moreThanChildElementLimit_streamed() {
+        createPojos(60_000);
+
+        final AtomicReference<Pojo> last = new AtomicReference<>();
+        Assert.assertEquals(60_000, client().readAllStreamed(last::set));
+        Assert.assertEquals(testSubject.readAll().getPojos().get(59_999), last.get());
+    }
+
+    @Test
+    public void assertThat_closedStream_noMorePojos() {
+        createPojos(100);
+
+        final PojoStreamReader pojos = client().readAllStreamed();
+        Assert.assertNotNull(pojos.next());
+        pojos.close();
+        Assert.assertFalse(pojos.hasNext());
+    }
+
+    private void createPojos(int count) {
+        for (int i = 0; i < count; i++) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(i);
+            testSubject.update(pojo);
+        }
+    }
+
+    private WebserviceClient client() {
+        return WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .classpathWsdl(WebserviceEndpoint.WSDL_RESOURCE)
+                .webservice(WebserviceEndpoint.WEBSERVICE_QNAME)
+                .build();
+    }
+}
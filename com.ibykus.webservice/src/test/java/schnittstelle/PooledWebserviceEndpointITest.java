@@ -0,0 +1,87 @@
+package schnittstelle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import helper.CxfServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+
+/**
+ * Integration test of {@link PooledWebserviceEndpoint}: one instance shared by concurrent callers, all calls answered by at most maxPorts ports.
+ */
+public class PooledWebserviceEndpointITest {
+    private static final int THREADS = 8;
+    private static final int MAX_PORTS = 4;
+    private static final int CALLS_PER_THREAD = 50;
+
+    private final CxfServerFacade cxfFacade = CxfServerFacade.builder()
+            .wsInstance(new WebserviceEndpointImpl(new ConcurrentPojoStore()))
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhost()
+            .randomPort()
+            .build();
+
+    @Before
+    public void beforeTest() {
+        cxfFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        cxfFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_concurrentCallers_sharedEndpoint() throws Exception {
+        final PooledWebserviceEndpoint endpoint = (PooledWebserviceEndpoint) WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .classpathWsdl(WebserviceEndpoint.WSDL_RESOURCE)
+                .webservice(WebserviceEndpoint.WEBSERVICE_QNAME)
+                .build()
+                .pooledEndpoint(MAX_PORTS);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> calls = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int value = thread;
+                calls.add(callers.submit(() -> {
+                    start.await();
+                    for (int call = 0; call < CALLS_PER_THREAD; call++) {
+                        final Pojo pojo = new Pojo();
+                        pojo.setValue(value);
+                        final Pojo created = endpoint.update(pojo);
+                        Assert.assertEquals(created, endpoint.read(created.getId()));
+                        Assert.assertEquals(Integer.valueOf(value + 1), endpoint.addToValue(created.getId(), 1).getPojo().getValue());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        final WebservicePortPool<WebserviceEndpoint> pool = endpoint.getPool();
+        Assert.assertEquals(THREADS * CALLS_PER_THREAD, endpoint.stats().getCount());
+        Assert.assertTrue(pool.toString(), pool.getCreated() <= MAX_PORTS);
+        Assert.assertEquals(pool.toString(), 3 * THREADS * CALLS_PER_THREAD + 1, pool.getBorrowed());
+        Assert.assertEquals(pool.toString(), 0, pool.getInUse());
+        pool.close();
+    }
+}
@@ -0,0 +1,82 @@
+package schnittstelle;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import helper.CxfServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+
+/**
+ * Integration test of {@link WebserviceClient}: cached services, wsdl from the classpath with the endpoint address of the builder.
+ */
+public class WebserviceClientITest {
+    private final CxfServerFacade cxfFacade = CxfServerFacade.builder()
+            .wsInstance(new WebserviceEndpointImpl(new ConcurrentPojoStore()))
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhost()
+            .randomPort()
+            .build();
+
+    @Before
+    public void beforeTest() {
+        cxfFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        cxfFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_classpathWsdl_callsEndpointOfBuilder() {
+        // the address of the wsdl is http://localhost:9090/WebserviceEndpointPort
+        final WebserviceEndpoint proxy = classpathWsdlClient().proxy(WebserviceEndpoint.class);
+
+        final Pojo created = proxy.create();
+        Assert.assertEquals(created, proxy.read(created.getId()));
+    }
+
+    @Test
+    public void assertThat_sameWsdl_sameService() {
+        Assert.assertSame(classpathWsdlClient().service(), classpathWsdlClient().service());
+        Assert.assertSame(remoteWsdlClient().service(), remoteWsdlClient().service());
+        Assert.assertNotSame(classpathWsdlClient().service(), remoteWsdlClient().service());
+    }
+
+    @Test
+    public void assertThat_cachedService_noWsdlRoundTrip() {
+        final WebserviceClient remoteWsdlClient = remoteWsdlClient();
+        remoteWsdlClient.proxy(WebserviceEndpoint.class).stats();
+        cxfFacade.teardownServer();
+
+        // the endpoint is down, neither wsdl is read again
+        Assert.assertNotNull(remoteWsdlClient.proxy(WebserviceEndpoint.class));
+        Assert.assertNotNull(remoteWsdlClient().proxy(WebserviceEndpoint.class));
+        Assert.assertNotNull(classpathWsdlClient().proxy(WebserviceEndpoint.class));
+    }
+
+    @Test
+    public void assertThat_unknownWsdlResource_IllegalArgumentException() {
+        Assertions.assertThatThrownBy(() -> WebserviceClient.builder().classpathWsdl("/unknown.wsdl"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private WebserviceClient classpathWsdlClient() {
+        return WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .classpathWsdl(WebserviceEndpoint.WSDL_RESOURCE)
+                .webservice(WebserviceEndpoint.WEBSERVICE_QNAME)
+                .build();
+    }
+
+    private WebserviceClient remoteWsdlClient() {
+        return WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build();
+    }
+}
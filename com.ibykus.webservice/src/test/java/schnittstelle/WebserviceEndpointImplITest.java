@@ -6,14 +6,18 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import helper.CxfServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
 
 /**
  * Integration test of {@link WebserviceEndpointImpl}
  */
 public class WebserviceEndpointImplITest {
-    private final WebserviceEndpointImpl testSubject = new WebserviceEndpointImpl();
+    private final WebserviceEndpointImpl testSubject = new WebserviceEndpointImpl(new ConcurrentPojoStore());
 
     private final CxfServerFacade cxfFacade = CxfServerFacade.builder()
             .wsInstance(testSubject)
@@ -104,4 +108,120 @@ public class WebserviceEndpointImplITest {
         proxy.delete(updated.getId());
         Assert.assertEquals(0, proxy.readAll().getPojos().size());
     }
+
+    @Test
+    public void assertThat_readPage_responseAllPojosOnce() {
+        final WebserviceEndpoint proxy = WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+
+        for (int i = 0; i < 7; i++) {
+            proxy.create();
+        }
+
+        final List<Pojo> paged = new ArrayList<>();
+        String cursor = "";
+        do {
+            final PojoList page = proxy.readPage(cursor, 3);
+            Assert.assertTrue(page.getPojos().size() <= 3);
+            paged.addAll(page.getPojos());
+            cursor = page.getCursor();
+        } while (cursor != null);
+
+        Assert.assertEquals(7, paged.size());
+        Assert.assertTrue(paged.containsAll(proxy.readAll().getPojos()));
+    }
+
+    @Test
+    public void assertThat_readByValueRange_responsePojosOfRangeOrderedByValue() {
+        final WebserviceEndpoint proxy = WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+
+        for (int i = 0; i < 7; i++) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(i);
+            proxy.update(pojo);
+        }
+
+        final List<Pojo> range = proxy.readByValueRange(2, 5, 3).getPojos();
+        Assert.assertEquals(Arrays.asList(2, 3, 4), Arrays.asList(range.get(0).getValue(), range.get(1).getValue(), range.get(2).getValue()));
+        Assert.assertEquals(3, range.size());
+    }
+
+    @Test
+    public void assertThat_stats_responseAggregatesOfValues() {
+        final WebserviceEndpoint proxy = WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+
+        Assert.assertEquals(new PojoStats(0, 0, null, null), proxy.stats());
+        for (int i = 1; i <= 4; i++) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(i * 10);
+            proxy.update(pojo);
+        }
+        Assert.assertEquals(new PojoStats(4, 100, 10, 40), proxy.stats());
+    }
+
+    @Test
+    public void assertThat_addToValueAndCompareAndSetValue_updateValueAtomically() {
+        final WebserviceEndpoint proxy = WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+
+        final Pojo pojo = proxy.update(pojo(null, 10));
+        Assert.assertEquals(pojo(pojo.getId(), 15), proxy.addToValue(pojo.getId(), 5).getPojo());
+        Assert.assertEquals(PojoBatchItem.Status.NOT_FOUND, proxy.addToValue("unknown", 5).getStatus());
+
+        final PojoBatchItem updated = proxy.compareAndSetValue(pojo.getId(), 15, 20);
+        Assert.assertEquals(PojoBatchItem.Status.UPDATED, updated.getStatus());
+        Assert.assertEquals(pojo(pojo.getId(), 20), updated.getPojo());
+        final PojoBatchItem notUpdated = proxy.compareAndSetValue(pojo.getId(), 15, 30);
+        Assert.assertEquals(PojoBatchItem.Status.FOUND, notUpdated.getStatus());
+        Assert.assertEquals(pojo(pojo.getId(), 20), notUpdated.getPojo());
+        Assert.assertEquals(PojoBatchItem.Status.NOT_FOUND, proxy.compareAndSetValue("unknown", 15, 30).getStatus());
+    }
+
+    @Test
+    public void assertThat_batchOperations_responseOneItemPerPojo() {
+        final WebserviceEndpoint proxy = WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+
+        final List<PojoBatchItem> created = proxy.createBatch(new PojoList(Arrays.asList(pojo(null, 1), pojo("ignored", 2)))).getItems();
+        Assert.assertEquals(2, created.size());
+        Assert.assertEquals(PojoBatchItem.Status.CREATED, created.get(1).getStatus());
+        Assert.assertNotEquals("ignored", created.get(1).getPojo().getId());
+
+        final List<PojoBatchItem> updated = WebserviceClient.updateBatch(proxy, Arrays.asList(pojo(created.get(0).getPojo().getId(), 3), pojo(null, 4), pojo(null, 5)), 2);
+        Assert.assertEquals(3, updated.size());
+        Assert.assertEquals(new PojoBatchItem(PojoBatchItem.Status.UPDATED, pojo(created.get(0).getPojo().getId(), 3)), updated.get(0));
+        Assert.assertEquals(PojoBatchItem.Status.CREATED, updated.get(2).getStatus());
+        Assert.assertEquals(4, proxy.readAll().getPojos().size());
+
+        final PojoIds ids = new PojoIds(Arrays.asList(updated.get(1).getPojo().getId(), "unknown"));
+        Assert.assertEquals(Arrays.asList(new PojoBatchItem(PojoBatchItem.Status.FOUND, updated.get(1).getPojo()), new PojoBatchItem(PojoBatchItem.Status.NOT_FOUND, null)),
+                proxy.readMany(ids).getItems());
+        Assert.assertEquals(Arrays.asList(new PojoBatchItem(PojoBatchItem.Status.DELETED, updated.get(1).getPojo()), new PojoBatchItem(PojoBatchItem.Status.NOT_FOUND, null)),
+                proxy.deleteMany(ids).getItems());
+        Assert.assertEquals(3, proxy.readAll().getPojos().size());
+    }
+
+    private static Pojo pojo(String id, Integer value) {
+        final Pojo pojo = new Pojo();
+        pojo.setId(id);
+        pojo.setValue(value);
+        return pojo;
+    }
 }
@@ -0,0 +1,94 @@
+package schnittstelle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import helper.CxfServerFacade;
+import schnittstelle.store.PojoStores;
+
+/**
+ * Concurrency stress test of the application scoped store behind {@link WebserviceEndpointImpl}. Two endpoint instances are hosted by two servers. Writes go
+ * to the first, reads go to the second one. Both have to see the same data.
+ */
+public class WebserviceEndpointImplStressITest {
+    private static final int THREADS = 8;
+    private static final int POJOS_PER_THREAD = 50;
+
+    private final CxfServerFacade writeFacade = CxfServerFacade.builder()
+            .wsInstance(new WebserviceEndpointImpl())
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhostWithRandomPort()
+            .build();
+
+    private final CxfServerFacade readFacade = CxfServerFacade.builder()
+            .wsInstance(new WebserviceEndpointImpl())
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhostWithRandomPort()
+            .build();
+
+    @Before
+    public void beforeTest() {
+        writeFacade.startServer();
+        readFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        writeFacade.teardownServer();
+        readFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_concurrentWrites_visibleForAllEndpoints() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<List<Pojo>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit((Callable<List<Pojo>>) () -> {
+                    final WebserviceEndpoint writeProxy = proxy(writeFacade);
+                    final WebserviceEndpoint readProxy = proxy(readFacade);
+
+                    final List<Pojo> created = new ArrayList<>();
+                    for (int i = 0; i < POJOS_PER_THREAD; i++) {
+                        final Pojo pojo = writeProxy.create();
+                        pojo.setValue(i);
+                        created.add(writeProxy.update(pojo));
+                        Assert.assertEquals(pojo, readProxy.read(pojo.getId()));
+                    }
+                    return created;
+                }));
+            }
+
+            final List<Pojo> created = new ArrayList<>();
+            for (Future<List<Pojo>> future : futures) {
+                created.addAll(future.get());
+            }
+
+            final List<Pojo> actualPojos = proxy(readFacade).readAll().getPojos();
+            Assert.assertEquals(THREADS * POJOS_PER_THREAD, created.size());
+            Assert.assertTrue(actualPojos.containsAll(created));
+            created.forEach(pojo -> Assert.assertEquals(pojo.toEntry(), PojoStores.applicationScoped().get(pojo.getId())));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static WebserviceEndpoint proxy(CxfServerFacade cxfFacade) {
+        return WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .webservice(WebserviceEndpoint.class)
+                .build()
+                .proxy(WebserviceEndpoint.class);
+    }
+}
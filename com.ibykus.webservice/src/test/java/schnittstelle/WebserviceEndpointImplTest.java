@@ -3,11 +3,16 @@ package schnittstelle;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import schnittstelle.store.ConcurrentPojoStore;
+
 /**
  * Unit test of {@link WebserviceEndpointImpl}.
  */
 public class WebserviceEndpointImplTest {
-    private final WebserviceEndpointImpl testSubject = new WebserviceEndpointImpl();
+    private final WebserviceEndpointImpl testSubject = new WebserviceEndpointImpl(new ConcurrentPojoStore());
 
     @Test
     public void createTest() {
@@ -28,6 +33,81 @@ public class WebserviceEndpointImplTest {
         Assert.assertEquals(actual, testSubject.read(actual.getId()));
     }
 
+    @Test
+    public void batchTest() {
+        final Pojo existing = testSubject.create();
+        final Pojo pojoWithoutId = new Pojo();
+        pojoWithoutId.setValue(5);
+
+        final PojoBatchResult updated = testSubject.updateBatch(new PojoList(Arrays.asList(existing, pojoWithoutId)));
+        Assert.assertEquals(PojoBatchItem.Status.UPDATED, updated.getItems().get(0).getStatus());
+        Assert.assertEquals(PojoBatchItem.Status.CREATED, updated.getItems().get(1).getStatus());
+        Assert.assertNotNull(pojoWithoutId.getId());
+
+        final PojoIds ids = new PojoIds(Arrays.asList(pojoWithoutId.getId(), "unknown"));
+        Assert.assertEquals(PojoBatchItem.Status.FOUND, testSubject.readMany(ids).getItems().get(0).getStatus());
+        Assert.assertEquals(PojoBatchItem.Status.DELETED, testSubject.deleteMany(ids).getItems().get(0).getStatus());
+        Assert.assertEquals(new PojoBatchItem(PojoBatchItem.Status.NOT_FOUND, null), testSubject.deleteMany(ids).getItems().get(1));
+        Assert.assertEquals(1, testSubject.readAll().getPojos().size());
+    }
+
+    @Test
+    public void batchWithNullTest() {
+        final PojoBatchItem invalid = new PojoBatchItem(PojoBatchItem.Status.INVALID, null);
+        final PojoBatchResult created = testSubject.createBatch(new PojoList(Arrays.asList(null, new Pojo())));
+        Assert.assertEquals(invalid, created.getItems().get(0));
+        Assert.assertEquals(PojoBatchItem.Status.CREATED, created.getItems().get(1).getStatus());
+        Assert.assertEquals(invalid, testSubject.updateBatch(new PojoList(Arrays.asList(created.getItems().get(1).getPojo(), null))).getItems().get(1));
+
+        final PojoIds ids = new PojoIds(Arrays.asList(null, created.getItems().get(1).getPojo().getId()));
+        Assert.assertEquals(invalid, testSubject.readMany(ids).getItems().get(0));
+        final PojoBatchResult deleted = testSubject.deleteMany(ids);
+        Assert.assertEquals(invalid, deleted.getItems().get(0));
+        Assert.assertEquals(PojoBatchItem.Status.DELETED, deleted.getItems().get(1).getStatus());
+        Assert.assertEquals(0, testSubject.readAll().getPojos().size());
+    }
+
+    @Test
+    public void readAllDuringBatchesTest() throws Exception {
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                testSubject.updateBatch(new PojoList(Arrays.asList(pojo("x", i), pojo("y", i))));
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            final PojoList pojos = testSubject.readAll();
+            Assert.assertTrue("a list never shows only one pojo of a batch", pojos.getPojos().stream().map(Pojo::getValue).distinct().count() <= 1);
+        }
+        writer.join();
+        Assert.assertEquals(Arrays.asList(pojo("x", 9_999), pojo("y", 9_999)), testSubject.readAll().getPojos());
+    }
+
+    @Test
+    public void readAllDuringDeleteManyTest() throws Exception {
+        final PojoIds ids = new PojoIds(Arrays.asList("x", "y"));
+        final Thread writer = new Thread(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                testSubject.updateBatch(new PojoList(Arrays.asList(pojo("x", i), pojo("y", i))));
+                testSubject.deleteMany(ids);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            final int size = testSubject.readAll().getPojos().size();
+            Assert.assertTrue("a list never shows only one pojo of a deleteMany, but was " + size, size == 0 || size == 2);
+        }
+        writer.join();
+        Assert.assertEquals(0, testSubject.readAll().getPojos().size());
+    }
+
+    private static Pojo pojo(String id, int value) {
+        final Pojo pojo = new Pojo();
+        pojo.setId(id);
+        pojo.setValue(value);
+        return pojo;
+    }
+
     @Test
     public void updateTest() {
         final Pojo actual = testSubject.create();
@@ -48,4 +128,79 @@ public class WebserviceEndpointImplTest {
         testSubject.delete(actual.getId());
         Assert.assertEquals(0, testSubject.readAll().getPojos().size());
     }
+
+    @Test
+    public void readPageTest() {
+        for (int i = 0; i < 5; i++) {
+            testSubject.create();
+        }
+
+        final PojoList firstPage = testSubject.readPage(null, 3);
+        Assert.assertEquals(3, firstPage.getPojos().size());
+        Assert.assertNotNull(firstPage.getCursor());
+
+        final PojoList lastPage = testSubject.readPage(firstPage.getCursor(), 3);
+        Assert.assertEquals(2, lastPage.getPojos().size());
+        Assert.assertNull(lastPage.getCursor());
+    }
+
+    @Test
+    public void readByValueRangeTest() {
+        for (int i = 0; i < 10; i++) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(9 - i);
+            testSubject.update(pojo);
+        }
+        // without value, never in range
+        testSubject.create();
+
+        final PojoList range = testSubject.readByValueRange(3, 6, 100);
+        Assert.assertEquals(Arrays.asList(3, 4, 5, 6), range.getPojos().stream().map(Pojo::getValue).collect(Collectors.toList()));
+        Assert.assertEquals(2, testSubject.readByValueRange(Integer.MIN_VALUE, Integer.MAX_VALUE, 2).getPojos().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readByValueRangeWithInvalidRangeTest() {
+        testSubject.readByValueRange(6, 3, 100);
+    }
+
+    @Test
+    public void statsTest() {
+        Assert.assertEquals(new PojoStats(0, 0, null, null), testSubject.stats());
+        for (int value : new int[]{5, -2, 9}) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(value);
+            testSubject.update(pojo);
+        }
+        final Pojo withoutValue = testSubject.create();
+        Assert.assertEquals(new PojoStats(3, 12, -2, 9), testSubject.stats());
+
+        testSubject.delete(withoutValue.getId());
+        Assert.assertEquals(new PojoStats(3, 12, -2, 9), testSubject.stats());
+    }
+
+    @Test
+    public void addToValueTest() {
+        final Pojo pojo = testSubject.create();
+        Assert.assertEquals(Integer.valueOf(3), testSubject.addToValue(pojo.getId(), 3).getPojo().getValue());
+        final PojoBatchItem updated = testSubject.addToValue(pojo.getId(), -2);
+        Assert.assertEquals(PojoBatchItem.Status.UPDATED, updated.getStatus());
+        Assert.assertEquals(Integer.valueOf(1), updated.getPojo().getValue());
+        Assert.assertEquals(Integer.valueOf(1), testSubject.read(pojo.getId()).getValue());
+        Assert.assertEquals(PojoBatchItem.Status.NOT_FOUND, testSubject.addToValue("unknown", 1).getStatus());
+    }
+
+    @Test
+    public void compareAndSetValueTest() {
+        final Pojo pojo = testSubject.create();
+        testSubject.addToValue(pojo.getId(), 5);
+
+        final PojoBatchItem updated = testSubject.compareAndSetValue(pojo.getId(), 5, 6);
+        Assert.assertEquals(PojoBatchItem.Status.UPDATED, updated.getStatus());
+        Assert.assertEquals(Integer.valueOf(6), updated.getPojo().getValue());
+        final PojoBatchItem notUpdated = testSubject.compareAndSetValue(pojo.getId(), 5, 7);
+        Assert.assertEquals(PojoBatchItem.Status.FOUND, notUpdated.getStatus());
+        Assert.assertEquals(Integer.valueOf(6), notUpdated.getPojo().getValue());
+        Assert.assertEquals(PojoBatchItem.Status.NOT_FOUND, testSubject.compareAndSetValue("unknown", 5, 6).getStatus());
+    }
 }
@@ -0,0 +1,153 @@
+package schnittstelle;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.ws.WebServiceException;
+
+/**
+ * Unit test for {@link WebservicePortPool}: bounded ports, reuse, waiting callers and counters.
+ */
+public class WebservicePortPoolTest {
+    private final AtomicInteger portNumbers = new AtomicInteger();
+
+    @Test
+    public void assertThat_releasedPort_reused() {
+        final WebservicePortPool<Port> pool = new WebservicePortPool<>(this::newPort, 2, 10);
+        final Port port = pool.borrow();
+        pool.release(port);
+
+        Assert.assertSame(port, pool.borrow());
+        Assert.assertEquals(1, pool.getCreated());
+        Assert.assertEquals(2, pool.getBorrowed());
+        Assert.assertEquals(1, pool.getInUse());
+        Assert.assertEquals(0, pool.getIdle());
+    }
+
+    @Test
+    public void assertThat_allPortsInUse_timedOut() {
+        final WebservicePortPool<Port> pool = new WebservicePortPool<>(this::newPort, 2, 10);
+        Assert.assertNotSame(pool.borrow(), pool.borrow());
+
+        Assertions.assertThatThrownBy(pool::borrow)
+                .isInstanceOf(WebServiceException.class)
+                .hasMessageContaining("all 2 in use");
+        Assert.assertEquals(2, pool.getCreated());
+        Assert.assertEquals(1, pool.getWaited());
+        Assert.assertEquals(1, pool.getTimedOut());
+    }
+
+    @Test
+    public void assertThat_waitingCaller_getsReleasedPort() throws Exception {
+        final WebservicePortPool<Port> pool = new WebservicePortPool<>(this::newPort, 1, 10_000);
+        final Port port = pool.borrow();
+
+        final ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Port> borrowed = caller.submit(pool::borrow);
+            final long deadline = System.currentTimeMillis() + 5000;
+            while (pool.getWaited() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            pool.release(port);
+            Assert.assertSame(port, borrowed.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, pool.getCreated());
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void assertThat_concurrentCalls_neverShareAPort() throws Exception {
+        final int threads = 8;
+        final WebservicePortPool<Port> pool = new WebservicePortPool<>(this::newPort, 3, 10_000);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService callers = Executors.newFixedThreadPool(threads);
+        try {
+            final Future<?>[] calls = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                calls[i] = callers.submit(() -> {
+                    start.await();
+                    for (int call = 0; call < 1000; call++) {
+                        pool.call(Port::call);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                call.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        Assert.assertTrue(pool.toString(), pool.getCreated() <= 3);
+        Assert.assertEquals(pool.toString(), threads * 1000, pool.getBorrowed());
+        Assert.assertEquals(pool.toString(), 0, pool.getInUse());
+    }
+
+    @Test
+    public void assertThat_failingFactory_freesItsSlot() {
+        final WebservicePortPool<Port> pool = new WebservicePortPool<>(() -> {
+            throw new WebServiceException("endpoint down");
+        }, 1, 10);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThatThrownBy(pool::borrow).hasMessage("endpoint down");
+        }
+        Assert.assertEquals(0, pool.getInUse());
+        Assert.assertEquals(0, pool.getTimedOut());
+    }
+
+    @Test
+    public void assertThat_close_closesIdleAndReleasedPorts() {
+        final WebservicePortPool<Port> pool = new WebservicePortPool<>(this::newPort, 2, 10);
+        final Port inUse = pool.borrow();
+        final Port idle = pool.borrow();
+        pool.release(idle);
+
+        pool.close();
+        Assert.assertTrue(idle.closed);
+        Assert.assertFalse(inUse.closed);
+        pool.release(inUse);
+        Assert.assertTrue(inUse.closed);
+        Assertions.assertThatThrownBy(pool::borrow).isInstanceOf(IllegalStateException.class);
+    }
+
+    private Port newPort() {
+        return new Port(portNumbers.incrementAndGet());
+    }
+
+    private static final class Port implements Closeable {
+        private final int number;
+        private final AtomicInteger callers = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Port(int number) {
+            this.number = number;
+        }
+
+        private int call() {
+            if (callers.incrementAndGet() > 1) {
+                throw new IllegalStateException("Port " + number + " used by two threads");
+            }
+            Thread.yield();
+            callers.decrementAndGet();
+            return number;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package schnittstelle;
+
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.common.gzip.GZIPInInterceptor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import helper.CxfServerFacade;
+import schnittstelle.store.ConcurrentPojoStore;
+
+/**
+ * Integration test of the {@link WireCompressionFeature} of {@link WebserviceEndpointImpl} and {@link WebserviceClient}: negotiated FastInfoset and
+ * gzip, same pojos, fewer bytes. Prints the wire size and time of a readAll response per encoding.
+ */
+public class WireCompressionFeatureITest {
+    private static final int POJOS = 1000;
+    private static final int ROUNDS = 20;
+    private static final String FASTINFOSET = "application/fastinfoset";
+    private static final String READ_ALL_ENVELOPE = "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>"
+            + "<ns:readAll xmlns:ns=\"http://schnittstelle/\"/></soap:Body></soap:Envelope>";
+
+    private final WebserviceEndpointImpl testSubject = new WebserviceEndpointImpl(new ConcurrentPojoStore());
+
+    private final CxfServerFacade cxfFacade = CxfServerFacade.builder()
+            .wsInstance(testSubject)
+            .wsInterface(WebserviceEndpoint.class)
+            .wsServiceQName(WebserviceEndpoint.WEBSERVICE_QNAME)
+            .localhost()
+            .randomPort()
+            .build();
+
+    @Before
+    public void beforeTest() {
+        for (int i = 0; i < POJOS; i++) {
+            final Pojo pojo = new Pojo();
+            pojo.setValue(i);
+            testSubject.update(pojo);
+        }
+        cxfFacade.startServer();
+    }
+
+    @After
+    public void afterTest() {
+        cxfFacade.teardownServer();
+    }
+
+    @Test
+    public void assertThat_negotiatedEncodings_fewerBytes() throws IOException {
+        final long xml = wireSize("text/xml", "identity");
+        final long gzip = wireSize("text/xml", "gzip");
+        final long fastInfoset = wireSize(FASTINFOSET, "identity");
+        final long fastInfosetGzip = wireSize(FASTINFOSET, "gzip");
+
+        Assert.assertTrue("gzip=" + gzip + " xml=" + xml, gzip * 3 < xml);
+        Assert.assertTrue("fastInfoset=" + fastInfoset + " xml=" + xml, fastInfoset < xml);
+        Assert.assertTrue("fastInfoset+gzip=" + fastInfosetGzip + " xml=" + xml, fastInfosetGzip * 3 < xml);
+    }
+
+    @Test
+    public void assertThat_compressingClient_fastInfosetGzipResponse() {
+        final WebserviceEndpoint proxy = client(true).proxy(WebserviceEndpoint.class);
+        final AtomicReference<String> response = recordResponseEncoding(proxy);
+
+        Assert.assertEquals(testSubject.readAll().getPojos(), proxy.readAll().getPojos());
+        Assert.assertTrue(response.get(), response.get().startsWith(FASTINFOSET + " [gzip]"));
+
+        // binary requests after the negotiation
+        final Pojo created = proxy.create();
+        Assert.assertEquals(created, proxy.read(created.getId()));
+    }
+
+    @Test
+    public void assertThat_plainClient_xmlResponse() {
+        final WebserviceEndpoint proxy = client(false).proxy(WebserviceEndpoint.class);
+        final AtomicReference<String> response = recordResponseEncoding(proxy);
+
+        Assert.assertEquals(testSubject.readAll().getPojos(), proxy.readAll().getPojos());
+        Assert.assertTrue(response.get(), response.get().startsWith("text/xml") && response.get().endsWith(" null"));
+    }
+
+    @Test
+    public void assertThat_compressingClient_streamedReadAll() {
+        Assert.assertEquals(POJOS, client(true).readAllStreamed(pojo -> { }));
+    }
+
+    private long wireSize(String accept, String acceptEncoding) throws IOException {
+        long bytes = 0;
+        long nanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = System.nanoTime();
+            final HttpURLConnection connection = (HttpURLConnection) new URL(cxfFacade.getUrl()).openConnection();
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "text/xml; charset=UTF-8");
+            connection.setRequestProperty("Accept", accept);
+            connection.setRequestProperty("Accept-Encoding", acceptEncoding);
+            try (OutputStream request = connection.getOutputStream()) {
+                request.write(READ_ALL_ENVELOPE.getBytes(StandardCharsets.UTF_8));
+            }
+            Assert.assertEquals(200, connection.getResponseCode());
+            Assert.assertTrue(connection.getContentType(), connection.getContentType().startsWith(accept));
+            Assert.assertEquals("gzip".equals(acceptEncoding) ? "gzip" : null, connection.getContentEncoding());
+            try (InputStream response = connection.getInputStream()) {
+                bytes = response.readAllBytes().length;
+            }
+            // first rounds warm up
+            if (round >= ROUNDS / 2) {
+                nanos += System.nanoTime() - start;
+            }
+        }
+        System.out.printf("readAll of %d pojos, Accept: %s, Accept-Encoding: %s -> %d bytes, %.2f ms%n", POJOS, accept, acceptEncoding, bytes,
+                nanos / 1e6 / (ROUNDS - ROUNDS / 2));
+        return bytes;
+    }
+
+    private WebserviceClient client(boolean wireCompression) {
+        return WebserviceClient.builder()
+                .endpoint(cxfFacade.getUrl())
+                .classpathWsdl(WebserviceEndpoint.WSDL_RESOURCE)
+                .webservice(WebserviceEndpoint.WEBSERVICE_QNAME)
+                .wireCompression(wireCompression)
+                .build();
+    }
+
+    /**
+     * @return "content type + content encoding" of the last response as received
+     */
+    private static AtomicReference<String> recordResponseEncoding(Object proxy) {
+        final AtomicReference<String> response = new AtomicReference<>();
+        ClientProxy.getClient(proxy).getInInterceptors().add(new AbstractPhaseInterceptor<Message>(Phase.RECEIVE) {
+            {
+                // gzip removes its header
+                addBefore(GZIPInInterceptor.class.getName());
+            }
+
+            @Override
+            public void handleMessage(Message message) {
+                @SuppressWarnings("unchecked") final Map<String, List<String>> headers = (Map<String, List<String>>) message.get(Message.PROTOCOL_HEADERS);
+                response.set(message.get(Message.CONTENT_TYPE) + " " + headers.get("Content-Encoding"));
+            }
+        });
+        return response;
+    }
+}